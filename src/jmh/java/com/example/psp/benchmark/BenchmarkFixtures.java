@@ -0,0 +1,116 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.config.properties.InMemoryRepositoryProperties;
+import com.example.psp.config.properties.TransactionCacheProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.repository.transaction.TransactionRepository;
+import com.example.psp.repository.transaction.impl.InMemoryTransactionRepositoryImpl;
+import com.example.psp.service.acquirer.impl.AcquirerA;
+import com.example.psp.service.acquirer.impl.AcquirerB;
+import com.example.psp.service.acquirer.impl.AcquirerRouterImpl;
+import com.example.psp.service.acquirer.routing.RoutingRuleParser;
+import com.example.psp.service.acquirer.routing.RoutingTable;
+import com.example.psp.service.transaction.impl.PaymentMetrics;
+import com.example.psp.service.transaction.impl.TransactionCache;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Shared inputs for the benchmarks, built the same way the request path builds them.
+ */
+final class BenchmarkFixtures {
+
+    static final Clock CLOCK = Clock.systemUTC();
+    static final String PAN = "4242424242424242";
+    static final String MERCHANT_ID = "MERCHANT_001";
+    static final byte[] REQUEST_JSON = """
+            {
+              "cardNumber": "4532015112830366",
+              "expiry": "12/39",
+              "cvv": "123",
+              "amount": 99.99,
+              "currencyCode": "USD",
+              "merchantId": "MERCHANT_001"
+            }
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private BenchmarkFixtures() {
+    }
+
+    static CardDetails card() {
+        return CardDetails.builder()
+                .cardNumber(PAN)
+                .cvv("123")
+                .expiryDate(YearMonth.now(CLOCK).plusYears(1))
+                .clock(CLOCK)
+                .build();
+    }
+
+    static Money money() {
+        return Money.parse("99.99", CurrencyUnit.of("USD"));
+    }
+
+    static PaymentRequest paymentRequest() {
+        return PaymentRequest.builder()
+                .card(card())
+                .money(money())
+                .merchantId(MERCHANT_ID)
+                .build();
+    }
+
+    /**
+     * @return the routing table compiled from the rules shipped with the application
+     */
+    static RoutingTable routingTable() {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                BenchmarkFixtures.class.getClassLoader().getResourceAsStream("routing/rules.csv")), StandardCharsets.UTF_8)) {
+            return RoutingTable.compile(RoutingRuleParser.parse(reader), AcquirerType.ACQUIRER_A);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static AcquirerRouterImpl router() {
+        return router(routingTable());
+    }
+
+    static AcquirerRouterImpl router(RoutingTable table) {
+        return new AcquirerRouterImpl(List.of(new AcquirerA(), new AcquirerB()), () -> table);
+    }
+
+    /**
+     * @return an in-memory repository with the default capacity and no snapshots
+     */
+    static InMemoryTransactionRepositoryImpl inMemoryRepository() {
+        return new InMemoryTransactionRepositoryImpl(new InMemoryRepositoryProperties(1_000_000, Duration.ofHours(24),
+                Duration.ofSeconds(10), null, Duration.ofMinutes(1)), CLOCK);
+    }
+
+    static TransactionCache transactionCache(TransactionRepository repository) {
+        return new TransactionCache(repository, new TransactionCacheProperties(100_000, Duration.ofMinutes(10)),
+                new SimpleMeterRegistry());
+    }
+
+    static PaymentMetrics paymentMetrics() {
+        return new PaymentMetrics(new SimpleMeterRegistry());
+    }
+
+    static Transaction transaction() {
+        return Transaction.initialize(card(), money(), MERCHANT_ID, CLOCK);
+    }
+}
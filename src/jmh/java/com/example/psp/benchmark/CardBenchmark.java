@@ -0,0 +1,66 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import com.example.psp.shared.CardValidation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Card validation and card value object creation, executed on every payment request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+
+    private String pan;
+    private YearMonth expiry;
+    private CardDetails card;
+
+    @Setup
+    public void setUp() {
+        pan = BenchmarkFixtures.PAN;
+        expiry = YearMonth.now(BenchmarkFixtures.CLOCK).plusYears(1);
+        card = BenchmarkFixtures.card();
+    }
+
+    @Benchmark
+    public boolean isValidPan() {
+        return CardValidation.isValidPan(pan);
+    }
+
+    @Benchmark
+    public boolean isValidLuhn() {
+        return CardValidation.isValidLuhn(pan);
+    }
+
+    @Benchmark
+    public CardDetails createCardDetails() {
+        return CardDetails.builder()
+                .cardNumber(pan)
+                .cvv("123")
+                .expiryDate(expiry)
+                .clock(BenchmarkFixtures.CLOCK)
+                .build();
+    }
+
+    @Benchmark
+    public StoredCardInfo storedCardInfo() {
+        return StoredCardInfo.of(card);
+    }
+}
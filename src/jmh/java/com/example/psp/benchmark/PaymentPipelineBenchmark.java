@@ -0,0 +1,144 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.config.properties.PaymentPipelineProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.intent.PaymentIntentLog;
+import com.example.psp.repository.intent.impl.FilePaymentIntentLog;
+import com.example.psp.repository.transaction.TransactionRepository;
+import com.example.psp.service.transaction.impl.TransactionServiceImpl;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the standard payment pipeline (PENDING insert + status update) with the single-write pipeline
+ * (intent record + one insert with the final status).
+ * <p>
+ * The repository simulates a database round trip of {@code writeLatencyMicros} per statement,
+ * the intent log writes to a real file with or without fsync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentPipelineBenchmark {
+
+    @Param({"STANDARD", "SINGLE_WRITE"})
+    public PaymentPipelineProperties.Mode mode;
+
+    @Param({"0", "250"})
+    public long writeLatencyMicros;
+
+    @Param({"true", "false"})
+    public boolean intentSync;
+
+    private Path directory;
+    private FilePaymentIntentLog intentLog;
+    private CountingTransactionRepository repository;
+    private TransactionServiceImpl service;
+    private PaymentRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("psp-pipeline-bench");
+        repository = new CountingTransactionRepository(BenchmarkFixtures.inMemoryRepository(), writeLatencyMicros);
+
+        Optional<PaymentIntentLog> journal = Optional.empty();
+        if (mode == PaymentPipelineProperties.Mode.SINGLE_WRITE) {
+            intentLog = new FilePaymentIntentLog(new PaymentPipelineProperties(mode,
+                    new PaymentPipelineProperties.IntentLog(directory.resolve("intents.log"), intentSync, DataSize.ofMegabytes(64))));
+            journal = Optional.of(intentLog);
+        }
+
+        service = new TransactionServiceImpl(BenchmarkFixtures.CLOCK, repository,
+                BenchmarkFixtures.router(), BenchmarkFixtures.transactionCache(repository), BenchmarkFixtures.paymentMetrics(), journal,
+                Optional.empty(), Optional.empty());
+
+        request = BenchmarkFixtures.paymentRequest();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (intentLog != null) {
+            intentLog.destroy();
+        }
+        FileSystemUtils.deleteRecursively(directory);
+        System.out.printf("%n[%s] repository writes per payment: %.2f%n", mode, repository.writesPerPayment());
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        repository.payments.incrementAndGet();
+        return service.processPayment(request).block();
+    }
+
+    /**
+     * Delegating repository that blocks for the configured latency on every write and counts the writes.
+     */
+    static final class CountingTransactionRepository implements TransactionRepository {
+
+        private final TransactionRepository delegate;
+        private final long latencyNanos;
+        private final AtomicLong writes = new AtomicLong();
+        private final AtomicLong payments = new AtomicLong();
+
+        CountingTransactionRepository(TransactionRepository delegate, long latencyMicros) {
+            this.delegate = delegate;
+            this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        }
+
+        @Override
+        public Mono<Transaction> save(Transaction transaction) {
+            return roundTrip().then(delegate.save(transaction));
+        }
+
+        @Override
+        public Mono<Transaction> update(Transaction transaction) {
+            return roundTrip().then(delegate.update(transaction));
+        }
+
+        @Override
+        public Mono<Transaction> findById(UUID id) {
+            return delegate.findById(id);
+        }
+
+        double writesPerPayment() {
+            return payments.get() == 0 ? 0 : (double) writes.get() / payments.get();
+        }
+
+        private Mono<Void> roundTrip() {
+            return Mono.fromRunnable(() -> {
+                writes.incrementAndGet();
+                if (latencyNanos > 0) {
+                    LockSupport.parkNanos(latencyNanos);
+                }
+            });
+        }
+    }
+}
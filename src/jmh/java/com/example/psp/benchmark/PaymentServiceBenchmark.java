@@ -0,0 +1,51 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.service.transaction.impl.TransactionServiceImpl;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.example.psp.service.transaction.ports.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full payment processing over the in-memory repository: the CPU and allocation cost of the pipeline
+ * without any database latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    private TransactionService service;
+    private PaymentRequest request;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // A fresh repository per iteration keeps evictions of the bounded in-memory store out of the measurement
+        var repository = BenchmarkFixtures.inMemoryRepository();
+        service = new TransactionServiceImpl(BenchmarkFixtures.CLOCK, repository,
+                BenchmarkFixtures.router(), BenchmarkFixtures.transactionCache(repository), BenchmarkFixtures.paymentMetrics(), Optional.empty(),
+                Optional.empty(), Optional.empty());
+        request = BenchmarkFixtures.paymentRequest();
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        return service.processPayment(request).block();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.service.acquirer.ports.Acquirer;
+import com.example.psp.service.acquirer.ports.AcquirerRouter;
+import com.example.psp.service.acquirer.routing.RoutingRule;
+import com.example.psp.service.acquirer.routing.RoutingTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acquirer selection: the raw routing table lookup and the router including the Mono wrapping used by the service.
+ * <p>
+ * Generated tables contain {@code ruleCount} BIN range rules, a tenth of them restricted by currency and
+ * amount band and a tenth of them merchant overrides. In the {@code disjoint} layout global rules barely overlap; in
+ * the {@code overlapping} layout every BIN is covered by about 16 rules, most of them restricted to a currency or an
+ * amount band the benchmarked payment does not match, in front of a wildcard rule over all BINs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final int LOOKUP_KEYS = 1024;
+
+    @Param({"4", "1000", "50000"})
+    public int ruleCount;
+
+    @Param({"disjoint", "overlapping"})
+    public String layout;
+
+    private RoutingTable table;
+    private AcquirerRouter router;
+    private CardDetails card;
+    private Money money;
+    private int[] bins;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // The smallest size benchmarks the rules shipped with the application
+        boolean overlapping = layout.equals("overlapping");
+        table = ruleCount <= 4 && !overlapping ? BenchmarkFixtures.routingTable() : generate(ruleCount, overlapping);
+        router = BenchmarkFixtures.router(table);
+        card = BenchmarkFixtures.card();
+        money = BenchmarkFixtures.money();
+
+        SplittableRandom random = new SplittableRandom(42);
+        bins = new int[LOOKUP_KEYS];
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] = random.nextInt(400000, 560000);
+        }
+    }
+
+    @Benchmark
+    public AcquirerType routeTable() {
+        int bin = bins[next++ & (LOOKUP_KEYS - 1)];
+        return table.route(bin, money, BenchmarkFixtures.MERCHANT_ID);
+    }
+
+    @Benchmark
+    public Acquirer getAcquirer() {
+        return router.getAcquirer(card, money, BenchmarkFixtures.MERCHANT_ID).block();
+    }
+
+    private static RoutingTable generate(int count, boolean overlapping) {
+        SplittableRandom random = new SplittableRandom(7);
+        AcquirerType[] acquirers = AcquirerType.values();
+        List<RoutingRule> rules = new ArrayList<>(count + 1);
+        int width = Math.max(1, 600000 / count);
+        for (int i = 0; i < count; i++) {
+            int from = 400000 + (i * width) % 600000;
+            AcquirerType acquirer = acquirers[random.nextInt(acquirers.length)];
+            if (i % 10 == 0) {
+                rules.add(new RoutingRule(50, from, from + width * 4 - 1, "EUR", new BigDecimal("500.00"), null, null, acquirer));
+            } else if (i % 10 == 1) {
+                rules.add(new RoutingRule(100, from, from + width - 1, null, null, null, "MERCHANT_" + i, acquirer));
+            } else if (!overlapping) {
+                rules.add(new RoutingRule(100, from, from + width - 1, null, null, null, null, acquirer));
+            } else if (i % 2 == 0) {
+                rules.add(new RoutingRule(100, from, from + width * 16 - 1, "EUR", null, null, null, acquirer));
+            } else {
+                rules.add(new RoutingRule(100, from, from + width * 16 - 1, null, new BigDecimal("1000.00"), null, null, acquirer));
+            }
+        }
+        if (overlapping) {
+            rules.add(new RoutingRule(1000, 0, 999999, null, null, null, null, AcquirerType.ACQUIRER_B));
+        }
+        return RoutingTable.compile(rules, AcquirerType.ACQUIRER_A);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.transaction.impl.TransactionDBModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between the domain transaction and its database model, done twice per payment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMappingBenchmark {
+
+    private Transaction transaction;
+    private TransactionDBModel dbModel;
+
+    @Setup
+    public void setUp() {
+        transaction = BenchmarkFixtures.transaction();
+        dbModel = TransactionDBModel.fromDomain(transaction, true);
+    }
+
+    @Benchmark
+    public TransactionDBModel fromDomain() {
+        return TransactionDBModel.fromDomain(transaction, true);
+    }
+
+    @Benchmark
+    public Transaction toDomain() {
+        return dbModel.toDomain();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.psp.benchmark;
+
+import com.example.psp.PspApplication;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerDecision;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.repository.transaction.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Spring Data repository ({@code r2dbc}) with the hand-written SQL repository ({@code sql})
+ * against a real PostgreSQL started with Testcontainers.
+ * <p>
+ * Each repository runs inside the application context with its production configuration (connection pool,
+ * Liquibase schema), so the numbers include the driver round trip that both implementations share.
+ * Requires a running Docker daemon.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionRepositoryBenchmark {
+
+    @Param({"r2dbc", "sql"})
+    public String mode;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionRepository repository;
+    private UUID existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:latest");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(PspApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "psp.repository.mode=" + mode,
+                        "spring.r2dbc.url=r2dbc:postgresql://" + postgres.getHost() + ":"
+                                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName(),
+                        "spring.r2dbc.username=" + postgres.getUsername(),
+                        "spring.r2dbc.password=" + postgres.getPassword(),
+                        "spring.liquibase.url=" + postgres.getJdbcUrl(),
+                        "spring.liquibase.user=" + postgres.getUsername(),
+                        "spring.liquibase.password=" + postgres.getPassword(),
+                        "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(TransactionRepository.class);
+
+        Transaction existing = BenchmarkFixtures.transaction();
+        existing.updateStatus(AcquirerDecision.APPROVED, AcquirerType.ACQUIRER_A, BenchmarkFixtures.CLOCK);
+        existingId = repository.save(existing).block().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    /**
+     * The two writes of a standard payment: the PENDING insert and the status update.
+     */
+    @Benchmark
+    public Transaction saveAndUpdate() {
+        Transaction transaction = repository.save(BenchmarkFixtures.transaction()).block();
+        transaction.updateStatus(AcquirerDecision.APPROVED, AcquirerType.ACQUIRER_A, BenchmarkFixtures.CLOCK);
+        return repository.update(transaction).block();
+    }
+
+    @Benchmark
+    public Transaction findById() {
+        return repository.findById(existingId).block();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.psp.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends payment requests at a fixed arrival rate on a non-blocking HTTP client (open model).
+ * <p>
+ * Every request has an intended send time on a fixed schedule and its latency is measured from that time, not from
+ * when it was actually sent. A stall of the service, the connection pool or the sender itself therefore shows up in
+ * the latency of every request that should have been sent meanwhile, instead of silently lowering the offered load
+ * (coordinated omission). Latencies are recorded in microseconds into HdrHistograms.
+ */
+final class LoadGenerator {
+
+    static final int OK = 0;
+    static final int CLIENT_ERROR = 1;
+    static final int RATE_LIMITED = 2;
+    static final int SERVER_ERROR = 3;
+    static final int SHED = 4;
+    static final int FAILED = 5;
+    static final String[] OUTCOMES = {"2xx", "4xx", "429", "5xx", "503", "failed"};
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestOptions options;
+    private final PaymentWorkload workload;
+    private final ConnectionProvider connections;
+    private final LoopResources loops;
+    private final HttpClient client;
+
+    // All responses for the progress lines, and only those sent after the warm-up for the result
+    private final Recorder progress = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+    private final Recorder measured = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+    private final AtomicLongArray outcomes = new AtomicLongArray(OUTCOMES.length);
+    private final AtomicLong inFlight = new AtomicLong();
+
+    LoadGenerator(LoadTestOptions options, PaymentWorkload workload, int port) {
+        this.options = options;
+        this.workload = workload;
+        this.connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(options.connections())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(options.timeout())
+                .build();
+        this.loops = LoopResources.create("loadtest", options.clientThreads(), true);
+        this.client = HttpClient.create(connections)
+                .runOn(loops)
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(options.timeout())
+                .headers(headers -> headers
+                        .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                        .set(HttpHeaderNames.ACCEPT, HttpHeaderValues.APPLICATION_JSON));
+    }
+
+    /**
+     * Sends requests for the configured duration on the calling thread, printing a progress line every second,
+     * and waits for the outstanding responses.
+     *
+     * @return the latencies of the requests sent after the warm-up
+     */
+    Histogram run() throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long warmUpEnd = start + options.warmUp().toNanos();
+        long end = start + options.duration().toNanos();
+        long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        Histogram interval = null;
+
+        for (long i = 0; ; i++) {
+            long intended = start + Math.round(i * intervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(intended, intended - warmUpEnd >= 0);
+
+            if (System.nanoTime() - nextReport >= 0) {
+                interval = progress.getIntervalHistogram(interval);
+                report(interval, nextReport - start);
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+
+        long drainDeadline = System.nanoTime() + options.timeout().toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(10);
+        }
+        return measured.getIntervalHistogram();
+    }
+
+    long outcome(int outcome) {
+        return outcomes.get(outcome);
+    }
+
+    void close() {
+        connections.dispose();
+        loops.dispose();
+    }
+
+    private void send(long intended, boolean afterWarmUp) {
+        inFlight.incrementAndGet();
+        client.post()
+                .uri("/api/v1/transactions")
+                .send((request, outbound) -> outbound.sendByteArray(Mono.just(workload.next())))
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                .subscribe(
+                        status -> complete(intended, afterWarmUp, classify(status)),
+                        error -> complete(intended, afterWarmUp, FAILED));
+    }
+
+    private void complete(long intended, boolean afterWarmUp, int outcome) {
+        inFlight.decrementAndGet();
+        long micros = Math.clamp(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended), 1, HIGHEST_LATENCY_MICROS);
+        progress.recordValue(micros);
+        if (afterWarmUp) {
+            measured.recordValue(micros);
+            outcomes.incrementAndGet(outcome);
+        }
+    }
+
+    private void report(Histogram interval, long elapsedNanos) {
+        System.out.printf("%4ds  %7d responses/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms  in flight %d%n",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos),
+                interval.getTotalCount(),
+                interval.getValueAtPercentile(50) / 1000.0,
+                interval.getValueAtPercentile(99) / 1000.0,
+                interval.getMaxValue() / 1000.0,
+                inFlight.get());
+    }
+
+    private static int classify(int status) {
+        if (status == 429) {
+            return RATE_LIMITED;
+        }
+        if (status == 503) {
+            return SHED;
+        }
+        if (status >= 500) {
+            return SERVER_ERROR;
+        }
+        return status >= 400 ? CLIENT_ERROR : OK;
+    }
+}
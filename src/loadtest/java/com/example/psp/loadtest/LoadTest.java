@@ -0,0 +1,111 @@
+package com.example.psp.loadtest;
+
+import com.example.psp.PspApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Capacity test of {@code POST /api/v1/transactions}: starts the application in this JVM, against the in-memory
+ * repository or a PostgreSQL started with Testcontainers, and drives it with {@link LoadGenerator}.
+ * <p>
+ * The client runs on its own small event loop in the same process, so its CPU share is part of the measurement;
+ * compare runs with the same {@code --client-threads} on the same machine. The per-merchant rate limit is disabled
+ * unless enabled with {@code --psp.rate-limit.enabled=true}, the adaptive concurrency limit stays on.
+ * Run with {@code ./gradlew loadTest -PloadTestArgs="--rate=2000 --duration=60s --repository=postgres"}.
+ */
+public final class LoadTest {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "p99.99"};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        PaymentWorkload workload = new PaymentWorkload(options.merchants(), options.invalidRatio(), options.seed());
+
+        PostgreSQLContainer<?> postgres = null;
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("logging.level.root", "WARN");
+        properties.put("psp.rate-limit.enabled", false);
+        if (options.repository().equals("postgres")) {
+            postgres = new PostgreSQLContainer<>("postgres:latest");
+            postgres.start();
+            properties.put("spring.r2dbc.url", "r2dbc:postgresql://" + postgres.getHost() + ":"
+                    + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName());
+            properties.put("spring.r2dbc.username", postgres.getUsername());
+            properties.put("spring.r2dbc.password", postgres.getPassword());
+            properties.put("spring.liquibase.url", postgres.getJdbcUrl());
+            properties.put("spring.liquibase.user", postgres.getUsername());
+            properties.put("spring.liquibase.password", postgres.getPassword());
+        } else {
+            properties.put("spring.profiles.active", "memory");
+        }
+        properties.putAll(options.properties());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PspApplication.class)
+                .properties(properties)
+                .run();
+        LoadGenerator generator = null;
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            generator = new LoadGenerator(options, workload, port);
+            System.out.printf(Locale.ROOT, "Offering %.0f req/s for %s (warm-up %s) against the %s repository%n",
+                    options.rate(), options.duration(), options.warmUp(), options.repository());
+
+            Histogram latencies = generator.run();
+            report(options, generator, latencies);
+        } finally {
+            if (generator != null) {
+                generator.close();
+            }
+            context.close();
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static void report(LoadTestOptions options, LoadGenerator generator, Histogram latencies) throws IOException {
+        double seconds = (options.duration().toNanos() - options.warmUp().toNanos()) / 1e9;
+        double throughput = generator.outcome(LoadGenerator.OK) / seconds;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Offered      %.0f req/s%n", options.rate());
+        System.out.printf(Locale.ROOT, "Throughput   %.1f successful req/s, %.1f per core (%d cores)%n", throughput, throughput / cores, cores);
+        StringBuilder outcomes = new StringBuilder("Responses   ");
+        for (int i = 0; i < LoadGenerator.OUTCOMES.length; i++) {
+            outcomes.append(' ').append(LoadGenerator.OUTCOMES[i]).append('=').append(generator.outcome(i));
+        }
+        System.out.println(outcomes);
+        StringBuilder percentiles = new StringBuilder("Latency ms  ");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles.append(String.format(Locale.ROOT, " %s=%.2f", PERCENTILE_LABELS[i],
+                    latencies.getValueAtPercentile(PERCENTILES[i]) / 1000.0));
+        }
+        percentiles.append(String.format(Locale.ROOT, " max=%.2f", latencies.getMaxValue() / 1000.0));
+        System.out.println(percentiles);
+
+        Files.createDirectories(options.output());
+        Path histogram = options.output().resolve(String.format(Locale.ROOT, "latency-%s-%.0f.hgrm", options.repository(), options.rate()));
+        try (PrintStream out = new PrintStream(Files.newOutputStream(histogram))) {
+            // Scaled to milliseconds, can be plotted with the HdrHistogram plotter
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+        System.out.println("Latency distribution written to " + histogram);
+    }
+}
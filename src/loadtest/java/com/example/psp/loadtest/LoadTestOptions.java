@@ -0,0 +1,89 @@
+package com.example.psp.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as {@code --name=value}.
+ * Options starting with {@code --psp.} or {@code --spring.} are passed to the application as properties.
+ *
+ * @param rate          requests per second sent regardless of how fast responses arrive (open model)
+ * @param duration      how long requests are sent, including the warm-up
+ * @param warmUp        initial period whose requests are sent but not reported
+ * @param repository    {@code memory} or {@code postgres} (Testcontainers, needs Docker)
+ * @param connections   maximum number of HTTP connections of the client
+ * @param clientThreads event loop threads of the client
+ * @param timeout       response timeout, a timed out request counts as an error
+ * @param merchants     number of distinct merchants
+ * @param invalidRatio  share of requests with a card number failing the Luhn check
+ * @param seed          seed of the generated workload, the same seed sends the same requests
+ * @param output        directory the latency histograms are written to
+ * @param properties    application properties overriding the load test defaults
+ */
+record LoadTestOptions(
+        double rate,
+        Duration duration,
+        Duration warmUp,
+        String repository,
+        int connections,
+        int clientThreads,
+        Duration timeout,
+        int merchants,
+        double invalidRatio,
+        long seed,
+        Path output,
+        Map<String, String> properties
+) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            if (name.startsWith("psp.") || name.startsWith("spring.")) {
+                properties.put(name, value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        LoadTestOptions parsed = new LoadTestOptions(
+                Double.parseDouble(take(options, "rate", "1000")),
+                DurationStyle.detectAndParse(take(options, "duration", "60s")),
+                DurationStyle.detectAndParse(take(options, "warm-up", "10s")),
+                take(options, "repository", "memory"),
+                Integer.parseInt(take(options, "connections", "512")),
+                Integer.parseInt(take(options, "client-threads", "2")),
+                DurationStyle.detectAndParse(take(options, "timeout", "10s")),
+                Integer.parseInt(take(options, "merchants", "1000")),
+                Double.parseDouble(take(options, "invalid-ratio", "0.005")),
+                Long.parseLong(take(options, "seed", "42")),
+                Path.of(take(options, "output", "build/loadtest")),
+                properties
+        );
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        if (!parsed.repository.equals("memory") && !parsed.repository.equals("postgres")) {
+            throw new IllegalArgumentException("--repository must be memory or postgres");
+        }
+        if (parsed.rate <= 0 || parsed.warmUp.compareTo(parsed.duration) >= 0) {
+            throw new IllegalArgumentException("--rate must be positive and --warm-up shorter than --duration");
+        }
+        return parsed;
+    }
+
+    private static String take(Map<String, String> options, String name, String defaultValue) {
+        String value = options.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
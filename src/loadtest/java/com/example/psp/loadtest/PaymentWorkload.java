@@ -0,0 +1,153 @@
+package com.example.psp.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Pre-generated payment request bodies with realistic distributions, so building a request costs nothing while
+ * the load is measured.
+ * <p>
+ * Card networks are weighted by market share and the BINs of each network by a Zipf distribution, as a few issuers
+ * hold most cards. Merchants follow a Zipf distribution as well, amounts a log-normal one around a typical basket,
+ * and currencies (including the zero-decimal JPY) are weighted. A small share of card numbers fails the Luhn check
+ * like mistyped cards do. The same seed always produces the same requests.
+ */
+final class PaymentWorkload {
+
+    private static final int SIZE = 1 << 16;
+    private static final int BINS_PER_NETWORK = 200;
+
+    // Weight, first and last BIN of each card network
+    private static final Network[] NETWORKS = {
+            new Network(55, 400000, 499999),   // Visa
+            new Network(30, 510000, 559999),   // Mastercard
+            new Network(10, 222100, 272099),   // Mastercard 2-series
+            new Network(5, 601100, 601199)     // Discover, routed to the default acquirer
+    };
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY"};
+    private static final int[] CURRENCY_WEIGHTS = {60, 25, 10, 5};
+
+    private final byte[][] bodies = new byte[SIZE][];
+    private int next;
+
+    PaymentWorkload(int merchants, double invalidRatio, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] bins = new int[NETWORKS.length][BINS_PER_NETWORK];
+        for (int n = 0; n < NETWORKS.length; n++) {
+            for (int i = 0; i < BINS_PER_NETWORK; i++) {
+                bins[n][i] = random.nextInt(NETWORKS[n].binFrom(), NETWORKS[n].binTo() + 1);
+            }
+        }
+        Zipf binRank = new Zipf(BINS_PER_NETWORK, 1.0);
+        Zipf merchantRank = new Zipf(merchants, 1.1);
+        YearMonth now = YearMonth.now();
+
+        for (int i = 0; i < SIZE; i++) {
+            int network = weighted(random, NETWORKS.length, n -> NETWORKS[n].weight());
+            String pan = cardNumber(random, bins[network][binRank.sample(random)], random.nextDouble() < invalidRatio);
+            YearMonth expiry = now.plusMonths(1 + random.nextInt(60));
+            String currency = CURRENCIES[weighted(random, CURRENCIES.length, c -> CURRENCY_WEIGHTS[c])];
+            String merchantId = String.format(Locale.ROOT, "MERCHANT_%05d", merchantRank.sample(random));
+
+            bodies[i] = ("{\"cardNumber\":\"" + pan
+                    + "\",\"expiry\":\"" + String.format(Locale.ROOT, "%02d/%02d", expiry.getMonthValue(), expiry.getYear() % 100)
+                    + "\",\"cvv\":\"" + String.format(Locale.ROOT, "%03d", random.nextInt(1000))
+                    + "\",\"amount\":" + amount(random, currency)
+                    + ",\"currencyCode\":\"" + currency
+                    + "\",\"merchantId\":\"" + merchantId + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @return the next request body, cycling through the pre-generated ones; called from the sending thread only
+     */
+    byte[] next() {
+        byte[] body = bodies[next];
+        next = (next + 1) & (SIZE - 1);
+        return body;
+    }
+
+    private static String cardNumber(SplittableRandom random, int bin, boolean invalid) {
+        StringBuilder pan = new StringBuilder(16).append(bin);
+        while (pan.length() < 15) {
+            pan.append((char) ('0' + random.nextInt(10)));
+        }
+        int check = luhnCheckDigit(pan);
+        return pan.append((char) ('0' + (invalid ? (check + 1) % 10 : check))).toString();
+    }
+
+    private static int luhnCheckDigit(CharSequence payload) {
+        int sum = 0;
+        for (int i = payload.length() - 1, position = 0; i >= 0; i--, position++) {
+            int digit = payload.charAt(i) - '0';
+            if ((position & 1) == 0) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Log-normal amount with a median of 40 major units (4000 for JPY), within the limits the API accepts.
+     */
+    private static String amount(SplittableRandom random, String currency) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double major = 40 * Math.exp(1.2 * gaussian);
+        if (currency.equals("JPY")) {
+            return Long.toString(Math.clamp(Math.round(major * 100), 1, 999_999));
+        }
+        long minor = Math.clamp(Math.round(major * 100), 1, 99_999_999);
+        return String.format(Locale.ROOT, "%d.%02d", minor / 100, minor % 100);
+    }
+
+    private static int weighted(SplittableRandom random, int count, IntUnaryOperator weight) {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += weight.applyAsInt(i);
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < count; i++) {
+            pick -= weight.applyAsInt(i);
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return count - 1;
+    }
+
+    private record Network(int weight, int binFrom, int binTo) {
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to {@code 1 / (rank + 1)^exponent}.
+     */
+    private static final class Zipf {
+
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.psp.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.startupcheck.OneShotStartupCheckStrategy;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup benchmark of the application images: starts each image variant against a PostgreSQL started with
+ * Testcontainers and measures the time from starting its container to the first successful
+ * {@code POST /api/v1/transactions}, which is what an autoscaler waits for.
+ * <p>
+ * The images are built from the Dockerfile targets beforehand, e.g. {@code docker build --target jvm -t psp:jvm .}
+ * for the plain start running migrations, {@code --target fast-start} for AOT with AppCDS and {@code --target native}.
+ * Migrations are applied once with the DatabaseMigration command of the migration image before the first start, so
+ * every run of the plain image finds an up-to-date schema, as it would in a rollout.
+ * Run with {@code ./gradlew startupBenchmark -PstartupBenchmarkArgs="--images=jvm=psp:jvm,fast-start=psp:fast-start,native=psp:native --runs=5"}.
+ */
+public final class StartupBenchmark {
+
+    private static final int PORT = 8080;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        Map<String, String> images = images(options.getOrDefault("images",
+                "jvm=psp:jvm,fast-start=psp:fast-start"));
+        String migrationImage = options.getOrDefault("migration-image", "psp:fast-start");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Duration timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "120s"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        byte[] payment = new PaymentWorkload(1, 0, 42).next();
+        try (Network network = Network.newNetwork();
+             PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.4")) {
+            postgres.withNetwork(network).withNetworkAliases("db").start();
+            Map<String, String> environment = Map.of(
+                    "DB_HOST", "db",
+                    "DB_PORT", Integer.toString(PostgreSQLContainer.POSTGRESQL_PORT),
+                    "DB_NAME", postgres.getDatabaseName(),
+                    "DB_USERNAME", postgres.getUsername(),
+                    "DB_PASSWORD", postgres.getPassword());
+            migrate(migrationImage, network, environment, timeout);
+
+            System.out.printf(Locale.ROOT, "%-12s %10s %10s %10s%n", "Variant", "min ms", "median ms", "max ms");
+            for (Map.Entry<String, String> image : images.entrySet()) {
+                long[] millis = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    millis[run] = timeToFirstPayment(image.getValue(), network, environment, client, payment, timeout);
+                }
+                Arrays.sort(millis);
+                System.out.printf(Locale.ROOT, "%-12s %10d %10d %10d%n",
+                        image.getKey(), millis[0], millis[runs / 2], millis[runs - 1]);
+            }
+        }
+    }
+
+    private static void migrate(String image, Network network, Map<String, String> environment, Duration timeout) {
+        try (GenericContainer<?> migration = new GenericContainer<>(image)) {
+            migration.withNetwork(network)
+                    .withEnv(environment)
+                    .withCreateContainerCmdModifier(command -> command.withEntrypoint(
+                            "java", "-cp", "app.jar", "com.example.psp.migration.DatabaseMigration"))
+                    .withStartupCheckStrategy(new OneShotStartupCheckStrategy().withTimeout(timeout))
+                    .start();
+        }
+    }
+
+    /**
+     * Starts a container of the image and sends the same payment until it succeeds.
+     *
+     * @return milliseconds from starting the container to the first successful payment
+     */
+    private static long timeToFirstPayment(String image, Network network, Map<String, String> environment,
+                                           HttpClient client, byte[] payment, Duration timeout) throws InterruptedException {
+        try (GenericContainer<?> application = new GenericContainer<>(image)) {
+            application.withNetwork(network)
+                    .withEnv(environment)
+                    .withExposedPorts(PORT)
+                    // Readiness is what is measured, the container is only started
+                    .waitingFor(new AbstractWaitStrategy() {
+                        @Override
+                        protected void waitUntilReady() {
+                        }
+                    });
+            long start = System.nanoTime();
+            application.start();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + application.getHost() + ":"
+                            + application.getMappedPort(PORT) + "/api/v1/transactions"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(5))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payment))
+                    .build();
+            while (System.nanoTime() - start < timeout.toNanos()) {
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException(image + " did not process a payment within " + timeout);
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        if (!Set.of("images", "migration-image", "runs", "timeout").containsAll(options.keySet())) {
+            throw new IllegalArgumentException("Known options are --images, --migration-image, --runs and --timeout");
+        }
+        return options;
+    }
+
+    /**
+     * @return the images by variant name, given as {@code name=image,name=image}
+     */
+    private static Map<String, String> images(String list) {
+        Map<String, String> images = new LinkedHashMap<>();
+        for (String entry : list.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected --images=name=image,... but got " + list);
+            }
+            images.put(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+        return images;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.psp.api.codec;
+
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.NonNull;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes a {@link PaymentResponse} with the generator of a Jackson format, in the shape of
+ * {@link com.example.psp.api.dto.transaction.TransactionResponseDto}, without an intermediate DTO or databinding.
+ * <p>
+ * Field names and statuses are encoded once, and the transaction id is written as its ASCII bytes
+ * instead of a string.
+ */
+public class PaymentResponseEncoder extends AbstractEncoder<PaymentResponse> {
+
+    private static final int INITIAL_CAPACITY = 160;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final SerializableString TRANSACTION_ID = new SerializedString("transactionId");
+    private static final SerializableString TRANSACTION_STATUS = new SerializedString("transactionStatus");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final Map<TransactionStatus, SerializableString> STATUSES = new EnumMap<>(TransactionStatus.class);
+
+    static {
+        for (TransactionStatus status : TransactionStatus.values()) {
+            STATUSES.put(status, new SerializedString(status.name()));
+        }
+    }
+
+    private final JsonFactory factory;
+
+    public PaymentResponseEncoder(@NonNull JsonFactory factory, MimeType... mimeTypes) {
+        super(mimeTypes);
+        this.factory = factory;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return PaymentResponse.class == elementType.resolve() && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends PaymentResponse> input, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return Flux.from(input).map(response -> encodeValue(response, bufferFactory, elementType, mimeType, hints));
+    }
+
+    @Override
+    public DataBuffer encodeValue(PaymentResponse response, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_CAPACITY);
+        try (JsonGenerator generator = factory.createGenerator(buffer.asOutputStream())) {
+            generator.writeStartObject();
+            generator.writeFieldName(TRANSACTION_ID);
+            generator.writeUTF8String(ascii(response.getTransactionId()), 0, 36);
+            generator.writeFieldName(TRANSACTION_STATUS);
+            generator.writeString(STATUSES.get(response.getTransactionStatus()));
+            generator.writeFieldName(MESSAGE);
+            generator.writeString(response.getMessage());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException(factory.getFormatName() + " encoding error: " + e.getMessage(), e);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return the canonical form of the id (8-4-4-4-12 lowercase hex digits) as ASCII bytes
+     */
+    static byte[] ascii(UUID id) {
+        byte[] text = new byte[36];
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        hex(most >>> 32, text, 0, 8);
+        text[8] = '-';
+        hex(most >>> 16, text, 9, 4);
+        text[13] = '-';
+        hex(most, text, 14, 4);
+        text[18] = '-';
+        hex(least >>> 48, text, 19, 4);
+        text[23] = '-';
+        hex(least, text, 24, 12);
+        return text;
+    }
+
+    private static void hex(long value, byte[] text, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            text[i] = HEX_DIGITS[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+}
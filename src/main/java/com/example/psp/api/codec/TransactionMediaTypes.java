@@ -0,0 +1,23 @@
+package com.example.psp.api.codec;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Media types of the payment request and response bodies: JSON, and CBOR or Smile for clients preferring a
+ * compact binary encoding of the same fields.
+ */
+public final class TransactionMediaTypes {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Supported payment body types, in order of preference when the client accepts several.
+     */
+    public static final List<MediaType> PAYMENT = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            APPLICATION_SMILE);
+
+    private TransactionMediaTypes() {
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.psp.api.codec;
+
+import com.example.psp.api.dto.transaction.TransactionRequestDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import lombok.NonNull;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Decodes a {@link TransactionRequestDto} with the streaming token API of a Jackson format, without databinding.
+ * <p>
+ * JSON is read by the non-blocking parser fed with the readable byte buffers of the request body, without copying
+ * them; binary formats are read from a stream over the body. Fields are taken as the databinding would: scalar values
+ * as their text (the amount as the number it was written with), unknown fields are skipped and the last of repeated
+ * fields wins, so validation sees the same request.
+ */
+public class TransactionRequestDecoder extends AbstractDataBufferDecoder<TransactionRequestDto> {
+
+    private final JsonFactory factory;
+
+    public TransactionRequestDecoder(@NonNull JsonFactory factory, MimeType... mimeTypes) {
+        super(mimeTypes);
+        this.factory = factory;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return TransactionRequestDto.class == elementType.resolve() && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<TransactionRequestDto> decode(Publisher<DataBuffer> input, ResolvableType elementType,
+                                              MimeType mimeType, Map<String, Object> hints) {
+        // A body holds a single request, it is never split per buffer
+        return Flux.from(decodeToMono(input, elementType, mimeType, hints));
+    }
+
+    @Override
+    public TransactionRequestDto decode(DataBuffer buffer, ResolvableType targetType,
+                                        MimeType mimeType, Map<String, Object> hints) {
+        try {
+            return JsonFactory.FORMAT_NAME_JSON.equals(factory.getFormatName()) ? readJson(buffer) : readStream(buffer);
+        } catch (IOException e) {
+            throw new DecodingException(factory.getFormatName() + " decoding error: " + e.getMessage(), e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private TransactionRequestDto readJson(DataBuffer buffer) throws IOException {
+        try (DataBuffer.ByteBufferIterator input = buffer.readableByteBuffers();
+             Tokens tokens = new Tokens(factory.createNonBlockingByteBufferParser(), input)) {
+            return read(tokens);
+        }
+    }
+
+    private TransactionRequestDto readStream(DataBuffer buffer) throws IOException {
+        try (Tokens tokens = new Tokens(factory.createParser(buffer.asInputStream()), null)) {
+            return read(tokens);
+        }
+    }
+
+    private static TransactionRequestDto read(Tokens tokens) throws IOException {
+        if (tokens.next() != JsonToken.START_OBJECT) {
+            throw new DecodingException("Transaction request must be an object");
+        }
+        TransactionRequestDto.TransactionRequestDtoBuilder request = TransactionRequestDto.builder();
+        JsonToken token;
+        while ((token = tokens.next()) == JsonToken.FIELD_NAME) {
+            String field = tokens.parser.currentName();
+            JsonToken value = tokens.next();
+            switch (field) {
+                case "cardNumber" -> request.cardNumber(text(tokens, field, value));
+                case "expiry" -> request.expiry(text(tokens, field, value));
+                case "cvv" -> request.cvv(text(tokens, field, value));
+                case "amount" -> request.amount(text(tokens, field, value));
+                case "currencyCode" -> request.currencyCode(text(tokens, field, value));
+                case "merchantId" -> request.merchantId(text(tokens, field, value));
+                default -> tokens.skip(value);
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new DecodingException("Unexpected end of transaction request");
+        }
+        return request.build();
+    }
+
+    private static String text(Tokens tokens, String field, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == null || !value.isScalarValue() || value == JsonToken.VALUE_EMBEDDED_OBJECT) {
+            throw new DecodingException(field + ": must be a string or a number");
+        }
+        // Numbers are not converted, their text is the original representation
+        return tokens.parser.getText();
+    }
+
+    /**
+     * Reads the tokens of a parser, feeding a non-blocking parser the next input buffer whenever it runs out.
+     */
+    private static final class Tokens implements AutoCloseable {
+
+        private final JsonParser parser;
+        private final Iterator<ByteBuffer> input;
+
+        private Tokens(JsonParser parser, Iterator<ByteBuffer> input) {
+            this.parser = parser;
+            this.input = input;
+        }
+
+        JsonToken next() throws IOException {
+            JsonToken token = parser.nextToken();
+            while (token == JsonToken.NOT_AVAILABLE) {
+                ByteBufferFeeder feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+                if (input.hasNext()) {
+                    feeder.feedInput(input.next());
+                } else {
+                    feeder.endOfInput();
+                }
+                token = parser.nextToken();
+            }
+            return token;
+        }
+
+        /**
+         * Skips a value, including the nested values of an object or array.
+         */
+        void skip(JsonToken value) throws IOException {
+            if (value == null) {
+                throw new DecodingException("Unexpected end of transaction request");
+            }
+            int depth = value.isStructStart() ? 1 : 0;
+            while (depth > 0) {
+                JsonToken token = next();
+                if (token == null) {
+                    throw new DecodingException("Unexpected end of transaction request");
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.psp.api.dto.stats;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * DTO representing the completed payments of a merchant in one currency over the requested period.
+ */
+@Jacksonized
+@Builder
+@Value
+@Schema(description = "Completed payments in one currency over the requested period")
+public class CurrencyTotalsDto {
+
+    @Schema(
+            description = "ISO 4217 currency code",
+            example = "USD"
+    )
+    String currencyCode;
+
+    @Schema(
+            description = "Number of payments",
+            example = "2880"
+    )
+    long count;
+
+    @Schema(
+            description = "Number of approved payments",
+            example = "2736"
+    )
+    long approvedCount;
+
+    @Schema(
+            description = "Approved payments divided by all payments",
+            example = "0.95"
+    )
+    double approvalRatio;
+
+    @Schema(
+            description = "Total amount of the payments",
+            type = "number",
+            example = "287971.20"
+    )
+    @JsonRawValue
+    String amount;
+
+    @Schema(
+            description = "Total amount of the approved payments",
+            type = "number",
+            example = "273572.64"
+    )
+    @JsonRawValue
+    String approvedAmount;
+}
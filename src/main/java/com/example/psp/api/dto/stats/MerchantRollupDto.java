@@ -0,0 +1,70 @@
+package com.example.psp.api.dto.stats;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+
+/**
+ * DTO representing the completed payments of a merchant in one time bucket, currency and acquirer.
+ */
+@Jacksonized
+@Builder
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Completed payments in one time bucket, currency and acquirer")
+public class MerchantRollupDto {
+
+    @Schema(description = "Start of the time bucket the payments completed in")
+    Instant bucketStart;
+
+    @Schema(
+            description = "ISO 4217 currency code",
+            example = "USD"
+    )
+    String currencyCode;
+
+    @Schema(
+            description = "Acquirer that decided the payments",
+            example = "ACQUIRER_A"
+    )
+    String acquirerType;
+
+    @Schema(
+            description = "Number of payments",
+            example = "120"
+    )
+    long count;
+
+    @Schema(
+            description = "Number of approved payments",
+            example = "114"
+    )
+    long approvedCount;
+
+    @Schema(
+            description = "Approved payments divided by all payments",
+            example = "0.95"
+    )
+    double approvalRatio;
+
+    @Schema(
+            description = "Total amount of the payments",
+            type = "number",
+            example = "11998.80"
+    )
+    @JsonRawValue
+    String amount;
+
+    @Schema(
+            description = "Total amount of the approved payments",
+            type = "number",
+            example = "11398.86"
+    )
+    @JsonRawValue
+    String approvedAmount;
+}
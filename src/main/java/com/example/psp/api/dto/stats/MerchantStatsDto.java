@@ -0,0 +1,38 @@
+package com.example.psp.api.dto.stats;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO representing the payment statistics of a merchant over a period.
+ */
+@Jacksonized
+@Builder
+@Value
+@Schema(description = "Payment statistics of a merchant, by currency and by time bucket")
+public class MerchantStatsDto {
+
+    @Schema(
+            description = "Unique merchant identifier",
+            example = "MERCHANT_001"
+    )
+    String merchantId;
+
+    @Schema(description = "Earliest bucket start included (inclusive)")
+    Instant from;
+
+    @Schema(description = "Latest bucket start included (exclusive)")
+    Instant to;
+
+    @ArraySchema(schema = @Schema(implementation = CurrencyTotalsDto.class))
+    List<CurrencyTotalsDto> totals;
+
+    @ArraySchema(schema = @Schema(implementation = MerchantRollupDto.class))
+    List<MerchantRollupDto> rollups;
+}
@@ -0,0 +1,50 @@
+package com.example.psp.api.dto.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * DTO representing the result of one line of a batch payment request.
+ * Either the transaction fields or the error field are set.
+ */
+@Jacksonized
+@Builder
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result of one line of a batch payment request")
+public class BatchItemResponseDto {
+
+    @Schema(
+            description = "Line number of the request in the batch, starting at 1",
+            example = "1"
+    )
+    long line;
+
+    @Schema(
+            description = "Unique transaction identifier",
+            example = "550e8400-e29b-41d4-a716-446655440000"
+    )
+    String transactionId;
+
+    @Schema(
+            description = "Current status of the transaction",
+            example = "APPROVED",
+            allowableValues = {"APPROVED", "DENIED", "PENDING"}
+    )
+    String transactionStatus;
+
+    @Schema(
+            description = "Additional information about the transaction result or the error",
+            example = "Transaction for merchant MERCHANT_001 is APPROVED"
+    )
+    String message;
+
+    @Schema(
+            description = "Error type if the line could not be processed",
+            example = "ValidationException"
+    )
+    String error;
+}
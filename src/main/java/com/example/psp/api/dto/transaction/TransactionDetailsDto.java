@@ -0,0 +1,78 @@
+package com.example.psp.api.dto.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+
+/**
+ * DTO representing a stored transaction.
+ */
+@Jacksonized
+@Builder
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Stored transaction")
+public class TransactionDetailsDto {
+
+    @Schema(
+            description = "Unique transaction identifier",
+            example = "550e8400-e29b-41d4-a716-446655440000"
+    )
+    String transactionId;
+
+    @Schema(
+            description = "Current status of the transaction",
+            example = "APPROVED",
+            allowableValues = {"APPROVED", "DENIED", "PENDING"}
+    )
+    String transactionStatus;
+
+    @Schema(
+            description = "Acquirer that authorized the transaction, absent while it is PENDING",
+            example = "ACQUIRER_A"
+    )
+    String acquirerType;
+
+    @Schema(
+            description = "Masked card number",
+            example = "****-****-****-0366"
+    )
+    String cardNumberMasked;
+
+    @Schema(
+            description = "Card expiry date in MM/yy format",
+            example = "12/25"
+    )
+    String expiry;
+
+    @Schema(
+            description = "Transaction amount",
+            type = "number",
+            example = "99.99"
+    )
+    @JsonRawValue
+    String amount;
+
+    @Schema(
+            description = "ISO 4217 currency code",
+            example = "USD"
+    )
+    String currencyCode;
+
+    @Schema(
+            description = "Unique merchant identifier",
+            example = "MERCHANT_001"
+    )
+    String merchantId;
+
+    @Schema(description = "When the transaction was created")
+    Instant createdAt;
+
+    @Schema(description = "When the transaction status last changed")
+    Instant updatedAt;
+}
@@ -0,0 +1,63 @@
+package com.example.psp.api.dto.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+
+/**
+ * DTO representing a transaction status event, sent as the data of a server-sent event whose id is its offset.
+ */
+@Jacksonized
+@Builder
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Transaction status change")
+public class TransactionEventDto {
+
+    @Schema(
+            description = "Unique transaction identifier",
+            example = "550e8400-e29b-41d4-a716-446655440000"
+    )
+    String transactionId;
+
+    @Schema(
+            description = "New status of the transaction",
+            example = "APPROVED",
+            allowableValues = {"APPROVED", "DENIED", "PENDING"}
+    )
+    String transactionStatus;
+
+    @Schema(
+            description = "Acquirer that decided the status",
+            example = "ACQUIRER_A"
+    )
+    String acquirerType;
+
+    @Schema(
+            description = "Transaction amount",
+            type = "number",
+            example = "99.99"
+    )
+    @JsonRawValue
+    String amount;
+
+    @Schema(
+            description = "ISO 4217 currency code",
+            example = "USD"
+    )
+    String currencyCode;
+
+    @Schema(
+            description = "Unique merchant identifier",
+            example = "MERCHANT_001"
+    )
+    String merchantId;
+
+    @Schema(description = "When the status changed")
+    Instant occurredAt;
+}
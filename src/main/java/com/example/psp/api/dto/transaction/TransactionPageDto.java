@@ -0,0 +1,30 @@
+package com.example.psp.api.dto.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * DTO representing a page of a merchant's transactions.
+ */
+@Jacksonized
+@Builder
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Page of transactions, oldest first")
+public class TransactionPageDto {
+
+    @ArraySchema(schema = @Schema(implementation = TransactionDetailsDto.class))
+    List<TransactionDetailsDto> transactions;
+
+    @Schema(
+            description = "Cursor to pass as the after parameter to read the next page, absent on the last page",
+            example = "MjAyNi0wMy0wMVQxMjowMDowMC4xMjM0NTZaLDAxOTVhZjNjLTk4ZjMtN2NjMS04ZjE0LTJmOGVlYzUxY2M2Mg"
+    )
+    String nextCursor;
+}
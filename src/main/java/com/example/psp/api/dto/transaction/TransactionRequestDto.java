@@ -1,11 +1,14 @@
 package com.example.psp.api.dto.transaction;
 
+import com.example.psp.api.json.DecimalTextDeserializer;
+import com.example.psp.api.validation.ValidAmount;
+import com.example.psp.api.validation.ValidCardNumber;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.Builder;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
-import org.hibernate.validator.constraints.CreditCardNumber;
 import org.hibernate.validator.constraints.Currency;
 
 /**
@@ -21,9 +24,7 @@ public class TransactionRequestDto {
             description = "Card number (16 digits)",
             example = "4532015112830366"
     )
-    @NotBlank(message = "Card number must not be blank")
-    @Pattern(regexp = "\\d{16}", message = "Card number must be 16 digits")
-    @CreditCardNumber
+    @ValidCardNumber
     String cardNumber;
 
     @Schema(
@@ -44,16 +45,15 @@ public class TransactionRequestDto {
 
     @Schema(
             description = "Transaction amount",
+            type = "number",
             example = "99.99",
             minimum = "0.01",
             maximum = "999999.99"
     )
     @NotNull(message = "Amount must not be null")
-    @Positive(message = "Amount must be positive")
-    @DecimalMin(value = "0.01", message = "Amount must be at least 0.01")
-    @DecimalMax(value = "999999.99", message = "Amount must not exceed 999999.99")
-    @Digits(integer = 6, fraction = 2, message = "Amount must have at most 6 integer digits and 2 decimal places")
-    Double amount;
+    @ValidAmount(integer = 6, fraction = 2, message = "Amount must be positive with at most 6 integer digits and 2 decimal places")
+    @JsonDeserialize(using = DecimalTextDeserializer.class)
+    String amount;
 
     @Schema(
             description = "ISO 4217 currency code (3 uppercase letters)",
@@ -0,0 +1,156 @@
+package com.example.psp.api.filter;
+
+import com.example.psp.config.properties.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * In-flight request limit that adapts to the measured latency, following TCP Vegas.
+ * <p>
+ * The latency of a request without queueing ({@code rttNoLoad}) is the lowest latency seen. With the limit
+ * {@code L} and a sample latency {@code rtt}, {@code L * (1 - rttNoLoad / rtt)} estimates how many requests are
+ * queued behind the ones being served. While that queue is shorter than {@code alpha} the limit grows by about
+ * {@code log10(L)} per round trip, and once it is longer than {@code beta} the excess is removed within one round
+ * trip, so the service sheds load instead of letting queues grow. Both thresholds scale with {@code log10(L)}.
+ * <p>
+ * A queue that never drains would make every latency look like no load, so every {@code probeInterval} the limit
+ * is halved until requests admitted under the lower limit have completed, and their lowest latency becomes the new
+ * {@code rttNoLoad}.
+ * <p>
+ * Admission is lock-free, latency samples are applied under the instance lock.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long probeIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private long rttNoLoad = Long.MAX_VALUE;
+    private long nextProbe;
+    private boolean probing;
+    private long probeStart;
+    private long probeMinRtt;
+    private int probeSamples;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.probeIntervalNanos = properties.probeInterval().toNanos();
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = properties.initialLimit();
+        this.limit = properties.initialLimit();
+        this.nextProbe = nanoClock.getAsLong() + probeIntervalNanos;
+    }
+
+    /**
+     * Admits a request if the limit allows it. Every admitted request must be followed by
+     * {@link #onComplete(long)} or {@link #release()}.
+     *
+     * @return whether the request is admitted
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Reads the clock of the limit, whose readings may be negative and are only meaningful as differences.
+     *
+     * @return the current time in nanoseconds, to pass to {@link #onComplete(long)} as the start of a request
+     */
+    public long nanoTime() {
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Releases an admitted request without using its latency, e.g. when it was cancelled.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to its latency.
+     *
+     * @param start the time returned by {@link #nanoTime()} when the request was admitted
+     */
+    public void onComplete(long start) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        long now = nanoClock.getAsLong();
+        long rtt = Math.max(1, now - start);
+        synchronized (this) {
+            if (probing) {
+                onProbeSample(start, rtt);
+            } else if (now - nextProbe >= 0) {
+                startProbe(now);
+            } else {
+                onSample(rtt, inFlightAtCompletion);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long rtt, int inFlightAtCompletion) {
+        rttNoLoad = Math.min(rttNoLoad, rtt);
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+        double queue = estimatedLimit * (1 - (double) rttNoLoad / rtt);
+
+        // A round trip completes about estimatedLimit requests, so per-sample steps add up to one step per round trip
+        if (queue > beta) {
+            estimatedLimit -= (queue - beta) / estimatedLimit;
+        } else if (queue < alpha && inFlightAtCompletion * 2 >= estimatedLimit) {
+            // Only grow while the limit is actually used, otherwise an idle service would raise it without bound
+            estimatedLimit += log / estimatedLimit;
+        }
+        estimatedLimit = Math.clamp(estimatedLimit, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    private void startProbe(long now) {
+        probing = true;
+        probeStart = now;
+        probeMinRtt = Long.MAX_VALUE;
+        probeSamples = 0;
+        limit = Math.max(minLimit, (int) (estimatedLimit / 2));
+    }
+
+    private void onProbeSample(long start, long rtt) {
+        // Requests admitted before the probe may still have been queued behind the full limit
+        if (start - probeStart < 0) {
+            return;
+        }
+        probeMinRtt = Math.min(probeMinRtt, rtt);
+        if (++probeSamples >= limit) {
+            probing = false;
+            rttNoLoad = probeMinRtt;
+            nextProbe = start + rtt + probeIntervalNanos;
+            limit = (int) estimatedLimit;
+        }
+    }
+}
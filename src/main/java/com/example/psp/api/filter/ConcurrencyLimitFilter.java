@@ -0,0 +1,67 @@
+package com.example.psp.api.filter;
+
+import com.example.psp.config.properties.ConcurrencyLimitProperties;
+import com.example.psp.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Sheds requests above the {@link AdaptiveConcurrencyLimit} before they reach the handler.
+ * <p>
+ * A rejected request fails with {@link ServiceOverloadedException} without reading its body, so excess load does not
+ * queue on the event loop or the connection pool. Only the latency of requests that produced a response feeds the
+ * limit: requests failing early (validation, rate limit) would look like an idle service, so failed and cancelled
+ * requests only release their slot.
+ */
+@Component
+public class ConcurrencyLimitFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.limit = new AdaptiveConcurrencyLimit(properties);
+
+        Gauge.builder("psp.api.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit of in-flight payment requests")
+                .register(meterRegistry);
+        Gauge.builder("psp.api.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Payment requests currently in flight")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("psp.api.concurrency.rejected")
+                .description("Payment requests shed by the adaptive concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        if (!enabled) {
+            return next.handle(request);
+        }
+        return Mono.defer(() -> {
+            if (!limit.tryAcquire()) {
+                rejected.increment();
+                return Mono.error(new ServiceOverloadedException(limit.getLimit()));
+            }
+            long start = limit.nanoTime();
+            return Mono.defer(() -> next.handle(request))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.ON_COMPLETE) {
+                            limit.onComplete(start);
+                        } else {
+                            limit.release();
+                        }
+                    });
+        });
+    }
+}
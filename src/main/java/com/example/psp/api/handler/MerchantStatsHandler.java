@@ -0,0 +1,119 @@
+package com.example.psp.api.handler;
+
+import com.example.psp.api.dto.stats.CurrencyTotalsDto;
+import com.example.psp.api.dto.stats.MerchantRollupDto;
+import com.example.psp.api.dto.stats.MerchantStatsDto;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.repository.stats.MerchantRollup;
+import com.example.psp.service.stats.MerchantStats;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handler serving the payment statistics of merchants from the maintained rollups.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.stats.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MerchantStatsHandler {
+
+    private static final Duration DEFAULT_PERIOD = Duration.ofDays(1);
+
+    private final MerchantStats merchantStats;
+    private final Clock clock;
+
+    /**
+     * Retrieves the payment statistics of a merchant, by currency and by time bucket.
+     * Handles GET: /api/v1/merchants/{merchantId}/stats
+     * <p>
+     * Buckets starting from the from parameter (inclusive) up to the to parameter (exclusive) are included,
+     * by default those of the last 24 hours. The cost of a request depends on the number of buckets in the
+     * period, not on the number of payments.
+     *
+     * @param request the server request containing the merchant identifier and the query parameters
+     * @return a Mono emitting the server response with the statistics
+     */
+    public Mono<ServerResponse> getMerchantStats(ServerRequest request) {
+        String merchantId = request.pathVariable("merchantId");
+        return Mono.fromCallable(() -> period(request))
+                .flatMap(period -> merchantStats.find(merchantId, period.from(), period.to())
+                        .map(rollups -> MerchantStatsDto.builder()
+                                .merchantId(merchantId)
+                                .from(period.from())
+                                .to(period.to())
+                                .totals(currencyTotals(rollups))
+                                .rollups(rollups.stream().map(MerchantStatsHandler::mapToRollupDto).toList())
+                                .build()))
+                .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto));
+    }
+
+    private Period period(ServerRequest request) {
+        try {
+            Instant to = request.queryParam("to").map(Instant::parse).orElseGet(clock::instant);
+            Instant from = request.queryParam("from").map(Instant::parse).orElseGet(() -> to.minus(DEFAULT_PERIOD));
+            if (!from.isBefore(to)) {
+                throw new ValidationException("from: must be before to");
+            }
+            return new Period(from, to);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("from, to: must be ISO-8601 instants, e.g. 2026-03-01T00:00:00Z");
+        }
+    }
+
+    private static List<CurrencyTotalsDto> currencyTotals(List<MerchantRollup> rollups) {
+        Map<CurrencyUnit, MerchantRollup> totals = new LinkedHashMap<>();
+        rollups.forEach(rollup -> totals.merge(rollup.currency(), rollup, MerchantRollup::plus));
+        return totals.values().stream()
+                .map(total -> CurrencyTotalsDto.builder()
+                        .currencyCode(total.currency().getCode())
+                        .count(total.count())
+                        .approvedCount(total.approvedCount())
+                        .approvalRatio(approvalRatio(total))
+                        .amount(toPlainString(total.amountMinor(), total.currency()))
+                        .approvedAmount(toPlainString(total.approvedAmountMinor(), total.currency()))
+                        .build())
+                .toList();
+    }
+
+    private static MerchantRollupDto mapToRollupDto(MerchantRollup rollup) {
+        return MerchantRollupDto.builder()
+                .bucketStart(rollup.bucketStart())
+                .currencyCode(rollup.currency().getCode())
+                .acquirerType(rollup.acquirerType().name())
+                .count(rollup.count())
+                .approvedCount(rollup.approvedCount())
+                .approvalRatio(approvalRatio(rollup))
+                .amount(toPlainString(rollup.amountMinor(), rollup.currency()))
+                .approvedAmount(toPlainString(rollup.approvedAmountMinor(), rollup.currency()))
+                .build();
+    }
+
+    private static double approvalRatio(MerchantRollup rollup) {
+        return rollup.count() == 0 ? 0 : (double) rollup.approvedCount() / rollup.count();
+    }
+
+    /**
+     * Formats a total in major units; unlike {@code Money}, totals may be zero.
+     */
+    private static String toPlainString(long minorUnits, CurrencyUnit currency) {
+        return BigDecimal.valueOf(minorUnits, currency.getExponent()).toPlainString();
+    }
+
+    private record Period(Instant from, Instant to) {
+    }
+}
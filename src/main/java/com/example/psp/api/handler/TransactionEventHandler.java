@@ -0,0 +1,101 @@
+package com.example.psp.api.handler;
+
+import com.example.psp.api.dto.transaction.TransactionEventDto;
+import com.example.psp.config.properties.TransactionEventsProperties;
+import com.example.psp.repository.outbox.TransactionStatusEvent;
+import com.example.psp.service.events.TransactionEventStream;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.OptionalLong;
+
+/**
+ * Handler streaming transaction status events to merchants.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionEventHandler {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final String AFTER_PARAMETER = "after";
+    private static final String EVENT_TYPE = "transaction.status";
+
+    private final TransactionEventStream eventStream;
+    private final TransactionEventsProperties properties;
+
+    /**
+     * Streams the status events of a merchant's transactions as server-sent events.
+     * Handles GET: /api/v1/merchants/{merchantId}/transaction-events
+     * <p>
+     * The id of every event is its offset. A client reconnecting with the Last-Event-ID header, or the after
+     * query parameter, first receives the events it missed, as far back as the outbox retention. Without either,
+     * only new events are streamed. Idle streams receive a comment every heartbeat interval.
+     *
+     * @param request the server request containing the merchant identifier
+     * @return a Mono emitting the server response streaming the events
+     */
+    public Mono<ServerResponse> streamEvents(ServerRequest request) {
+        String merchantId = request.pathVariable("merchantId");
+        return Mono.fromCallable(() -> resumeOffset(request))
+                .flatMap(afterOffset -> {
+                    Flux<ServerSentEvent<TransactionEventDto>> events = eventStream.stream(merchantId, afterOffset)
+                            .map(this::toServerSentEvent)
+                            .doOnError(error -> log.info("Transaction event stream of merchant {} closed: {}",
+                                    merchantId, error.getMessage()));
+                    Flux<ServerSentEvent<TransactionEventDto>> heartbeats = Flux.interval(properties.heartbeatInterval())
+                            .map(tick -> ServerSentEvent.<TransactionEventDto>builder().comment("heartbeat").build());
+                    return ServerResponse.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(BodyInserters.fromServerSentEvents(Flux.merge(events, heartbeats)));
+                });
+    }
+
+    private OptionalLong resumeOffset(ServerRequest request) {
+        String lastEventId = request.headers().firstHeader(LAST_EVENT_ID_HEADER);
+        String name = LAST_EVENT_ID_HEADER;
+        if (lastEventId == null) {
+            lastEventId = request.queryParam(AFTER_PARAMETER).orElse(null);
+            name = AFTER_PARAMETER;
+        }
+        if (lastEventId == null) {
+            return OptionalLong.empty();
+        }
+        long offset;
+        try {
+            offset = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            offset = -1;
+        }
+        if (offset < 0) {
+            throw new ValidationException(name + ": must be the non-negative offset of an event");
+        }
+        return OptionalLong.of(offset);
+    }
+
+    private ServerSentEvent<TransactionEventDto> toServerSentEvent(TransactionStatusEvent event) {
+        return ServerSentEvent.builder(TransactionEventDto.builder()
+                        .transactionId(event.transactionId().toString())
+                        .transactionStatus(event.status().name())
+                        .acquirerType(event.acquirerType() != null ? event.acquirerType().name() : null)
+                        .amount(event.money().toPlainString())
+                        .currencyCode(event.money().getCurrency().getCode())
+                        .merchantId(event.merchantId())
+                        .occurredAt(event.occurredAt())
+                        .build())
+                .id(Long.toString(event.offset()))
+                .event(EVENT_TYPE)
+                .build();
+    }
+}
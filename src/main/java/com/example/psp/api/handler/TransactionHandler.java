@@ -1,27 +1,49 @@
 package com.example.psp.api.handler;
 
+import com.example.psp.api.codec.TransactionMediaTypes;
+import com.example.psp.api.dto.transaction.BatchItemResponseDto;
+import com.example.psp.api.dto.transaction.TransactionDetailsDto;
+import com.example.psp.api.dto.transaction.TransactionPageDto;
 import com.example.psp.api.dto.transaction.TransactionRequestDto;
-import com.example.psp.api.dto.transaction.TransactionResponseDto;
+import com.example.psp.config.properties.BatchPaymentProperties;
+import com.example.psp.config.properties.PaymentLoggingProperties;
+import com.example.psp.domain.entities.Transaction;
 import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
 import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.exception.TransactionNotFoundException;
+import com.example.psp.repository.transaction.TransactionCursor;
+import com.example.psp.service.idempotency.PaymentIdempotency;
+import com.example.psp.service.ratelimit.MerchantRateLimiter;
+import com.example.psp.service.transaction.ports.MerchantTransactionQuery;
 import com.example.psp.service.transaction.ports.PaymentRequest;
-import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.example.psp.service.transaction.ports.TransactionExportService;
 import com.example.psp.service.transaction.ports.TransactionService;
+import com.example.psp.shared.logging.PaymentLogContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ValidationException;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Instant;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.Currency;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Handler for processing transaction requests.
@@ -31,38 +53,189 @@ import java.util.Currency;
 @Slf4j
 public class TransactionHandler {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+
     private final TransactionService transactionService;
+    private final TransactionExportService exportService;
+    private final PaymentIdempotency idempotency;
+    private final MerchantRateLimiter rateLimiter;
     private final Validator validator;
     private final Clock clock;
+    private final ObjectMapper objectMapper;
+    private final BatchPaymentProperties batchProperties;
+    private final PaymentLoggingProperties loggingProperties;
 
     /**
      * Processes a transaction request.
      * Handles POST: /api/v1/transactions
+     * <p>
+     * A request carrying an Idempotency-Key header is executed at most once per merchant and key;
+     * repeated requests receive the response of the first one. The merchant's rate limit is checked right after
+     * the body is read, before validation and any database work. Bodies are JSON, CBOR or Smile, read and written
+     * by the payment codecs (see {@link com.example.psp.config.CodecConfig}); the response uses the type the client
+     * accepts with the highest quality, JSON first among equally preferred ones.
      *
      * @param request the server request containing the transaction details
      * @return a Mono emitting the server response with the transaction result
      */
     public Mono<ServerResponse> processTransaction(ServerRequest request) {
+        String idempotencyKey = request.headers().firstHeader(IDEMPOTENCY_KEY_HEADER);
+        PaymentLogContext logContext = startLogContext(request);
         return request.bodyToMono(TransactionRequestDto.class)
-                .doOnNext(dto -> log.info("Received transaction request for merchant ID: {}, with amount {} {}", dto.getMerchantId(), dto.getAmount(), dto.getCurrencyCode()))
+                .doOnNext(dto -> rateLimiter.acquire(dto.getMerchantId()))
                 .flatMap(this::validateRequest)
+                .flatMap(dto -> validateIdempotencyKey(idempotencyKey).thenReturn(dto))
                 .map(this::mapToPaymentRequest)
-                .flatMap(transactionService::processPayment)
-                .doOnNext(response -> log.info("Transaction request processed: {}", response))
-                .map(this::mapToTransactionResponseDto)
-                .flatMap(responseDto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(responseDto))
-                .doOnSuccess(responseDto -> log.info("Transaction successfully processed with status code: {}", responseDto.statusCode()))
-                .doOnError(error -> log.error("Error processing transaction: {}", error.getMessage(), error));
+                .flatMap(paymentRequest -> idempotencyKey == null
+                        ? transactionService.processPayment(paymentRequest)
+                        : idempotency.execute(paymentRequest, idempotencyKey,
+                                () -> transactionService.processPayment(paymentRequest)))
+                .flatMap(response -> ServerResponse.ok()
+                        .contentType(responseType(request))
+                        .header(PaymentLogContext.CORRELATION_ID_HEADER, logContext.correlationId())
+                        .bodyValue(response))
+                // Processed payments are logged once by the service summary event, only rejections are logged here
+                .doOnError(error -> logContext.event(log.atWarn()).log("Transaction request rejected: {}", error.getMessage()))
+                .contextWrite(logContext.toContext());
+    }
+
+    /**
+     * Returns a stored transaction.
+     * Handles GET: /api/v1/transactions/{id}
+     *
+     * @param request the server request containing the transaction identifier
+     * @return a Mono emitting the server response with the transaction, or an error if it does not exist
+     */
+    public Mono<ServerResponse> getTransaction(ServerRequest request) {
+        return Mono.fromCallable(() -> UUID.fromString(request.pathVariable("id")))
+                .flatMap(id -> transactionService.findTransaction(id)
+                        .switchIfEmpty(Mono.error(() -> new TransactionNotFoundException(id))))
+                .map(this::mapToTransactionDetailsDto)
+                .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto));
+    }
+
+    /**
+     * Processes a stream of transaction requests, one JSON document per line.
+     * Handles POST: /api/v1/transactions/batch
+     * <p>
+     * Lines are processed with bounded concurrency and their results are streamed back as they complete,
+     * so results may arrive out of order and carry the line number of their request. A line that cannot be parsed,
+     * validated or processed, or exceeds the rate limit of its merchant, produces an error item and does not fail
+     * the rest of the batch.
+     *
+     * @param request the server request containing newline-delimited transaction details
+     * @return a Mono emitting the server response streaming one result per non-blank line
+     */
+    public Mono<ServerResponse> processBatch(ServerRequest request) {
+        PaymentLogContext logContext = startLogContext(request);
+        Flux<BatchItemResponseDto> results = request.bodyToFlux(String.class)
+                .index()
+                .filter(line -> !line.getT2().isBlank())
+                .flatMap(line -> processBatchLine(line.getT1() + 1, line.getT2()), batchProperties.concurrency())
+                .doOnComplete(() -> logContext.event(log.atInfo()).log("Batch transaction request processed"))
+                .doOnError(error -> logContext.event(log.atError()).setCause(error)
+                        .log("Error reading batch transaction request: {}", error.getMessage()))
+                .contextWrite(logContext.toContext());
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(PaymentLogContext.CORRELATION_ID_HEADER, logContext.correlationId())
+                .body(results, BatchItemResponseDto.class);
+    }
+
+    /**
+     * Returns a page of a merchant's transactions, oldest first.
+     * Handles GET: /api/v1/merchants/{merchantId}/transactions with Accept: application/json
+     * <p>
+     * The optional from (inclusive) and to (exclusive) parameters bound the creation time. A page holds limit
+     * transactions and, unless it is the last one, the cursor to pass as the after parameter for the next page.
+     *
+     * @param request the server request containing the merchant identifier and the query parameters
+     * @return a Mono emitting the server response with the page
+     */
+    public Mono<ServerResponse> listMerchantTransactions(ServerRequest request) {
+        return Mono.fromCallable(() -> merchantTransactionQuery(request, true))
+                .flatMap(exportService::findPage)
+                .map(page -> TransactionPageDto.builder()
+                        .transactions(page.getTransactions().stream().map(this::mapToTransactionDetailsDto).toList())
+                        .nextCursor(page.getNext() != null ? encodeCursor(page.getNext()) : null)
+                        .build())
+                .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto));
     }
 
-    private TransactionResponseDto mapToTransactionResponseDto(PaymentResponse response) {
+    /**
+     * Streams all transactions of a merchant, oldest first, one JSON document per line.
+     * Handles GET: /api/v1/merchants/{merchantId}/transactions with Accept: application/x-ndjson
+     * <p>
+     * Takes the same from, to and after parameters as the paged listing. Rows are read from the database as the
+     * client consumes the response, so an export of any size needs constant memory.
+     *
+     * @param request the server request containing the merchant identifier and the query parameters
+     * @return a Mono emitting the server response streaming the transactions
+     */
+    public Mono<ServerResponse> exportMerchantTransactions(ServerRequest request) {
+        return Mono.fromCallable(() -> merchantTransactionQuery(request, false))
+                .flatMap(query -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(exportService.export(query).map(this::mapToTransactionDetailsDto), TransactionDetailsDto.class));
+    }
+
+    private Mono<BatchItemResponseDto> processBatchLine(long lineNumber, String line) {
+        return Mono.fromCallable(() -> objectMapper.readValue(line, TransactionRequestDto.class))
+                .doOnNext(dto -> rateLimiter.acquire(dto.getMerchantId()))
+                .flatMap(this::validateRequest)
+                .map(this::mapToPaymentRequest)
+                .flatMap(transactionService::processPayment)
+                .map(response -> BatchItemResponseDto.builder()
+                        .line(lineNumber)
+                        .transactionId(response.getTransactionId().toString())
+                        .transactionStatus(response.getTransactionStatus().name())
+                        .message(response.getMessage())
+                        .build())
+                .onErrorResume(error -> {
+                    log.warn("Batch line {} failed: {}", lineNumber, error.getMessage());
+                    return Mono.just(BatchItemResponseDto.builder()
+                            .line(lineNumber)
+                            .error(error.getClass().getSimpleName())
+                            .message(error instanceof JsonProcessingException json ? json.getOriginalMessage() : error.getMessage())
+                            .build());
+                });
+    }
 
-        return TransactionResponseDto.builder()
-                .transactionId(response.getTransactionId().toString())
-                .transactionStatus(response.getTransactionStatus().name())
-                .message(response.getMessage())
+    private TransactionDetailsDto mapToTransactionDetailsDto(Transaction tnx) {
+        return TransactionDetailsDto.builder()
+                .transactionId(tnx.getId().toString())
+                .transactionStatus(tnx.getStatus().name())
+                .acquirerType(tnx.getAcquirerType() != null ? tnx.getAcquirerType().name() : null)
+                .cardNumberMasked(tnx.getCard().getCardNumberMasked())
+                .expiry(tnx.getCard().getExpiryDate().format(DateTimeFormatter.ofPattern("MM/yy")))
+                .amount(tnx.getMoney().toPlainString())
+                .currencyCode(tnx.getMoney().getCurrency().getCode())
+                .merchantId(tnx.getMerchantId())
+                .createdAt(tnx.getCreatedAt())
+                .updatedAt(tnx.getUpdatedAt())
                 .build();
+    }
 
+    /**
+     * Picks the first payment body type the client accepts, JSON unless it asks for CBOR or Smile.
+     */
+    private static MediaType responseType(ServerRequest request) {
+        List<MediaType> acceptable = new ArrayList<>(request.headers().accept());
+        // Highest quality first, then the most specific, like the content negotiation of annotated controllers
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType accepted : acceptable) {
+            if (accepted.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producible : TransactionMediaTypes.PAYMENT) {
+                if (accepted.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
     }
 
     private PaymentRequest mapToPaymentRequest(TransactionRequestDto dto) {
@@ -81,15 +254,57 @@ public class TransactionHandler {
                                 .build()
                 )
                 .merchantId(dto.getMerchantId())
-                .money(
-                        Money.builder()
-                                .amount(BigDecimal.valueOf(dto.getAmount()))
-                                .currency(Currency.getInstance(dto.getCurrencyCode()))
-                                .build()
-                )
+                .money(Money.parse(dto.getAmount(), CurrencyUnit.of(dto.getCurrencyCode())))
                 .build();
     }
 
+    private MerchantTransactionQuery merchantTransactionQuery(ServerRequest request, boolean paged) {
+        String limit = paged ? request.queryParam("limit").orElse(null) : null;
+        try {
+            return MerchantTransactionQuery.builder()
+                    .merchantId(request.pathVariable("merchantId"))
+                    .from(request.queryParam("from").map(Instant::parse).orElse(Instant.EPOCH))
+                    .to(request.queryParam("to").map(Instant::parse).orElseGet(clock::instant))
+                    .after(request.queryParam("after").map(TransactionHandler::decodeCursor).orElse(null))
+                    .limit(limit != null ? Integer.valueOf(limit) : null)
+                    .build();
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("from, to: must be ISO-8601 instants, e.g. 2026-03-01T00:00:00Z");
+        } catch (NumberFormatException e) {
+            throw new ValidationException("limit: must be a number");
+        }
+    }
+
+    /**
+     * Encodes a cursor as an opaque URL-safe token: the creation time and id of the last transaction read.
+     */
+    private static String encodeCursor(TransactionCursor cursor) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((cursor.createdAt() + "," + cursor.id()).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static TransactionCursor decodeCursor(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(",", 2);
+            return new TransactionCursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("after: must be a cursor returned as nextCursor");
+        }
+    }
+
+    private PaymentLogContext startLogContext(ServerRequest request) {
+        return PaymentLogContext.start(request.headers().firstHeader(PaymentLogContext.CORRELATION_ID_HEADER),
+                loggingProperties.detailSampleRate());
+    }
+
+    private Mono<Void> validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH)) {
+            return Mono.error(new ValidationException(IDEMPOTENCY_KEY_HEADER + ": must be between 1 and "
+                    + IDEMPOTENCY_KEY_MAX_LENGTH + " characters"));
+        }
+        return Mono.empty();
+    }
+
     private Mono<TransactionRequestDto> validateRequest(TransactionRequestDto dto) {
         var violations = validator.validate(dto);
 
@@ -0,0 +1,29 @@
+package com.example.psp.api.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Keeps a JSON number as the text it was written with, so it can be parsed exactly (e.g. into minor units)
+ * instead of going through a {@code double}. Quoted numbers are accepted as well.
+ */
+public class DecimalTextDeserializer extends StdScalarDeserializer<String> {
+
+    public DecimalTextDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+            // The number token has not been converted yet, its text is the original representation
+            return parser.getText();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.psp.api.router;
+
+import com.example.psp.api.dto.stats.MerchantStatsDto;
+import com.example.psp.api.handler.MerchantStatsHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springdoc.core.annotations.RouterOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Router function for the merchant payment statistics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "psp.stats.enabled", havingValue = "true")
+public class MerchantStatsRouterFunction {
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/merchants/{merchantId}/stats",
+            method = RequestMethod.GET,
+            beanClass = MerchantStatsHandler.class,
+            beanMethod = "getMerchantStats",
+            operation = @Operation(
+                    operationId = "getMerchantStats",
+                    summary = "Get merchant payment statistics",
+                    description = "Returns the number, amount and approval ratio of the merchant's completed payments "
+                            + "per currency and per time bucket, currency and acquirer, read from maintained rollups",
+                    tags = {"Transactions"},
+                    parameters = {
+                            @Parameter(
+                                    in = ParameterIn.PATH,
+                                    name = "merchantId",
+                                    required = true,
+                                    description = "Unique merchant identifier",
+                                    example = "MERCHANT_001"
+                            ),
+                            @Parameter(
+                                    in = ParameterIn.QUERY,
+                                    name = "from",
+                                    description = "Earliest bucket start (inclusive), defaults to 24 hours before to",
+                                    example = "2026-03-01T00:00:00Z"
+                            ),
+                            @Parameter(
+                                    in = ParameterIn.QUERY,
+                                    name = "to",
+                                    description = "Latest bucket start (exclusive), defaults to now",
+                                    example = "2026-03-02T00:00:00Z"
+                            )
+                    },
+                    responses = {
+                            @ApiResponse(
+                                    responseCode = "200",
+                                    description = "Statistics of the period",
+                                    content = @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = MerchantStatsDto.class)
+                                    )
+                            ),
+                            @ApiResponse(
+                                    responseCode = "400",
+                                    description = "from or to is not an ISO-8601 instant, or from is not before to"
+                            )
+                    }
+            )
+    )
+    public RouterFunction<ServerResponse> merchantStatsRouter(MerchantStatsHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/v1/merchants/{merchantId}/stats",
+                        RequestPredicates.accept(MediaType.APPLICATION_JSON), handler::getMerchantStats)
+                .build();
+    }
+}
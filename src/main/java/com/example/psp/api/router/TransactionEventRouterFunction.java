@@ -0,0 +1,97 @@
+package com.example.psp.api.router;
+
+import com.example.psp.api.dto.transaction.TransactionEventDto;
+import com.example.psp.api.handler.TransactionEventHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springdoc.core.annotations.RouterOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Router function for the transaction status event stream.
+ */
+@Configuration
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+public class TransactionEventRouterFunction {
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/merchants/{merchantId}/transaction-events",
+            method = RequestMethod.GET,
+            beanClass = TransactionEventHandler.class,
+            beanMethod = "streamEvents",
+            operation = @Operation(
+                    operationId = "streamTransactionEvents",
+                    summary = "Stream transaction status events",
+                    description = "Streams the status changes of the merchant's transactions as server-sent events. "
+                            + "The id of every event is its offset; reconnecting with the Last-Event-ID header "
+                            + "or the after parameter replays the events missed since that offset",
+                    tags = {"Transactions"},
+                    parameters = {
+                            @Parameter(
+                                    in = ParameterIn.PATH,
+                                    name = "merchantId",
+                                    required = true,
+                                    description = "Unique merchant identifier",
+                                    example = "MERCHANT_001"
+                            ),
+                            @Parameter(
+                                    in = ParameterIn.HEADER,
+                                    name = "Last-Event-ID",
+                                    description = "Offset of the last event received, takes precedence over after",
+                                    example = "1042"
+                            ),
+                            @Parameter(
+                                    in = ParameterIn.QUERY,
+                                    name = "after",
+                                    description = "Offset of the last event received, omit both to receive new events only",
+                                    example = "1042"
+                            )
+                    },
+                    responses = {
+                            @ApiResponse(
+                                    responseCode = "200",
+                                    description = "Events streamed as they are published",
+                                    content = @Content(
+                                            mediaType = "text/event-stream",
+                                            schema = @Schema(implementation = TransactionEventDto.class),
+                                            examples = {
+                                                    @ExampleObject(
+                                                            name = "Event",
+                                                            summary = "An approved transaction",
+                                                            value = """
+                                                                    id:1043
+                                                                    event:transaction.status
+                                                                    data:{"transactionId":"550e8400-e29b-41d4-a716-446655440000","transactionStatus":"APPROVED","acquirerType":"ACQUIRER_A","amount":99.99,"currencyCode":"USD","merchantId":"MERCHANT_001","occurredAt":"2026-03-01T12:00:00.123456Z"}
+                                                                    """
+                                                    )
+                                            }
+                                    )
+                            ),
+                            @ApiResponse(
+                                    responseCode = "400",
+                                    description = "The resume offset is not a non-negative number"
+                            )
+                    }
+            )
+    )
+    public RouterFunction<ServerResponse> transactionEventRouter(TransactionEventHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/v1/merchants/{merchantId}/transaction-events",
+                        RequestPredicates.accept(MediaType.TEXT_EVENT_STREAM), handler::streamEvents)
+                .build();
+    }
+}
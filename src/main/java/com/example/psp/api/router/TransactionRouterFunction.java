@@ -1,9 +1,16 @@
 package com.example.psp.api.router;
 
+import com.example.psp.api.codec.TransactionMediaTypes;
+import com.example.psp.api.dto.transaction.BatchItemResponseDto;
+import com.example.psp.api.dto.transaction.TransactionDetailsDto;
+import com.example.psp.api.dto.transaction.TransactionPageDto;
 import com.example.psp.api.dto.transaction.TransactionRequestDto;
 import com.example.psp.api.dto.transaction.TransactionResponseDto;
+import com.example.psp.api.filter.ConcurrencyLimitFilter;
 import com.example.psp.api.handler.TransactionHandler;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -26,6 +33,8 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 @Configuration
 public class TransactionRouterFunction {
 
+    private static final MediaType[] PAYMENT_MEDIA_TYPES = TransactionMediaTypes.PAYMENT.toArray(MediaType[]::new);
+
     @Bean
     @RouterOperations({
             @RouterOperation(
@@ -38,8 +47,15 @@ public class TransactionRouterFunction {
                             summary = "Process a payment transaction",
                             description = "Processes a payment transaction with the provided card details and amount",
                             tags = {"Transactions"},
+                            parameters = @Parameter(
+                                    in = ParameterIn.HEADER,
+                                    name = "Idempotency-Key",
+                                    description = "Merchant-chosen key making retries safe: a repeated request returns the response of the first one",
+                                    example = "order-42-attempt"
+                            ),
                             requestBody = @RequestBody(
-                                    description = "Transaction request details",
+                                    description = "Transaction request details, as JSON or with the same fields as "
+                                            + "CBOR (application/cbor) or Smile (application/x-jackson-smile)",
                                     required = true,
                                     content = @Content(
                                             mediaType = "application/json",
@@ -67,11 +83,34 @@ public class TransactionRouterFunction {
                             responses = {
                                     @ApiResponse(
                                             responseCode = "200",
-                                            description = "Transaction processed successfully",
-                                            content = @Content(
-                                                    mediaType = "application/json",
-                                                    schema = @Schema(implementation = TransactionResponseDto.class)
-                                            )
+                                            description = "Transaction processed successfully, in the first of JSON, "
+                                                    + "CBOR and Smile the client accepts",
+                                            content = {
+                                                    @Content(
+                                                            mediaType = "application/json",
+                                                            schema = @Schema(implementation = TransactionResponseDto.class)
+                                                    ),
+                                                    @Content(
+                                                            mediaType = "application/cbor",
+                                                            schema = @Schema(implementation = TransactionResponseDto.class)
+                                                    ),
+                                                    @Content(
+                                                            mediaType = "application/x-jackson-smile",
+                                                            schema = @Schema(implementation = TransactionResponseDto.class)
+                                                    )
+                                            }
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "409",
+                                            description = "A request with the same Idempotency-Key is still being processed"
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "The service is at its in-flight request limit and shed the request"
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "429",
+                                            description = "The merchant exceeded its rate limit, retry after the number of seconds in the Retry-After header"
                                     ),
                                     @ApiResponse(
                                             responseCode = "400",
@@ -88,7 +127,7 @@ public class TransactionRouterFunction {
                                                                                 "type": "/api/v1/transactions",
                                                                                 "status": 400,
                                                                                 "title": "ValidationException",
-                                                                                "description": "cardNumber: invalid credit card number, cardNumber: Card number must be 16 digits"
+                                                                                "description": "cardNumber: Card number checksum is invalid"
                                                                             }
                                                                             """
                                                             )
@@ -97,14 +136,226 @@ public class TransactionRouterFunction {
                                     )
                             }
                     )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/transactions/{id}",
+                    method = RequestMethod.GET,
+                    beanClass = TransactionHandler.class,
+                    beanMethod = "getTransaction",
+                    operation = @Operation(
+                            operationId = "getTransaction",
+                            summary = "Get a transaction",
+                            description = "Returns a stored transaction by its identifier",
+                            tags = {"Transactions"},
+                            parameters = @Parameter(
+                                    in = ParameterIn.PATH,
+                                    name = "id",
+                                    required = true,
+                                    description = "Unique transaction identifier",
+                                    example = "550e8400-e29b-41d4-a716-446655440000"
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Transaction found",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = TransactionDetailsDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "404",
+                                            description = "Transaction not found"
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/merchants/{merchantId}/transactions",
+                    method = RequestMethod.GET,
+                    produces = MediaType.APPLICATION_JSON_VALUE,
+                    beanClass = TransactionHandler.class,
+                    beanMethod = "listMerchantTransactions",
+                    operation = @Operation(
+                            operationId = "listMerchantTransactions",
+                            summary = "List a merchant's transactions",
+                            description = "Returns the merchant's transactions created in a time range, oldest first, "
+                                    + "in pages linked by cursors. Paging seeks past the last transaction of the previous page, "
+                                    + "so deep pages are as fast as the first one",
+                            tags = {"Transactions"},
+                            parameters = {
+                                    @Parameter(
+                                            in = ParameterIn.PATH,
+                                            name = "merchantId",
+                                            required = true,
+                                            description = "Unique merchant identifier",
+                                            example = "MERCHANT_001"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "from",
+                                            description = "Earliest creation time (inclusive), ISO-8601",
+                                            example = "2026-03-01T00:00:00Z"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "to",
+                                            description = "Latest creation time (exclusive), ISO-8601, defaults to now",
+                                            example = "2026-04-01T00:00:00Z"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "after",
+                                            description = "Cursor returned as nextCursor by the previous page"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "limit",
+                                            description = "Number of transactions in the page, 100 by default",
+                                            example = "100"
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Page of transactions",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = TransactionPageDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Invalid time range, cursor or limit"
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/merchants/{merchantId}/transactions",
+                    method = RequestMethod.GET,
+                    produces = MediaType.APPLICATION_NDJSON_VALUE,
+                    beanClass = TransactionHandler.class,
+                    beanMethod = "exportMerchantTransactions",
+                    operation = @Operation(
+                            operationId = "exportMerchantTransactions",
+                            summary = "Export a merchant's transactions",
+                            description = "Streams all of the merchant's transactions created in a time range, oldest first, "
+                                    + "one JSON document per line, as fast as the client reads them",
+                            tags = {"Transactions"},
+                            parameters = {
+                                    @Parameter(
+                                            in = ParameterIn.PATH,
+                                            name = "merchantId",
+                                            required = true,
+                                            description = "Unique merchant identifier",
+                                            example = "MERCHANT_001"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "from",
+                                            description = "Earliest creation time (inclusive), ISO-8601",
+                                            example = "2026-03-01T00:00:00Z"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "to",
+                                            description = "Latest creation time (exclusive), ISO-8601, defaults to now",
+                                            example = "2026-04-01T00:00:00Z"
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = "after",
+                                            description = "Cursor returned as nextCursor by the paged listing, the export starts after it"
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Transactions streamed one per line",
+                                            content = @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    schema = @Schema(implementation = TransactionDetailsDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Invalid time range or cursor"
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Too many exports are running, retry later"
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/transactions/batch",
+                    method = RequestMethod.POST,
+                    beanClass = TransactionHandler.class,
+                    beanMethod = "processBatch",
+                    operation = @Operation(
+                            operationId = "processBatch",
+                            summary = "Process a stream of payment transactions",
+                            description = "Processes newline-delimited transaction requests and streams back one result per line as it completes",
+                            tags = {"Transactions"},
+                            requestBody = @RequestBody(
+                                    description = "Transaction requests, one JSON document per line",
+                                    required = true,
+                                    content = @Content(
+                                            mediaType = "application/x-ndjson",
+                                            schema = @Schema(implementation = TransactionRequestDto.class),
+                                            examples = {
+                                                    @ExampleObject(
+                                                            name = "Batch",
+                                                            summary = "Two transactions",
+                                                            value = """
+                                                                    {"cardNumber": "4532015112830366", "expiry": "12/25", "cvv": "123", "amount": 99.99, "currencyCode": "USD", "merchantId": "MERCHANT_001"}
+                                                                    {"cardNumber": "4444414444444458", "expiry": "12/25", "cvv": "123", "amount": 10.00, "currencyCode": "EUR", "merchantId": "MERCHANT_001"}
+                                                                    """
+                                                    )
+                                            }
+                                    )
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Results streamed one per line, in completion order",
+                                            content = @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    schema = @Schema(implementation = BatchItemResponseDto.class),
+                                                    examples = {
+                                                            @ExampleObject(
+                                                                    name = "Batch Response",
+                                                                    summary = "A processed line and a rejected line",
+                                                                    value = """
+                                                                            {"line":2,"transactionId":"550e8400-e29b-41d4-a716-446655440000","transactionStatus":"APPROVED","message":"Transaction for merchant MERCHANT_001 is APPROVED"}
+                                                                            {"line":1,"message":"cardNumber: Card number checksum is invalid","error":"ValidationException"}
+                                                                            """
+                                                            )
+                                                    }
+                                            )
+                                    )
+                            }
+                    )
             )
     })
-    public RouterFunction<ServerResponse> transactionRouter(TransactionHandler handler) {
+    public RouterFunction<ServerResponse> transactionRouter(TransactionHandler handler,
+                                                            ConcurrencyLimitFilter concurrencyLimit) {
         return RouterFunctions.route()
                 .path("/api/v1", builder -> builder
-                        .POST("/transactions", RequestPredicates.accept(MediaType.APPLICATION_JSON)
-                                .and(RequestPredicates.contentType(MediaType.APPLICATION_JSON)),
-                                handler::processTransaction)
+                        .POST("/transactions", RequestPredicates.accept(PAYMENT_MEDIA_TYPES)
+                                .and(RequestPredicates.contentType(PAYMENT_MEDIA_TYPES)),
+                                concurrencyLimit.apply(handler::processTransaction))
+                        .GET("/transactions/{id}", RequestPredicates.accept(MediaType.APPLICATION_JSON),
+                                handler::getTransaction)
+                        .POST("/transactions/batch", RequestPredicates.contentType(MediaType.APPLICATION_NDJSON),
+                                handler::processBatch)
+                        // Clients accepting anything get the paged listing, the export has to be asked for
+                        .GET("/merchants/{merchantId}/transactions", RequestPredicates.accept(MediaType.APPLICATION_JSON),
+                                handler::listMerchantTransactions)
+                        .GET("/merchants/{merchantId}/transactions", RequestPredicates.accept(MediaType.APPLICATION_NDJSON),
+                                handler::exportMerchantTransactions)
                 )
                 .build();
     }
@@ -0,0 +1,58 @@
+package com.example.psp.api.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Single-pass check of a decimal amount text for {@link ValidAmount}. Leading zeros of the integer part and
+ * trailing zeros of the fraction do not count as digits.
+ */
+public class AmountValidator implements ConstraintValidator<ValidAmount, CharSequence> {
+
+    private int maxIntegerDigits;
+    private int maxFractionDigits;
+
+    @Override
+    public void initialize(ValidAmount constraint) {
+        this.maxIntegerDigits = constraint.integer();
+        this.maxFractionDigits = constraint.fraction();
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+
+        int integerDigits = 0;
+        int fractionDigits = 0;
+        int significantFractionDigits = 0;
+        boolean fraction = false;
+        boolean positive = false;
+        boolean hasDigits = false;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            hasDigits = true;
+            if (c != '0') {
+                positive = true;
+            }
+            if (fraction) {
+                fractionDigits++;
+                if (c != '0') {
+                    significantFractionDigits = fractionDigits;
+                }
+            } else if (integerDigits > 0 || c != '0') {
+                integerDigits++;
+            }
+        }
+        return hasDigits && positive && integerDigits <= maxIntegerDigits && significantFractionDigits <= maxFractionDigits;
+    }
+}
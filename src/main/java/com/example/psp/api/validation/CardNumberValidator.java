@@ -0,0 +1,23 @@
+package com.example.psp.api.validation;
+
+import com.example.psp.shared.CardValidation;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Bean Validation adapter for the single-pass {@link CardValidation} engine.
+ */
+public class CardNumberValidator implements ConstraintValidator<ValidCardNumber, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        CardValidation.Rule rule = CardValidation.validate(value);
+        if (rule == CardValidation.Rule.VALID) {
+            return true;
+        }
+
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(rule.getMessage()).addConstraintViolation();
+        return false;
+    }
+}
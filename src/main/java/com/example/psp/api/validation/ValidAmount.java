@@ -0,0 +1,31 @@
+package com.example.psp.api.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated decimal text must be a positive plain decimal number within the given number of integer and
+ * fraction digits. Checked on the text itself, without converting it to a number.
+ */
+@Documented
+@Constraint(validatedBy = AmountValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidAmount {
+
+    String message() default "Amount must be a positive decimal number with at most {integer} integer digits and {fraction} decimal places";
+
+    int integer();
+
+    int fraction();
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
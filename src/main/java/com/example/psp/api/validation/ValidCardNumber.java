@@ -0,0 +1,27 @@
+package com.example.psp.api.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated card number must pass all checks of {@link com.example.psp.shared.CardValidation}.
+ * The violation message names the first rule that failed.
+ */
+@Documented
+@Constraint(validatedBy = CardNumberValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidCardNumber {
+
+    String message() default "Invalid card number";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
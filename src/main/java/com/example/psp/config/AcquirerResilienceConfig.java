@@ -0,0 +1,23 @@
+package com.example.psp.config;
+
+import com.example.psp.config.properties.AcquirerResilienceProperties;
+import com.example.psp.service.acquirer.resilience.ResilientAcquirerPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class AcquirerResilienceConfig {
+
+    /**
+     * Post-processors are created before regular beans, so the properties are bound directly
+     * from the environment instead of being injected.
+     */
+    @Bean
+    static ResilientAcquirerPostProcessor resilientAcquirerPostProcessor(Environment environment) {
+        AcquirerResilienceProperties properties = Binder.get(environment)
+                .bindOrCreate("psp.acquirer.resilience", AcquirerResilienceProperties.class);
+        return new ResilientAcquirerPostProcessor(properties);
+    }
+}
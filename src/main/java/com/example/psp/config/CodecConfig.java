@@ -0,0 +1,40 @@
+package com.example.psp.config;
+
+import com.example.psp.api.codec.PaymentResponseEncoder;
+import com.example.psp.api.codec.TransactionMediaTypes;
+import com.example.psp.api.codec.TransactionRequestDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+
+/**
+ * Registers the payment request and response codecs ahead of the generic Jackson ones.
+ * JSON uses the factory of the application's ObjectMapper, CBOR and Smile carry the same fields in binary.
+ */
+@Configuration
+public class CodecConfig {
+
+    @Bean
+    public CodecCustomizer paymentCodecCustomizer(ObjectMapper objectMapper) {
+        CBORFactory cbor = new CBORFactory();
+        SmileFactory smile = new SmileFactory();
+        return configurer -> {
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new TransactionRequestDecoder(objectMapper.getFactory(), MediaType.APPLICATION_JSON));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new TransactionRequestDecoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new TransactionRequestDecoder(smile, TransactionMediaTypes.APPLICATION_SMILE));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new PaymentResponseEncoder(objectMapper.getFactory(), MediaType.APPLICATION_JSON));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new PaymentResponseEncoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new PaymentResponseEncoder(smile, TransactionMediaTypes.APPLICATION_SMILE));
+        };
+    }
+}
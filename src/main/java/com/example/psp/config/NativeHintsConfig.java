@@ -0,0 +1,38 @@
+package com.example.psp.config;
+
+import com.example.psp.api.dto.stats.MerchantStatsDto;
+import com.example.psp.api.dto.transaction.BatchItemResponseDto;
+import com.example.psp.api.dto.transaction.TransactionDetailsDto;
+import com.example.psp.api.dto.transaction.TransactionEventDto;
+import com.example.psp.api.dto.transaction.TransactionPageDto;
+import com.example.psp.api.dto.transaction.TransactionRequestDto;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for the native image: the functional endpoints write their DTOs with Jackson, which AOT processing does not
+ * detect as it does for annotated controllers, and the routing rules are read from the classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({
+        TransactionRequestDto.class,
+        TransactionDetailsDto.class,
+        TransactionPageDto.class,
+        BatchItemResponseDto.class,
+        TransactionEventDto.class,
+        MerchantStatsDto.class
+})
+@ImportRuntimeHints(NativeHintsConfig.ResourceHints.class)
+public class NativeHintsConfig {
+
+    static class ResourceHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("routing/*.csv");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.psp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers of the {@code @Scheduled} jobs.
+ * <p>
+ * The relays and reloads run every few milliseconds to seconds on the default scheduler. Maintenance jobs that
+ * block on long database statements (partition maintenance, purges, stats checkpoints) run on a pool of their own
+ * selected with {@code @Scheduled(scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)}, so they never hold up
+ * the relays.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String MAINTENANCE_SCHEDULER = "maintenanceScheduler";
+
+    /**
+     * Default scheduler of the {@code @Scheduled} jobs, configured by {@code spring.task.scheduling.*}. Declared
+     * because the maintenance scheduler would otherwise replace the auto-configured one.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler maintenanceScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                        @Value("${psp.scheduling.maintenance-pool-size:2}") int poolSize) {
+        return builder.poolSize(poolSize)
+                .threadNamePrefix("maintenance-")
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.psp.config;
+
+import com.example.psp.config.properties.PaymentPipelineProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when the payment pipeline runs in the single-write mode.
+ * <p>
+ * The mode is bound to {@link PaymentPipelineProperties.Mode} the same way as the properties, so every spelling the
+ * properties accept ({@code single-write}, {@code SINGLE_WRITE}) selects the beans of the mode, and a value that is
+ * not a mode fails the startup instead of silently running the standard pipeline.
+ */
+public class SingleWritePipelineCondition extends SpringBootCondition {
+
+    private static final String MODE_PROPERTY = "psp.payment.pipeline.mode";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        PaymentPipelineProperties.Mode mode = Binder.get(context.getEnvironment())
+                .bind(MODE_PROPERTY, PaymentPipelineProperties.Mode.class)
+                .orElse(PaymentPipelineProperties.Mode.STANDARD);
+        ConditionMessage message = ConditionMessage.forCondition("Payment pipeline mode")
+                .because(MODE_PROPERTY + " is " + mode);
+        return mode == PaymentPipelineProperties.Mode.SINGLE_WRITE
+                ? ConditionOutcome.match(message)
+                : ConditionOutcome.noMatch(message);
+    }
+}
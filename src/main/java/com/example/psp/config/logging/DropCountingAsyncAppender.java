@@ -0,0 +1,32 @@
+package com.example.psp.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback async appender that counts the events it drops.
+ * <p>
+ * Events are dropped when the ring buffer is full and {@code neverBlock} is set, or when the buffer is filled
+ * beyond the discarding threshold and the event is discardable (TRACE, DEBUG or INFO). The count is approximate
+ * under contention, which is enough to alert on. Appenders are created by logback before the application context,
+ * so the count is kept in a static counter and exported by {@link LoggingMetrics}.
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public static long droppedEvents() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if ((remaining == 0 && isNeverBlock()) || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+            DROPPED.increment();
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.psp.config.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the number of log events dropped by the {@link DropCountingAsyncAppender}.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("psp.logging.dropped.events", DropCountingAsyncAppender.class,
+                        appender -> DropCountingAsyncAppender.droppedEvents())
+                .description("Log events dropped by the async appender because its buffer was full")
+                .register(registry);
+    }
+}
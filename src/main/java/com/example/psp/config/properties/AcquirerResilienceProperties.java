@@ -0,0 +1,51 @@
+package com.example.psp.config.properties;
+
+import com.example.psp.domain.enums.AcquirerType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the resilience layer wrapped around every acquirer.
+ *
+ * @param enabled   whether acquirers are wrapped at all
+ * @param defaults  settings applied to every acquirer
+ * @param acquirers settings replacing the defaults for individual acquirers
+ */
+@ConfigurationProperties(prefix = "psp.acquirer.resilience")
+public record AcquirerResilienceProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Settings defaults,
+        Map<AcquirerType, Settings> acquirers
+) {
+
+    public Settings settingsFor(AcquirerType type) {
+        return acquirers != null && acquirers.containsKey(type) ? acquirers.get(type) : defaults;
+    }
+
+    /**
+     * @param maxConcurrentCalls     concurrent calls allowed before new calls are rejected
+     * @param timeout                deadline of a single authorization call
+     * @param slidingWindowSize      number of most recent calls the breaker evaluates
+     * @param minimumCalls           calls required in the window before the breaker may open
+     * @param failureRateThreshold   percentage of failed calls that opens the breaker
+     * @param slowCallDuration       duration above which a call counts as slow
+     * @param slowCallRateThreshold  percentage of slow calls that opens the breaker
+     * @param openDuration           how long the breaker stays open before letting trial calls through
+     * @param halfOpenCalls          number of trial calls that decide whether the breaker closes again
+     */
+    public record Settings(
+            @DefaultValue("100") int maxConcurrentCalls,
+            @DefaultValue("2s") Duration timeout,
+            @DefaultValue("100") int slidingWindowSize,
+            @DefaultValue("20") int minimumCalls,
+            @DefaultValue("50") int failureRateThreshold,
+            @DefaultValue("1s") Duration slowCallDuration,
+            @DefaultValue("80") int slowCallRateThreshold,
+            @DefaultValue("30s") Duration openDuration,
+            @DefaultValue("5") int halfOpenCalls
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the streaming batch payment endpoint.
+ *
+ * @param concurrency maximum number of lines of one batch processed at the same time
+ */
+@ConfigurationProperties(prefix = "psp.api.batch")
+public record BatchPaymentProperties(
+        @DefaultValue("32") int concurrency
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the micro-batched write-behind repository mode.
+ *
+ * @param maxBatchSize         maximum number of writes sent to the database in one batch
+ * @param maxLatency           maximum time a write waits in the queue before its batch is flushed
+ * @param maxConcurrentFlushes maximum number of batches being written to the database at the same time
+ * @param maxQueueSize         maximum number of writes waiting for a flush, further inserts are rejected
+ */
+@ConfigurationProperties(prefix = "psp.repository.batching")
+public record BatchingRepositoryProperties(
+        @DefaultValue("64") int maxBatchSize,
+        @DefaultValue("5ms") Duration maxLatency,
+        @DefaultValue("4") int maxConcurrentFlushes,
+        @DefaultValue("4096") int maxQueueSize
+) {
+}
@@ -0,0 +1,31 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the adaptive in-flight limit on the payment endpoint.
+ *
+ * @param enabled       whether requests are limited at all
+ * @param initialLimit  limit used until enough latency samples have been seen
+ * @param minLimit      the limit never drops below this number of in-flight requests
+ * @param maxLimit      the limit never grows above this number of in-flight requests
+ * @param probeInterval how often the limit is halved briefly to re-measure the latency without queueing
+ */
+@ConfigurationProperties(prefix = "psp.api.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("30s") Duration probeInterval
+) {
+
+    public ConcurrencyLimitProperties {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+    }
+}
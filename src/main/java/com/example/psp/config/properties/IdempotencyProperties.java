@@ -0,0 +1,21 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of Idempotency-Key handling.
+ *
+ * @param maxCachedKeys maximum number of responses kept in memory
+ * @param ttl           how long a key is remembered, both in memory and in the database
+ * @param purgeInterval how often expired keys are deleted from the database
+ */
+@ConfigurationProperties(prefix = "psp.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("100000") long maxCachedKeys,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("1h") Duration purgeInterval
+) {
+}
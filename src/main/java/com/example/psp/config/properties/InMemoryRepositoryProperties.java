@@ -0,0 +1,27 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the in-memory transaction store ({@code psp.repository.mode=memory}).
+ *
+ * @param maxTransactions     number of transactions above which the oldest finalized ones are evicted
+ * @param retention           finalized transactions older than this are evicted
+ * @param maintenanceInterval how often transactions past the retention are evicted
+ * @param snapshotPath        file the store is periodically written to and restored from on startup,
+ *                            no snapshots are taken when not set
+ * @param snapshotInterval    how often a snapshot is written
+ */
+@ConfigurationProperties(prefix = "psp.repository.memory")
+public record InMemoryRepositoryProperties(
+        @DefaultValue("1000000") int maxTransactions,
+        @DefaultValue("24h") Duration retention,
+        @DefaultValue("10s") Duration maintenanceInterval,
+        Path snapshotPath,
+        @DefaultValue("1m") Duration snapshotInterval
+) {
+}
@@ -0,0 +1,51 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the journal repository mode ({@code psp.repository.mode=journal}).
+ *
+ * @param directory          directory of the journal segment files and the relay checkpoint
+ * @param segmentSize        size of a memory-mapped segment file
+ * @param fsync              when appended writes are forced to the storage device
+ * @param fsyncInterval      maximum time between two forces with the interval policy
+ * @param maxBatchSize       maximum number of writes appended and forced as one group commit
+ * @param retention          finalized transactions relayed to the database are kept in the journal this long,
+ *                           older ones are read from the database
+ * @param compactionInterval how often relayed segments are compacted
+ * @param relayInterval      how often journaled writes are relayed to the database
+ * @param relayBatchSize     maximum number of writes relayed to the database in one statement
+ */
+@ConfigurationProperties(prefix = "psp.repository.journal")
+public record JournalRepositoryProperties(
+        @DefaultValue("data/journal") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("always") FsyncPolicy fsync,
+        @DefaultValue("10ms") Duration fsyncInterval,
+        @DefaultValue("256") int maxBatchSize,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("1m") Duration compactionInterval,
+        @DefaultValue("50ms") Duration relayInterval,
+        @DefaultValue("500") int relayBatchSize
+) {
+
+    public enum FsyncPolicy {
+        /**
+         * Every group commit is forced before its writes complete.
+         */
+        ALWAYS,
+        /**
+         * Writes complete once they are in the page cache and are forced at most the fsync interval later.
+         */
+        INTERVAL,
+        /**
+         * Writes are never forced explicitly and reach the storage device when the operating system writes them back.
+         */
+        NEVER
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the per-merchant admission control in front of payment processing.
+ *
+ * @param enabled      whether payment requests are rate limited at all
+ * @param defaults     limit applied to every merchant without its own entry
+ * @param merchants    limits replacing the defaults for individual merchants, keyed by merchant ID
+ * @param idleTimeout  how long the bucket of a merchant without requests is kept; a bucket idle for longer than
+ *                     {@code burst / rate} is full anyway, so evicting it does not change any decision
+ * @param maxMerchants maximum number of merchant buckets kept in memory
+ */
+@ConfigurationProperties(prefix = "psp.rate-limit")
+public record MerchantRateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Limit defaults,
+        Map<String, Limit> merchants,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue("1000000") long maxMerchants
+) {
+
+    public Limit limitFor(String merchantId) {
+        return merchants != null && merchants.containsKey(merchantId) ? merchants.get(merchantId) : defaults;
+    }
+
+    /**
+     * @param rate  sustained number of payment requests per second
+     * @param burst number of requests accepted at once after the merchant was idle
+     */
+    public record Limit(
+            @DefaultValue("100") double rate,
+            @DefaultValue("200") int burst
+    ) {
+
+        public Limit {
+            if (rate <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate limit must have a positive rate and burst");
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the per-merchant rollups of completed payments.
+ *
+ * @param enabled            whether completed payments are counted and the stats endpoint is served
+ * @param bucket             length of a time bucket, payments are counted in the bucket of their completion time
+ * @param checkpointInterval how often the totals of the changed rollups are written to the summary table
+ * @param retention          how long rollups stay in memory after their bucket ended; with a database they are only
+ *                           dropped once checkpointed, without one the stats only cover this period
+ * @param compactAfter       age of a bucket after which the rows of all instances are folded into one row per
+ *                           rollup; longer than the retention plus two buckets, no instance counts into it any more
+ * @param summaryRetention   how long rollups are kept in the summary table
+ * @param compactInterval    how often buckets are compacted and rollups past the summary retention deleted
+ */
+@ConfigurationProperties(prefix = "psp.stats")
+public record MerchantStatsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1h") Duration bucket,
+        @DefaultValue("10s") Duration checkpointInterval,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("24h") Duration compactAfter,
+        @DefaultValue("90d") Duration summaryRetention,
+        @DefaultValue("1h") Duration compactInterval
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of payment logging.
+ *
+ * @param detailSampleRate share of payment requests, between 0 and 1, whose per-stage detail events are logged;
+ *                         the summary event of every payment is always logged
+ */
+@ConfigurationProperties(prefix = "psp.logging.payment")
+public record PaymentLoggingProperties(
+        @DefaultValue("1.0") double detailSampleRate
+) {
+}
@@ -0,0 +1,37 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the payment processing pipeline.
+ *
+ * @param mode      standard (PENDING insert followed by an update) or single-write (one row with the final status)
+ * @param intentLog configuration of the intent log used by the single-write mode
+ */
+@ConfigurationProperties(prefix = "psp.payment.pipeline")
+public record PaymentPipelineProperties(
+        @DefaultValue("standard") Mode mode,
+        @DefaultValue IntentLog intentLog
+) {
+
+    public enum Mode {
+        STANDARD,
+        SINGLE_WRITE
+    }
+
+    /**
+     * @param path          file the intents are appended to
+     * @param sync          whether every append is forced to the storage device before the acquirer is called
+     * @param rotationSize  size after which the log is rewritten with only the in-flight intents
+     */
+    public record IntentLog(
+            @DefaultValue("data/payment-intents.log") Path path,
+            @DefaultValue("true") boolean sync,
+            @DefaultValue("64MB") DataSize rotationSize
+    ) {
+    }
+}
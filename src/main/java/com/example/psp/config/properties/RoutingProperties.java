@@ -0,0 +1,20 @@
+package com.example.psp.config.properties;
+
+import com.example.psp.domain.enums.AcquirerType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+/**
+ * Configuration of the acquirer routing rules.
+ *
+ * @param rules           location of the CSV rules file, e.g. {@code file:/etc/psp/routing-rules.csv}, checked for
+ *                        modifications every {@code psp.routing.reload-interval}
+ * @param defaultAcquirer acquirer used when no rule matches a payment
+ */
+@ConfigurationProperties(prefix = "psp.routing")
+public record RoutingProperties(
+        @DefaultValue("classpath:routing/rules.csv") Resource rules,
+        @DefaultValue("ACQUIRER_A") AcquirerType defaultAcquirer
+) {
+}
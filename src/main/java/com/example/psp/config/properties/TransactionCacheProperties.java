@@ -0,0 +1,19 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-process cache in front of transaction lookups.
+ *
+ * @param maxSize maximum number of transactions kept in the cache
+ * @param ttl     how long a transaction stays in the cache after it was written
+ */
+@ConfigurationProperties(prefix = "psp.transaction.cache")
+public record TransactionCacheProperties(
+        @DefaultValue("100000") long maxSize,
+        @DefaultValue("10m") Duration ttl
+) {
+}
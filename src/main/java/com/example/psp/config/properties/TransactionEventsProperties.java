@@ -0,0 +1,32 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the transaction status events written to the outbox and streamed to merchants.
+ *
+ * @param enabled              whether status changes are written to the outbox and the event stream is served,
+ *                             needs the r2dbc or sql repository mode
+ * @param relayInterval        how often unpublished outbox rows are claimed and published
+ * @param relayBatchSize       maximum number of outbox rows claimed at once
+ * @param retention            how long published events stay in the outbox and can be replayed
+ * @param purgeInterval        how often expired events are deleted from the outbox
+ * @param replayPageSize       number of events read from the outbox per query when a stream is resumed
+ * @param subscriberBufferSize maximum number of events buffered for a slow subscriber before its stream is closed
+ * @param heartbeatInterval    how often an idle stream sends a comment to keep the connection open
+ */
+@ConfigurationProperties(prefix = "psp.events")
+public record TransactionEventsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100ms") Duration relayInterval,
+        @DefaultValue("500") int relayBatchSize,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("1h") Duration purgeInterval,
+        @DefaultValue("500") int replayPageSize,
+        @DefaultValue("1024") int subscriberBufferSize,
+        @DefaultValue("15s") Duration heartbeatInterval
+) {
+}
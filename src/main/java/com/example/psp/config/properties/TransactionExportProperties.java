@@ -0,0 +1,22 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the merchant transaction listing and export.
+ *
+ * @param defaultPageSize      number of transactions in a page when the request does not set a limit
+ * @param maxPageSize          maximum number of transactions in a page
+ * @param fetchSize            number of rows fetched from the database cursor at a time by a streaming export
+ * @param maxConcurrentExports maximum number of streaming exports running at the same time, each holds a database
+ *                             connection until it is consumed
+ */
+@ConfigurationProperties(prefix = "psp.transaction.export")
+public record TransactionExportProperties(
+        @DefaultValue("100") int defaultPageSize,
+        @DefaultValue("1000") int maxPageSize,
+        @DefaultValue("500") int fetchSize,
+        @DefaultValue("4") int maxConcurrentExports
+) {
+}
@@ -0,0 +1,37 @@
+package com.example.psp.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the time partitions of the transaction table.
+ *
+ * @param enabled             whether partitions are maintained by this instance at all
+ * @param granularity         time range covered by one partition
+ * @param premake             number of future partitions kept ready after the current one
+ * @param retention           partitions whose whole range is older than this are expired
+ * @param retentionAction     whether expired partitions are only detached (kept as standalone tables) or dropped
+ * @param maintenanceInterval how often partitions are created and expired
+ */
+@ConfigurationProperties(prefix = "psp.repository.partitioning")
+public record TransactionPartitioningProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("monthly") Granularity granularity,
+        @DefaultValue("3") int premake,
+        @DefaultValue("400d") Duration retention,
+        @DefaultValue("detach") RetentionAction retentionAction,
+        @DefaultValue("1h") Duration maintenanceInterval
+) {
+
+    public enum Granularity {
+        DAILY,
+        MONTHLY
+    }
+
+    public enum RetentionAction {
+        DETACH,
+        DROP
+    }
+}
@@ -6,6 +6,7 @@ import com.example.psp.domain.enums.TransactionStatus;
 import com.example.psp.domain.valueobjects.CardDetails;
 import com.example.psp.domain.valueobjects.StoredCardInfo;
 import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.shared.UuidV7;
 import lombok.*;
 
 import java.time.Clock;
@@ -77,6 +78,7 @@ public class Transaction {
 
     /**
      * Initializes a new Transaction with the provided details.
+     * The id is a version 7 UUID that encodes the creation time.
      *
      * @param card       The card details used for the transaction.
      * @param money      The monetary amount of the transaction.
@@ -92,7 +94,7 @@ public class Transaction {
     ) {
 
         return new Transaction(
-                UUID.randomUUID(),
+                UuidV7.generate(now),
                 StoredCardInfo.of(card),
                 money,
                 merchantId,
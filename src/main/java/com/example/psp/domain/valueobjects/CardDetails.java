@@ -22,10 +22,15 @@ public class CardDetails {
     String cvv;
     YearMonth expiryDate;
 
+    // Extracted by the card validation pass, so consumers do not have to parse the card number again
+    int binPrefix;
+    int checkDigit;
+
     /**
      * Returns the Bank Identification Number (BIN) which is the first 6 digits of the card number.
      *
      * @return the BIN of the card
+     * @see #getBinPrefix()
      */
     public String getBIN() {
         return cardNumber.substring(0, 6);
@@ -35,6 +40,7 @@ public class CardDetails {
      * Returns the last digit of the card number.
      *
      * @return the last digit of the card
+     * @see #getCheckDigit()
      */
     public String getLastDigit() {
         return cardNumber.substring(cardNumber.length() - 1);
@@ -54,13 +60,16 @@ public class CardDetails {
     @Builder(builderMethodName = "builder")
     public static CardDetails create(@NonNull String cardNumber, @NonNull String cvv, @NonNull YearMonth expiryDate, Clock clock) {
 
-        if (!CardValidation.isValidLuhn(cardNumber)) throw new IllegalArgumentException("Invalid card number");
+        // Scanned here even when the request constraint already did, so the BIN and check digit always match the number
+        long scan = CardValidation.scan(cardNumber);
+        CardValidation.Rule rule = CardValidation.rule(scan);
+        if (rule != CardValidation.Rule.VALID) throw new IllegalArgumentException("Invalid card number: " + rule.getMessage());
 
         if (cvv.length() != 3) throw new IllegalArgumentException("CVV must be 3 digits long");
 
         if (expiryDate.isBefore(YearMonth.now(clock))) throw new IllegalArgumentException("Card is expired");
 
-        return new CardDetails(cardNumber, cvv, expiryDate);
+        return new CardDetails(cardNumber, cvv, expiryDate, CardValidation.bin(scan), CardValidation.lastDigit(scan));
     }
 
 
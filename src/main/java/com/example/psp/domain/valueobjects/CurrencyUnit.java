@@ -0,0 +1,90 @@
+package com.example.psp.domain.valueobjects;
+
+import lombok.NonNull;
+
+import java.util.Currency;
+
+/**
+ * ISO 4217 currency with the exponent of its minor unit (2 for USD cents, 0 for JPY, 3 for KWD).
+ * <p>
+ * One shared instance exists per currency, resolved from the ISO 4217 data shipped with the JDK when the class is
+ * loaded. Looking a code up is an array access indexed by its three letters, with no hashing or allocation.
+ */
+public final class CurrencyUnit {
+
+    private static final int LETTERS = 'Z' - 'A' + 1;
+    private static final CurrencyUnit[] BY_CODE = new CurrencyUnit[LETTERS * LETTERS * LETTERS];
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            int index = index(currency.getCurrencyCode());
+            if (index >= 0) {
+                BY_CODE[index] = new CurrencyUnit(currency);
+            }
+        }
+    }
+
+    private final String code;
+    private final int exponent;
+    private final Currency currency;
+
+    private CurrencyUnit(Currency currency) {
+        this.code = currency.getCurrencyCode();
+        // Funds and precious metals (e.g. XAU) have no minor unit
+        this.exponent = Math.max(currency.getDefaultFractionDigits(), 0);
+        this.currency = currency;
+    }
+
+    /**
+     * @param code the ISO 4217 alphabetic code
+     * @return the shared currency unit
+     * @throws IllegalArgumentException if the code is not a known ISO 4217 currency
+     */
+    public static CurrencyUnit of(@NonNull CharSequence code) {
+        int index = index(code);
+        CurrencyUnit unit = index >= 0 ? BY_CODE[index] : null;
+        if (unit == null) {
+            throw new IllegalArgumentException("Unknown currency: " + code);
+        }
+        return unit;
+    }
+
+    public static CurrencyUnit of(@NonNull Currency currency) {
+        return of(currency.getCurrencyCode());
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return the number of decimal places of the currency's minor unit
+     */
+    public int getExponent() {
+        return exponent;
+    }
+
+    public Currency toCurrency() {
+        return currency;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+
+    private static int index(CharSequence code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            index = index * LETTERS + letter;
+        }
+        return index;
+    }
+}
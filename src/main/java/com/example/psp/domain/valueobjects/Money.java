@@ -2,31 +2,124 @@ package com.example.psp.domain.valueobjects;
 
 import lombok.*;
 
-import java.math.BigDecimal;
-import java.util.Currency;
-
 /**
  * Value object representing money with currency and amount.
+ * <p>
+ * The amount is held as a count of the currency's minor unit (e.g. cents), so money is compared, stored and
+ * serialized without decimal or floating-point arithmetic.
  */
 @Value
 @Builder
 public class Money {
 
-    @NonNull Currency currency;
-    @NonNull BigDecimal amount;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    @NonNull CurrencyUnit currency;
+    long minorUnits;
 
     /**
      * Private constructor to enforce validation rules.
      * @param currency the currency of the money
-     * @param amount the amount of money, must be greater than zero
+     * @param minorUnits the amount of money in the currency's minor unit, must be greater than zero
      * @throws IllegalArgumentException if amount is less than or equal to zero
      */
-    private Money(Currency currency, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    private Money(CurrencyUnit currency, long minorUnits) {
+        if (minorUnits <= 0) {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
         this.currency = currency;
-        this.amount = amount;
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Creates money from an amount expressed in the currency's minor unit (e.g. cents).
+     * @param minorUnits the amount in minor units
+     * @param currency the currency of the money
+     * @return the money
+     */
+    public static Money ofMinorUnits(long minorUnits, @NonNull CurrencyUnit currency) {
+        return new Money(currency, minorUnits);
+    }
+
+    /**
+     * Parses a plain decimal amount in major units (e.g. {@code 99.99}) digit by digit, without an intermediate
+     * floating-point or BigDecimal value. Trailing zeros beyond the currency's minor unit are accepted.
+     * @param amount the decimal amount, digits with an optional decimal point
+     * @param currency the currency of the money
+     * @return the money
+     * @throws IllegalArgumentException if the amount is not a plain decimal number, is not greater than zero,
+     *                                  has more decimal places than the currency's minor unit allows or is too large
+     */
+    public static Money parse(@NonNull CharSequence amount, @NonNull CurrencyUnit currency) {
+        int exponent = currency.getExponent();
+        long units = 0;
+        int fractionDigits = -1;
+        boolean hasDigits = false;
+
+        for (int i = 0; i < amount.length(); i++) {
+            char c = amount.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Amount must be a plain decimal number: " + amount);
+            }
+            hasDigits = true;
+            if (fractionDigits == exponent) {
+                if (c != '0') {
+                    throw new IllegalArgumentException("Amount must have at most " + exponent + " decimal places for " + currency);
+                }
+                continue;
+            }
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+            int digit = c - '0';
+            if (units > (Long.MAX_VALUE - digit) / 10) {
+                throw new IllegalArgumentException("Amount is too large: " + amount);
+            }
+            units = units * 10 + digit;
+        }
+        if (!hasDigits) {
+            throw new IllegalArgumentException("Amount must be a plain decimal number: " + amount);
+        }
+
+        long scale = POWERS_OF_TEN[exponent - Math.max(fractionDigits, 0)];
+        if (units > Long.MAX_VALUE / scale) {
+            throw new IllegalArgumentException("Amount is too large: " + amount);
+        }
+        return new Money(currency, units * scale);
+    }
+
+    /**
+     * @param scale number of decimal places, not lower than the currency's exponent
+     * @return the amount expressed with the given number of decimal places (e.g. 99.99 at scale 4 is 999900)
+     */
+    public long toScale(int scale) {
+        if (scale < currency.getExponent()) {
+            throw new IllegalArgumentException("Scale " + scale + " is lower than the exponent of " + currency);
+        }
+        return Math.multiplyExact(minorUnits, POWERS_OF_TEN[scale - currency.getExponent()]);
+    }
+
+    /**
+     * @return the amount in major units as a plain decimal number (e.g. {@code 99.99}, {@code 100} for JPY)
+     */
+    public String toPlainString() {
+        int exponent = currency.getExponent();
+        if (exponent == 0) {
+            return Long.toString(minorUnits);
+        }
+        long major = minorUnits / POWERS_OF_TEN[exponent];
+        long minor = minorUnits % POWERS_OF_TEN[exponent];
+        StringBuilder text = new StringBuilder(20).append(major).append('.');
+        for (int digits = exponent - 1; digits > 0 && minor < POWERS_OF_TEN[digits]; digits--) {
+            text.append('0');
+        }
+        return text.append(minor).toString();
     }
 
 }
@@ -13,6 +13,8 @@ import java.time.YearMonth;
 @AllArgsConstructor
 public class StoredCardInfo {
 
+    private static final String MASK_PREFIX = "****-****-****-";
+
     @NonNull String cardNumberMasked;
     @NonNull YearMonth expiryDate;
 
@@ -28,8 +30,25 @@ public class StoredCardInfo {
 
         // All validation is done in CardDetails and should not be repeated here
 
-        String maskedNumber = "****-****-****-" + cardDetails.getCardNumber().substring(cardDetails.getCardNumber().length() - 4);
-        return new StoredCardInfo(maskedNumber, cardDetails.getExpiryDate());
+        return ofLastFour(cardDetails.getCardNumber().substring(cardDetails.getCardNumber().length() - 4), cardDetails.getExpiryDate());
+    }
+
+    /**
+     * Factory method to create a StoredCardInfo instance from the last 4 digits of the card number.
+     *
+     * @param lastFour   the last 4 digits of the card number
+     * @param expiryDate the expiry date of the card
+     * @return a StoredCardInfo instance with masked card number
+     */
+    public static StoredCardInfo ofLastFour(@NonNull String lastFour, @NonNull YearMonth expiryDate) {
+        return new StoredCardInfo(MASK_PREFIX + lastFour, expiryDate);
+    }
+
+    /**
+     * @return the last 4 digits of the card number, the only part of it that is stored
+     */
+    public String getLastFour() {
+        return cardNumberMasked.substring(cardNumberMasked.length() - 4);
     }
 
 }
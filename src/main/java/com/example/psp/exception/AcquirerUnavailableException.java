@@ -0,0 +1,36 @@
+package com.example.psp.exception;
+
+import com.example.psp.domain.enums.AcquirerType;
+import lombok.Getter;
+
+/**
+ * Thrown when an acquirer cannot authorize a transaction because of its resilience limits.
+ */
+@Getter
+public class AcquirerUnavailableException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL,
+        TIMEOUT
+    }
+
+    private final AcquirerType acquirerType;
+    private final Reason reason;
+
+    public AcquirerUnavailableException(AcquirerType acquirerType, Reason reason) {
+        super("Acquirer " + acquirerType + " is unavailable: " + reason);
+        this.acquirerType = acquirerType;
+        this.reason = reason;
+    }
+
+    /**
+     * Whether the acquirer may have received the call. Only calls rejected before reaching the acquirer
+     * are safe to retry on another acquirer without risking a double authorization.
+     *
+     * @return true if the call was sent to the acquirer
+     */
+    public boolean isCallAttempted() {
+        return reason == Reason.TIMEOUT;
+    }
+}
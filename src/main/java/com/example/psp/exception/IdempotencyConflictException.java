@@ -0,0 +1,11 @@
+package com.example.psp.exception;
+
+/**
+ * Thrown when a request reuses an idempotency key whose original request is still being processed.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String idempotencyKey) {
+        super("A request with Idempotency-Key " + idempotencyKey + " is still being processed");
+    }
+}
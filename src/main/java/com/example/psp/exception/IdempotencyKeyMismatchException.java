@@ -0,0 +1,11 @@
+package com.example.psp.exception;
+
+/**
+ * Thrown when a request reuses an idempotency key of a request with a different payment.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used for a different payment request");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.psp.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a merchant sends payment requests faster than its rate limit allows.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String merchantId, Duration retryAfter) {
+        super("Rate limit exceeded for merchant " + merchantId);
+        this.retryAfter = retryAfter;
+    }
+}
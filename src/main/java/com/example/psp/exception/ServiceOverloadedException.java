@@ -0,0 +1,16 @@
+package com.example.psp.exception;
+
+/**
+ * Thrown when a request is shed because the service already has as many requests in flight, or writes queued,
+ * as it can serve.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(int limit) {
+        super("Service is overloaded, in-flight request limit " + limit + " reached");
+    }
+
+    public ServiceOverloadedException(String message) {
+        super("Service is overloaded, " + message);
+    }
+}
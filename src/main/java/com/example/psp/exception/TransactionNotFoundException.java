@@ -0,0 +1,13 @@
+package com.example.psp.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a requested transaction does not exist.
+ */
+public class TransactionNotFoundException extends RuntimeException {
+
+    public TransactionNotFoundException(UUID transactionId) {
+        super("Transaction " + transactionId + " not found");
+    }
+}
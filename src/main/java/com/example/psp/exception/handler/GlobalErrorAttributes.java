@@ -1,11 +1,18 @@
 package com.example.psp.exception.handler;
 
+import com.example.psp.exception.AcquirerUnavailableException;
+import com.example.psp.exception.IdempotencyConflictException;
+import com.example.psp.exception.IdempotencyKeyMismatchException;
+import com.example.psp.exception.RateLimitExceededException;
+import com.example.psp.exception.ServiceOverloadedException;
+import com.example.psp.exception.TransactionNotFoundException;
 import jakarta.validation.ValidationException;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -37,12 +44,32 @@ public class GlobalErrorAttributes extends DefaultErrorAttributes {
      * @return HttpStatus
      */
     private HttpStatus determineHttpStatus(Throwable error) {
+        if (error instanceof AcquirerUnavailableException || error instanceof ServiceOverloadedException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (error instanceof TransactionNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (error instanceof IdempotencyConflictException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (error instanceof IdempotencyKeyMismatchException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        if (error instanceof RateLimitExceededException) {
+            return HttpStatus.TOO_MANY_REQUESTS;
+        }
         if (error instanceof ValidationException ||
                 error instanceof IllegalArgumentException ||
                 error instanceof IllegalStateException ||
                 error instanceof NullPointerException) {
             return HttpStatus.BAD_REQUEST;
         }
+        if (error instanceof ResponseStatusException responseStatus) {
+            // e.g. an unreadable body (400) or an unsupported content type (415)
+            HttpStatus status = HttpStatus.resolve(responseStatus.getStatusCode().value());
+            return status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR;
+        }
         return HttpStatus.INTERNAL_SERVER_ERROR;
     }
 }
@@ -1,11 +1,13 @@
 package com.example.psp.exception.handler;
 
+import com.example.psp.exception.RateLimitExceededException;
 import org.springframework.boot.autoconfigure.web.WebProperties;
 import org.springframework.boot.autoconfigure.web.reactive.error.AbstractErrorWebExceptionHandler;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.reactive.error.ErrorAttributes;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
@@ -42,9 +44,15 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
         int statusCode = (int) errorPropertiesMap.getOrDefault("status", 500);
 
-        return ServerResponse.status(HttpStatus.valueOf(statusCode))
-                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
-                .body(BodyInserters.fromValue(errorPropertiesMap));
+        ServerResponse.BodyBuilder response = ServerResponse.status(HttpStatus.valueOf(statusCode))
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON);
+        if (getError(request) instanceof RateLimitExceededException rateLimited) {
+            // Retry-After is in whole seconds, rounded up so a client retrying on time gets a permit
+            long millis = rateLimited.getRetryAfter().toMillis();
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (millis + 999) / 1000)));
+        }
+
+        return response.body(BodyInserters.fromValue(errorPropertiesMap));
     }
 
 }
@@ -0,0 +1,31 @@
+package com.example.psp.migration;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+
+import java.util.Arrays;
+
+/**
+ * One-shot command applying the Liquibase changelog and exiting, for deployments whose instances start without
+ * running migrations (the fast-start profile). Run it before rolling out a new version, e.g.
+ * {@code java -cp app.jar com.example.psp.migration.DatabaseMigration} in the application image.
+ * <p>
+ * Only the Liquibase auto-configuration is started, with the application's {@code spring.liquibase.*} properties
+ * and profiles; migrations are enabled whatever the active profiles say.
+ */
+public final class DatabaseMigration {
+
+    private DatabaseMigration() {
+    }
+
+    public static void main(String[] args) {
+        SpringApplication migration = new SpringApplication(LiquibaseAutoConfiguration.class);
+        migration.setWebApplicationType(WebApplicationType.NONE);
+        migration.setBannerMode(Banner.Mode.OFF);
+        String[] arguments = Arrays.copyOf(args, args.length + 1);
+        arguments[args.length] = "--spring.liquibase.enabled=true";
+        System.exit(SpringApplication.exit(migration.run(arguments)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.psp.repository.idempotency;
+
+import com.example.psp.domain.enums.TransactionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stored outcome of a payment request made with an idempotency key.
+ * The transaction fields are null while the request that claimed the key is still being processed.
+ *
+ * @param merchantId        the merchant that sent the request
+ * @param idempotencyKey    the key chosen by the merchant
+ * @param fingerprint       digest of the payment request that claimed the key
+ * @param transactionId     the transaction created for the request
+ * @param transactionStatus the status returned to the merchant
+ * @param message           the message returned to the merchant
+ * @param createdAt         when the key was claimed
+ */
+public record IdempotencyRecord(
+        String merchantId,
+        String idempotencyKey,
+        String fingerprint,
+        UUID transactionId,
+        TransactionStatus transactionStatus,
+        String message,
+        Instant createdAt
+) {
+
+    public boolean isCompleted() {
+        return transactionId != null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.psp.repository.idempotency;
+
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Repository of idempotency keys, unique per merchant.
+ */
+public interface IdempotencyRepository {
+
+    /**
+     * Atomically claims an idempotency key for a new request.
+     *
+     * @param merchantId     The merchant that sent the request.
+     * @param idempotencyKey The key chosen by the merchant.
+     * @param fingerprint    The digest of the payment request, stored with the key.
+     * @param now            The claim time.
+     * @return A Mono emitting true if the key was claimed, false if it was already claimed by another request.
+     */
+    Mono<Boolean> claim(String merchantId, String idempotencyKey, String fingerprint, Instant now);
+
+    /**
+     * Stores the response of the request that claimed the key.
+     *
+     * @param merchantId     The merchant that sent the request.
+     * @param idempotencyKey The claimed key.
+     * @param response       The response returned to the merchant.
+     * @return A Mono completing once the response is stored.
+     */
+    Mono<Void> complete(String merchantId, String idempotencyKey, PaymentResponse response);
+
+    /**
+     * Releases a claimed key whose request failed without a response, so it can be retried.
+     *
+     * @param merchantId     The merchant that sent the request.
+     * @param idempotencyKey The claimed key.
+     * @return A Mono completing once the claim is removed.
+     */
+    Mono<Void> release(String merchantId, String idempotencyKey);
+
+    /**
+     * Finds the record of an idempotency key.
+     *
+     * @param merchantId     The merchant that sent the request.
+     * @param idempotencyKey The key chosen by the merchant.
+     * @return A Mono emitting the record, or an empty Mono if the key is unknown.
+     */
+    Mono<IdempotencyRecord> find(String merchantId, String idempotencyKey);
+
+    /**
+     * Deletes the keys claimed before the given time.
+     *
+     * @param threshold The oldest claim time to keep.
+     * @return A Mono emitting the number of deleted keys.
+     */
+    Mono<Long> deleteCreatedBefore(Instant threshold);
+}
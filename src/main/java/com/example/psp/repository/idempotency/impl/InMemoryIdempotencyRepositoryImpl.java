@@ -0,0 +1,66 @@
+package com.example.psp.repository.idempotency.impl;
+
+import com.example.psp.repository.idempotency.IdempotencyRecord;
+import com.example.psp.repository.idempotency.IdempotencyRepository;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of the IdempotencyRepository for the memory repository mode, which runs without a
+ * database. Keys are unique per instance only and are kept until the scheduled purge removes them after the TTL.
+ */
+@Repository
+@ConditionalOnProperty(name = "psp.repository.mode", havingValue = "memory")
+public class InMemoryIdempotencyRepositoryImpl implements IdempotencyRepository {
+
+    private final ConcurrentHashMap<Key, IdempotencyRecord> records = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Boolean> claim(@NonNull String merchantId, @NonNull String idempotencyKey,
+                               @NonNull String fingerprint, @NonNull Instant now) {
+        return Mono.fromSupplier(() -> records.putIfAbsent(new Key(merchantId, idempotencyKey),
+                new IdempotencyRecord(merchantId, idempotencyKey, fingerprint, null, null, null, now)) == null);
+    }
+
+    @Override
+    public Mono<Void> complete(@NonNull String merchantId, @NonNull String idempotencyKey, @NonNull PaymentResponse response) {
+        return Mono.fromRunnable(() -> records.computeIfPresent(new Key(merchantId, idempotencyKey),
+                (key, claimed) -> new IdempotencyRecord(merchantId, idempotencyKey, claimed.fingerprint(),
+                        response.getTransactionId(), response.getTransactionStatus(), response.getMessage(),
+                        claimed.createdAt())));
+    }
+
+    @Override
+    public Mono<Void> release(@NonNull String merchantId, @NonNull String idempotencyKey) {
+        return Mono.fromRunnable(() -> records.computeIfPresent(new Key(merchantId, idempotencyKey),
+                (key, claimed) -> claimed.isCompleted() ? claimed : null));
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(@NonNull String merchantId, @NonNull String idempotencyKey) {
+        return Mono.fromSupplier(() -> records.get(new Key(merchantId, idempotencyKey)));
+    }
+
+    @Override
+    public Mono<Long> deleteCreatedBefore(@NonNull Instant threshold) {
+        return Mono.fromSupplier(() -> {
+            long deleted = 0;
+            for (var iterator = records.values().iterator(); iterator.hasNext(); ) {
+                if (iterator.next().createdAt().isBefore(threshold)) {
+                    iterator.remove();
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    private record Key(String merchantId, String idempotencyKey) {
+    }
+}
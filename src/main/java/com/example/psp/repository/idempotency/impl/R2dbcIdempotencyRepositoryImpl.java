@@ -0,0 +1,102 @@
+package com.example.psp.repository.idempotency.impl;
+
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.repository.idempotency.IdempotencyRecord;
+import com.example.psp.repository.idempotency.IdempotencyRepository;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * R2DBC implementation of the IdempotencyRepository. Uniqueness of a key is enforced by the primary key
+ * of the {@code payment_idempotency} table, so concurrent claims on different instances cannot both succeed.
+ */
+@Repository
+@ConditionalOnExpression("'${psp.repository.mode:r2dbc}' != 'memory'")
+@RequiredArgsConstructor
+public class R2dbcIdempotencyRepositoryImpl implements IdempotencyRepository {
+
+    private static final String CLAIM_SQL = "INSERT INTO payment_idempotency (merchant_id, idempotency_key, "
+            + "request_fingerprint, created_at) VALUES (:merchantId, :key, :fingerprint, :createdAt) ON CONFLICT DO NOTHING";
+    private static final String COMPLETE_SQL = "UPDATE payment_idempotency SET transaction_id = :transactionId, "
+            + "transaction_status = :status, message = :message WHERE merchant_id = :merchantId AND idempotency_key = :key";
+    private static final String RELEASE_SQL = "DELETE FROM payment_idempotency "
+            + "WHERE merchant_id = :merchantId AND idempotency_key = :key AND transaction_id IS NULL";
+    private static final String FIND_SQL = "SELECT merchant_id, idempotency_key, request_fingerprint, transaction_id, "
+            + "transaction_status, message, created_at FROM payment_idempotency "
+            + "WHERE merchant_id = :merchantId AND idempotency_key = :key";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM payment_idempotency WHERE created_at < :threshold";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Boolean> claim(@NonNull String merchantId, @NonNull String idempotencyKey,
+                               @NonNull String fingerprint, @NonNull Instant now) {
+        return databaseClient.sql(CLAIM_SQL)
+                .bind("merchantId", merchantId)
+                .bind("key", idempotencyKey)
+                .bind("fingerprint", fingerprint)
+                .bind("createdAt", now)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    @Override
+    public Mono<Void> complete(@NonNull String merchantId, @NonNull String idempotencyKey, @NonNull PaymentResponse response) {
+        return databaseClient.sql(COMPLETE_SQL)
+                .bind("transactionId", response.getTransactionId())
+                .bind("status", response.getTransactionStatus().name())
+                .bind("message", response.getMessage())
+                .bind("merchantId", merchantId)
+                .bind("key", idempotencyKey)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(@NonNull String merchantId, @NonNull String idempotencyKey) {
+        return databaseClient.sql(RELEASE_SQL)
+                .bind("merchantId", merchantId)
+                .bind("key", idempotencyKey)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(@NonNull String merchantId, @NonNull String idempotencyKey) {
+        return databaseClient.sql(FIND_SQL)
+                .bind("merchantId", merchantId)
+                .bind("key", idempotencyKey)
+                .map((row, metadata) -> {
+                    String status = row.get("transaction_status", String.class);
+                    return new IdempotencyRecord(
+                            row.get("merchant_id", String.class),
+                            row.get("idempotency_key", String.class),
+                            row.get("request_fingerprint", String.class),
+                            row.get("transaction_id", UUID.class),
+                            status != null ? TransactionStatus.valueOf(status) : null,
+                            row.get("message", String.class),
+                            row.get("created_at", Instant.class)
+                    );
+                })
+                .one();
+    }
+
+    @Override
+    public Mono<Long> deleteCreatedBefore(@NonNull Instant threshold) {
+        return databaseClient.sql(DELETE_EXPIRED_SQL)
+                .bind("threshold", threshold)
+                .fetch()
+                .rowsUpdated();
+    }
+}
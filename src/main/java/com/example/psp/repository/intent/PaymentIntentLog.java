@@ -0,0 +1,40 @@
+package com.example.psp.repository.intent;
+
+import com.example.psp.domain.entities.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Durable log of in-flight payment authorizations.
+ * <p>
+ * Used by the single-write payment pipeline instead of persisting an interim PENDING row:
+ * an intent is recorded before the acquirer is called and completed once the final transaction row is written.
+ * Intents that were never completed describe authorizations interrupted by a crash.
+ */
+public interface PaymentIntentLog {
+
+    /**
+     * Durably records that the authorization of the given transaction has started.
+     *
+     * @param transaction The transaction in PENDING status.
+     * @return A Mono completing once the intent is recorded.
+     */
+    Mono<Void> begin(Transaction transaction);
+
+    /**
+     * Marks the intent of the given transaction as completed.
+     *
+     * @param transactionId The identifier of the transaction whose final state has been persisted.
+     * @return A Mono completing once the completion is recorded.
+     */
+    Mono<Void> complete(UUID transactionId);
+
+    /**
+     * Returns transactions whose intents were recorded but never completed.
+     *
+     * @return A Flux emitting the interrupted transactions in PENDING status.
+     */
+    Flux<Transaction> findIncomplete();
+}
@@ -0,0 +1,263 @@
+package com.example.psp.repository.intent.impl;
+
+import com.example.psp.config.SingleWritePipelineCondition;
+import com.example.psp.config.properties.PaymentPipelineProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import com.example.psp.repository.intent.PaymentIntentLog;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file implementation of the PaymentIntentLog.
+ * <p>
+ * Every record is framed as {@code [length][crc32][payload]} so a torn write at the tail of the file is detected
+ * and ignored on recovery. Intents that were recorded but not completed are read back on startup.
+ * On startup and whenever the file grows beyond the configured rotation size it is rewritten
+ * with only the in-flight intents.
+ */
+@Repository
+@Conditional(SingleWritePipelineCondition.class)
+@Slf4j
+public class FilePaymentIntentLog implements PaymentIntentLog, DisposableBean {
+
+    private static final byte BEGIN = 'B';
+    private static final byte COMPLETE = 'C';
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path path;
+    private final boolean sync;
+    private final long rotationSize;
+
+    // Encoded BEGIN payloads of intents that are still in flight, used to rewrite the log on rotation
+    private final Map<UUID, byte[]> inFlight = new ConcurrentHashMap<>();
+    private final Map<UUID, Transaction> recovered;
+
+    private FileChannel channel;
+
+    public FilePaymentIntentLog(PaymentPipelineProperties properties) {
+        PaymentPipelineProperties.IntentLog config = properties.intentLog();
+        this.path = config.path();
+        this.sync = config.sync();
+        this.rotationSize = config.rotationSize().toBytes();
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.recovered = readIncomplete(path);
+            // Start from a compacted file, which also drops a torn record left at the tail by a crash
+            rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open payment intent log " + path, e);
+        }
+
+        if (!recovered.isEmpty()) {
+            log.warn("Found {} interrupted payment intents in {}", recovered.size(), path);
+        }
+    }
+
+    @Override
+    public Mono<Void> begin(@NonNull Transaction transaction) {
+        return Mono.<Void>fromRunnable(() -> {
+                    byte[] payload = encodeBegin(transaction);
+                    inFlight.put(transaction.getId(), payload);
+                    append(payload);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> complete(@NonNull UUID transactionId) {
+        return Mono.<Void>fromRunnable(() -> {
+                    inFlight.remove(transactionId);
+                    recovered.remove(transactionId);
+                    append(encodeComplete(transactionId));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Transaction> findIncomplete() {
+        return Flux.defer(() -> Flux.fromIterable(List.copyOf(recovered.values())));
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        channel.close();
+    }
+
+    private synchronized void append(byte[] payload) {
+        try {
+            writeRecord(channel, payload);
+            if (sync) {
+                channel.force(false);
+            }
+            if (channel.size() > rotationSize) {
+                rotate();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to payment intent log " + path, e);
+        }
+    }
+
+    /**
+     * Rewrites the log with only the intents that are still in flight or were recovered and not yet completed.
+     * Must be called while holding the append lock.
+     */
+    private void rotate() throws IOException {
+        Path rotated = path.resolveSibling(path.getFileName() + ".rotating");
+        try (FileChannel target = FileChannel.open(rotated, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Transaction transaction : recovered.values()) {
+                writeRecord(target, encodeBegin(transaction));
+            }
+            for (byte[] payload : inFlight.values()) {
+                writeRecord(target, payload);
+            }
+            target.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(rotated, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.debug("Payment intent log rotated, in-flight intents={}", inFlight.size() + recovered.size());
+    }
+
+    private static void writeRecord(FileChannel target, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static Map<UUID, Transaction> readIncomplete(Path path) throws IOException {
+        Map<UUID, Transaction> incomplete = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return new ConcurrentHashMap<>();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                log.warn("Truncated record at the tail of payment intent log {}, ignoring it", path);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("Corrupted record in payment intent log {}, ignoring the rest of the file", path);
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.wrap(payload);
+            byte type = record.get();
+            UUID id = new UUID(record.getLong(), record.getLong());
+            if (type == BEGIN) {
+                incomplete.put(id, decodeBegin(id, record));
+            } else if (type == COMPLETE) {
+                incomplete.remove(id);
+            }
+        }
+        return new ConcurrentHashMap<>(incomplete);
+    }
+
+    private static byte[] encodeBegin(Transaction transaction) {
+        byte[] masked = transaction.getCard().getCardNumberMasked().getBytes(StandardCharsets.UTF_8);
+        byte[] currency = transaction.getMoney().getCurrency().getCode().getBytes(StandardCharsets.US_ASCII);
+        byte[] merchant = transaction.getMerchantId().getBytes(StandardCharsets.UTF_8);
+        YearMonth expiry = transaction.getCard().getExpiryDate();
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES * 4 + Integer.BYTES * 3
+                + Integer.BYTES * 3 + masked.length + currency.length + merchant.length);
+        buffer.put(BEGIN)
+                .putLong(transaction.getId().getMostSignificantBits())
+                .putLong(transaction.getId().getLeastSignificantBits())
+                .putLong(transaction.getCreatedAt().getEpochSecond())
+                .putInt(transaction.getCreatedAt().getNano())
+                .putInt(expiry.getYear())
+                .putInt(expiry.getMonthValue());
+        putBytes(buffer, masked);
+        buffer.putLong(transaction.getMoney().getMinorUnits());
+        putBytes(buffer, currency);
+        putBytes(buffer, merchant);
+        return buffer.array();
+    }
+
+    private static Transaction decodeBegin(UUID id, ByteBuffer record) {
+        Instant createdAt = Instant.ofEpochSecond(record.getLong(), record.getInt());
+        YearMonth expiry = YearMonth.of(record.getInt(), record.getInt());
+        String masked = getString(record);
+        long minorUnits = record.getLong();
+        Money money = Money.ofMinorUnits(minorUnits, CurrencyUnit.of(getString(record)));
+        String merchantId = getString(record);
+
+        return Transaction.reconstruct(
+                id,
+                new StoredCardInfo(masked, expiry),
+                money,
+                merchantId,
+                TransactionStatus.PENDING,
+                null,
+                createdAt,
+                createdAt
+        );
+    }
+
+    private static byte[] encodeComplete(UUID transactionId) {
+        return ByteBuffer.allocate(1 + Long.BYTES * 2)
+                .put(COMPLETE)
+                .putLong(transactionId.getMostSignificantBits())
+                .putLong(transactionId.getLeastSignificantBits())
+                .array();
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
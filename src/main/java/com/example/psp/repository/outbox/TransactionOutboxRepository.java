@@ -0,0 +1,81 @@
+package com.example.psp.repository.outbox;
+
+import com.example.psp.domain.entities.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Outbox of transaction status events.
+ */
+public interface TransactionOutboxRepository {
+
+    /**
+     * Appends an event carrying the current status of the transaction. Joins the database transaction of the
+     * caller, so the event is only stored if the status change is.
+     *
+     * @param transaction The transaction whose status changed.
+     * @return A Mono completing once the event is stored.
+     */
+    Mono<Void> append(Transaction transaction);
+
+    /**
+     * Claims the oldest unpublished events, skipping the events being claimed by concurrent callers, so callers
+     * claim disjoint batches at the same time. Claimed events are published once {@link #assignOffsets} assigned
+     * them their offsets.
+     *
+     * @param limit The maximum number of events to claim.
+     * @param now   The publication time.
+     * @return A Mono emitting the number of claimed events.
+     */
+    Mono<Integer> claimUnpublished(int limit, Instant now);
+
+    /**
+     * Publishes the oldest claimed events by assigning them the next offsets. Assignments are serialized across
+     * callers and committed before the next one takes offsets, so published events become visible in offset order
+     * and a reader that saw an offset has already seen every lower one. A caller does not wait while another
+     * one assigns offsets.
+     *
+     * @param limit The maximum number of events to publish.
+     * @return A Mono emitting the number of published events, 0 if another caller is assigning offsets.
+     */
+    Mono<Integer> assignOffsets(int limit);
+
+    /**
+     * Finds the published events of the given merchants within a range of offsets.
+     *
+     * @param merchantIds The merchants of the events.
+     * @param afterOffset The offset of the last event already seen.
+     * @param upToOffset  The offset of the last event to return.
+     * @param limit       The maximum number of events to return.
+     * @return A Flux emitting the events in offset order.
+     */
+    Flux<TransactionStatusEvent> findPublished(Collection<String> merchantIds, long afterOffset, long upToOffset, int limit);
+
+    /**
+     * Finds the published events of a merchant after the given offset.
+     *
+     * @param merchantId  The merchant of the events.
+     * @param afterOffset The offset of the last event already seen.
+     * @param limit       The maximum number of events to return.
+     * @return A Flux emitting the events in offset order.
+     */
+    Flux<TransactionStatusEvent> findPublished(String merchantId, long afterOffset, int limit);
+
+    /**
+     * Finds the offset of the last published event.
+     *
+     * @return A Mono emitting the offset, or 0 if no event was published yet.
+     */
+    Mono<Long> findLastOffset();
+
+    /**
+     * Deletes the published events that occurred before the given time.
+     *
+     * @param threshold The oldest event time to keep.
+     * @return A Mono emitting the number of deleted events.
+     */
+    Mono<Long> deletePublishedBefore(Instant threshold);
+}
@@ -0,0 +1,30 @@
+package com.example.psp.repository.outbox;
+
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Status change of a transaction, stored in the outbox and streamed to its merchant.
+ *
+ * @param offset        position of the event in the outbox, increasing in publication order
+ * @param transactionId the transaction whose status changed
+ * @param merchantId    the merchant of the transaction
+ * @param status        the new status
+ * @param acquirerType  the acquirer that decided the status, null while the transaction is PENDING
+ * @param money         the transaction amount
+ * @param occurredAt    when the status changed
+ */
+public record TransactionStatusEvent(
+        long offset,
+        UUID transactionId,
+        String merchantId,
+        TransactionStatus status,
+        AcquirerType acquirerType,
+        Money money,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,161 @@
+package com.example.psp.repository.outbox.impl;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.repository.outbox.TransactionOutboxRepository;
+import com.example.psp.repository.outbox.TransactionStatusEvent;
+import io.r2dbc.spi.Row;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * R2DBC implementation of the TransactionOutboxRepository on the {@code transaction_outbox} table.
+ * <p>
+ * Unpublished rows are claimed with {@code FOR UPDATE SKIP LOCKED} and marked claimed by the same statement, so
+ * relays on several instances claim disjoint batches concurrently. The offset of an event is its
+ * {@code published_seq}, taken from a sequence in a separate step: the id follows insertion, and rows whose
+ * transactions commit out of order would be published out of id order. Offsets are assigned under a
+ * transaction-level advisory lock that a caller skips when another one holds it, so assignments commit one after
+ * the other and published rows become visible in offset order.
+ */
+@Repository
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class R2dbcTransactionOutboxRepositoryImpl implements TransactionOutboxRepository {
+
+    private static final long CLAIM_LOCK_KEY = 0x7073702E6F757462L;
+
+    private static final String COLUMNS = "published_seq, transaction_id, merchant_id, transaction_status, acquirer_type, "
+            + "amount_minor, currency, occurred_at";
+
+    private static final String APPEND_SQL = "INSERT INTO transaction_outbox (transaction_id, merchant_id, "
+            + "transaction_status, acquirer_type, amount_minor, currency, occurred_at) "
+            + "VALUES (:transactionId, :merchantId, :status, :acquirer, :amountMinor, :currency, :occurredAt)";
+    private static final String CLAIM_SQL = "UPDATE transaction_outbox SET published_at = :now WHERE id IN ("
+            + "SELECT id FROM transaction_outbox WHERE published_at IS NULL ORDER BY id LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED)";
+    private static final String ASSIGN_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(" + CLAIM_LOCK_KEY + ") AS locked";
+    // Sequence values are taken in id order and only below the oldest row not claimed yet (or being claimed), so
+    // the events of one transaction, claimed in different batches, keep their order
+    private static final String ASSIGN_SQL = "WITH sequenced AS (SELECT id, nextval('transaction_outbox_published_seq') "
+            + "AS seq FROM (SELECT id FROM transaction_outbox WHERE published_at IS NOT NULL AND published_seq IS NULL "
+            + "AND id < COALESCE((SELECT MIN(id) FROM transaction_outbox WHERE published_at IS NULL), "
+            + Long.MAX_VALUE + ") ORDER BY id LIMIT :limit) claimed) "
+            + "UPDATE transaction_outbox o SET published_seq = sequenced.seq FROM sequenced WHERE o.id = sequenced.id";
+    private static final String FIND_PUBLISHED_SQL = "SELECT " + COLUMNS + " FROM transaction_outbox "
+            + "WHERE merchant_id = ANY(:merchantIds) AND published_seq > :after AND published_seq <= :upTo "
+            + "ORDER BY published_seq LIMIT :limit";
+    private static final String FIND_MERCHANT_PUBLISHED_SQL = "SELECT " + COLUMNS + " FROM transaction_outbox "
+            + "WHERE merchant_id = :merchantId AND published_seq > :after ORDER BY published_seq LIMIT :limit";
+    private static final String FIND_LAST_OFFSET_SQL = "SELECT COALESCE(MAX(published_seq), 0) AS last_offset "
+            + "FROM transaction_outbox";
+    private static final String DELETE_PUBLISHED_SQL = "DELETE FROM transaction_outbox "
+            + "WHERE occurred_at < :threshold AND published_seq IS NOT NULL";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Void> append(@NonNull Transaction transaction) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(APPEND_SQL)
+                .bind("transactionId", transaction.getId())
+                .bind("merchantId", transaction.getMerchantId())
+                .bind("status", transaction.getStatus().name())
+                .bind("amountMinor", transaction.getMoney().getMinorUnits())
+                .bind("currency", transaction.getMoney().getCurrency().getCode())
+                .bind("occurredAt", transaction.getUpdatedAt());
+        spec = transaction.getAcquirerType() != null
+                ? spec.bind("acquirer", transaction.getAcquirerType().name())
+                : spec.bindNull("acquirer", String.class);
+        return spec.fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<Integer> claimUnpublished(int limit, @NonNull Instant now) {
+        return databaseClient.sql(CLAIM_SQL)
+                .bind("now", now)
+                .bind("limit", limit)
+                .fetch()
+                .rowsUpdated()
+                .map(Long::intValue);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Integer> assignOffsets(int limit) {
+        return databaseClient.sql(ASSIGN_LOCK_SQL)
+                .map((row, metadata) -> row.get("locked", Boolean.class))
+                .one()
+                .flatMap(locked -> locked
+                        ? databaseClient.sql(ASSIGN_SQL)
+                                .bind("limit", limit)
+                                .fetch()
+                                .rowsUpdated()
+                                .map(Long::intValue)
+                        : Mono.just(0));
+    }
+
+    @Override
+    public Flux<TransactionStatusEvent> findPublished(@NonNull Collection<String> merchantIds, long afterOffset,
+                                                      long upToOffset, int limit) {
+        return databaseClient.sql(FIND_PUBLISHED_SQL)
+                .bind("merchantIds", merchantIds.toArray(String[]::new))
+                .bind("after", afterOffset)
+                .bind("upTo", upToOffset)
+                .bind("limit", limit)
+                .map((row, metadata) -> toEvent(row))
+                .all();
+    }
+
+    @Override
+    public Flux<TransactionStatusEvent> findPublished(@NonNull String merchantId, long afterOffset, int limit) {
+        return databaseClient.sql(FIND_MERCHANT_PUBLISHED_SQL)
+                .bind("merchantId", merchantId)
+                .bind("after", afterOffset)
+                .bind("limit", limit)
+                .map((row, metadata) -> toEvent(row))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> findLastOffset() {
+        return databaseClient.sql(FIND_LAST_OFFSET_SQL)
+                .map((row, metadata) -> row.get("last_offset", Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Long> deletePublishedBefore(@NonNull Instant threshold) {
+        return databaseClient.sql(DELETE_PUBLISHED_SQL)
+                .bind("threshold", threshold)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static TransactionStatusEvent toEvent(Row row) {
+        String acquirer = row.get("acquirer_type", String.class);
+        return new TransactionStatusEvent(
+                row.get("published_seq", Long.class),
+                row.get("transaction_id", UUID.class),
+                row.get("merchant_id", String.class),
+                TransactionStatus.valueOf(row.get("transaction_status", String.class)),
+                acquirer != null ? AcquirerType.valueOf(acquirer) : null,
+                Money.ofMinorUnits(row.get("amount_minor", Long.class), CurrencyUnit.of(row.get("currency", String.class))),
+                row.get("occurred_at", Instant.class)
+        );
+    }
+}
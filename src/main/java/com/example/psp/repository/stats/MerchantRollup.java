@@ -0,0 +1,39 @@
+package com.example.psp.repository.stats;
+
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+
+import java.time.Instant;
+
+/**
+ * Counts of the completed payments of a merchant in one time bucket, currency and acquirer.
+ *
+ * @param merchantId          the merchant of the payments
+ * @param bucketStart         the start of the time bucket the payments completed in
+ * @param currency            the currency of the payments
+ * @param acquirerType        the acquirer that decided the payments
+ * @param count               the number of payments
+ * @param approvedCount       the number of approved payments
+ * @param amountMinor         the total amount of the payments in minor units of the currency
+ * @param approvedAmountMinor the total amount of the approved payments in minor units of the currency
+ */
+public record MerchantRollup(
+        String merchantId,
+        Instant bucketStart,
+        CurrencyUnit currency,
+        AcquirerType acquirerType,
+        long count,
+        long approvedCount,
+        long amountMinor,
+        long approvedAmountMinor
+) {
+
+    /**
+     * @return the counts of both rollups, keyed like this one
+     */
+    public MerchantRollup plus(MerchantRollup other) {
+        return new MerchantRollup(merchantId, bucketStart, currency, acquirerType, count + other.count,
+                approvedCount + other.approvedCount, amountMinor + other.amountMinor,
+                approvedAmountMinor + other.approvedAmountMinor);
+    }
+}
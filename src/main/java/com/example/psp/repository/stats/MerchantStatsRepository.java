@@ -0,0 +1,53 @@
+package com.example.psp.repository.stats;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Summary table of the per-merchant rollups of completed payments.
+ */
+public interface MerchantStatsRepository {
+
+    /**
+     * Stores the totals an instance counted since its start, replacing the totals it stored before for the same
+     * rollups. A stored total is never lowered, so storing totals again, or after newer ones, changes nothing.
+     * The totals are stored atomically, either all of them or none.
+     *
+     * @param instanceId The instance that counted the totals.
+     * @param totals     The totals, at most one per merchant, bucket, currency and acquirer.
+     * @return A Mono completing once all totals are stored.
+     */
+    Mono<Void> save(String instanceId, Collection<MerchantRollup> totals);
+
+    /**
+     * Finds the rollups of a merchant whose bucket starts in a time range.
+     *
+     * @param merchantId The merchant of the rollups.
+     * @param from       The earliest bucket start (inclusive).
+     * @param to         The latest bucket start (exclusive).
+     * @return A Flux emitting the rollups, summed over all instances.
+     */
+    Flux<MerchantRollup> findByMerchant(String merchantId, Instant from, Instant to);
+
+    /**
+     * Folds the totals of all instances for the buckets that start before the given time into one row per rollup,
+     * so the table keeps one row per merchant, bucket, currency and acquirer however many instances counted into it.
+     * The folded rows are removed atomically, so repeating a compaction never counts a total twice. No instance may
+     * store totals for these buckets afterwards.
+     *
+     * @param threshold The bucket start before which the rows are folded.
+     * @return A Mono emitting the number of folded rollups.
+     */
+    Mono<Long> compactBefore(Instant threshold);
+
+    /**
+     * Deletes the rollups whose bucket starts before the given time.
+     *
+     * @param threshold The oldest bucket start to keep.
+     * @return A Mono emitting the number of deleted rows.
+     */
+    Mono<Long> deleteBefore(Instant threshold);
+}
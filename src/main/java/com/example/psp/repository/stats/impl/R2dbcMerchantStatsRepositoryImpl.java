@@ -0,0 +1,146 @@
+package com.example.psp.repository.stats.impl;
+
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.repository.stats.MerchantRollup;
+import com.example.psp.repository.stats.MerchantStatsRepository;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * R2DBC implementation of the MerchantStatsRepository on the {@code merchant_transaction_stats} table.
+ * The totals passed to one call are stored by a single multi-row upsert, so they are applied completely or not at all.
+ * Every instance has rows of its own, which are summed by the reads. Once no instance counts into a bucket any more,
+ * its rows are folded into one row per rollup under an instance id of their own.
+ */
+@Repository
+@ConditionalOnExpression("'${psp.repository.mode:r2dbc}' != 'memory'")
+@RequiredArgsConstructor
+public class R2dbcMerchantStatsRepositoryImpl implements MerchantStatsRepository {
+
+    // Instance id of the rows folded from the rows of all instances, never generated for an instance
+    private static final String COMPACTED_INSTANCE_ID = "compacted";
+    private static final int COLUMNS = 9;
+    private static final String UPSERT_PREFIX = "INSERT INTO merchant_transaction_stats (merchant_id, bucket_start, "
+            + "currency, acquirer_type, instance_id, transaction_count, approved_count, amount_minor, "
+            + "approved_amount_minor) VALUES ";
+    // Totals of an instance only grow, keeping the greatest makes a retried or late checkpoint harmless
+    private static final String UPSERT_SUFFIX = " ON CONFLICT (merchant_id, bucket_start, currency, acquirer_type, "
+            + "instance_id) DO UPDATE SET "
+            + "transaction_count = GREATEST(merchant_transaction_stats.transaction_count, EXCLUDED.transaction_count), "
+            + "approved_count = GREATEST(merchant_transaction_stats.approved_count, EXCLUDED.approved_count), "
+            + "amount_minor = GREATEST(merchant_transaction_stats.amount_minor, EXCLUDED.amount_minor), "
+            + "approved_amount_minor = GREATEST(merchant_transaction_stats.approved_amount_minor, "
+            + "EXCLUDED.approved_amount_minor)";
+    private static final String FIND_SQL = "SELECT merchant_id, bucket_start, currency, acquirer_type, "
+            + "SUM(transaction_count)::BIGINT AS transaction_count, SUM(approved_count)::BIGINT AS approved_count, "
+            + "SUM(amount_minor)::BIGINT AS amount_minor, SUM(approved_amount_minor)::BIGINT AS approved_amount_minor "
+            + "FROM merchant_transaction_stats "
+            + "WHERE merchant_id = :merchantId AND bucket_start >= :from AND bucket_start < :to "
+            + "GROUP BY merchant_id, bucket_start, currency, acquirer_type";
+    // The rows are deleted by the statement that adds them to the folded row, so they are folded exactly once
+    private static final String COMPACT_SQL = "WITH folded AS (DELETE FROM merchant_transaction_stats "
+            + "WHERE bucket_start < :threshold AND instance_id <> '" + COMPACTED_INSTANCE_ID + "' "
+            + "RETURNING merchant_id, bucket_start, currency, acquirer_type, transaction_count, approved_count, "
+            + "amount_minor, approved_amount_minor) "
+            + "INSERT INTO merchant_transaction_stats (merchant_id, bucket_start, currency, acquirer_type, instance_id, "
+            + "transaction_count, approved_count, amount_minor, approved_amount_minor) "
+            + "SELECT merchant_id, bucket_start, currency, acquirer_type, '" + COMPACTED_INSTANCE_ID + "', "
+            + "SUM(transaction_count)::BIGINT, SUM(approved_count)::BIGINT, SUM(amount_minor)::BIGINT, "
+            + "SUM(approved_amount_minor)::BIGINT FROM folded GROUP BY merchant_id, bucket_start, currency, acquirer_type "
+            + "ON CONFLICT (merchant_id, bucket_start, currency, acquirer_type, instance_id) DO UPDATE SET "
+            + "transaction_count = merchant_transaction_stats.transaction_count + EXCLUDED.transaction_count, "
+            + "approved_count = merchant_transaction_stats.approved_count + EXCLUDED.approved_count, "
+            + "amount_minor = merchant_transaction_stats.amount_minor + EXCLUDED.amount_minor, "
+            + "approved_amount_minor = merchant_transaction_stats.approved_amount_minor + EXCLUDED.approved_amount_minor";
+    private static final String DELETE_SQL = "DELETE FROM merchant_transaction_stats WHERE bucket_start < :threshold";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Void> save(@NonNull String instanceId, @NonNull Collection<MerchantRollup> totals) {
+        if (totals.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnection(connection -> {
+                    Statement statement = connection.createStatement(upsertSql(totals.size()));
+                    int index = 0;
+                    for (MerchantRollup total : totals) {
+                        statement.bind(index++, total.merchantId())
+                                .bind(index++, total.bucketStart())
+                                .bind(index++, total.currency().getCode())
+                                .bind(index++, total.acquirerType().name())
+                                .bind(index++, instanceId)
+                                .bind(index++, total.count())
+                                .bind(index++, total.approvedCount())
+                                .bind(index++, total.amountMinor())
+                                .bind(index++, total.approvedAmountMinor());
+                    }
+                    return Flux.from(statement.execute())
+                            .flatMap(Result::getRowsUpdated)
+                            .then();
+                });
+    }
+
+    @Override
+    public Flux<MerchantRollup> findByMerchant(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to) {
+        return databaseClient.sql(FIND_SQL)
+                .bind("merchantId", merchantId)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> new MerchantRollup(
+                        row.get("merchant_id", String.class),
+                        row.get("bucket_start", Instant.class),
+                        CurrencyUnit.of(row.get("currency", String.class)),
+                        AcquirerType.valueOf(row.get("acquirer_type", String.class)),
+                        row.get("transaction_count", Long.class),
+                        row.get("approved_count", Long.class),
+                        row.get("amount_minor", Long.class),
+                        row.get("approved_amount_minor", Long.class)
+                ))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> compactBefore(@NonNull Instant threshold) {
+        return databaseClient.sql(COMPACT_SQL)
+                .bind("threshold", threshold)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public Mono<Long> deleteBefore(@NonNull Instant threshold) {
+        return databaseClient.sql(DELETE_SQL)
+                .bind("threshold", threshold)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String upsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX.length() + UPSERT_SUFFIX.length() + rows * COLUMNS * 5);
+        sql.append(UPSERT_PREFIX);
+        int parameter = 1;
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column > 0) {
+                    sql.append(", ");
+                }
+                sql.append('$').append(parameter++);
+            }
+            sql.append(')');
+        }
+        return sql.append(UPSERT_SUFFIX).toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.psp.repository.transaction;
+
+import com.example.psp.domain.entities.Transaction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position in a list of transactions ordered by creation time and id, the last transaction already read.
+ *
+ * @param createdAt the creation time of the last transaction read
+ * @param id        the id of the last transaction read
+ */
+public record TransactionCursor(
+        Instant createdAt,
+        UUID id
+) {
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getCreatedAt(), transaction.getId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.psp.repository.transaction;
+
+import com.example.psp.domain.entities.Transaction;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * Repository of the transactions of a merchant, read in creation order with keyset pagination.
+ */
+public interface TransactionExportRepository {
+
+    /**
+     * Finds a page of the transactions of a merchant created in a time range, ordered by creation time and id.
+     *
+     * @param merchantId The merchant of the transactions.
+     * @param from       The earliest creation time (inclusive).
+     * @param to         The latest creation time (exclusive).
+     * @param after      The last transaction of the previous page, or null for the first page.
+     * @param limit      The maximum number of transactions returned.
+     * @return A Flux emitting the transactions.
+     */
+    Flux<Transaction> findByMerchant(String merchantId, Instant from, Instant to, TransactionCursor after, int limit);
+
+    /**
+     * Streams all transactions of a merchant created in a time range, ordered by creation time and id.
+     * Transactions are read as they are requested, so the stream needs constant memory however many it returns.
+     *
+     * @param merchantId The merchant of the transactions.
+     * @param from       The earliest creation time (inclusive).
+     * @param to         The latest creation time (exclusive).
+     * @param after      The last transaction already read, or null to start at the beginning of the range.
+     * @return A Flux emitting the transactions.
+     */
+    Flux<Transaction> streamByMerchant(String merchantId, Instant from, Instant to, TransactionCursor after);
+}
@@ -3,6 +3,8 @@ package com.example.psp.repository.transaction;
 import com.example.psp.domain.entities.Transaction;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 /**
  * Repository interface for managing transactions.
  */
@@ -23,4 +25,12 @@ public interface TransactionRepository {
      * @return A Mono emitting the updated transaction.
      */
     Mono<Transaction> update(Transaction transaction);
+
+    /**
+     * Finds a transaction by its identifier.
+     *
+     * @param id The identifier of the transaction.
+     * @return A Mono emitting the transaction, or an empty Mono if it does not exist.
+     */
+    Mono<Transaction> findById(UUID id);
 }
@@ -0,0 +1,257 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.BatchingRepositoryProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.exception.ServiceOverloadedException;
+import com.example.psp.repository.transaction.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind implementation of the TransactionRepository.
+ * <p>
+ * Concurrent {@link #save(Transaction)} and {@link #update(Transaction)} calls are collected into micro-batches
+ * bounded by size and latency. Every batch is written on a single connection inside one database transaction:
+ * inserts as one multi-row INSERT statement and updates as one batched UPDATE statement.
+ * Each caller's Mono completes on its own once the batch containing its write is committed. A batch that fails is
+ * rolled back and its writes are retried one by one, each in a transaction of its own, so a bad row only fails its
+ * own caller. Reads are not batched and only see writes whose batch has already been committed.
+ * <p>
+ * Batches are only taken from the queue while fewer than the maximum number of flushes are running, so a slow
+ * database backs the writes up in the queue. Once {@code max-queue-size} writes are waiting, new inserts fail fast
+ * with {@link ServiceOverloadedException} instead of growing the queue without bound. Updates of transactions
+ * already written are always queued, so the result of a payment that was sent to an acquirer is not dropped.
+ */
+@Repository
+@ConditionalOnProperty(name = "psp.repository.mode", havingValue = "batching")
+@Slf4j
+public class BatchingTransactionRepositoryImpl implements TransactionRepository, DisposableBean {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final Sinks.Many<PendingWrite> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable pipeline;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxQueueSize;
+
+    private final DistributionSummary batchSize;
+    private final Counter insertedRows;
+    private final Counter updatedRows;
+    private final Counter failedWrites;
+    private final Counter failedBatches;
+    private final Counter rejectedWrites;
+    private final Timer queueWait;
+    private final Timer flushDuration;
+
+    public BatchingTransactionRepositoryImpl(DatabaseClient databaseClient,
+                                             TransactionalOperator transactionalOperator,
+                                             BatchingRepositoryProperties properties,
+                                             MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.maxQueueSize = properties.maxQueueSize();
+
+        this.batchSize = DistributionSummary.builder("psp.repository.batch.size")
+                .description("Number of writes flushed to the database in one batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.insertedRows = Counter.builder("psp.repository.batch.rows")
+                .description("Rows written by the batching repository")
+                .tag("operation", "insert")
+                .register(meterRegistry);
+        this.updatedRows = Counter.builder("psp.repository.batch.rows")
+                .description("Rows written by the batching repository")
+                .tag("operation", "update")
+                .register(meterRegistry);
+        this.failedWrites = Counter.builder("psp.repository.batch.failures")
+                .description("Writes that failed when written on their own")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("psp.repository.batch.retried")
+                .description("Failed batches whose writes were retried one by one")
+                .register(meterRegistry);
+        this.rejectedWrites = Counter.builder("psp.repository.batch.rejected")
+                .description("Inserts rejected because the write queue was full")
+                .register(meterRegistry);
+        Gauge.builder("psp.repository.batch.queued", queued, AtomicInteger::get)
+                .description("Writes waiting in the queue for a batch to be flushed")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("psp.repository.batch.wait")
+                .description("Latency added by waiting for a batch to be flushed")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("psp.repository.batch.flush")
+                .description("Time spent writing one batch to the database")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.pipeline = queue.asFlux()
+                // Fair backpressure requests writes only for batches that can be flushed, the rest wait in the queue
+                .bufferTimeout(properties.maxBatchSize(), properties.maxLatency(), true)
+                .flatMap(this::flush, properties.maxConcurrentFlushes())
+                .subscribe();
+    }
+
+    @Override
+    public Mono<Transaction> save(@NonNull Transaction transaction) {
+        return Mono.create(sink -> enqueue(new PendingWrite(Operation.INSERT, transaction, sink, System.nanoTime())));
+    }
+
+    @Override
+    public Mono<Transaction> update(@NonNull Transaction transaction) {
+        return Mono.create(sink -> enqueue(new PendingWrite(Operation.UPDATE, transaction, sink, System.nanoTime())));
+    }
+
+    @Override
+    public Mono<Transaction> findById(@NonNull UUID id) {
+        return databaseClient.inConnection(connection -> TransactionSql.findById(connection, id));
+    }
+
+    @Override
+    public void destroy() {
+        // Completing the queue flushes the writes that are still buffered
+        if (queue.tryEmitComplete().isFailure()) {
+            pipeline.dispose();
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (queued.incrementAndGet() > maxQueueSize && write.operation() == Operation.INSERT) {
+            queued.decrementAndGet();
+            rejectedWrites.increment();
+            write.sink().error(new ServiceOverloadedException("Write queue is full, " + maxQueueSize + " writes are waiting"));
+            return;
+        }
+        try {
+            queue.emitNext(write, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        } catch (Sinks.EmissionException e) {
+            queued.decrementAndGet();
+            write.sink().error(new IllegalStateException("Write queue is not accepting writes", e));
+        }
+    }
+
+    private Mono<Void> flush(List<PendingWrite> batch) {
+        long flushStart = System.nanoTime();
+        queued.addAndGet(-batch.size());
+        batch.forEach(write -> queueWait.record(flushStart - write.enqueuedAt(), TimeUnit.NANOSECONDS));
+        batchSize.record(batch.size());
+
+        return write(batch)
+                .doOnTerminate(() -> flushDuration.record(System.nanoTime() - flushStart, TimeUnit.NANOSECONDS));
+    }
+
+    private Mono<Void> write(List<PendingWrite> batch) {
+        List<PendingWrite> inserts = new ArrayList<>(batch.size());
+        List<PendingWrite> updates = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            (write.operation() == Operation.INSERT ? inserts : updates).add(write);
+        }
+
+        return databaseClient.inConnection(connection -> executeInserts(connection, inserts)
+                        .then(Mono.defer(() -> executeUpdates(connection, updates))))
+                .as(transactionalOperator::transactional)
+                .doOnNext(updateCounts -> {
+                    insertedRows.increment(inserts.size());
+                    inserts.forEach(write -> write.sink().success(write.transaction()));
+                    completeUpdates(updates, updateCounts);
+                })
+                .then()
+                .onErrorResume(error -> {
+                    if (batch.size() > 1) {
+                        // The batch was rolled back, writing on their own isolates the writes that make it fail
+                        log.warn("Failed to flush batch of {} writes, retrying them one by one: {}",
+                                batch.size(), error.getMessage());
+                        failedBatches.increment();
+                        return Flux.fromIterable(batch)
+                                .concatMap(write -> write(List.of(write)))
+                                .then();
+                    }
+                    PendingWrite write = batch.get(0);
+                    log.error("Failed to {} transaction {}: {}", write.operation().name().toLowerCase(),
+                            write.transaction().getId(), error.getMessage(), error);
+                    failedWrites.increment();
+                    write.sink().error(error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> executeInserts(Connection connection, List<PendingWrite> inserts) {
+        if (inserts.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Statement statement = connection.createStatement(TransactionSql.multiRowInsertSql(inserts.size()));
+        int index = 0;
+        for (PendingWrite write : inserts) {
+            index = TransactionSql.bindInsert(statement, index, write.transaction());
+        }
+
+        return Flux.from(statement.execute())
+                .flatMap(Result::getRowsUpdated)
+                .then();
+    }
+
+    private Mono<List<Long>> executeUpdates(Connection connection, List<PendingWrite> updates) {
+        if (updates.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        Statement statement = connection.createStatement(TransactionSql.UPDATE_SQL);
+        for (int i = 0; i < updates.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            TransactionSql.bindUpdate(statement, updates.get(i).transaction());
+        }
+
+        // One result per bound parameter set, emitted in binding order
+        return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated)
+                .collectList();
+    }
+
+    private void completeUpdates(List<PendingWrite> updates, List<Long> updateCounts) {
+        for (int i = 0; i < updates.size(); i++) {
+            PendingWrite write = updates.get(i);
+            if (i < updateCounts.size() && updateCounts.get(i) > 0) {
+                updatedRows.increment();
+                write.sink().success(write.transaction());
+            } else {
+                write.sink().error(new IllegalStateException("Transaction not found"));
+            }
+        }
+    }
+
+    private enum Operation {
+        INSERT,
+        UPDATE
+    }
+
+    private record PendingWrite(Operation operation, Transaction transaction, MonoSink<Transaction> sink, long enqueuedAt) {
+    }
+}
@@ -1,42 +1,410 @@
 package com.example.psp.repository.transaction.impl;
 
+import com.example.psp.config.properties.InMemoryRepositoryProperties;
 import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.repository.transaction.TransactionCursor;
+import com.example.psp.repository.transaction.TransactionExportRepository;
 import com.example.psp.repository.transaction.TransactionRepository;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.Map;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
- * In-memory implementation of the TransactionRepository.
- * This implementation uses a ConcurrentHashMap to store transactions.
+ * In-memory implementation of the TransactionRepository for edge and test deployments without a database.
+ * <p>
+ * Transactions are kept as compact immutable {@link TransactionRecord}s in a ConcurrentHashMap, with secondary
+ * indexes by creation time and by merchant in concurrent skip lists, so every read is lock-free. Memory is bounded:
+ * once the store holds more than {@code maxTransactions}, the oldest finalized transactions are evicted in the
+ * background, and finalized transactions older than the retention are evicted periodically. PENDING transactions
+ * are never evicted. When a snapshot path is configured, the store is written to it periodically and on shutdown,
+ * and restored from it on startup.
  */
-
-//@Repository
+@Repository
+@ConditionalOnProperty(name = "psp.repository.mode", havingValue = "memory")
 @Slf4j
-public class InMemoryTransactionRepositoryImpl implements TransactionRepository {
+public class InMemoryTransactionRepositoryImpl implements TransactionRepository, TransactionExportRepository, DisposableBean {
+
+    private static final int SNAPSHOT_MAGIC = 0x50535054;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final int maxTransactions;
+    private final Duration retention;
+    private final Path snapshotPath;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<UUID, byte[]> records = new ConcurrentHashMap<>();
+    private final NavigableSet<IndexKey> byTime = new ConcurrentSkipListSet<>();
+    // Sets of merchants are kept when they become empty, like the merchant dictionary
+    private final ConcurrentHashMap<Integer, NavigableSet<IndexKey>> byMerchant = new ConcurrentHashMap<>();
+    private final MerchantDictionary merchants = new MerchantDictionary();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public InMemoryTransactionRepositoryImpl(InMemoryRepositoryProperties properties, Clock clock) {
+        this.maxTransactions = properties.maxTransactions();
+        this.retention = properties.retention();
+        this.snapshotPath = properties.snapshotPath();
+        this.clock = clock;
 
-    private final Map<UUID, Transaction> storage = new ConcurrentHashMap<>();
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                restore();
+            } catch (IOException e) {
+                // Starting empty would overwrite the snapshot with the next one
+                throw new UncheckedIOException("Cannot restore transaction snapshot " + snapshotPath, e);
+            }
+            log.info("Restored {} transactions from {}", records.size(), snapshotPath);
+        }
+    }
 
     @Override
     public Mono<Transaction> save(@NonNull Transaction transaction) {
-        return Mono.fromRunnable(() -> storage.put(transaction.getId(), transaction))
-                .thenReturn(transaction)
-                .doOnSuccess(t -> log.debug("Saved transaction: id={}, status={}", t.getId(), t.getStatus()));
+        return Mono.fromSupplier(() -> {
+            UUID id = transaction.getId();
+            int merchant = merchants.indexOf(transaction.getMerchantId());
+            byte[] record = TransactionRecord.encode(transaction, merchant);
+            if (records.putIfAbsent(id, record) != null) {
+                throw new DuplicateKeyException("Transaction " + id + " already exists");
+            }
+            index(id, record);
+            if (records.size() > maxTransactions) {
+                evictInBackground();
+            }
+            log.debug("Saved transaction: id={}, status={}", id, transaction.getStatus());
+            return transaction;
+        });
     }
 
     @Override
-    public Mono<Transaction> update(Transaction transaction) {
+    public Mono<Transaction> update(@NonNull Transaction transaction) {
         return Mono.fromSupplier(() -> {
-            if (!storage.containsKey(transaction.getId())) {
+            byte[] updated = records.computeIfPresent(transaction.getId(),
+                    (id, current) -> TransactionRecord.encode(transaction, TransactionRecord.merchant(current)));
+            if (updated == null) {
                 throw new IllegalStateException("Transaction not found");
             }
-            storage.put(transaction.getId(), transaction);
+            log.debug("Updated transaction: id={}, status={}", transaction.getId(), transaction.getStatus());
             return transaction;
-        }).doOnSuccess(t -> log.debug("Updated transaction: id={}, status={}", t.getId(), t.getStatus()));
+        });
+    }
+
+    @Override
+    public Mono<Transaction> findById(@NonNull UUID id) {
+        return Mono.fromSupplier(() -> {
+            byte[] record = records.get(id);
+            return record != null ? decode(record) : null;
+        });
+    }
+
+    /**
+     * Finds the transactions of a merchant created in a time range, oldest first.
+     *
+     * @param merchantId the merchant of the transactions
+     * @param from       the earliest creation time (inclusive)
+     * @param to         the latest creation time (exclusive)
+     * @param limit      the maximum number of transactions returned
+     * @return A Flux emitting the transactions.
+     */
+    public Flux<Transaction> findByMerchant(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to, int limit) {
+        return findByMerchant(merchantId, from, to, null, limit);
+    }
+
+    @Override
+    public Flux<Transaction> findByMerchant(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to,
+                                            TransactionCursor after, int limit) {
+        return merchantRange(merchantId, from, to, after, limit);
+    }
+
+    @Override
+    public Flux<Transaction> streamByMerchant(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to,
+                                              TransactionCursor after) {
+        return merchantRange(merchantId, from, to, after, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds the transactions created in a time range, oldest first.
+     *
+     * @param from  the earliest creation time (inclusive)
+     * @param to    the latest creation time (exclusive)
+     * @param limit the maximum number of transactions returned
+     * @return A Flux emitting the transactions.
+     */
+    public Flux<Transaction> findCreatedBetween(@NonNull Instant from, @NonNull Instant to, int limit) {
+        return Flux.defer(() -> range(byTime, from, to, null, limit));
+    }
+
+    /**
+     * Evicts finalized transactions older than the retention.
+     */
+    @Scheduled(fixedDelayString = "${psp.repository.memory.maintenance-interval:10s}")
+    public void evictExpired() {
+        int evicted = evict(TransactionRecord.epochNanos(clock.instant().minus(retention)), 0);
+        if (evicted > 0) {
+            log.debug("Evicted {} transactions past the retention", evicted);
+        }
+    }
+
+    /**
+     * Writes the store to the snapshot path, if one is configured.
+     */
+    @Scheduled(fixedDelayString = "${psp.repository.memory.snapshot-interval:1m}")
+    public void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write transaction snapshot " + snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        snapshot();
+    }
+
+    private Flux<Transaction> merchantRange(String merchantId, Instant from, Instant to, TransactionCursor after, long limit) {
+        return Flux.defer(() -> {
+            Integer merchant = merchants.find(merchantId);
+            NavigableSet<IndexKey> keys = merchant != null ? byMerchant.get(merchant) : null;
+            return keys != null ? range(keys, from, to, after, limit) : Flux.empty();
+        });
+    }
+
+    private Flux<Transaction> range(NavigableSet<IndexKey> keys, Instant from, Instant to, TransactionCursor after, long limit) {
+        IndexKey lower = new IndexKey(TransactionRecord.epochNanos(from), LOWEST_ID);
+        IndexKey upper = new IndexKey(TransactionRecord.epochNanos(to), LOWEST_ID);
+        boolean lowerInclusive = true;
+        if (after != null) {
+            IndexKey last = new IndexKey(TransactionRecord.epochNanos(after.createdAt()), after.id());
+            if (last.compareTo(lower) >= 0) {
+                lower = last;
+                lowerInclusive = false;
+            }
+        }
+        if (lower.compareTo(upper) >= 0) {
+            return Flux.empty();
+        }
+        // Keys of transactions evicted during the scan no longer have a record
+        return Flux.fromIterable(keys.subSet(lower, lowerInclusive, upper, false))
+                .mapNotNull(key -> records.get(key.id()))
+                .take(limit)
+                .map(this::decode);
+    }
+
+    private Transaction decode(byte[] record) {
+        return TransactionRecord.decode(record, merchants.get(TransactionRecord.merchant(record)));
+    }
+
+    private void index(UUID id, byte[] record) {
+        IndexKey key = new IndexKey(TransactionRecord.createdAtNanos(record), id);
+        byTime.add(key);
+        byMerchant.computeIfAbsent(TransactionRecord.merchant(record), merchant -> new ConcurrentSkipListSet<>()).add(key);
+    }
+
+    private void evictInBackground() {
+        if (evicting.compareAndSet(false, true)) {
+            Schedulers.boundedElastic().schedule(() -> {
+                try {
+                    // Evicting down to 90% of the capacity lets many saves pass before the next eviction
+                    evict(Long.MAX_VALUE, maxTransactions / 10 * 9);
+                    if (records.size() > maxTransactions) {
+                        log.warn("In-memory transaction store holds {} transactions above its capacity of {}, "
+                                + "the remaining ones are pending", records.size() - maxTransactions, maxTransactions);
+                    }
+                } finally {
+                    evicting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts finalized transactions in creation order.
+     *
+     * @param createdBefore only transactions created before this time (epoch nanoseconds) are evicted
+     * @param target        eviction stops once the store holds this many transactions
+     * @return the number of evicted transactions
+     */
+    private int evict(long createdBefore, int target) {
+        int evicted = 0;
+        for (IndexKey key : byTime) {
+            if (key.createdAtNanos() >= createdBefore || records.size() <= target) {
+                break;
+            }
+            byte[] record = records.get(key.id());
+            if (record == null || TransactionRecord.status(record) == TransactionStatus.PENDING) {
+                continue;
+            }
+            // Only the thread that removes the record removes its index entries
+            if (records.remove(key.id(), record)) {
+                byTime.remove(key);
+                byMerchant.get(TransactionRecord.merchant(record)).remove(key);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private synchronized void writeSnapshot() throws IOException {
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".writing");
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(TransactionRecord.SIZE);
+            for (byte[] record : records.values()) {
+                out.writeBoolean(true);
+                out.write(record);
+                count++;
+            }
+            out.writeBoolean(false);
+            // Written after the records, so it contains every merchant they refer to
+            String[] names = merchants.snapshot();
+            out.writeInt(names.length);
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Transaction snapshot written: {} transactions", count);
+    }
+
+    private void restore() throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION || in.readInt() != TransactionRecord.SIZE) {
+                throw new IOException("Unsupported snapshot format");
+            }
+            List<byte[]> restored = new ArrayList<>();
+            while (in.readBoolean()) {
+                byte[] record = new byte[TransactionRecord.SIZE];
+                in.readFully(record);
+                restored.add(record);
+            }
+            String[] names = new String[in.readInt()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readUTF();
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            merchants.restore(names);
+            for (byte[] record : restored) {
+                UUID id = TransactionRecord.id(record);
+                records.put(id, record);
+                index(id, record);
+            }
+        }
+    }
+
+    private record IndexKey(long createdAtNanos, UUID id) implements Comparable<IndexKey> {
+
+        @Override
+        public int compareTo(IndexKey other) {
+            int byTime = Long.compare(createdAtNanos, other.createdAtNanos);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+    }
+
+    /**
+     * Merchant IDs by index, so a record stores an int instead of a string. Indexes are never reused,
+     * lookups of known merchants are lock-free.
+     */
+    private static final class MerchantDictionary {
+
+        private final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[64];
+        private int size;
+
+        int indexOf(String merchantId) {
+            Integer index = indexes.get(merchantId);
+            return index != null ? index : add(merchantId);
+        }
+
+        Integer find(String merchantId) {
+            return indexes.get(merchantId);
+        }
+
+        String get(int index) {
+            return names[index];
+        }
+
+        synchronized String[] snapshot() {
+            return Arrays.copyOf(names, size);
+        }
+
+        synchronized void restore(String[] restored) {
+            names = Arrays.copyOf(restored, Math.max(64, restored.length * 2));
+            size = restored.length;
+            for (int i = 0; i < restored.length; i++) {
+                indexes.put(restored[i], i);
+            }
+        }
+
+        private synchronized int add(String merchantId) {
+            Integer existing = indexes.get(merchantId);
+            if (existing != null) {
+                return existing;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            // The name is stored before the index is published, so a reader with the index always finds it
+            names[size] = merchantId;
+            indexes.put(merchantId, size);
+            return size++;
+        }
     }
 }
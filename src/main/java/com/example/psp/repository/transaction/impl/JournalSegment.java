@@ -0,0 +1,175 @@
+package com.example.psp.repository.transaction.impl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped segment file of the {@link TransactionJournal}.
+ * <p>
+ * The file is mapped in full when it is created, so appending is a copy into the page cache. A segment starts with
+ * a header of {@link #HEADER_SIZE} bytes, followed by records framed as {@code [length][crc32][payload]}. The file
+ * is zero-filled, so a zero length marks the end of the written records, and a torn record at the tail fails its
+ * checksum. A segment is appended to by one thread only; reads use absolute positions and are safe from any thread.
+ */
+final class JournalSegment {
+
+    static final int HEADER_SIZE = 16;
+    static final int FRAME_SIZE = Integer.BYTES * 2;
+
+    private static final int MAGIC = 0x50535053;
+    private static final int VERSION = 1;
+    private static final int COMPACTED = 1;
+
+    private final int id;
+    private final Path path;
+    private final boolean compacted;
+    private final MappedByteBuffer buffer;
+    // Written by the appending thread only
+    private int end = HEADER_SIZE;
+
+    private JournalSegment(int id, Path path, boolean compacted, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.compacted = compacted;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates and maps a new segment file of the given size.
+     *
+     * @param compacted whether the segment holds records copied by compaction rather than appended by the writer
+     */
+    static JournalSegment create(Path directory, int id, int size, boolean compacted) throws IOException {
+        Path path = directory.resolve(fileName(id));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping past the end of the file extends it with zeros
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putInt(8, compacted ? COMPACTED : 0);
+            buffer.force(0, HEADER_SIZE);
+            return new JournalSegment(id, path, compacted, buffer);
+        }
+    }
+
+    /**
+     * Maps an existing segment file and finds the end of its valid records.
+     */
+    static JournalSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            JournalSegment segment = new JournalSegment(parseId(path), path, (buffer.getInt(8) & COMPACTED) != 0, buffer);
+            while (segment.read(segment.end) != null) {
+                segment.end += FRAME_SIZE + buffer.getInt(segment.end);
+            }
+            return segment;
+        }
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith("segment-") && name.endsWith(".seg");
+    }
+
+    int id() {
+        return id;
+    }
+
+    boolean compacted() {
+        return compacted;
+    }
+
+    /**
+     * @return the offset after the last valid record
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Appends a record after the last one.
+     *
+     * @return the offset of the record, or -1 if it does not fit into the segment
+     */
+    int append(byte[] payload) {
+        int offset = end;
+        if (offset + FRAME_SIZE + payload.length > buffer.capacity()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.putInt(offset, payload.length)
+                .putInt(offset + Integer.BYTES, (int) crc.getValue())
+                .put(offset + FRAME_SIZE, payload);
+        end = offset + FRAME_SIZE + payload.length;
+        return offset;
+    }
+
+    /**
+     * Drops the records after the given offset. They are zeroed and forced rather than only cut off, so neither
+     * the scan on startup nor one running past records appended later can find them again.
+     */
+    void truncate(int offset) {
+        if (offset >= end) {
+            return;
+        }
+        buffer.put(offset, new byte[end - offset]);
+        force(offset, end);
+        end = offset;
+    }
+
+    /**
+     * Reads the payload of the record at the given offset.
+     *
+     * @return the payload, or null at the end of the records or at a torn record
+     */
+    byte[] read(int offset) {
+        if (offset + FRAME_SIZE > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.capacity() - offset - FRAME_SIZE) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + FRAME_SIZE, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? payload : null;
+    }
+
+    /**
+     * Forces the given range of the segment to the storage device.
+     */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    /**
+     * Deletes the file. The mapping stays readable until it is garbage collected, so readers holding
+     * the segment are not affected.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static String fileName(int id) {
+        return String.format("segment-%010d.seg", id);
+    }
+
+    private static int parseId(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - ".seg".length()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.JournalRepositoryProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.transaction.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Journal-first implementation of the TransactionRepository.
+ * <p>
+ * Writes complete once they are committed to the local {@link TransactionJournal}, so the payment pipeline never
+ * waits for a database round trip. The journal is relayed to PostgreSQL asynchronously, in order and in batches
+ * written as one upsert statement each, so a write relayed twice after a crash is harmless. Reads are served from
+ * the journal and fall back to the database for transactions that were compacted out of it.
+ */
+@Repository
+@ConditionalOnProperty(name = "psp.repository.mode", havingValue = "journal")
+@Slf4j
+public class JournalTransactionRepositoryImpl implements TransactionRepository, DisposableBean {
+
+    private final TransactionJournal journal;
+    private final DatabaseClient databaseClient;
+    private final Clock clock;
+    private final Duration retention;
+    private final int relayBatchSize;
+    private final Counter relayedRows;
+
+    public JournalTransactionRepositoryImpl(DatabaseClient databaseClient,
+                                            Clock clock,
+                                            JournalRepositoryProperties properties,
+                                            MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.clock = clock;
+        this.retention = properties.retention();
+        this.relayBatchSize = properties.relayBatchSize();
+        this.relayedRows = Counter.builder("psp.repository.journal.relay.rows")
+                .description("Journaled writes relayed to the database")
+                .register(meterRegistry);
+
+        try {
+            this.journal = new TransactionJournal(properties, meterRegistry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction journal " + properties.directory(), e);
+        }
+    }
+
+    @Override
+    public Mono<Transaction> save(@NonNull Transaction transaction) {
+        return Mono.create(sink -> journal.append(TransactionJournal.SAVE, transaction, sink));
+    }
+
+    @Override
+    public Mono<Transaction> update(@NonNull Transaction transaction) {
+        return Mono.create(sink -> journal.append(TransactionJournal.UPDATE, transaction, sink));
+    }
+
+    @Override
+    public Mono<Transaction> findById(@NonNull UUID id) {
+        return Mono.fromSupplier(() -> journal.find(id))
+                .switchIfEmpty(Mono.defer(() -> databaseClient.inConnection(connection -> TransactionSql.findById(connection, id))));
+    }
+
+    /**
+     * Relays the committed writes to the database until the journal is caught up.
+     */
+    @Scheduled(fixedDelayString = "${psp.repository.journal.relay-interval:50ms}")
+    public void relay() throws IOException {
+        TransactionJournal.RelayBatch batch;
+        do {
+            batch = journal.readUnrelayed(relayBatchSize);
+            if (!batch.writes().isEmpty()) {
+                upsert(batch.writes()).block();
+                relayedRows.increment(batch.writes().size());
+            }
+            journal.relayed(batch);
+        } while (batch.writes().size() == relayBatchSize);
+    }
+
+    /**
+     * Compacts the journal segments that have been relayed to the database.
+     */
+    @Scheduled(fixedDelayString = "${psp.repository.journal.compaction-interval:1m}")
+    public void compact() throws IOException {
+        journal.compact(TransactionRecord.epochNanos(clock.instant().minus(retention)));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        // Writes that are not relayed yet are relayed after the next start
+        journal.close();
+    }
+
+    private Mono<Void> upsert(List<Transaction> writes) {
+        // A transaction saved and updated within the batch is written once, in its latest state
+        Map<UUID, Transaction> latest = new LinkedHashMap<>();
+        writes.forEach(transaction -> latest.put(transaction.getId(), transaction));
+        Collection<Transaction> rows = latest.values();
+
+        return databaseClient.inConnection(connection -> {
+                    Statement statement = connection.createStatement(TransactionSql.multiRowUpsertSql(rows.size()));
+                    int index = 0;
+                    for (Transaction transaction : rows) {
+                        index = TransactionSql.bindInsert(statement, index, transaction);
+                    }
+                    return Flux.from(statement.execute())
+                            .flatMap(Result::getRowsUpdated)
+                            .then();
+                });
+    }
+}
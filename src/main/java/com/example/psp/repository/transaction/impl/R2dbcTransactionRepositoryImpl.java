@@ -2,14 +2,21 @@ package com.example.psp.repository.transaction.impl;
 
 import com.example.psp.domain.entities.Transaction;
 import com.example.psp.repository.transaction.TransactionRepository;
+import com.example.psp.shared.UuidV7;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.UUID;
+
 @Service
 @Primary
+@ConditionalOnProperty(name = "psp.repository.mode", havingValue = "r2dbc", matchIfMissing = true)
 @RequiredArgsConstructor
 public class R2dbcTransactionRepositoryImpl implements TransactionRepository {
 
@@ -25,7 +32,25 @@ public class R2dbcTransactionRepositoryImpl implements TransactionRepository {
     @Override
     @Transactional
     public Mono<Transaction> update(Transaction transaction) {
-        return r2dbcRepository.save(TransactionDBModel.fromDomain(transaction, false))
+        // Only the status columns change, matching on created_at too keeps the update in one partition
+        return r2dbcRepository.updateStatus(transaction.getId(), transaction.getCreatedAt(),
+                        TransactionSql.statusCode(transaction.getStatus()),
+                        TransactionSql.acquirerCode(transaction.getAcquirerType()),
+                        transaction.getUpdatedAt())
+                .flatMap(updated -> updated > 0
+                        ? Mono.just(transaction)
+                        : Mono.error(new IllegalStateException("Transaction not found")));
+    }
+
+    @Override
+    public Mono<Transaction> findById(@NonNull UUID id) {
+        if (!UuidV7.isV7(id)) {
+            return r2dbcRepository.findById(id)
+                    .map(TransactionDBModel::toDomain);
+        }
+        // created_at is rounded to microseconds, which can carry it onto the next millisecond
+        Instant created = UuidV7.timestamp(id);
+        return r2dbcRepository.findByIdCreatedBetween(id, created, created.plusMillis(1))
                 .map(TransactionDBModel::toDomain);
     }
 }
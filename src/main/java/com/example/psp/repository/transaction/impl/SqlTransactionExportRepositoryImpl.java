@@ -0,0 +1,87 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.TransactionExportProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.transaction.TransactionCursor;
+import com.example.psp.repository.transaction.TransactionExportRepository;
+import io.r2dbc.spi.Statement;
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * TransactionExportRepository on the transaction table, used by every repository mode that writes to the database.
+ * <p>
+ * Pages continue after the (created_at, id) of the previous page's last row instead of skipping an offset, so every
+ * page is one index range scan on {@code (merchant_id, created_at, id)} however deep it is. Streams run a single
+ * query whose rows are fetched from the server-side cursor in batches of the fetch size as they are requested.
+ * In the journal mode, writes not yet relayed to the database are not returned.
+ */
+@Repository
+@ConditionalOnExpression("'${psp.repository.mode:r2dbc}' != 'memory'")
+public class SqlTransactionExportRepositoryImpl implements TransactionExportRepository {
+
+    private static final String MERCHANT_RANGE = "SELECT " + TransactionSql.COLUMNS + " FROM transaction "
+            + "WHERE merchant_id = $1 AND created_at >= $2 AND created_at < $3";
+    private static final String AFTER = " AND (created_at, id) > ($4, $5)";
+    private static final String ORDER = " ORDER BY created_at, id";
+
+    private static final String FIND_SQL = MERCHANT_RANGE + ORDER + " LIMIT $4";
+    private static final String FIND_AFTER_SQL = MERCHANT_RANGE + AFTER + ORDER + " LIMIT $6";
+    private static final String STREAM_SQL = MERCHANT_RANGE + ORDER;
+    private static final String STREAM_AFTER_SQL = MERCHANT_RANGE + AFTER + ORDER;
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public SqlTransactionExportRepositoryImpl(DatabaseClient databaseClient, TransactionExportProperties properties) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = properties.fetchSize();
+    }
+
+    @Override
+    public Flux<Transaction> findByMerchant(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to,
+                                            TransactionCursor after, int limit) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(after == null ? FIND_SQL : FIND_AFTER_SQL);
+            int index = bindRange(statement, merchantId, from, to, after);
+            statement.bind(index, limit);
+            return execute(statement);
+        });
+    }
+
+    @Override
+    public Flux<Transaction> streamByMerchant(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to,
+                                              TransactionCursor after) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(after == null ? STREAM_SQL : STREAM_AFTER_SQL)
+                    .fetchSize(fetchSize);
+            bindRange(statement, merchantId, from, to, after);
+            return execute(statement);
+        });
+    }
+
+    /**
+     * @return the index of the next parameter
+     */
+    private static int bindRange(Statement statement, String merchantId, Instant from, Instant to, TransactionCursor after) {
+        statement.bind(0, merchantId)
+                .bind(1, from)
+                .bind(2, to);
+        if (after == null) {
+            return 3;
+        }
+        statement.bind(3, after.createdAt())
+                .bind(4, after.id());
+        return 5;
+    }
+
+    private static Flux<Transaction> execute(Statement statement) {
+        return Flux.from(statement.execute())
+                .concatMap(result -> result.map((row, metadata) -> TransactionSql.toDomain(row)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.transaction.TransactionRepository;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * TransactionRepository on plain SQL statements, without Spring Data entity mapping.
+ * <p>
+ * Every operation is a single constant statement with positional parameters bound straight from the domain object,
+ * so the driver can reuse its prepared statement per connection. Writes return the transaction the caller passed in
+ * instead of reading the row back, and reads map columns directly into the domain object.
+ * Statements still join an ongoing reactive transaction through {@link DatabaseClient#inConnection}.
+ */
+@Repository
+@ConditionalOnProperty(name = "psp.repository.mode", havingValue = "sql")
+@RequiredArgsConstructor
+public class SqlTransactionRepositoryImpl implements TransactionRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Transaction> save(@NonNull Transaction transaction) {
+        return databaseClient.inConnection(connection -> {
+                    Statement statement = connection.createStatement(TransactionSql.INSERT_SQL);
+                    TransactionSql.bindInsert(statement, 0, transaction);
+                    return rowsUpdated(statement);
+                })
+                .thenReturn(transaction);
+    }
+
+    @Override
+    public Mono<Transaction> update(@NonNull Transaction transaction) {
+        return databaseClient.inConnection(connection -> {
+                    Statement statement = connection.createStatement(TransactionSql.UPDATE_SQL);
+                    TransactionSql.bindUpdate(statement, transaction);
+                    return rowsUpdated(statement);
+                })
+                .flatMap(updated -> updated > 0
+                        ? Mono.just(transaction)
+                        : Mono.error(new IllegalStateException("Transaction not found")));
+    }
+
+    @Override
+    public Mono<Transaction> findById(@NonNull UUID id) {
+        return databaseClient.inConnection(connection -> TransactionSql.findById(connection, id));
+    }
+
+    private static Mono<Long> rowsUpdated(Statement statement) {
+        return Flux.from(statement.execute())
+                .flatMap(Result::getRowsUpdated)
+                .reduce(0L, Long::sum);
+    }
+}
@@ -1,8 +1,7 @@
 package com.example.psp.repository.transaction.impl;
 
 import com.example.psp.domain.entities.Transaction;
-import com.example.psp.domain.enums.AcquirerType;
-import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
 import com.example.psp.domain.valueobjects.Money;
 import com.example.psp.domain.valueobjects.StoredCardInfo;
 import com.example.psp.repository.common.DBModel;
@@ -15,10 +14,9 @@ import org.springframework.data.annotation.Transient;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.relational.core.mapping.Table;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.Currency;
 import java.util.UUID;
 
 @Data
@@ -31,17 +29,17 @@ public class TransactionDBModel implements DBModel, Persistable<UUID> {
     @Id
     private UUID id;
 
-    private String cardNumberMasked;
+    private String cardLast4;
 
-    private String cardExpiryDate;
+    private LocalDate cardExpiry;
 
-    private BigDecimal amount;
+    private Long amountMinor;
 
     private String currency;
 
-    private String status;
+    private Short statusCode;
 
-    private String acquirerType;
+    private Short acquirerCode;
 
     private String merchantId;
 
@@ -60,12 +58,12 @@ public class TransactionDBModel implements DBModel, Persistable<UUID> {
     public static TransactionDBModel fromDomain(Transaction transaction, boolean isNew) {
         return TransactionDBModel.builder()
                 .id(transaction.getId())
-                .cardNumberMasked(transaction.getCard().getCardNumberMasked())
-                .cardExpiryDate(transaction.getCard().getExpiryDate().toString())
-                .amount(transaction.getMoney().getAmount())
-                .currency(transaction.getMoney().getCurrency().getCurrencyCode())
-                .status(transaction.getStatus().name())
-                .acquirerType(transaction.getAcquirerType() != null ? transaction.getAcquirerType().name() : null)
+                .cardLast4(transaction.getCard().getLastFour())
+                .cardExpiry(transaction.getCard().getExpiryDate().atDay(1))
+                .amountMinor(transaction.getMoney().getMinorUnits())
+                .currency(transaction.getMoney().getCurrency().getCode())
+                .statusCode(TransactionSql.statusCode(transaction.getStatus()))
+                .acquirerCode(TransactionSql.acquirerCode(transaction.getAcquirerType()))
                 .merchantId(transaction.getMerchantId())
                 .createdAt(transaction.getCreatedAt())
                 .updatedAt(transaction.getUpdatedAt())
@@ -76,14 +74,11 @@ public class TransactionDBModel implements DBModel, Persistable<UUID> {
     public Transaction toDomain() {
         return Transaction.reconstruct(
                 this.id,
-                new StoredCardInfo(this.cardNumberMasked, YearMonth.parse(this.cardExpiryDate)),
-                Money.builder()
-                        .amount(this.amount)
-                        .currency(Currency.getInstance(this.currency))
-                        .build(),
+                StoredCardInfo.ofLastFour(this.cardLast4, YearMonth.from(this.cardExpiry)),
+                Money.ofMinorUnits(this.amountMinor, CurrencyUnit.of(this.currency)),
                 this.merchantId,
-                TransactionStatus.valueOf(this.status),
-                this.acquirerType != null ? AcquirerType.valueOf(this.acquirerType) : null,
+                TransactionSql.status(this.statusCode),
+                TransactionSql.acquirer(this.acquirerCode),
                 this.createdAt,
                 this.updatedAt
         );
@@ -0,0 +1,504 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.JournalRepositoryProperties;
+import com.example.psp.config.properties.JournalRepositoryProperties.FsyncPolicy;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.MonoSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of transaction writes in memory-mapped {@link JournalSegment}s, behind the
+ * {@link JournalTransactionRepositoryImpl}.
+ * <p>
+ * Every save and update is appended as one record holding the whole transaction: the fixed-layout
+ * {@link TransactionRecord}, the write type and the merchant ID. A single writer thread takes all writes queued
+ * since its last commit, appends them and forces them to the storage device once for the whole group, as the fsync
+ * policy asks, before completing their callers. A full segment is sealed and the next one is mapped. A group commit
+ * that fails, e.g. because the next segment cannot be created or the force fails, drops its records from the
+ * segments again before failing its callers, so they are neither found nor relayed, now or after a restart.
+ * <p>
+ * An index from transaction id to the location of its latest record is rebuilt on startup by scanning the segments.
+ * Every start appends to a new segment, so nothing is ever written after a torn record. Writes are relayed to the
+ * database in journal order from a checkpoint; sealed segments that are fully relayed are compacted, keeping only
+ * the latest record of transactions that are pending or within the retention.
+ */
+@Slf4j
+final class TransactionJournal {
+
+    static final byte SAVE = 'S';
+    static final byte UPDATE = 'U';
+
+    private static final int TYPE = TransactionRecord.SIZE;
+    private static final int MERCHANT = TransactionRecord.SIZE + 1;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsync;
+    private final long fsyncIntervalNanos;
+    private final int maxBatchSize;
+
+    private final ConcurrentSkipListMap<Integer, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    // Location of the latest record of every transaction: segment id in the high and offset in the low 32 bits
+    private final ConcurrentHashMap<UUID, Long> index = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSegmentId;
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final FileChannel checkpoint;
+    private final AtomicLong unrelayed = new AtomicLong();
+    private final Thread writer;
+
+    private final DistributionSummary commitSize;
+    private final Timer fsyncDuration;
+
+    private volatile boolean running = true;
+    // Location after the last committed record, written by the writer thread
+    private volatile long committedPosition;
+    // Location of the first record not relayed to the database yet
+    private volatile long relayPosition;
+
+    // Owned by the writer thread
+    private JournalSegment active;
+    private int unforcedFrom;
+    private long lastForce;
+
+    TransactionJournal(JournalRepositoryProperties properties, MeterRegistry meterRegistry) throws IOException {
+        long size = properties.segmentSize().toBytes();
+        if (size < 1024 * 1024 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between 1MB and 2GB: " + properties.segmentSize());
+        }
+        this.directory = properties.directory();
+        this.segmentSize = (int) size;
+        this.fsync = properties.fsync();
+        this.fsyncIntervalNanos = properties.fsyncInterval().toNanos();
+        this.maxBatchSize = properties.maxBatchSize();
+
+        this.commitSize = DistributionSummary.builder("psp.repository.journal.commit.size")
+                .description("Number of writes appended to the journal in one group commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.fsyncDuration = Timer.builder("psp.repository.journal.fsync")
+                .description("Time spent forcing journal writes to the storage device")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("psp.repository.journal.segments", segments, Map::size)
+                .description("Journal segment files")
+                .register(meterRegistry);
+        Gauge.builder("psp.repository.journal.relay.lag", unrelayed, AtomicLong::get)
+                .description("Journaled writes not relayed to the database yet")
+                .register(meterRegistry);
+
+        Files.createDirectories(directory);
+        this.checkpoint = FileChannel.open(directory.resolve("relay.checkpoint"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer position = ByteBuffer.allocate(Long.BYTES);
+        this.relayPosition = checkpoint.read(position, 0) == Long.BYTES ? position.getLong(0) : 0;
+
+        this.nextSegmentId = new AtomicInteger(recover() + 1);
+        this.active = newSegment(false);
+        this.unforcedFrom = active.end();
+        this.committedPosition = location(active.id(), active.end());
+        log.info("Transaction journal opened: {} transactions in {} segments, {} writes to relay",
+                index.size(), segments.size(), unrelayed.get());
+
+        this.writer = Thread.ofPlatform().name("transaction-journal-writer").daemon(true).start(this::writeLoop);
+    }
+
+    /**
+     * Queues a write for the next group commit. The sink is completed by the writer thread once the write
+     * is committed, or fails with a DuplicateKeyException for a save of an existing transaction and with an
+     * IllegalStateException for an update of an unknown one.
+     */
+    void append(byte type, Transaction transaction, MonoSink<Transaction> sink) {
+        if (!running) {
+            sink.error(new IllegalStateException("Transaction journal is closed"));
+            return;
+        }
+        queue.add(new Write(type, transaction, sink));
+    }
+
+    /**
+     * @return the latest journaled state of the transaction, or null if it is not in the journal
+     */
+    Transaction find(UUID id) {
+        while (true) {
+            Long location = index.get(id);
+            if (location == null) {
+                return null;
+            }
+            JournalSegment segment = segments.get(segmentId(location));
+            // A removed segment was compacted, which moved the index entry first
+            if (segment != null) {
+                return decode(segment.read(offset(location)));
+            }
+        }
+    }
+
+    /**
+     * Reads the next committed writes that have not been relayed to the database, in journal order.
+     */
+    RelayBatch readUnrelayed(int maxWrites) {
+        List<Transaction> writes = new ArrayList<>(Math.min(maxWrites, 1024));
+        long position = relayPosition;
+        long committed = committedPosition;
+        while (writes.size() < maxWrites && position < committed) {
+            JournalSegment segment = segments.get(segmentId(position));
+            byte[] payload = segment != null ? segment.read(offset(position)) : null;
+            if (payload == null) {
+                // End of a sealed segment, the relay continues with the next one the writer appended to
+                JournalSegment next = nextWriterSegment(segmentId(position));
+                if (next == null) {
+                    break;
+                }
+                position = location(next.id(), JournalSegment.HEADER_SIZE);
+                continue;
+            }
+            writes.add(decode(payload));
+            position += JournalSegment.FRAME_SIZE + payload.length;
+        }
+        return new RelayBatch(writes, position);
+    }
+
+    /**
+     * Records that the writes of a batch returned by {@link #readUnrelayed(int)} are in the database.
+     */
+    void relayed(RelayBatch batch) throws IOException {
+        if (batch.next() == relayPosition) {
+            return;
+        }
+        relayPosition = batch.next();
+        unrelayed.addAndGet(-batch.writes().size());
+        // Not forced: after a crash the last writes are relayed again, which the relay's upsert tolerates
+        checkpoint.write(ByteBuffer.allocate(Long.BYTES).putLong(0, batch.next()), 0);
+    }
+
+    /**
+     * Rewrites the sealed and fully relayed segments that are mostly dead, or small, into new compacted segments.
+     * Only the latest record of every transaction is kept, and finalized transactions last updated before the
+     * given time are dropped from the journal, so they are read from the database.
+     *
+     * @param expiredBefore epoch nanoseconds before which finalized transactions are dropped
+     */
+    void compact(long expiredBefore) throws IOException {
+        int relaySegment = segmentId(relayPosition);
+        List<JournalSegment> candidates = new ArrayList<>();
+        List<Located> live = new ArrayList<>();
+        List<Located> expired = new ArrayList<>();
+        int dead = 0;
+
+        for (JournalSegment segment : List.copyOf(segments.values())) {
+            if (!segment.compacted() && segment.id() >= relaySegment) {
+                continue;
+            }
+            int records = 0;
+            List<Located> segmentLive = new ArrayList<>();
+            List<Located> segmentExpired = new ArrayList<>();
+            for (int offset = JournalSegment.HEADER_SIZE; offset < segment.end(); ) {
+                byte[] payload = segment.read(offset);
+                Located record = new Located(location(segment.id(), offset), payload);
+                Long latest = index.get(TransactionRecord.id(payload));
+                if (latest != null && latest == record.location()) {
+                    boolean finalized = TransactionRecord.status(payload) != TransactionStatus.PENDING;
+                    (finalized && TransactionRecord.updatedAtNanos(payload) < expiredBefore ? segmentExpired : segmentLive).add(record);
+                }
+                records++;
+                offset += JournalSegment.FRAME_SIZE + payload.length;
+            }
+            if (segmentLive.size() * 2 <= records || segment.end() < segmentSize / 4) {
+                candidates.add(segment);
+                live.addAll(segmentLive);
+                expired.addAll(segmentExpired);
+                dead += records - segmentLive.size();
+            }
+        }
+        // A single small segment without dead records would only be copied as it is
+        if (candidates.isEmpty() || (candidates.size() == 1 && dead == 0)) {
+            return;
+        }
+
+        List<JournalSegment> outputs = new ArrayList<>();
+        List<Located> moved = new ArrayList<>(live.size());
+        JournalSegment output = null;
+        for (Located record : live) {
+            int offset = output != null ? output.append(record.payload()) : -1;
+            if (offset < 0) {
+                output = newSegment(true);
+                outputs.add(output);
+                offset = output.append(record.payload());
+            }
+            moved.add(new Located(location(output.id(), offset), record.payload()));
+        }
+        // The index only points to the copies once they are durable
+        for (JournalSegment segment : outputs) {
+            segment.force(JournalSegment.HEADER_SIZE, segment.end());
+        }
+        for (int i = 0; i < moved.size(); i++) {
+            // Fails for transactions updated in the meantime, their copy is dead already
+            index.replace(TransactionRecord.id(moved.get(i).payload()), live.get(i).location(), moved.get(i).location());
+        }
+        for (Located record : expired) {
+            index.remove(TransactionRecord.id(record.payload()), record.location());
+        }
+        for (JournalSegment segment : candidates) {
+            segments.remove(segment.id());
+            segment.delete();
+        }
+        log.info("Compacted {} journal segments into {}: {} records kept, {} expired, {} dead",
+                candidates.size(), outputs.size(), live.size(), expired.size(), dead - expired.size());
+    }
+
+    /**
+     * Stops accepting writes, commits the queued ones and waits for the writer thread to finish.
+     */
+    void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Write write;
+        while ((write = queue.poll()) != null) {
+            write.sink().error(new IllegalStateException("Transaction journal is closed"));
+        }
+        checkpoint.close();
+    }
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>(maxBatchSize);
+        long pollNanos = fsync == FsyncPolicy.INTERVAL ? fsyncIntervalNanos : IDLE_POLL_NANOS;
+        while (running || !queue.isEmpty()) {
+            try {
+                Write first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    commit(batch);
+                } else if (fsync == FsyncPolicy.INTERVAL) {
+                    force();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Failed to commit {} journal writes: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(write -> write.sink().error(e));
+            }
+            batch.clear();
+        }
+        if (fsync != FsyncPolicy.NEVER) {
+            force();
+        }
+    }
+
+    private void commit(List<Write> batch) {
+        JournalSegment first = active;
+        int firstEnd = active.end();
+        int firstUnforcedFrom = unforcedFrom;
+        try {
+            appendAndForce(batch);
+        } catch (RuntimeException e) {
+            try {
+                rollback(first, firstEnd, firstUnforcedFrom);
+            } catch (RuntimeException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        }
+    }
+
+    private void appendAndForce(List<Write> batch) {
+        Map<UUID, Long> appended = new HashMap<>();
+        List<Write> accepted = new ArrayList<>(batch.size());
+        for (Write write : batch) {
+            UUID id = write.transaction().getId();
+            boolean exists = appended.containsKey(id) || index.containsKey(id);
+            if (write.type() == SAVE && exists) {
+                write.sink().error(new DuplicateKeyException("Transaction " + id + " already exists"));
+            } else if (write.type() == UPDATE && !exists) {
+                write.sink().error(new IllegalStateException("Transaction not found"));
+            } else {
+                appended.put(id, append(encode(write.type(), write.transaction())));
+                accepted.add(write);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        if (fsync == FsyncPolicy.ALWAYS
+                || (fsync == FsyncPolicy.INTERVAL && System.nanoTime() - lastForce >= fsyncIntervalNanos)) {
+            force();
+        }
+        index.putAll(appended);
+        unrelayed.addAndGet(accepted.size());
+        committedPosition = location(active.id(), active.end());
+        commitSize.record(accepted.size());
+        accepted.forEach(write -> write.sink().success(write.transaction()));
+    }
+
+    /**
+     * Drops the records appended by a failed group commit: those after its start in the first segment it appended
+     * to, and all of those in the segments it rolled over to, which stay empty.
+     */
+    private void rollback(JournalSegment first, int firstEnd, int firstUnforcedFrom) {
+        first.truncate(firstEnd);
+        JournalSegment segment = first;
+        while (segment != active && (segment = nextWriterSegment(segment.id())) != null) {
+            segment.truncate(JournalSegment.HEADER_SIZE);
+        }
+        unforcedFrom = active == first ? firstUnforcedFrom : active.end();
+    }
+
+    private long append(byte[] payload) {
+        int offset = active.append(payload);
+        if (offset < 0) {
+            if (fsync != FsyncPolicy.NEVER) {
+                force();
+            }
+            active = newSegment(false);
+            unforcedFrom = active.end();
+            offset = active.append(payload);
+        }
+        return location(active.id(), offset);
+    }
+
+    private void force() {
+        if (active.end() > unforcedFrom) {
+            long start = System.nanoTime();
+            active.force(unforcedFrom, active.end());
+            unforcedFrom = active.end();
+            lastForce = System.nanoTime();
+            fsyncDuration.record(lastForce - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private JournalSegment newSegment(boolean compacted) {
+        try {
+            JournalSegment segment = JournalSegment.create(directory, nextSegmentId.getAndIncrement(), segmentSize, compacted);
+            segments.put(segment.id(), segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment in " + directory, e);
+        }
+    }
+
+    private JournalSegment nextWriterSegment(int segmentId) {
+        for (JournalSegment segment : segments.tailMap(segmentId, false).values()) {
+            if (!segment.compacted()) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Opens the existing segments and indexes their records.
+     *
+     * @return the highest segment id
+     */
+    private int recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(JournalSegment::isSegment).sorted().toList();
+        }
+
+        int maxId = 0;
+        for (Path file : files) {
+            JournalSegment segment = JournalSegment.open(file);
+            segments.put(segment.id(), segment);
+            maxId = Math.max(maxId, segment.id());
+            for (int offset = JournalSegment.HEADER_SIZE; offset < segment.end(); ) {
+                byte[] payload = segment.read(offset);
+                long location = location(segment.id(), offset);
+                UUID id = TransactionRecord.id(payload);
+                Long current = index.get(id);
+                if (current == null || isNewer(payload, segments.get(segmentId(current)).read(offset(current)))) {
+                    index.put(id, location);
+                }
+                if (!segment.compacted() && location >= relayPosition) {
+                    unrelayed.incrementAndGet();
+                }
+                offset += JournalSegment.FRAME_SIZE + payload.length;
+            }
+        }
+        return maxId;
+    }
+
+    /**
+     * Compacted copies can follow later updates of the same transaction, so the latest record is the one
+     * updated last, and a finalized one wins over a pending one updated at the same time.
+     */
+    private static boolean isNewer(byte[] payload, byte[] current) {
+        long updatedAt = TransactionRecord.updatedAtNanos(payload);
+        long currentUpdatedAt = TransactionRecord.updatedAtNanos(current);
+        if (updatedAt != currentUpdatedAt) {
+            return updatedAt > currentUpdatedAt;
+        }
+        return TransactionRecord.status(current) == TransactionStatus.PENDING;
+    }
+
+    private static byte[] encode(byte type, Transaction transaction) {
+        byte[] merchant = transaction.getMerchantId().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = TransactionRecord.encode(transaction, 0, MERCHANT + merchant.length);
+        payload[TYPE] = type;
+        System.arraycopy(merchant, 0, payload, MERCHANT, merchant.length);
+        return payload;
+    }
+
+    private static Transaction decode(byte[] payload) {
+        return TransactionRecord.decode(payload, new String(payload, MERCHANT, payload.length - MERCHANT, StandardCharsets.UTF_8));
+    }
+
+    private static long location(int segmentId, int offset) {
+        return (long) segmentId << 32 | offset;
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    /**
+     * Writes read for the relay, and the position after the last one.
+     */
+    record RelayBatch(List<Transaction> writes, long next) {
+    }
+
+    private record Write(byte type, Transaction transaction, MonoSink<Transaction> sink) {
+    }
+
+    private record Located(long location, byte[] payload) {
+    }
+}
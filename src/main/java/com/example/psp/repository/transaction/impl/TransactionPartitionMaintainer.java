@@ -0,0 +1,177 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.SchedulingConfig;
+import com.example.psp.config.properties.TransactionPartitioningProperties;
+import com.example.psp.config.properties.TransactionPartitioningProperties.Granularity;
+import com.example.psp.config.properties.TransactionPartitioningProperties.RetentionAction;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the time partitions of the transaction table in shape.
+ * <p>
+ * Partitions are created for the current period and {@code premake} periods ahead, contiguous to the latest
+ * existing partition, so inserts never miss a partition. Partitions whose whole range is older than the retention
+ * are detached without blocking writes and, depending on the retention action, dropped. Instances serialize
+ * through a PostgreSQL advisory lock: an instance that finds it held skips the run, as the holder does the work.
+ * Runs on the maintenance scheduler, as detaching a partition waits for the queries running on it.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.repository.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TransactionPartitionMaintainer {
+
+    private static final long LOCK_KEY = 0x7073702E74786E70L;
+    private static final String PARTITION_PREFIX = "transaction_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname,
+                   (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'TO \\(''([^'']+)''\\)'))[1]::timestamptz
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'transaction'::regclass
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final Clock clock;
+    private final Granularity granularity;
+    private final int premake;
+    private final Duration retention;
+    private final RetentionAction retentionAction;
+
+    public TransactionPartitionMaintainer(DatabaseClient databaseClient, Clock clock,
+                                          TransactionPartitioningProperties properties) {
+        this.databaseClient = databaseClient;
+        this.clock = clock;
+        this.granularity = properties.granularity();
+        this.premake = properties.premake();
+        this.retention = properties.retention();
+        this.retentionAction = properties.retentionAction();
+    }
+
+    /**
+     * Creates missing partitions and expires old ones. Runs right after startup and then periodically.
+     */
+    @Scheduled(fixedDelayString = "${psp.repository.partitioning.maintenance-interval:1h}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void maintain() {
+        databaseClient.inConnection(connection -> tryLock(connection)
+                        .flatMap(locked -> {
+                            if (!locked) {
+                                log.debug("Partition maintenance is running on another instance, skipping this run");
+                                return Mono.empty();
+                            }
+                            return maintain(connection)
+                                    .onErrorResume(error -> unlock(connection).then(Mono.error(error)))
+                                    .then(unlock(connection));
+                        }))
+                .block();
+    }
+
+    private Mono<Void> maintain(Connection connection) {
+        Instant now = clock.instant();
+        return Flux.from(connection.createStatement(PARTITIONS_SQL).execute())
+                .flatMap(result -> result.map((row, metadata) -> new Partition(row.get(0, String.class), row.get(1, Instant.class))))
+                .collectList()
+                .flatMap(partitions -> createMissing(connection, partitions, now)
+                        .then(expire(connection, partitions, now)));
+    }
+
+    private Mono<Void> createMissing(Connection connection, List<Partition> partitions, Instant now) {
+        Instant horizon = advance(periodStart(now), premake + 1);
+        Instant from = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(periodStart(now));
+
+        List<String> statements = new ArrayList<>();
+        while (from.isBefore(horizon)) {
+            Instant to = advance(periodStart(from), 1);
+            statements.add("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + PARTITION_SUFFIX.format(from)
+                    + " PARTITION OF transaction FOR VALUES FROM ('" + from + "') TO ('" + to + "')"
+                    // Leaves room on every page for the status update of its rows to stay heap-only (HOT)
+                    + " WITH (fillfactor = 70)");
+            from = to;
+        }
+
+        return Flux.fromIterable(statements)
+                .concatMap(sql -> execute(connection, sql)
+                        .doOnSuccess(ignored -> log.info("Created transaction partition: {}", sql)))
+                .then();
+    }
+
+    private Mono<Void> expire(Connection connection, List<Partition> partitions, Instant now) {
+        Instant cutoff = now.minus(retention);
+        return Flux.fromIterable(partitions)
+                .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(cutoff))
+                .concatMap(partition -> {
+                    String table = quote(partition.name());
+                    // CONCURRENTLY waits for running queries instead of blocking new ones on the parent table
+                    Mono<Void> detach = execute(connection, "ALTER TABLE transaction DETACH PARTITION " + table + " CONCURRENTLY");
+                    Mono<Void> drop = retentionAction == RetentionAction.DROP
+                            ? execute(connection, "DROP TABLE " + table)
+                            : Mono.empty();
+                    return detach.then(drop)
+                            .doOnSuccess(ignored -> log.info("Expired transaction partition {} (up to {}): {}",
+                                    partition.name(), partition.upperBound(), retentionAction));
+                })
+                .then();
+    }
+
+    private Instant periodStart(Instant instant) {
+        return switch (granularity) {
+            case DAILY -> instant.truncatedTo(ChronoUnit.DAYS);
+            case MONTHLY -> LocalDate.ofInstant(instant, ZoneOffset.UTC).withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        };
+    }
+
+    private Instant advance(Instant periodStart, int periods) {
+        return switch (granularity) {
+            case DAILY -> periodStart.plus(periods, ChronoUnit.DAYS);
+            case MONTHLY -> periodStart.atZone(ZoneOffset.UTC).plusMonths(periods).toInstant();
+        };
+    }
+
+    private static Mono<Void> execute(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(Result::getRowsUpdated)
+                .then();
+    }
+
+    private static Mono<Boolean> tryLock(Connection connection) {
+        return Flux.from(connection.createStatement("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")").execute())
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Boolean.class)))
+                .next();
+    }
+
+    private static Mono<Void> unlock(Connection connection) {
+        return execute(connection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    private record Partition(String name, Instant upperBound) {
+    }
+}
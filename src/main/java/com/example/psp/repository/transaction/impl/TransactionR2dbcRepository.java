@@ -1,9 +1,30 @@
 package com.example.psp.repository.transaction.impl;
 
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
 import java.util.UUID;
 
 @Repository
 public interface TransactionR2dbcRepository extends ReactiveCrudRepository<TransactionDBModel, UUID> {
+
+    /**
+     * Finds a transaction by id within a creation time range, which limits the lookup to the matching partitions.
+     */
+    @Query("SELECT * FROM transaction WHERE id = :id AND created_at BETWEEN :from AND :to")
+    Mono<TransactionDBModel> findByIdCreatedBetween(UUID id, Instant from, Instant to);
+
+    /**
+     * Updates the status of a transaction in the partition of its creation time.
+     *
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE transaction SET status_code = :statusCode, acquirer_code = :acquirerCode, updated_at = :updatedAt "
+            + "WHERE id = :id AND created_at = :createdAt")
+    Mono<Long> updateStatus(UUID id, Instant createdAt, Short statusCode, Short acquirerCode, Instant updatedAt);
 }
@@ -0,0 +1,123 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Fixed-size binary encoding of a transaction used by the in-memory store, its snapshots and the transaction journal.
+ * <p>
+ * A record is an immutable {@code byte[]} of {@link #SIZE} bytes instead of the object graph of a Transaction
+ * (UUID, card, money, strings and instants): times are epoch nanoseconds, the merchant is an index into the store's
+ * merchant dictionary, the card keeps only its last 4 digits and expiry, and status and acquirer use the same codes
+ * as the transaction table. Records are replaced as a whole, so readers never see a partially written one.
+ * The journal appends its own fields after the record and does not use the merchant index.
+ */
+final class TransactionRecord {
+
+    static final int SIZE = 55;
+
+    private static final int ID_MSB = 0;
+    private static final int ID_LSB = 8;
+    private static final int CREATED_AT = 16;
+    private static final int UPDATED_AT = 24;
+    private static final int MINOR_UNITS = 32;
+    private static final int MERCHANT = 40;
+    private static final int EXPIRY = 44;
+    private static final int LAST_FOUR = 48;
+    private static final int CURRENCY = 50;
+    private static final int STATUS = 53;
+    private static final int ACQUIRER = 54;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private TransactionRecord() {
+    }
+
+    static byte[] encode(Transaction tnx, int merchant) {
+        return encode(tnx, merchant, SIZE);
+    }
+
+    /**
+     * @param length length of the returned array, the bytes after the first {@link #SIZE} are left to the caller
+     */
+    static byte[] encode(Transaction tnx, int merchant, int length) {
+        byte[] record = new byte[length];
+        LONG.set(record, ID_MSB, tnx.getId().getMostSignificantBits());
+        LONG.set(record, ID_LSB, tnx.getId().getLeastSignificantBits());
+        LONG.set(record, CREATED_AT, epochNanos(tnx.getCreatedAt()));
+        LONG.set(record, UPDATED_AT, epochNanos(tnx.getUpdatedAt()));
+        LONG.set(record, MINOR_UNITS, tnx.getMoney().getMinorUnits());
+        INT.set(record, MERCHANT, merchant);
+        INT.set(record, EXPIRY, tnx.getCard().getExpiryDate().getYear() * 12 + tnx.getCard().getExpiryDate().getMonthValue() - 1);
+        SHORT.set(record, LAST_FOUR, Short.parseShort(tnx.getCard().getLastFour()));
+        String currency = tnx.getMoney().getCurrency().getCode();
+        for (int i = 0; i < 3; i++) {
+            record[CURRENCY + i] = (byte) currency.charAt(i);
+        }
+        record[STATUS] = (byte) TransactionSql.statusCode(tnx.getStatus());
+        Short acquirer = TransactionSql.acquirerCode(tnx.getAcquirerType());
+        record[ACQUIRER] = acquirer != null ? acquirer.byteValue() : 0;
+        return record;
+    }
+
+    static Transaction decode(byte[] record, String merchantId) {
+        int expiry = (int) INT.get(record, EXPIRY);
+        short lastFour = (short) SHORT.get(record, LAST_FOUR);
+        char[] lastFourDigits = {
+                (char) ('0' + lastFour / 1000), (char) ('0' + lastFour / 100 % 10),
+                (char) ('0' + lastFour / 10 % 10), (char) ('0' + lastFour % 10)
+        };
+        char[] currency = {(char) record[CURRENCY], (char) record[CURRENCY + 1], (char) record[CURRENCY + 2]};
+
+        return Transaction.reconstruct(
+                id(record),
+                StoredCardInfo.ofLastFour(new String(lastFourDigits), YearMonth.of(expiry / 12, expiry % 12 + 1)),
+                Money.ofMinorUnits((long) LONG.get(record, MINOR_UNITS), CurrencyUnit.of(new String(currency))),
+                merchantId,
+                status(record),
+                TransactionSql.acquirer(record[ACQUIRER] != 0 ? (short) record[ACQUIRER] : null),
+                instant(createdAtNanos(record)),
+                instant(updatedAtNanos(record))
+        );
+    }
+
+    static UUID id(byte[] record) {
+        return new UUID((long) LONG.get(record, ID_MSB), (long) LONG.get(record, ID_LSB));
+    }
+
+    static long createdAtNanos(byte[] record) {
+        return (long) LONG.get(record, CREATED_AT);
+    }
+
+    static long updatedAtNanos(byte[] record) {
+        return (long) LONG.get(record, UPDATED_AT);
+    }
+
+    static int merchant(byte[] record) {
+        return (int) INT.get(record, MERCHANT);
+    }
+
+    static TransactionStatus status(byte[] record) {
+        return TransactionSql.status(record[STATUS]);
+    }
+
+    static long epochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static Instant instant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+}
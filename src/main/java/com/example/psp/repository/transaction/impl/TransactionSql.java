@@ -0,0 +1,190 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import com.example.psp.shared.UuidV7;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * SQL statements and column bindings of the transaction table, shared by the repositories that bypass
+ * Spring Data entity mapping. Values are bound positionally straight from the domain object and rows are
+ * read back into it without an intermediate model.
+ * <p>
+ * The table stores status and acquirer as smallint codes, the card expiry as the first day of its month,
+ * the amount in minor units and only the last 4 digits of the card number. It is partitioned on created_at,
+ * so every statement that knows the creation time passes it to let PostgreSQL prune the other partitions.
+ */
+final class TransactionSql {
+
+    static final String COLUMNS = "id, card_last4, card_expiry, amount_minor, currency, status_code, acquirer_code, "
+            + "merchant_id, created_at, updated_at";
+    static final int INSERT_COLUMNS = 10;
+
+    static final String INSERT_PREFIX = "INSERT INTO transaction (" + COLUMNS + ") VALUES ";
+    static final String INSERT_SQL = INSERT_PREFIX + "($1, $2, $3, $4, $5, $6, $7, $8, $9, $10)";
+    // Updates only move a row forward in time, so replaying older writes does not undo newer ones
+    static final String UPSERT_SUFFIX = " ON CONFLICT (id, created_at) DO UPDATE SET status_code = EXCLUDED.status_code, "
+            + "acquirer_code = EXCLUDED.acquirer_code, updated_at = EXCLUDED.updated_at "
+            + "WHERE transaction.updated_at <= EXCLUDED.updated_at";
+    static final String UPDATE_SQL = "UPDATE transaction SET status_code = $1, acquirer_code = $2, updated_at = $3 "
+            + "WHERE id = $4 AND created_at = $5";
+    static final String FIND_BY_ID_SQL = "SELECT " + COLUMNS + " FROM transaction WHERE id = $1";
+    static final String FIND_BY_ID_AND_TIME_SQL = "SELECT " + COLUMNS + " FROM transaction "
+            + "WHERE id = $1 AND created_at BETWEEN $2 AND $3";
+
+    private TransactionSql() {
+    }
+
+    /**
+     * Binds the insert columns of the transaction starting at the given parameter index.
+     *
+     * @return the index of the next parameter
+     */
+    static int bindInsert(Statement statement, int index, Transaction tnx) {
+        statement.bind(index++, tnx.getId())
+                .bind(index++, tnx.getCard().getLastFour())
+                .bind(index++, tnx.getCard().getExpiryDate().atDay(1))
+                .bind(index++, tnx.getMoney().getMinorUnits())
+                .bind(index++, tnx.getMoney().getCurrency().getCode())
+                .bind(index++, statusCode(tnx.getStatus()));
+        bindAcquirerType(statement, index++, tnx);
+        statement.bind(index++, tnx.getMerchantId())
+                .bind(index++, tnx.getCreatedAt())
+                .bind(index++, tnx.getUpdatedAt());
+        return index;
+    }
+
+    static void bindUpdate(Statement statement, Transaction tnx) {
+        statement.bind(0, statusCode(tnx.getStatus()));
+        bindAcquirerType(statement, 1, tnx);
+        statement.bind(2, tnx.getUpdatedAt())
+                .bind(3, tnx.getId())
+                .bind(4, tnx.getCreatedAt());
+    }
+
+    /**
+     * Looks a transaction up by id. Ids that encode their creation time (version 7 UUIDs) are looked up
+     * in the partition of that time only.
+     */
+    static Mono<Transaction> findById(Connection connection, UUID id) {
+        Statement statement;
+        if (UuidV7.isV7(id)) {
+            Instant created = UuidV7.timestamp(id);
+            // created_at is rounded to microseconds, which can carry it onto the next millisecond
+            statement = connection.createStatement(FIND_BY_ID_AND_TIME_SQL)
+                    .bind(0, id)
+                    .bind(1, created)
+                    .bind(2, created.plusMillis(1));
+        } else {
+            statement = connection.createStatement(FIND_BY_ID_SQL)
+                    .bind(0, id);
+        }
+        return Flux.from(statement.execute())
+                .flatMap(result -> result.map((row, metadata) -> toDomain(row)))
+                .next();
+    }
+
+    static String multiRowInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * INSERT_COLUMNS * 5);
+        sql.append(INSERT_PREFIX);
+        int parameter = 1;
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < INSERT_COLUMNS; column++) {
+                if (column > 0) {
+                    sql.append(", ");
+                }
+                sql.append('$').append(parameter++);
+            }
+            sql.append(')');
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Multi-row insert that updates the status of rows which already exist, so the same writes can be applied again.
+     */
+    static String multiRowUpsertSql(int rows) {
+        return multiRowInsertSql(rows) + UPSERT_SUFFIX;
+    }
+
+    /**
+     * Maps a row selected with {@link #COLUMNS} by column position.
+     */
+    static Transaction toDomain(Row row) {
+        return Transaction.reconstruct(
+                row.get(0, UUID.class),
+                StoredCardInfo.ofLastFour(row.get(1, String.class), YearMonth.from(row.get(2, LocalDate.class))),
+                Money.ofMinorUnits(row.get(3, Long.class), CurrencyUnit.of(row.get(4, String.class))),
+                row.get(7, String.class),
+                status(row.get(5, Short.class)),
+                acquirer(row.get(6, Short.class)),
+                row.get(8, Instant.class),
+                row.get(9, Instant.class)
+        );
+    }
+
+    /*
+     * The codes are part of the stored data and are also used by the 003 migration, never renumber them.
+     */
+
+    static short statusCode(TransactionStatus status) {
+        return switch (status) {
+            case PENDING -> 1;
+            case APPROVED -> 2;
+            case DENIED -> 3;
+        };
+    }
+
+    static TransactionStatus status(short code) {
+        return switch (code) {
+            case 1 -> TransactionStatus.PENDING;
+            case 2 -> TransactionStatus.APPROVED;
+            case 3 -> TransactionStatus.DENIED;
+            default -> throw new IllegalStateException("Unknown transaction status code " + code);
+        };
+    }
+
+    static Short acquirerCode(AcquirerType acquirerType) {
+        if (acquirerType == null) {
+            return null;
+        }
+        return switch (acquirerType) {
+            case ACQUIRER_A -> 1;
+            case ACQUIRER_B -> 2;
+        };
+    }
+
+    static AcquirerType acquirer(Short code) {
+        if (code == null) {
+            return null;
+        }
+        return switch (code) {
+            case 1 -> AcquirerType.ACQUIRER_A;
+            case 2 -> AcquirerType.ACQUIRER_B;
+            default -> throw new IllegalStateException("Unknown acquirer code " + code);
+        };
+    }
+
+    private static void bindAcquirerType(Statement statement, int index, Transaction tnx) {
+        Short code = acquirerCode(tnx.getAcquirerType());
+        if (code != null) {
+            statement.bind(index, code);
+        } else {
+            statement.bindNull(index, Short.class);
+        }
+    }
+}
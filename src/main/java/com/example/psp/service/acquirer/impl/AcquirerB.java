@@ -30,10 +30,7 @@ public class AcquirerB implements Acquirer {
      */
     @Override
     public Mono<AcquirerDecision> authorizeTransaction(@NonNull CardDetails cardDetails, @NonNull Money money) {
-        return Mono.fromSupplier(() -> {
-                    String lastDigit = cardDetails.getLastDigit();
-                    return Integer.parseInt(lastDigit) % 2 == 0 ? AcquirerDecision.APPROVED : AcquirerDecision.DENIED;
-                })
+        return Mono.fromSupplier(() -> cardDetails.getCheckDigit() % 2 == 0 ? AcquirerDecision.APPROVED : AcquirerDecision.DENIED)
                 .doOnSuccess(decision -> log.debug("Authorization decision: acquirer={}, decision={}",
                         type, decision));
     }
@@ -2,52 +2,90 @@ package com.example.psp.service.acquirer.impl;
 
 import com.example.psp.domain.enums.AcquirerType;
 import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.exception.AcquirerUnavailableException;
 import com.example.psp.service.acquirer.ports.Acquirer;
 import com.example.psp.service.acquirer.ports.AcquirerRouter;
+import com.example.psp.service.acquirer.routing.RoutingTableProvider;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class AcquirerRouterImpl implements AcquirerRouter {
 
-    private final Map<AcquirerType, Acquirer> acquirersCache = new ConcurrentHashMap<>();
+    private final Map<AcquirerType, Acquirer> acquirersCache = new EnumMap<>(AcquirerType.class);
+    private final RoutingTableProvider routingTables;
 
-    public AcquirerRouterImpl(List<Acquirer> acquirers) {
+    public AcquirerRouterImpl(List<Acquirer> acquirers, RoutingTableProvider routingTables) {
         acquirers.forEach(acquirer -> acquirersCache.put(acquirer.getType(), acquirer));
+        this.routingTables = routingTables;
     }
 
     /**
-     * Selects an acquirer based on the sum of the digits in the card's BIN.
-     * If the sum is even, Acquirer A is selected; if odd, Acquirer B is selected.
+     * Selects an acquirer using the current routing table: merchant overrides first, then the global rules
+     * matching the card BIN, currency and amount, then the default acquirer. If the selected acquirer is
+     * currently unavailable (e.g. its circuit breaker is open), the next available acquirer is used instead.
      *
      * @param cardDetails The details of the card being used for the transaction.
+     * @param money       The amount and currency of the transaction.
+     * @param merchantId  The identifier of the merchant initiating the transaction.
      * @return A Mono emitting the selected Acquirer.
      */
     @Override
-    public Mono<Acquirer> getAcquirer(@NonNull CardDetails cardDetails) {
+    public Mono<Acquirer> getAcquirer(@NonNull CardDetails cardDetails, @NonNull Money money, @NonNull String merchantId) {
         return Mono.fromSupplier(() -> {
-            String bin = cardDetails.getBIN();
-            AcquirerType type = calculateBinSum(bin) % 2 == 0 ? AcquirerType.ACQUIRER_A : AcquirerType.ACQUIRER_B;
-            Acquirer acquirer =  acquirersCache.get(type);
+            AcquirerType type = route(cardDetails, money, merchantId);
+            Acquirer acquirer = acquirersCache.get(type);
             if (acquirer == null) {
                 throw new IllegalStateException("No acquirer found");
             }
+            if (!acquirer.isAvailable()) {
+                acquirer = nextAvailable(type, type);
+                if (acquirer == null) {
+                    throw new AcquirerUnavailableException(type, AcquirerUnavailableException.Reason.CIRCUIT_OPEN);
+                }
+                log.warn("Acquirer {} is unavailable, routing to {}", type, acquirer.getType());
+            }
             if (log.isDebugEnabled()) {
-                log.debug("Router selected acquirer: {}", type);
+                log.debug("Router selected acquirer: {}", acquirer.getType());
             }
             return acquirer;
         });
     }
 
-    private int calculateBinSum(String bin) {
-        return bin.chars().map(Character::getNumericValue).sum();
+    @Override
+    public Mono<Acquirer> getFailoverAcquirer(@NonNull CardDetails cardDetails, @NonNull Money money,
+                                              @NonNull String merchantId, @NonNull AcquirerType failed) {
+        return Mono.defer(() -> Mono.justOrEmpty(nextAvailable(route(cardDetails, money, merchantId), failed)));
+    }
+
+    private AcquirerType route(CardDetails cardDetails, Money money, String merchantId) {
+        return routingTables.current().route(cardDetails.getBinPrefix(), money, merchantId);
+    }
+
+    /**
+     * Walks the acquirer types in declaration order starting after the routed one, so every routed type
+     * has a stable failover order.
+     *
+     * @return the first available acquirer other than {@code excluded}, or null if there is none
+     */
+    private Acquirer nextAvailable(AcquirerType routed, AcquirerType excluded) {
+        AcquirerType[] types = AcquirerType.values();
+        for (int i = 0; i < types.length; i++) {
+            AcquirerType candidate = types[(routed.ordinal() + i) % types.length];
+            Acquirer acquirer = acquirersCache.get(candidate);
+            if (candidate != excluded && acquirer != null && acquirer.isAvailable()) {
+                return acquirer;
+            }
+        }
+        return null;
     }
 
 }
@@ -27,4 +27,14 @@ public interface Acquirer {
      */
     AcquirerType getType();
 
+    /**
+     * Whether the acquirer currently accepts calls. Used by the router to skip acquirers that would
+     * reject the call anyway, e.g. because their circuit breaker is open.
+     *
+     * @return true if a call is expected to be permitted
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
 }
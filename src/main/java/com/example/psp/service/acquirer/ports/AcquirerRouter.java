@@ -1,18 +1,33 @@
 package com.example.psp.service.acquirer.ports;
 
+import com.example.psp.domain.enums.AcquirerType;
 import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.Money;
 import reactor.core.publisher.Mono;
 
 /**
- * Interface representing a router that selects an appropriate acquirer based on card details.
+ * Interface representing a router that selects an appropriate acquirer for a payment.
  */
 public interface AcquirerRouter {
 
     /**
-     * Gets an acquirer based on the provided card details.
+     * Gets an acquirer based on the provided payment details.
      *
      * @param cardDetails The details of the card used for the transaction.
+     * @param money       The amount and currency of the transaction.
+     * @param merchantId  The identifier of the merchant initiating the transaction.
      * @return A Mono emitting the selected acquirer.
      */
-    Mono<Acquirer> getAcquirer(CardDetails cardDetails);
+    Mono<Acquirer> getAcquirer(CardDetails cardDetails, Money money, String merchantId);
+
+    /**
+     * Gets an alternative acquirer for a payment whose selected acquirer rejected the call.
+     *
+     * @param cardDetails The details of the card used for the transaction.
+     * @param money       The amount and currency of the transaction.
+     * @param merchantId  The identifier of the merchant initiating the transaction.
+     * @param failed      The type of the acquirer that rejected the call.
+     * @return A Mono emitting the next available acquirer, or an empty Mono if there is none.
+     */
+    Mono<Acquirer> getFailoverAcquirer(CardDetails cardDetails, Money money, String merchantId, AcquirerType failed);
 }
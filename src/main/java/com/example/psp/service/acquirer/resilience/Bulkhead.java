@@ -0,0 +1,43 @@
+package com.example.psp.service.acquirer.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking bulkhead capping the number of concurrent calls to one acquirer.
+ * A call that does not fit into the budget is rejected immediately instead of being queued.
+ */
+public final class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * @return true if a slot was taken; it must be returned with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxConcurrentCalls) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.psp.service.acquirer.resilience;
+
+import com.example.psp.config.properties.AcquirerResilienceProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free circuit breaker driven by a count-based sliding window of call outcomes.
+ * <p>
+ * The breaker opens when the failure rate or the slow-call rate of the last {@code slidingWindowSize} calls
+ * reaches its threshold, rejects calls while open, and after {@code openDuration} lets a limited number of trial
+ * calls through (half-open) to decide whether to close again. All state lives in an immutable phase object
+ * swapped with compare-and-set, so concurrent callers never block.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Phase> phase;
+
+    public CircuitBreaker(AcquirerResilienceProperties.Settings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    public CircuitBreaker(AcquirerResilienceProperties.Settings settings, LongSupplier nanoClock) {
+        this.slidingWindowSize = settings.slidingWindowSize();
+        this.minimumCalls = Math.min(settings.minimumCalls(), settings.slidingWindowSize());
+        this.failureRateThreshold = settings.failureRateThreshold();
+        this.slowCallNanos = settings.slowCallDuration().toNanos();
+        this.slowCallRateThreshold = settings.slowCallRateThreshold();
+        this.openNanos = settings.openDuration().toNanos();
+        this.halfOpenCalls = settings.halfOpenCalls();
+        this.nanoClock = nanoClock;
+        this.phase = new AtomicReference<>(closed());
+    }
+
+    /**
+     * Acquires permission for a call. Every granted permission must be followed by
+     * {@link #onSuccess(long)}, {@link #onError(long)} or {@link #releasePermission()}.
+     *
+     * @return true if the call may proceed
+     */
+    public boolean tryAcquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    return current.decrementPermits();
+                case OPEN:
+                    if (nanoClock.getAsLong() - current.openedAt < openNanos) {
+                        return false;
+                    }
+                    // Open period elapsed, the first caller moves the breaker to half-open
+                    phase.compareAndSet(current, halfOpen());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns a permission that was acquired but not used for a call.
+     */
+    public void releasePermission() {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            current.permits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Whether a call would currently be permitted, without acquiring a permission.
+     *
+     * @return true if the breaker is closed, half-open with trial calls left, or open past its open duration
+     */
+    public boolean isCallPermitted() {
+        Phase current = phase.get();
+        return switch (current.state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> current.permits.get() > 0;
+            case OPEN -> nanoClock.getAsLong() - current.openedAt >= openNanos;
+        };
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? Window.SLOW : 0);
+    }
+
+    public void onError(long durationNanos) {
+        record(Window.FAILURE | (durationNanos >= slowCallNanos ? Window.SLOW : 0));
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * @return a consistent-enough view of the breaker for monitoring
+     */
+    public Snapshot snapshot() {
+        Phase current = phase.get();
+        Window window = current.window;
+        int buffered = window == null ? 0 : window.recorded.get();
+        return new Snapshot(
+                current.state,
+                buffered,
+                buffered == 0 ? 0f : window.failures.get() * 100f / buffered,
+                buffered == 0 ? 0f : window.slow.get() * 100f / buffered
+        );
+    }
+
+    private void record(int outcome) {
+        Phase current = phase.get();
+        if (current.window == null) {
+            // Open: late results of calls started before the breaker opened are ignored
+            return;
+        }
+
+        current.window.record(outcome);
+        int recorded = current.window.recorded.get();
+
+        if (current.state == State.CLOSED) {
+            if (recorded >= minimumCalls && exceedsThresholds(current.window, recorded)) {
+                phase.compareAndSet(current, open());
+            }
+        } else if (current.state == State.HALF_OPEN && recorded >= halfOpenCalls) {
+            phase.compareAndSet(current, exceedsThresholds(current.window, recorded) ? open() : closed());
+        }
+    }
+
+    private boolean exceedsThresholds(Window window, int recorded) {
+        return window.failures.get() * 100 >= failureRateThreshold * recorded
+                || window.slow.get() * 100 >= slowCallRateThreshold * recorded;
+    }
+
+    private Phase closed() {
+        return new Phase(State.CLOSED, 0L, new Window(slidingWindowSize), 0);
+    }
+
+    private Phase open() {
+        return new Phase(State.OPEN, nanoClock.getAsLong(), null, 0);
+    }
+
+    private Phase halfOpen() {
+        return new Phase(State.HALF_OPEN, 0L, new Window(halfOpenCalls), halfOpenCalls);
+    }
+
+    public record Snapshot(State state, int bufferedCalls, float failureRate, float slowCallRate) {
+    }
+
+    private static final class Phase {
+
+        final State state;
+        final long openedAt;
+        final Window window;
+        final AtomicInteger permits;
+
+        Phase(State state, long openedAt, Window window, int permits) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.window = window;
+            this.permits = new AtomicInteger(permits);
+        }
+
+        boolean decrementPermits() {
+            int left;
+            do {
+                left = permits.get();
+                if (left <= 0) {
+                    return false;
+                }
+            } while (!permits.compareAndSet(left, left - 1));
+            return true;
+        }
+    }
+
+    /**
+     * Ring buffer of the last outcomes with running failure and slow-call counters.
+     */
+    private static final class Window {
+
+        static final int FAILURE = 1;
+        static final int SLOW = 2;
+        private static final int PRESENT = 4;
+
+        final AtomicIntegerArray outcomes;
+        final AtomicLong cursor = new AtomicLong();
+        final AtomicInteger recorded = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger slow = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(int outcome) {
+            int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+            int previous = outcomes.getAndSet(slot, outcome | PRESENT);
+            if ((previous & PRESENT) == 0) {
+                recorded.incrementAndGet();
+            } else {
+                if ((previous & FAILURE) != 0) failures.decrementAndGet();
+                if ((previous & SLOW) != 0) slow.decrementAndGet();
+            }
+            if ((outcome & FAILURE) != 0) failures.incrementAndGet();
+            if ((outcome & SLOW) != 0) slow.incrementAndGet();
+        }
+    }
+}
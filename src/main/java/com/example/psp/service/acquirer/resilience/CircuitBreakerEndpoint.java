@@ -0,0 +1,50 @@
+package com.example.psp.service.acquirer.resilience;
+
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.service.acquirer.ports.Acquirer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/circuitbreakers}) reporting the circuit breaker and bulkhead state
+ * of every acquirer.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    private final List<ResilientAcquirer> acquirers;
+
+    public CircuitBreakerEndpoint(List<Acquirer> acquirers) {
+        this.acquirers = acquirers.stream()
+                .filter(ResilientAcquirer.class::isInstance)
+                .map(ResilientAcquirer.class::cast)
+                .toList();
+    }
+
+    @ReadOperation
+    public Map<AcquirerType, AcquirerState> circuitBreakers() {
+        Map<AcquirerType, AcquirerState> states = new EnumMap<>(AcquirerType.class);
+        for (ResilientAcquirer acquirer : acquirers) {
+            CircuitBreaker.Snapshot snapshot = acquirer.getCircuitBreaker().snapshot();
+            states.put(acquirer.getType(), new AcquirerState(
+                    snapshot.state(),
+                    snapshot.bufferedCalls(),
+                    snapshot.failureRate(),
+                    snapshot.slowCallRate(),
+                    acquirer.getBulkhead().getInFlight(),
+                    acquirer.getBulkhead().getMaxConcurrentCalls()
+            ));
+        }
+        return states;
+    }
+
+    public record AcquirerState(CircuitBreaker.State state, int bufferedCalls, float failureRate,
+                                float slowCallRate, int inFlightCalls, int maxConcurrentCalls) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.psp.service.acquirer.resilience;
+
+import com.example.psp.config.properties.AcquirerResilienceProperties;
+import com.example.psp.domain.enums.AcquirerDecision;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.exception.AcquirerUnavailableException;
+import com.example.psp.service.acquirer.ports.Acquirer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Acquirer decorator enforcing the resilience limits of one acquirer.
+ * <p>
+ * A call is rejected without reaching the acquirer when its circuit breaker is open or its bulkhead is full.
+ * A call that reached the acquirer is cancelled once it exceeds the configured timeout. Every call that
+ * reached the acquirer is recorded in the circuit breaker window; a DENIED decision is a successful call.
+ */
+@Slf4j
+public class ResilientAcquirer implements Acquirer {
+
+    private final Acquirer delegate;
+    private final AcquirerType type;
+    private final Duration timeout;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+    @Getter
+    private final Bulkhead bulkhead;
+
+    public ResilientAcquirer(Acquirer delegate, AcquirerResilienceProperties.Settings settings) {
+        this.delegate = delegate;
+        this.type = delegate.getType();
+        this.timeout = settings.timeout();
+        this.circuitBreaker = new CircuitBreaker(settings);
+        this.bulkhead = new Bulkhead(settings.maxConcurrentCalls());
+    }
+
+    @Override
+    public Mono<AcquirerDecision> authorizeTransaction(@NonNull CardDetails cardDetails, @NonNull Money money) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new AcquirerUnavailableException(type, AcquirerUnavailableException.Reason.CIRCUIT_OPEN));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                return Mono.error(new AcquirerUnavailableException(type, AcquirerUnavailableException.Reason.BULKHEAD_FULL));
+            }
+
+            long start = System.nanoTime();
+            return delegate.authorizeTransaction(cardDetails, money)
+                    .timeout(timeout)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        log.warn("Acquirer {} call timed out after {}", type, timeout);
+                        return new AcquirerUnavailableException(type, AcquirerUnavailableException.Reason.TIMEOUT);
+                    })
+                    .doFinally(signal -> {
+                        bulkhead.release();
+                        long duration = System.nanoTime() - start;
+                        switch (signal) {
+                            case ON_COMPLETE -> circuitBreaker.onSuccess(duration);
+                            case ON_ERROR -> circuitBreaker.onError(duration);
+                            default -> circuitBreaker.releasePermission();
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public AcquirerType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted() && delegate.isAvailable();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.psp.service.acquirer.resilience;
+
+import com.example.psp.config.properties.AcquirerResilienceProperties;
+import com.example.psp.service.acquirer.ports.Acquirer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps every {@link Acquirer} bean into a {@link ResilientAcquirer}, so the router and the payment pipeline
+ * only ever see acquirers guarded by their bulkhead, timeout and circuit breaker.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ResilientAcquirerPostProcessor implements BeanPostProcessor {
+
+    private final AcquirerResilienceProperties properties;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!properties.enabled() || !(bean instanceof Acquirer acquirer) || bean instanceof ResilientAcquirer) {
+            return bean;
+        }
+
+        AcquirerResilienceProperties.Settings settings = properties.settingsFor(acquirer.getType());
+        log.info("Acquirer {} guarded: maxConcurrentCalls={}, timeout={}, failureRateThreshold={}%",
+                acquirer.getType(), settings.maxConcurrentCalls(), settings.timeout(), settings.failureRateThreshold());
+        return new ResilientAcquirer(acquirer, settings);
+    }
+}
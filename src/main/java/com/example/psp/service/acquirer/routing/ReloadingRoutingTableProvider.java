@@ -0,0 +1,82 @@
+package com.example.psp.service.acquirer.routing;
+
+import com.example.psp.config.properties.RoutingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Loads routing rules from the configured resource and hot-reloads them when the resource changes.
+ * <p>
+ * A new table is compiled off the request path and published through a volatile field, so readers
+ * never lock and always see either the old or the new table as a whole. A rules file that fails to parse
+ * is reported and the previous table stays in effect.
+ */
+@Component
+@Slf4j
+public class ReloadingRoutingTableProvider implements RoutingTableProvider {
+
+    private final RoutingProperties properties;
+
+    private volatile RoutingTable table;
+    private long loadedLastModified;
+
+    public ReloadingRoutingTableProvider(RoutingProperties properties) {
+        this.properties = properties;
+        this.loadedLastModified = lastModified(properties.rules());
+        this.table = load();
+        log.info("Loaded {} routing rules from {}", table.getRuleCount(), properties.rules().getDescription());
+    }
+
+    @Override
+    public RoutingTable current() {
+        return table;
+    }
+
+    /**
+     * Checks the rules resource for modifications and swaps in a newly compiled table.
+     */
+    @Scheduled(fixedDelayString = "${psp.routing.reload-interval:10s}")
+    public void reloadIfModified() {
+        long lastModified = lastModified(properties.rules());
+        if (lastModified == loadedLastModified) {
+            return;
+        }
+        try {
+            RoutingTable reloaded = load();
+            table = reloaded;
+            loadedLastModified = lastModified;
+            log.info("Reloaded {} routing rules from {}", reloaded.getRuleCount(), properties.rules().getDescription());
+        } catch (RuntimeException e) {
+            loadedLastModified = lastModified;
+            log.error("Failed to reload routing rules, keeping the previous table: {}", e.getMessage(), e);
+        }
+    }
+
+    private RoutingTable load() {
+        Resource resource = properties.rules();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            List<RoutingRule> rules = RoutingRuleParser.parse(reader);
+            return RoutingTable.compile(rules, properties.defaultAcquirer());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read routing rules from " + resource.getDescription(), e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            // Classpath resources inside a jar do not change, report them as never modified
+            return resource.isFile() ? resource.lastModified() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.psp.service.acquirer.routing;
+
+import com.example.psp.domain.enums.AcquirerType;
+import lombok.NonNull;
+
+import java.math.BigDecimal;
+
+/**
+ * A single routing rule as loaded from the rules source.
+ * <p>
+ * Optional conditions are {@code null} when the rule applies to any value. Among the rules matching a payment,
+ * the one with the lowest priority number wins; rules with equal priority keep their declaration order.
+ * Rules with a merchant ID are merchant overrides and are evaluated before all global rules.
+ *
+ * @param priority   precedence of the rule, lower numbers are evaluated first
+ * @param binFrom    first BIN (inclusive) of the range the rule applies to
+ * @param binTo      last BIN (inclusive) of the range the rule applies to
+ * @param currency   ISO 4217 currency code, or null for any currency
+ * @param minAmount  lower bound (inclusive) of the amount band, or null for no lower bound
+ * @param maxAmount  upper bound (exclusive) of the amount band, or null for no upper bound
+ * @param merchantId merchant the rule is an override for, or null for a global rule
+ * @param acquirer   acquirer selected when the rule matches
+ */
+public record RoutingRule(int priority,
+                          int binFrom,
+                          int binTo,
+                          String currency,
+                          BigDecimal minAmount,
+                          BigDecimal maxAmount,
+                          String merchantId,
+                          @NonNull AcquirerType acquirer) {
+
+    public RoutingRule {
+        if (binFrom < 0 || binTo < binFrom) {
+            throw new IllegalArgumentException("Invalid BIN range " + binFrom + "-" + binTo);
+        }
+        if (minAmount != null && maxAmount != null && maxAmount.compareTo(minAmount) <= 0) {
+            throw new IllegalArgumentException("Invalid amount band " + minAmount + "-" + maxAmount);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.psp.service.acquirer.routing;
+
+import com.example.psp.domain.enums.AcquirerType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses routing rules from CSV.
+ * <p>
+ * Columns: {@code priority,bin_from,bin_to,currency,min_amount,max_amount,merchant_id,acquirer}.
+ * An empty value or {@code *} means the condition matches any value. Empty lines and lines starting with
+ * {@code #} are ignored.
+ */
+public final class RoutingRuleParser {
+
+    private static final int COLUMNS = 8;
+    private static final String ANY = "*";
+
+    private RoutingRuleParser() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @param reader the CSV source
+     * @return the rules in declaration order
+     * @throws IOException              if the source cannot be read
+     * @throws IllegalArgumentException if a line is malformed, with the line number in the message
+     */
+    public static List<RoutingRule> parse(Reader reader) throws IOException {
+        List<RoutingRule> rules = new ArrayList<>();
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(parseLine(trimmed));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid routing rule at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return rules;
+    }
+
+    private static RoutingRule parseLine(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != COLUMNS) {
+            throw new IllegalArgumentException("expected " + COLUMNS + " columns but got " + columns.length);
+        }
+
+        String binFrom = optional(columns[1]);
+        String binTo = optional(columns[2]);
+        String minAmount = optional(columns[4]);
+        String maxAmount = optional(columns[5]);
+
+        return new RoutingRule(
+                Integer.parseInt(columns[0].strip()),
+                binFrom == null ? 0 : Integer.parseInt(binFrom),
+                binTo == null ? 999_999 : Integer.parseInt(binTo),
+                optional(columns[3]),
+                minAmount == null ? null : new BigDecimal(minAmount),
+                maxAmount == null ? null : new BigDecimal(maxAmount),
+                optional(columns[6]),
+                AcquirerType.valueOf(columns[7].strip())
+        );
+    }
+
+    private static String optional(String value) {
+        String stripped = value.strip();
+        return stripped.isEmpty() || ANY.equals(stripped) ? null : stripped;
+    }
+}
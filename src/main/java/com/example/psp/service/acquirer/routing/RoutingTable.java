@@ -0,0 +1,305 @@
+package com.example.psp.service.acquirer.routing;
+
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.Money;
+import lombok.NonNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable routing structure compiled from a list of {@link RoutingRule}s.
+ * <p>
+ * The BIN space is split into elementary intervals at every rule boundary. For each interval the winning rule is
+ * precomputed per currency and elementary amount band, so a lookup is a binary search over the interval starts,
+ * a currency lookup and a binary search over the amount bands however many rules overlap, e.g. under a wildcard BIN
+ * rule. Merchant overrides are compiled into separate indexes keyed by merchant ID.
+ * Instances are safe to share between threads and are replaced as a whole on reload.
+ */
+public final class RoutingTable {
+
+    private static final CompiledRule[] NO_RULES = new CompiledRule[0];
+    // Amounts are compared as longs at this many decimal places, enough for every ISO 4217 minor unit
+    private static final int AMOUNT_SCALE = 4;
+
+    private final RuleIndex global;
+    private final Map<String, RuleIndex> merchantOverrides;
+    private final AcquirerType defaultAcquirer;
+    private final int ruleCount;
+
+    private RoutingTable(RuleIndex global, Map<String, RuleIndex> merchantOverrides, AcquirerType defaultAcquirer, int ruleCount) {
+        this.global = global;
+        this.merchantOverrides = merchantOverrides;
+        this.defaultAcquirer = defaultAcquirer;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * Compiles the rules into a lookup structure.
+     *
+     * @param rules           the rules to compile
+     * @param defaultAcquirer the acquirer used when no rule matches
+     * @return the compiled routing table
+     */
+    public static RoutingTable compile(@NonNull List<RoutingRule> rules, @NonNull AcquirerType defaultAcquirer) {
+        List<CompiledRule> globalRules = new ArrayList<>();
+        Map<String, List<CompiledRule>> merchantRules = new HashMap<>();
+
+        for (int i = 0; i < rules.size(); i++) {
+            RoutingRule rule = rules.get(i);
+            CompiledRule compiled = new CompiledRule(rule, i);
+            if (rule.merchantId() == null) {
+                globalRules.add(compiled);
+            } else {
+                merchantRules.computeIfAbsent(rule.merchantId(), id -> new ArrayList<>()).add(compiled);
+            }
+        }
+
+        Map<String, RuleIndex> overrides = new HashMap<>(merchantRules.size() * 2);
+        merchantRules.forEach((merchantId, merchantList) -> overrides.put(merchantId, RuleIndex.build(merchantList)));
+
+        return new RoutingTable(RuleIndex.build(globalRules), Map.copyOf(overrides), defaultAcquirer, rules.size());
+    }
+
+    /**
+     * Finds the acquirer for a payment.
+     *
+     * @param bin        the BIN of the card as a number
+     * @param money      the amount and currency of the payment
+     * @param merchantId the merchant initiating the payment
+     * @return the acquirer of the first matching rule, or the default acquirer when no rule matches
+     */
+    public AcquirerType route(int bin, @NonNull Money money, String merchantId) {
+        String currency = money.getCurrency().getCode();
+        long amount = money.toScale(AMOUNT_SCALE);
+        RuleIndex override = merchantOverrides.get(merchantId);
+        if (override != null) {
+            AcquirerType acquirer = override.match(bin, currency, amount);
+            if (acquirer != null) {
+                return acquirer;
+            }
+        }
+        AcquirerType acquirer = global.match(bin, currency, amount);
+        return acquirer != null ? acquirer : defaultAcquirer;
+    }
+
+    public AcquirerType getDefaultAcquirer() {
+        return defaultAcquirer;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Elementary-interval index over the BIN ranges of a set of rules.
+     */
+    private static final class RuleIndex {
+
+        private final int[] starts;
+        private final Winners[] winners;
+
+        private RuleIndex(int[] starts, Winners[] winners) {
+            this.starts = starts;
+            this.winners = winners;
+        }
+
+        static RuleIndex build(List<CompiledRule> rules) {
+            int[] boundaries = new int[rules.size() * 2];
+            int count = 0;
+            for (CompiledRule rule : rules) {
+                boundaries[count++] = rule.binFrom;
+                boundaries[count++] = rule.binTo + 1;
+            }
+            int[] starts = Arrays.stream(boundaries, 0, count).sorted().distinct().toArray();
+
+            // Sweep the boundaries, keeping the rules active in the current interval ordered by precedence
+            List<CompiledRule> byStart = new ArrayList<>(rules);
+            byStart.sort(Comparator.comparingInt(rule -> rule.binFrom));
+            List<CompiledRule> byEnd = new ArrayList<>(rules);
+            byEnd.sort(Comparator.comparingInt(rule -> rule.binTo));
+            TreeSet<CompiledRule> active = new TreeSet<>(CompiledRule.PRECEDENCE);
+
+            Winners[] winners = new Winners[starts.length];
+            // Neighbouring intervals often share their rules, the rule lists are compared by identity
+            Map<List<CompiledRule>, Winners> compiled = new HashMap<>();
+            int nextStart = 0;
+            int nextEnd = 0;
+            for (int i = 0; i < starts.length; i++) {
+                int position = starts[i];
+                while (nextEnd < byEnd.size() && byEnd.get(nextEnd).binTo < position) {
+                    active.remove(byEnd.get(nextEnd++));
+                }
+                while (nextStart < byStart.size() && byStart.get(nextStart).binFrom <= position) {
+                    CompiledRule rule = byStart.get(nextStart++);
+                    if (rule.binTo >= position) {
+                        active.add(rule);
+                    }
+                }
+                winners[i] = compiled.computeIfAbsent(List.of(active.toArray(NO_RULES)), Winners::of);
+            }
+            return new RuleIndex(starts, winners);
+        }
+
+        AcquirerType match(int bin, String currency, long amount) {
+            int index = Arrays.binarySearch(starts, bin);
+            if (index < 0) {
+                index = -index - 2;
+                if (index < 0) {
+                    return null;
+                }
+            }
+            return winners[index].match(currency, amount);
+        }
+    }
+
+    /**
+     * Winning acquirers of one elementary BIN interval, by currency and amount band.
+     */
+    private static final class Winners {
+
+        private final Map<String, AmountBands> byCurrency;
+        private final AmountBands anyCurrency;
+
+        private Winners(Map<String, AmountBands> byCurrency, AmountBands anyCurrency) {
+            this.byCurrency = byCurrency;
+            this.anyCurrency = anyCurrency;
+        }
+
+        static Winners of(List<CompiledRule> rules) {
+            // Rules after the first one without conditions can never win
+            int reachable = rules.size();
+            for (int i = 0; i < rules.size(); i++) {
+                if (rules.get(i).isUnconditional()) {
+                    reachable = i + 1;
+                    break;
+                }
+            }
+            List<CompiledRule> candidates = rules.subList(0, reachable);
+
+            Map<String, AmountBands> byCurrency = new HashMap<>();
+            for (CompiledRule rule : candidates) {
+                if (rule.currency != null) {
+                    byCurrency.computeIfAbsent(rule.currency, currency -> AmountBands.of(candidates.stream()
+                            .filter(candidate -> candidate.currency == null || candidate.currency.equals(currency))
+                            .toList()));
+                }
+            }
+            return new Winners(Map.copyOf(byCurrency), AmountBands.of(candidates.stream()
+                    .filter(candidate -> candidate.currency == null)
+                    .toList()));
+        }
+
+        AcquirerType match(String currency, long amount) {
+            AmountBands bands = byCurrency.isEmpty() ? anyCurrency : byCurrency.getOrDefault(currency, anyCurrency);
+            return bands.match(amount);
+        }
+    }
+
+    /**
+     * Elementary amount bands split at every bound of a set of rules, with the first rule by precedence covering
+     * each band. Adjacent bands with the same winner are merged.
+     */
+    private static final class AmountBands {
+
+        private final long[] starts;
+        private final AcquirerType[] acquirers;
+
+        private AmountBands(long[] starts, AcquirerType[] acquirers) {
+            this.starts = starts;
+            this.acquirers = acquirers;
+        }
+
+        static AmountBands of(List<CompiledRule> rules) {
+            long[] bounds = LongStream.concat(LongStream.of(Long.MIN_VALUE),
+                            rules.stream().flatMapToLong(rule -> LongStream.of(rule.minAmount, rule.maxAmount)))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            long[] starts = new long[bounds.length];
+            AcquirerType[] acquirers = new AcquirerType[bounds.length];
+            int count = 0;
+            for (long bound : bounds) {
+                AcquirerType winner = null;
+                for (CompiledRule rule : rules) {
+                    if (rule.covers(bound)) {
+                        winner = rule.acquirer;
+                        break;
+                    }
+                }
+                if (count == 0 || acquirers[count - 1] != winner) {
+                    starts[count] = bound;
+                    acquirers[count++] = winner;
+                }
+            }
+            return new AmountBands(Arrays.copyOf(starts, count), Arrays.copyOf(acquirers, count));
+        }
+
+        AcquirerType match(long amount) {
+            if (starts.length == 1) {
+                return acquirers[0];
+            }
+            int index = Arrays.binarySearch(starts, amount);
+            return acquirers[index < 0 ? -index - 2 : index];
+        }
+    }
+
+    /**
+     * Flattened rule the winners are computed from.
+     */
+    private static final class CompiledRule {
+
+        static final Comparator<CompiledRule> PRECEDENCE = Comparator
+                .<CompiledRule>comparingInt(rule -> rule.priority)
+                .thenComparingInt(rule -> rule.order);
+
+        final int priority;
+        final int order;
+        final int binFrom;
+        final int binTo;
+        final String currency;
+        final long minAmount;
+        final long maxAmount;
+        final AcquirerType acquirer;
+
+        CompiledRule(RoutingRule rule, int order) {
+            this.priority = rule.priority();
+            this.order = order;
+            this.binFrom = rule.binFrom();
+            this.binTo = rule.binTo();
+            this.currency = rule.currency();
+            this.minAmount = rule.minAmount() != null ? scaled(rule.minAmount()) : Long.MIN_VALUE;
+            this.maxAmount = rule.maxAmount() != null ? scaled(rule.maxAmount()) : Long.MAX_VALUE;
+            this.acquirer = rule.acquirer();
+        }
+
+        boolean covers(long amount) {
+            return amount >= minAmount && amount < maxAmount;
+        }
+
+        boolean isUnconditional() {
+            return currency == null && minAmount == Long.MIN_VALUE && maxAmount == Long.MAX_VALUE;
+        }
+
+        /**
+         * Rounding a bound up keeps both comparisons exact, since payment amounts never have more decimals than
+         * {@link #AMOUNT_SCALE}. Bounds beyond the long range are clamped.
+         */
+        private static long scaled(BigDecimal bound) {
+            BigInteger value = bound.setScale(AMOUNT_SCALE, RoundingMode.CEILING).unscaledValue();
+            if (value.bitLength() < Long.SIZE) {
+                return value.longValue();
+            }
+            return value.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+    }
+}
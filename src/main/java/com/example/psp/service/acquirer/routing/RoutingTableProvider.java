@@ -0,0 +1,15 @@
+package com.example.psp.service.acquirer.routing;
+
+/**
+ * Source of the routing table currently in effect.
+ */
+@FunctionalInterface
+public interface RoutingTableProvider {
+
+    /**
+     * Returns the current routing table. Callers must not cache the result, it is replaced on reload.
+     *
+     * @return the routing table in effect
+     */
+    RoutingTable current();
+}
@@ -0,0 +1,127 @@
+package com.example.psp.service.events;
+
+import com.example.psp.config.properties.TransactionEventsProperties;
+import com.example.psp.repository.outbox.TransactionStatusEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process bus delivering the transaction status events read from the outbox by the
+ * {@link TransactionOutboxRelay} of this instance to the subscribers of their merchant, in offset order.
+ * <p>
+ * Every subscriber has its own bounded buffer. A subscriber that falls behind by more than the buffer is
+ * terminated with an error instead of slowing down the relay or silently missing events, and can resume
+ * from the last event it received.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+@Slf4j
+public class TransactionEventBus {
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final int bufferSize;
+
+    public TransactionEventBus(TransactionEventsProperties properties, MeterRegistry meterRegistry) {
+        this.bufferSize = properties.subscriberBufferSize();
+        Gauge.builder("psp.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Subscribers of the transaction status event stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the events of a merchant. Events are buffered from this call on, so nothing published
+     * before the returned events are consumed is lost.
+     *
+     * @param merchantId the merchant of the events
+     * @return the subscription, which has to be closed once its events are no longer consumed
+     */
+    public Subscription subscribe(String merchantId) {
+        Subscription subscription = new Subscription(merchantId,
+                Sinks.many().unicast().onBackpressureBuffer(Queues.<TransactionStatusEvent>get(bufferSize).get()));
+        // Adding inside compute keeps a concurrent unsubscribe from removing the set this subscription is added to
+        subscriptions.compute(merchantId, (id, merchantSubscriptions) -> {
+            Set<Subscription> updated = merchantSubscriptions != null ? merchantSubscriptions : new CopyOnWriteArraySet<>();
+            updated.add(subscription);
+            return updated;
+        });
+        subscribers.incrementAndGet();
+        return subscription;
+    }
+
+    /**
+     * @return the merchants with at least one subscriber
+     */
+    Set<String> merchantIds() {
+        return Set.copyOf(subscriptions.keySet());
+    }
+
+    /**
+     * Delivers an event to the subscribers of its merchant. Called by one thread at a time.
+     */
+    void publish(TransactionStatusEvent event) {
+        Set<Subscription> merchantSubscriptions = subscriptions.get(event.merchantId());
+        if (merchantSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : merchantSubscriptions) {
+            if (subscription.sink.tryEmitNext(event) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                log.warn("Subscriber of merchant {} fell behind by more than {} events, closing its stream",
+                        event.merchantId(), bufferSize);
+                subscription.sink.tryEmitError(new IllegalStateException(
+                        "Event stream fell behind by more than " + bufferSize + " events, resume from the last event"));
+                subscription.close();
+            }
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.merchantId, (id, merchantSubscriptions) -> {
+            merchantSubscriptions.remove(subscription);
+            return merchantSubscriptions.isEmpty() ? null : merchantSubscriptions;
+        });
+        subscribers.decrementAndGet();
+    }
+
+    /**
+     * Events of one merchant buffered for one subscriber.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final String merchantId;
+        private final Sinks.Many<TransactionStatusEvent> sink;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(String merchantId, Sinks.Many<TransactionStatusEvent> sink) {
+            this.merchantId = merchantId;
+            this.sink = sink;
+        }
+
+        /**
+         * @return the events published since the subscription was made, can be subscribed to once
+         */
+        public Flux<TransactionStatusEvent> events() {
+            return sink.asFlux();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.psp.service.events;
+
+import com.example.psp.config.properties.TransactionEventsProperties;
+import com.example.psp.repository.outbox.TransactionOutboxRepository;
+import com.example.psp.repository.outbox.TransactionStatusEvent;
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream of the transaction status events of a merchant, optionally resumed after an offset.
+ * <p>
+ * A resumed stream subscribes to the {@link TransactionEventBus} first and replays the published events after
+ * the offset from the outbox page by page, then continues with the events buffered by the bus meanwhile.
+ * Both deliver events in offset order, so events published while the replay runs, which can be part of both,
+ * are skipped by offset and every event is delivered once.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+public class TransactionEventStream {
+
+    private final TransactionOutboxRepository repository;
+    private final TransactionEventBus bus;
+    private final int pageSize;
+
+    public TransactionEventStream(TransactionOutboxRepository repository,
+                                  TransactionEventBus bus,
+                                  TransactionEventsProperties properties) {
+        this.repository = repository;
+        this.bus = bus;
+        this.pageSize = properties.replayPageSize();
+    }
+
+    /**
+     * Streams the events of a merchant.
+     *
+     * @param merchantId  the merchant of the events
+     * @param afterOffset the offset of the last event already received, or empty to receive new events only
+     * @return a Flux emitting the events, which never completes
+     */
+    public Flux<TransactionStatusEvent> stream(@NonNull String merchantId, @NonNull OptionalLong afterOffset) {
+        return Flux.using(() -> bus.subscribe(merchantId),
+                subscription -> {
+                    if (afterOffset.isEmpty()) {
+                        return subscription.events();
+                    }
+                    AtomicLong replayed = new AtomicLong(afterOffset.getAsLong());
+                    return replay(merchantId, afterOffset.getAsLong())
+                            .doOnNext(event -> replayed.set(event.offset()))
+                            .concatWith(subscription.events()
+                                    .filter(event -> event.offset() > replayed.get()));
+                },
+                TransactionEventBus.Subscription::close);
+    }
+
+    private Flux<TransactionStatusEvent> replay(String merchantId, long afterOffset) {
+        return page(merchantId, afterOffset)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : page(merchantId, page.get(page.size() - 1).offset()))
+                .flatMapIterable(page -> page);
+    }
+
+    private Mono<List<TransactionStatusEvent>> page(String merchantId, long afterOffset) {
+        return repository.findPublished(merchantId, afterOffset, pageSize).collectList();
+    }
+}
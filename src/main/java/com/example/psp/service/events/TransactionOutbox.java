@@ -0,0 +1,49 @@
+package com.example.psp.service.events;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.outbox.TransactionOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Writes the status event of a transaction in the database transaction of its status change, so an event is
+ * stored exactly when the change is. Only the repository modes writing straight to the database can share
+ * a transaction with the outbox, the service refuses to start with the other ones.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+public class TransactionOutbox {
+
+    private static final Set<String> TRANSACTIONAL_REPOSITORY_MODES = Set.of("r2dbc", "sql");
+
+    private final TransactionOutboxRepository repository;
+    private final TransactionalOperator transactionalOperator;
+
+    public TransactionOutbox(TransactionOutboxRepository repository,
+                             TransactionalOperator transactionalOperator,
+                             @Value("${psp.repository.mode:r2dbc}") String repositoryMode) {
+        if (!TRANSACTIONAL_REPOSITORY_MODES.contains(repositoryMode)) {
+            throw new IllegalStateException("psp.events.enabled requires psp.repository.mode r2dbc or sql, "
+                    + "the " + repositoryMode + " mode does not write status changes in a database transaction");
+        }
+        this.repository = repository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Runs the status write and appends the event of the written transaction in one database transaction.
+     *
+     * @param statusWrite the write of the new transaction status
+     * @return a Mono emitting the written transaction once both are committed
+     */
+    public Mono<Transaction> write(Mono<Transaction> statusWrite) {
+        return statusWrite
+                .flatMap(written -> repository.append(written).thenReturn(written))
+                .as(transactionalOperator::transactional);
+    }
+}
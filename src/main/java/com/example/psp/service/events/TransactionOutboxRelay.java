@@ -0,0 +1,108 @@
+package com.example.psp.service.events;
+
+import com.example.psp.config.SchedulingConfig;
+import com.example.psp.config.properties.TransactionEventsProperties;
+import com.example.psp.repository.outbox.TransactionOutboxRepository;
+import com.example.psp.repository.outbox.TransactionStatusEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes the transaction status events of the outbox and feeds them to the {@link TransactionEventBus}.
+ * <p>
+ * Every run first claims batches of unpublished events until the outbox is drained. Claims skip the rows claimed
+ * by the relays of other instances, so the instances share the work. The claimed events are then published by
+ * assigning them their offsets, a short step that one instance at a time runs for the events claimed by all of
+ * them. Offsets become visible in order, so reading after the last offset fed to the bus never skips an event.
+ * <p>
+ * The bus is in-process and the subscribers of a merchant may be connected to any instance, so every instance
+ * reads the events published since its last run, whichever instance claimed them, but only those of the merchants
+ * its own subscribers follow. An instance without subscribers only reads the last offset.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.events.enabled", havingValue = "true")
+@Slf4j
+public class TransactionOutboxRelay {
+
+    private final TransactionOutboxRepository repository;
+    private final TransactionEventBus bus;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration retention;
+    private final Counter publishedEvents;
+    // Offset of the last event fed to the bus, read from the outbox on the first run, written by the relay only
+    private long lastOffset = -1;
+
+    public TransactionOutboxRelay(TransactionOutboxRepository repository,
+                                  TransactionEventBus bus,
+                                  Clock clock,
+                                  TransactionEventsProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.bus = bus;
+        this.clock = clock;
+        this.batchSize = properties.relayBatchSize();
+        this.retention = properties.retention();
+        this.publishedEvents = Counter.builder("psp.events.published")
+                .description("Transaction status events claimed from the outbox by this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims unpublished events until the outbox is drained, publishes the claimed events, then feeds the events
+     * published since the last run to the bus.
+     */
+    @Scheduled(fixedDelayString = "${psp.events.relay-interval:100ms}")
+    public void relay() {
+        if (lastOffset < 0) {
+            // Subscribers only receive the events published after startup from the bus, earlier ones are replayed
+            lastOffset = repository.findLastOffset().block();
+        }
+        Integer claimed;
+        do {
+            claimed = repository.claimUnpublished(batchSize, clock.instant()).block();
+            publishedEvents.increment(claimed);
+        } while (claimed == batchSize);
+        Integer assigned;
+        do {
+            assigned = repository.assignOffsets(batchSize).block();
+        } while (assigned == batchSize);
+
+        // Read before the merchants: an event up to this offset is visible to the replay of a later subscriber
+        long upToOffset = repository.findLastOffset().block();
+        Set<String> merchantIds = bus.merchantIds();
+        long afterOffset = lastOffset;
+        while (!merchantIds.isEmpty() && afterOffset < upToOffset) {
+            List<TransactionStatusEvent> batch = repository.findPublished(merchantIds, afterOffset, upToOffset, batchSize)
+                    .collectList()
+                    .block();
+            batch.forEach(bus::publish);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterOffset = batch.get(batch.size() - 1).offset();
+        }
+        lastOffset = upToOffset;
+    }
+
+    /**
+     * Deletes published events older than the retention, one purge interval after startup and then periodically.
+     */
+    @Scheduled(initialDelayString = "${psp.events.purge-interval:1h}",
+            fixedDelayString = "${psp.events.purge-interval:1h}", scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void purgePublished() {
+        Long deleted = repository.deletePublishedBefore(clock.instant().minus(retention)).block();
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired transaction status events", deleted);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.psp.service.idempotency;
+
+import com.example.psp.config.SchedulingConfig;
+import com.example.psp.config.properties.IdempotencyProperties;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.exception.IdempotencyConflictException;
+import com.example.psp.exception.IdempotencyKeyMismatchException;
+import com.example.psp.repository.idempotency.IdempotencyRecord;
+import com.example.psp.repository.idempotency.IdempotencyRepository;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Executes payments at most once per merchant and Idempotency-Key.
+ * <p>
+ * Responses are kept in a bounded in-memory cache with TTL eviction. The cache holds the in-flight future of a
+ * payment as soon as it starts, so concurrent duplicates on the same instance attach to the same execution
+ * instead of racing. Across instances the key is claimed in the database first: a duplicate whose key is
+ * already claimed gets the stored response, or a conflict while the original request is still running.
+ * A payment that fails releases its claim, so the merchant can retry it with the same key.
+ * <p>
+ * The key is stored with a fingerprint of the payment, and a request reusing it for a different card, amount or
+ * currency is rejected rather than answered with the response of the other payment. The cache is keyed by the
+ * fingerprint too, so such a request never attaches to the running execution: it finds the claim in the database.
+ */
+@Component
+@Slf4j
+public class PaymentIdempotency {
+
+    private final IdempotencyRepository repository;
+    private final Clock clock;
+    private final Duration ttl;
+    private final AsyncCache<Key, PaymentResponse> responses;
+
+    public PaymentIdempotency(IdempotencyRepository repository, Clock clock, IdempotencyProperties properties) {
+        this.repository = repository;
+        this.clock = clock;
+        this.ttl = properties.ttl();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.maxCachedKeys())
+                .expireAfterWrite(properties.ttl())
+                .buildAsync();
+    }
+
+    /**
+     * Executes the payment unless a request with the same key was already made.
+     *
+     * @param request        The payment request.
+     * @param idempotencyKey The key chosen by the merchant.
+     * @param payment        Supplier of the payment execution, subscribed at most once per key.
+     * @return A Mono emitting the response of the first request made with the key, or an
+     * {@link IdempotencyKeyMismatchException} if that request was for a different payment.
+     */
+    public Mono<PaymentResponse> execute(@NonNull PaymentRequest request, @NonNull String idempotencyKey,
+                                         @NonNull Supplier<Mono<PaymentResponse>> payment) {
+        Key key = new Key(request.getMerchantId(), idempotencyKey, fingerprint(request));
+        // The shared execution runs with the context of the request that started it and
+        // cancelling one of the attached requests must not cancel it
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> responses.get(key,
+                (k, executor) -> executeOnce(k, payment).contextWrite(context).toFuture()), true));
+    }
+
+    /**
+     * Deletes keys older than the TTL from the database, one purge interval after startup and then periodically.
+     */
+    @Scheduled(initialDelayString = "${psp.idempotency.purge-interval:1h}",
+            fixedDelayString = "${psp.idempotency.purge-interval:1h}", scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void purgeExpired() {
+        Long deleted = repository.deleteCreatedBefore(clock.instant().minus(ttl)).block();
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Mono<PaymentResponse> executeOnce(Key key, Supplier<Mono<PaymentResponse>> payment) {
+        return repository.claim(key.merchantId(), key.idempotencyKey(), key.fingerprint(), clock.instant())
+                .flatMap(claimed -> claimed ? executeClaimed(key, payment) : replay(key));
+    }
+
+    private Mono<PaymentResponse> executeClaimed(Key key, Supplier<Mono<PaymentResponse>> payment) {
+        return Mono.defer(payment)
+                .onErrorResume(error -> repository.release(key.merchantId(), key.idempotencyKey())
+                        .onErrorResume(releaseError -> {
+                            log.warn("Cannot release idempotency key {} of merchant {}: {}",
+                                    key.idempotencyKey(), key.merchantId(), releaseError.getMessage());
+                            return Mono.empty();
+                        })
+                        .then(Mono.error(error)))
+                // Once the payment went through, the key stays claimed even if its response cannot be stored
+                .flatMap(response -> repository.complete(key.merchantId(), key.idempotencyKey(), response)
+                        .onErrorResume(error -> {
+                            log.error("Cannot store response of idempotency key {} of merchant {}: {}",
+                                    key.idempotencyKey(), key.merchantId(), error.getMessage(), error);
+                            return Mono.empty();
+                        })
+                        .thenReturn(response));
+    }
+
+    private Mono<PaymentResponse> replay(Key key) {
+        return repository.find(key.merchantId(), key.idempotencyKey())
+                .flatMap(stored -> {
+                    if (!stored.fingerprint().equals(key.fingerprint())) {
+                        return Mono.error(new IdempotencyKeyMismatchException(key.idempotencyKey()));
+                    }
+                    return stored.isCompleted() ? Mono.just(stored) : Mono.empty();
+                })
+                .map(stored -> PaymentResponse.builder()
+                        .transactionId(stored.transactionId())
+                        .transactionStatus(stored.transactionStatus())
+                        .message(stored.message())
+                        .build())
+                .doOnNext(response -> log.info("Replaying response for idempotency key {} of merchant {}: transactionId={}",
+                        key.idempotencyKey(), key.merchantId(), response.getTransactionId()))
+                .switchIfEmpty(Mono.error(() -> new IdempotencyConflictException(key.idempotencyKey())));
+    }
+
+    /**
+     * Digest of the card, amount and currency of a payment. Only the BIN and the last four digits of the card number
+     * are digested: a digest of the full number could be reversed by enumerating the valid numbers of the BIN.
+     */
+    static String fingerprint(PaymentRequest request) {
+        CardDetails card = request.getCard();
+        String cardNumber = card.getCardNumber();
+        String canonical = String.join("|", card.getBIN(), cardNumber.substring(cardNumber.length() - 4),
+                card.getExpiryDate().toString(), Long.toString(request.getMoney().getMinorUnits()),
+                request.getMoney().getCurrency().getCode());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Key(String merchantId, String idempotencyKey, String fingerprint) {
+    }
+}
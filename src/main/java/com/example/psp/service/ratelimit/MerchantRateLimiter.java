@@ -0,0 +1,66 @@
+package com.example.psp.service.ratelimit;
+
+import com.example.psp.config.properties.MerchantRateLimitProperties;
+import com.example.psp.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Admission control of payment requests per merchant.
+ * <p>
+ * Every merchant has its own {@link TokenBucket}, configured from its entry in the properties or the default tier.
+ * Buckets are created on the first request of a merchant and evicted after the idle timeout, and the number of
+ * buckets is capped, so memory stays bounded however many merchant IDs are seen.
+ */
+@Component
+public class MerchantRateLimiter {
+
+    private final MerchantRateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rejected;
+
+    public MerchantRateLimiter(MerchantRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.idleTimeout())
+                .maximumSize(properties.maxMerchants())
+                .build();
+
+        // Merchant IDs are unbounded, so rejections are not tagged by merchant
+        this.rejected = Counter.builder("psp.rate.limit.rejected")
+                .description("Payment requests rejected by the per-merchant rate limit")
+                .register(meterRegistry);
+        Gauge.builder("psp.rate.limit.merchants", buckets, Cache::estimatedSize)
+                .description("Merchants with a rate limit bucket in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit for a payment request of the merchant.
+     *
+     * @param merchantId the merchant sending the request, requests without one are left to validation
+     * @throws RateLimitExceededException if the merchant has no permit left
+     */
+    public void acquire(String merchantId) {
+        if (!properties.enabled() || merchantId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long wait = buckets.get(merchantId, id -> newBucket(id, now)).tryAcquire(now);
+        if (wait > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException(merchantId, Duration.ofNanos(wait));
+        }
+    }
+
+    private TokenBucket newBucket(String merchantId, long now) {
+        MerchantRateLimitProperties.Limit limit = properties.limitFor(merchantId);
+        return new TokenBucket(limit.rate(), limit.burst(), now);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.psp.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of a token count that has to be refilled, the bucket keeps a single theoretical arrival time: the instant
+ * at which the bucket would be full again. A request advances it by one emission interval ({@code 1 / rate}) and is
+ * admitted while it stays within {@code burst} intervals of the current time, so a permit is one CAS on one long.
+ * Times are {@link System#nanoTime()} values and only compared through their difference.
+ */
+public final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long emissionInterval;
+    private final long capacity;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param rate  sustained permits per second
+     * @param burst permits available at once when the bucket is full
+     * @param now   current time in nanoseconds, the bucket starts full
+     */
+    public TokenBucket(double rate, int burst, long now) {
+        this.emissionInterval = Math.max(1L, Math.round(NANOS_PER_SECOND / rate));
+        this.capacity = emissionInterval * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @param now current time in nanoseconds
+     * @return 0 if a permit was taken, otherwise the nanoseconds until the next permit becomes available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current - now < 0 ? now : current) + emissionInterval;
+            long excess = next - now - capacity;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.psp.service.stats;
+
+import com.example.psp.config.SchedulingConfig;
+import com.example.psp.config.properties.MerchantStatsProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.repository.stats.MerchantRollup;
+import com.example.psp.repository.stats.MerchantStatsRepository;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running per-merchant rollups of completed payments, by time bucket, currency and acquirer.
+ * <p>
+ * Every completed payment increments the {@link LongAdder}s of its rollup, which stripe concurrent updates over
+ * separate cells instead of contending on one value. With a database, the totals of every rollup that changed are
+ * periodically written to the summary table under an id generated at startup, so every instance has rows of its
+ * own and reads sum the stored rollups of all instances with the counts of this instance that are not checkpointed
+ * yet. Writing totals rather than the counts since the last checkpoint makes a retried checkpoint harmless, even
+ * when the failed one was committed. Counts of other instances become visible with their next checkpoint, and the
+ * counts since the last checkpoint of an instance that crashes are lost. Buckets past the compaction age are folded
+ * into one row per rollup and never written again, and rollups past the summary retention are deleted. Without a
+ * database the rollups of this instance since its start are served, for the retention period.
+ */
+@Component
+@ConditionalOnProperty(name = "psp.stats.enabled", havingValue = "true")
+@Slf4j
+public class MerchantStats implements DisposableBean {
+
+    static final int CHECKPOINT_BATCH_SIZE = 1000;
+
+    private static final Comparator<MerchantRollup> ROLLUP_ORDER = Comparator.comparing(MerchantRollup::bucketStart)
+            .thenComparing(rollup -> rollup.currency().getCode())
+            .thenComparing(MerchantRollup::acquirerType);
+
+    // Rollups are only added and evicted within a compute on the map of their merchant, which removes an empty map
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Key, Counters>> rollups = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Optional<MerchantStatsRepository> repository;
+    private final Clock clock;
+    private final long bucketMillis;
+    private final Duration retention;
+    private final Duration compactAfter;
+    private final Duration summaryRetention;
+
+    public MerchantStats(Optional<MerchantStatsRepository> repository, Clock clock, MerchantStatsProperties properties) {
+        this.repository = repository;
+        this.clock = clock;
+        this.bucketMillis = properties.bucket().toMillis();
+        this.retention = properties.retention();
+        this.compactAfter = properties.compactAfter();
+        this.summaryRetention = properties.summaryRetention();
+        if (repository.isPresent()
+                && compactAfter.compareTo(retention.plus(properties.bucket().multipliedBy(2))) <= 0) {
+            throw new IllegalStateException("psp.stats.compact-after must exceed psp.stats.retention plus two buckets");
+        }
+    }
+
+    /**
+     * Counts a payment with a final status in the bucket of its completion time. PENDING transactions and
+     * transactions never routed to an acquirer are ignored.
+     */
+    public void record(@NonNull Transaction transaction) {
+        if (transaction.getStatus() == TransactionStatus.PENDING || transaction.getAcquirerType() == null) {
+            return;
+        }
+        Key key = new Key(bucketStart(transaction.getUpdatedAt()), transaction.getMoney().getCurrency(),
+                transaction.getAcquirerType());
+        ConcurrentHashMap<Key, Counters> merchantRollups = rollups.get(transaction.getMerchantId());
+        Counters counters = merchantRollups == null ? null : merchantRollups.get(key);
+        if (counters == null) {
+            counters = counters(transaction.getMerchantId(), key);
+        }
+        counters.add(transaction.getStatus() == TransactionStatus.APPROVED, transaction.getMoney().getMinorUnits());
+    }
+
+    /**
+     * Finds the rollups of a merchant whose bucket starts in a time range, without touching the transaction table.
+     *
+     * @param merchantId the merchant of the rollups
+     * @param from       the earliest bucket start (inclusive)
+     * @param to         the latest bucket start (exclusive)
+     * @return a Mono emitting the rollups ordered by bucket, currency and acquirer
+     */
+    public Mono<List<MerchantRollup>> find(@NonNull String merchantId, @NonNull Instant from, @NonNull Instant to) {
+        return repository.map(stored -> stored.findByMerchant(merchantId, from, to).collectList())
+                .orElseGet(() -> Mono.just(List.of()))
+                .map(stored -> {
+                    Map<Key, MerchantRollup> merged = new HashMap<>();
+                    stored.forEach(rollup -> merged.put(Key.of(rollup), rollup));
+                    rollups.getOrDefault(merchantId, new ConcurrentHashMap<>()).forEach((key, counters) -> {
+                        if (!key.bucketStart().isBefore(from) && key.bucketStart().isBefore(to)) {
+                            MerchantRollup pending = counters.pending().toRollup(merchantId, key);
+                            if (pending.count() > 0) {
+                                merged.merge(key, pending, MerchantRollup::plus);
+                            }
+                        }
+                    });
+                    List<MerchantRollup> result = new ArrayList<>(merged.values());
+                    result.sort(ROLLUP_ORDER);
+                    return result;
+                });
+    }
+
+    /**
+     * Writes the totals of the rollups that changed since the last checkpoint to the summary table and drops rollups
+     * past the retention. Rollups of compacted buckets are not written any more.
+     */
+    @Scheduled(fixedDelayString = "${psp.stats.checkpoint-interval:10s}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void checkpoint() {
+        repository.ifPresent(this::checkpoint);
+        evictExpired();
+    }
+
+    /**
+     * Folds the rows of all instances for the buckets past the compaction age into one row per rollup and deletes
+     * the rollups past the summary retention.
+     */
+    @Scheduled(fixedDelayString = "${psp.stats.compact-interval:1h}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void compact() {
+        repository.ifPresent(stored -> {
+            Instant now = clock.instant();
+            Long compacted = stored.compactBefore(bucketStart(now.minus(compactAfter))).block();
+            Long deleted = stored.deleteBefore(now.minus(summaryRetention)).block();
+            log.debug("Compacted {} merchant rollups and deleted {} past the summary retention", compacted, deleted);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            repository.ifPresent(this::checkpoint);
+        } catch (RuntimeException e) {
+            log.warn("Final merchant stats checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    private Counters counters(String merchantId, Key key) {
+        Counters[] counters = new Counters[1];
+        rollups.compute(merchantId, (id, merchantRollups) -> {
+            ConcurrentHashMap<Key, Counters> current = merchantRollups == null ? new ConcurrentHashMap<>() : merchantRollups;
+            counters[0] = current.computeIfAbsent(key, k -> new Counters());
+            return current;
+        });
+        return counters[0];
+    }
+
+    private void checkpoint(MerchantStatsRepository stored) {
+        Instant compacted = compactedBefore();
+        List<Checkpoint> batch = new ArrayList<>(CHECKPOINT_BATCH_SIZE);
+        rollups.forEach((merchantId, merchantRollups) -> merchantRollups.forEach((key, counters) -> {
+            Totals total = counters.total();
+            if (total.count() > counters.checkpointed.count() && !key.bucketStart().isBefore(compacted)) {
+                batch.add(new Checkpoint(counters, total, total.toRollup(merchantId, key)));
+                if (batch.size() == CHECKPOINT_BATCH_SIZE) {
+                    write(stored, batch);
+                }
+            }
+        }));
+        write(stored, batch);
+    }
+
+    private void write(MerchantStatsRepository stored, List<Checkpoint> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        stored.save(instanceId, batch.stream().map(Checkpoint::rollup).toList()).block();
+        batch.forEach(checkpoint -> checkpoint.counters().checkpointed = checkpoint.total());
+        batch.clear();
+    }
+
+    private void evictExpired() {
+        Instant threshold = clock.instant().minus(retention).minusMillis(bucketMillis);
+        Instant compacted = compactedBefore();
+        rollups.keySet().forEach(merchantId -> rollups.computeIfPresent(merchantId, (id, merchantRollups) -> {
+            merchantRollups.entrySet().removeIf(entry -> {
+                if (!entry.getKey().bucketStart().isBefore(threshold)) {
+                    return false;
+                }
+                long pending = entry.getValue().pending().count();
+                if (repository.isEmpty() || pending == 0) {
+                    return true;
+                }
+                if (entry.getKey().bucketStart().isBefore(compacted)) {
+                    log.warn("Dropped {} payments of merchant {} counted into the compacted bucket {}",
+                            pending, merchantId, entry.getKey().bucketStart());
+                    return true;
+                }
+                return false;
+            });
+            return merchantRollups.isEmpty() ? null : merchantRollups;
+        }));
+    }
+
+    // Buckets starting before are compacted or about to be, one bucket earlier than the compaction to allow for
+    // the clocks of the instances to differ
+    private Instant compactedBefore() {
+        return clock.instant().minus(compactAfter).plusMillis(bucketMillis);
+    }
+
+    private Instant bucketStart(Instant time) {
+        return Instant.ofEpochMilli(Math.floorDiv(time.toEpochMilli(), bucketMillis) * bucketMillis);
+    }
+
+    private record Key(Instant bucketStart, CurrencyUnit currency, AcquirerType acquirerType) {
+
+        static Key of(MerchantRollup rollup) {
+            return new Key(rollup.bucketStart(), rollup.currency(), rollup.acquirerType());
+        }
+    }
+
+    private record Totals(long count, long approvedCount, long amountMinor, long approvedAmountMinor) {
+
+        static final Totals ZERO = new Totals(0, 0, 0, 0);
+
+        Totals minus(Totals other) {
+            return new Totals(count - other.count, approvedCount - other.approvedCount,
+                    amountMinor - other.amountMinor, approvedAmountMinor - other.approvedAmountMinor);
+        }
+
+        MerchantRollup toRollup(String merchantId, Key key) {
+            return new MerchantRollup(merchantId, key.bucketStart(), key.currency(), key.acquirerType(),
+                    count, approvedCount, amountMinor, approvedAmountMinor);
+        }
+    }
+
+    private record Checkpoint(Counters counters, Totals total, MerchantRollup rollup) {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder approvedCount = new LongAdder();
+        private final LongAdder amountMinor = new LongAdder();
+        private final LongAdder approvedAmountMinor = new LongAdder();
+        // Totals already written to the summary table, written by the checkpoint only
+        private volatile Totals checkpointed = Totals.ZERO;
+
+        void add(boolean approved, long minorUnits) {
+            amountMinor.add(minorUnits);
+            if (approved) {
+                approvedAmountMinor.add(minorUnits);
+                approvedCount.increment();
+            }
+            // Counted last, so a checkpoint that sees the payment counted also sees its amount
+            count.increment();
+        }
+
+        Totals total() {
+            // Read in the reverse order of add
+            long total = count.sum();
+            return new Totals(total, approvedCount.sum(), amountMinor.sum(), approvedAmountMinor.sum());
+        }
+
+        Totals pending() {
+            Totals checkpointedTotals = checkpointed;
+            return total().minus(checkpointedTotals);
+        }
+    }
+}
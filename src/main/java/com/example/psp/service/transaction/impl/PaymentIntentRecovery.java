@@ -0,0 +1,50 @@
+package com.example.psp.service.transaction.impl;
+
+import com.example.psp.config.SingleWritePipelineCondition;
+import com.example.psp.repository.intent.PaymentIntentLog;
+import com.example.psp.repository.transaction.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Persists transactions whose authorization was interrupted by a crash in the single-write pipeline.
+ * <p>
+ * Each interrupted intent is written as a PENDING transaction, the same state the standard pipeline
+ * leaves behind, so it can be reconciled with the acquirer.
+ */
+@Component
+@Conditional(SingleWritePipelineCondition.class)
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentIntentRecovery implements ApplicationRunner {
+
+    private final PaymentIntentLog intentLog;
+    private final TransactionRepository repository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long recovered = intentLog.findIncomplete()
+                .concatMap(transaction -> repository.save(transaction)
+                        .doOnNext(saved -> log.warn("Recovered interrupted payment as PENDING: id={}, merchantId={}",
+                                saved.getId(), saved.getMerchantId()))
+                        // The final row was written but the intent was not completed before the crash
+                        .onErrorResume(DataIntegrityViolationException.class, e -> {
+                            log.info("Interrupted payment {} was already persisted with its final status", transaction.getId());
+                            return Mono.empty();
+                        })
+                        .then(intentLog.complete(transaction.getId()))
+                        .thenReturn(transaction))
+                .count()
+                .block();
+
+        if (recovered != null && recovered > 0) {
+            log.warn("Recovered {} interrupted payments from the intent log", recovered);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.psp.service.transaction.impl;
+
+import com.example.psp.config.properties.TransactionCacheProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.repository.transaction.TransactionRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-through cache of transactions in their final state.
+ * <p>
+ * The payment pipeline writes every completed transaction through to the cache, so a lookup right after a payment
+ * does not reach the database. Misses are loaded from the repository and concurrent misses for the same id share
+ * one query. Only transactions with a final status are kept: a PENDING transaction can still change and is
+ * re-read on the next lookup. Cached entries are copies, never the instances mutated by the pipeline.
+ */
+@Component
+public class TransactionCache {
+
+    private static final String CACHE_NAME = "transactions";
+
+    private final TransactionRepository repository;
+    private final AsyncCache<UUID, Transaction> cache;
+
+    public TransactionCache(TransactionRepository repository,
+                            TransactionCacheProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .buildAsync();
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size, cache.puts and cache.load* tagged cache=transactions
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+        Gauge.builder("psp.transaction.cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .description("Share of transaction lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes a transaction through to the cache if it reached a final status.
+     *
+     * @param transaction the persisted transaction
+     */
+    public void put(@NonNull Transaction transaction) {
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            cache.put(transaction.getId(), CompletableFuture.completedFuture(copyOf(transaction)));
+        }
+    }
+
+    /**
+     * Finds a transaction in the cache, loading it from the repository on a miss.
+     *
+     * @param id the identifier of the transaction
+     * @return A Mono emitting the transaction, or an empty Mono if it does not exist
+     */
+    public Mono<Transaction> findById(@NonNull UUID id) {
+        return Mono.defer(() -> {
+            CompletableFuture<Transaction> future = cache.get(id, (key, executor) -> repository.findById(key)
+                    .map(TransactionCache::copyOf)
+                    .toFuture());
+            // Cancelling one lookup must not cancel the query shared with concurrent lookups
+            return Mono.fromFuture(future, true)
+                    .doOnNext(transaction -> {
+                        if (transaction.getStatus() == TransactionStatus.PENDING) {
+                            cache.asMap().remove(id, future);
+                        }
+                    });
+        });
+    }
+
+    private static Transaction copyOf(Transaction transaction) {
+        return Transaction.reconstruct(
+                transaction.getId(),
+                transaction.getCard(),
+                transaction.getMoney(),
+                transaction.getMerchantId(),
+                transaction.getStatus(),
+                transaction.getAcquirerType(),
+                transaction.getCreatedAt(),
+                transaction.getUpdatedAt()
+        );
+    }
+}
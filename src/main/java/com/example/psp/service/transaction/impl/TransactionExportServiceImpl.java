@@ -0,0 +1,75 @@
+package com.example.psp.service.transaction.impl;
+
+import com.example.psp.config.properties.TransactionExportProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.exception.ServiceOverloadedException;
+import com.example.psp.repository.transaction.TransactionCursor;
+import com.example.psp.repository.transaction.TransactionExportRepository;
+import com.example.psp.service.transaction.ports.MerchantTransactionQuery;
+import com.example.psp.service.transaction.ports.TransactionExportService;
+import com.example.psp.service.transaction.ports.TransactionPage;
+import jakarta.validation.ValidationException;
+import lombok.NonNull;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Lists and exports the transactions of a merchant with keyset pagination.
+ * <p>
+ * A page is read with one more row than requested, so the cursor of the next page is only returned when there is one.
+ * Streaming exports hold a database connection until they are consumed, so at most {@code maxConcurrentExports}
+ * run at the same time and further ones are rejected.
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private final TransactionExportRepository repository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxConcurrentExports;
+    private final Semaphore exports;
+
+    public TransactionExportServiceImpl(TransactionExportRepository repository, TransactionExportProperties properties) {
+        this.repository = repository;
+        this.defaultPageSize = properties.defaultPageSize();
+        this.maxPageSize = properties.maxPageSize();
+        this.maxConcurrentExports = properties.maxConcurrentExports();
+        this.exports = new Semaphore(maxConcurrentExports);
+    }
+
+    @Override
+    public Mono<TransactionPage> findPage(@NonNull MerchantTransactionQuery query) {
+        return Mono.defer(() -> {
+            int limit = pageSize(query);
+            return repository.findByMerchant(query.getMerchantId(), query.getFrom(), query.getTo(), query.getAfter(), limit + 1)
+                    .collectList()
+                    .map(transactions -> transactions.size() > limit
+                            ? new TransactionPage(transactions.subList(0, limit), TransactionCursor.of(transactions.get(limit - 1)))
+                            : new TransactionPage(transactions, null));
+        });
+    }
+
+    @Override
+    public Flux<Transaction> export(@NonNull MerchantTransactionQuery query) {
+        return Flux.defer(() -> {
+            if (!exports.tryAcquire()) {
+                return Flux.error(new ServiceOverloadedException(maxConcurrentExports));
+            }
+            return repository.streamByMerchant(query.getMerchantId(), query.getFrom(), query.getTo(), query.getAfter())
+                    .doFinally(signal -> exports.release());
+        });
+    }
+
+    private int pageSize(MerchantTransactionQuery query) {
+        if (query.getLimit() == null) {
+            return defaultPageSize;
+        }
+        if (query.getLimit() < 1 || query.getLimit() > maxPageSize) {
+            throw new ValidationException("limit: must be between 1 and " + maxPageSize);
+        }
+        return query.getLimit();
+    }
+}
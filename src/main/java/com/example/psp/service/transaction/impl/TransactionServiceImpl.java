@@ -1,24 +1,43 @@
 package com.example.psp.service.transaction.impl;
 
 import com.example.psp.domain.entities.Transaction;
-import com.example.psp.domain.enums.AcquirerDecision;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.exception.AcquirerUnavailableException;
+import com.example.psp.repository.intent.PaymentIntentLog;
 import com.example.psp.repository.transaction.TransactionRepository;
-import com.example.psp.service.acquirer.ports.Acquirer;
 import com.example.psp.service.acquirer.ports.AcquirerRouter;
+import com.example.psp.service.events.TransactionOutbox;
+import com.example.psp.service.stats.MerchantStats;
 import com.example.psp.service.transaction.context.TransactionContext;
+import com.example.psp.service.transaction.impl.PaymentMetrics.Stage;
 import com.example.psp.service.transaction.ports.PaymentRequest;
 import com.example.psp.service.transaction.ports.PaymentResponse;
 import com.example.psp.service.transaction.ports.TransactionService;
+import com.example.psp.shared.logging.PaymentLogContext;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
-import reactor.util.function.Tuple3;
-import reactor.util.function.Tuples;
+import reactor.core.publisher.Signal;
 
 import java.time.Clock;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Payment pipeline implementation.
+ * <p>
+ * In the standard mode the transaction is persisted as PENDING before the acquirer is called and updated
+ * with the final status afterwards. When a {@link PaymentIntentLog} is configured (single-write mode),
+ * only an intent record is written before the acquirer call and the transaction row is inserted once,
+ * already carrying the final status.
+ * Completed transactions are written through to the {@link TransactionCache} serving lookups.
+ * When a {@link TransactionOutbox} is configured, the final status is written together with its status event.
+ * Completed transactions are counted in the {@link MerchantStats} rollups when they are enabled.
+ * Every stage is timed by {@link PaymentMetrics}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -27,26 +46,92 @@ public class TransactionServiceImpl implements TransactionService {
     private final Clock clock;
     private final TransactionRepository repository;
     private final AcquirerRouter router;
+    private final TransactionCache transactionCache;
+    private final PaymentMetrics metrics;
+    private final Optional<PaymentIntentLog> intentLog;
+    private final Optional<TransactionOutbox> outbox;
+    private final Optional<MerchantStats> stats;
 
     @Override
     public Mono<PaymentResponse> processPayment(PaymentRequest paymentDetails) {
         return Mono.defer(() -> {
-            logPaymentStart(paymentDetails);
-            return initializeTransaction(paymentDetails)
-                    .flatMap(transaction -> saveAndRouteTransaction(transaction, paymentDetails))
-                    .flatMap(context -> authorizeTransaction(context, paymentDetails))
-                    .flatMap(this::updateTransactionStatus)
-                    .map(this::buildPaymentResponse)
-                    .doOnSuccess(resp -> log.info("Payment processed: transactionId={}, status={}", resp.getTransactionId(), resp.getTransactionStatus()))
-                    .doOnError(err -> log.error("Error processing payment for merchantId={}: {}", paymentDetails.getMerchantId(), err.getMessage(), err));
+            long start = System.nanoTime();
+            Mono<Transaction> processed = intentLog
+                    .map(journal -> processSingleWrite(paymentDetails, journal))
+                    .orElseGet(() -> processStandard(paymentDetails));
+            return processed
+                    .doOnNext(transactionCache::put)
+                    .doOnNext(tnx -> stats.ifPresent(merchantStats -> merchantStats.record(tnx)))
+                    .doOnEach(signal -> logPaymentSummary(signal, paymentDetails, start))
+                    .map(this::timedResponseMapping);
         });
     }
 
-    private void logPaymentStart(PaymentRequest paymentDetails) {
-        if (log.isInfoEnabled()) {
-            var money = paymentDetails.getMoney();
-            log.info("Processing payment: merchantId={}, amount={}, currency={}",
-                    paymentDetails.getMerchantId(), money.getAmount(), money.getCurrency());
+    @Override
+    public Mono<Transaction> findTransaction(@NonNull UUID transactionId) {
+        return transactionCache.findById(transactionId);
+    }
+
+    private Mono<Transaction> processStandard(PaymentRequest paymentDetails) {
+        return metrics.time(Stage.INITIALIZE, () -> initializeTransaction(paymentDetails))
+                .flatMap(transaction -> metrics.time(Stage.SAVE_AND_ROUTE,
+                        () -> saveAndRouteTransaction(transaction, paymentDetails), TransactionServiceImpl::acquirerOf, ctx -> null, null))
+                .flatMap(context -> timedAuthorization(context, paymentDetails))
+                .flatMap(context -> metrics.time(Stage.UPDATE_STATUS,
+                        () -> updateTransactionStatus(context), Transaction::getAcquirerType, tnx -> context.decision(), acquirerOf(context)));
+    }
+
+    private Mono<Transaction> processSingleWrite(PaymentRequest paymentDetails, PaymentIntentLog journal) {
+        return metrics.time(Stage.INITIALIZE, () -> initializeTransaction(paymentDetails))
+                .flatMap(transaction -> journal.begin(transaction)
+                        .then(metrics.time(Stage.ROUTE,
+                                () -> routeTransaction(transaction, paymentDetails), TransactionServiceImpl::acquirerOf, ctx -> null, null))
+                        .flatMap(context -> timedAuthorization(context, paymentDetails))
+                        .flatMap(context -> metrics.time(Stage.SAVE_FINAL,
+                                () -> saveFinalTransaction(context), Transaction::getAcquirerType, tnx -> context.decision(), acquirerOf(context)))
+                        .flatMap(saved -> journal.complete(saved.getId()).thenReturn(saved))
+                        .onErrorResume(err -> persistInterrupted(transaction, journal).then(Mono.error(err))));
+    }
+
+    private Mono<TransactionContext> timedAuthorization(TransactionContext context, PaymentRequest paymentDetails) {
+        return metrics.time(Stage.AUTHORIZE, () -> authorizeTransaction(context, paymentDetails),
+                TransactionServiceImpl::acquirerOf, TransactionContext::decision, acquirerOf(context));
+    }
+
+    private PaymentResponse timedResponseMapping(Transaction transaction) {
+        long start = System.nanoTime();
+        PaymentResponse response = buildPaymentResponse(transaction);
+        metrics.record(Stage.RESPONSE_MAPPING, transaction.getAcquirerType(), null, PaymentMetrics.Outcome.SUCCESS, start);
+        return response;
+    }
+
+    private static AcquirerType acquirerOf(TransactionContext context) {
+        return context.acquirer().getType();
+    }
+
+    /**
+     * Logs the single summary event of a payment, replacing per-stage INFO lines that are only logged
+     * for sampled requests (see {@link PaymentLogContext}).
+     */
+    private void logPaymentSummary(Signal<Transaction> signal, PaymentRequest paymentDetails, long start) {
+        if (!signal.isOnNext() && !signal.isOnError()) {
+            return;
+        }
+        var event = PaymentLogContext.from(signal.getContextView())
+                .event(signal.isOnNext() ? log.atInfo() : log.atError())
+                .addKeyValue("merchantId", paymentDetails.getMerchantId())
+                .addKeyValue("amount", paymentDetails.getMoney().toPlainString())
+                .addKeyValue("currency", paymentDetails.getMoney().getCurrency())
+                .addKeyValue("durationMicros", (System.nanoTime() - start) / 1_000);
+        if (signal.isOnNext()) {
+            Transaction tnx = signal.get();
+            event.addKeyValue("transactionId", tnx.getId())
+                    .addKeyValue("status", tnx.getStatus())
+                    .addKeyValue("acquirer", tnx.getAcquirerType())
+                    .log("Payment processed");
+        } else {
+            Throwable error = signal.getThrowable();
+            event.setCause(error).log("Payment failed: {}", error.getMessage());
         }
     }
 
@@ -62,23 +147,82 @@ public class TransactionServiceImpl implements TransactionService {
 
     private Mono<TransactionContext> saveAndRouteTransaction(Transaction transaction, PaymentRequest paymentDetails) {
         return repository.save(transaction)
-                .doOnNext(saved -> log.info("Transaction persisted: id={}", saved.getId()))
-                .flatMap(savedTnx -> router.getAcquirer(paymentDetails.getCard())
-                        .map(acquirer -> new TransactionContext(savedTnx, acquirer, null)))
-                .doOnNext(ctx -> log.info("Acquirer selected for transaction {}: {}", ctx.transaction().getId(), ctx.acquirer().getType()));
+                .doOnEach(PaymentLogContext.detail(log, "Transaction persisted",
+                        (event, saved) -> event.addKeyValue("transactionId", saved.getId())))
+                .flatMap(savedTnx -> routeTransaction(savedTnx, paymentDetails));
     }
 
+    private Mono<TransactionContext> routeTransaction(Transaction transaction, PaymentRequest paymentDetails) {
+        return router.getAcquirer(paymentDetails.getCard(), paymentDetails.getMoney(), paymentDetails.getMerchantId())
+                .map(acquirer -> new TransactionContext(transaction, acquirer, null))
+                .doOnEach(PaymentLogContext.detail(log, "Acquirer selected", (event, ctx) -> event
+                        .addKeyValue("transactionId", ctx.transaction().getId())
+                        .addKeyValue("acquirer", ctx.acquirer().getType())));
+    }
+
+    /**
+     * Authorizes the transaction with the selected acquirer. A call rejected before it reached the acquirer
+     * (open circuit breaker or full bulkhead) is retried once on the failover acquirer. Timed out calls are not
+     * retried, because the first acquirer may already have authorized the payment.
+     */
     private Mono<TransactionContext> authorizeTransaction(TransactionContext context, PaymentRequest paymentDetails) {
+        return authorizeWith(context, paymentDetails)
+                .onErrorResume(AcquirerUnavailableException.class, err -> err.isCallAttempted()
+                        ? Mono.error(err)
+                        : router.getFailoverAcquirer(paymentDetails.getCard(), paymentDetails.getMoney(),
+                                        paymentDetails.getMerchantId(), err.getAcquirerType())
+                                .switchIfEmpty(Mono.error(err))
+                                .doOnNext(failover -> log.warn("Acquirer {} rejected transaction {} ({}), failing over to {}",
+                                        err.getAcquirerType(), context.transaction().getId(), err.getReason(), failover.getType()))
+                                .flatMap(failover -> authorizeWith(new TransactionContext(context.transaction(), failover, null), paymentDetails)));
+    }
+
+    private Mono<TransactionContext> authorizeWith(TransactionContext context, PaymentRequest paymentDetails) {
         return context.acquirer().authorizeTransaction(paymentDetails.getCard(), paymentDetails.getMoney())
                 .map(decision -> new TransactionContext(context.transaction(), context.acquirer(), decision))
-                .doOnNext(ctx -> log.info("Acquirer decision for transaction {}: {}", ctx.transaction().getId(), ctx.decision()));
+                .doOnEach(PaymentLogContext.detail(log, "Acquirer decision received", (event, ctx) -> event
+                        .addKeyValue("transactionId", ctx.transaction().getId())
+                        .addKeyValue("acquirer", ctx.acquirer().getType())
+                        .addKeyValue("decision", ctx.decision())));
     }
 
     private Mono<Transaction> updateTransactionStatus(TransactionContext context) {
         var tnx = context.transaction();
         tnx.updateStatus(context.decision(), context.acquirer().getType(), clock);
-        log.info("Transaction status updated: id={}, status={}, acquirer={}", tnx.getId(), tnx.getStatus(), context.acquirer().getType());
-        return repository.update(tnx);
+        return withStatusEvent(repository.update(tnx))
+                .doOnEach(PaymentLogContext.detail(log, "Transaction status updated", (event, updated) -> event
+                        .addKeyValue("transactionId", updated.getId())
+                        .addKeyValue("status", updated.getStatus())));
+    }
+
+    private Mono<Transaction> saveFinalTransaction(TransactionContext context) {
+        var tnx = context.transaction();
+        tnx.updateStatus(context.decision(), context.acquirer().getType(), clock);
+        return withStatusEvent(repository.save(tnx))
+                .doOnEach(PaymentLogContext.detail(log, "Transaction persisted with final status", (event, saved) -> event
+                        .addKeyValue("transactionId", saved.getId())
+                        .addKeyValue("status", saved.getStatus())));
+    }
+
+    private Mono<Transaction> withStatusEvent(Mono<Transaction> statusWrite) {
+        return outbox.map(events -> events.write(statusWrite)).orElse(statusWrite);
+    }
+
+    /**
+     * Persists a transaction whose authorization failed before a final status was reached, so it stays visible
+     * as PENDING exactly like in the standard mode. If the final write itself failed, the intent is left open
+     * and the transaction is recovered on the next startup.
+     */
+    private Mono<Void> persistInterrupted(Transaction transaction, PaymentIntentLog journal) {
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            return Mono.empty();
+        }
+        return repository.save(transaction)
+                .then(journal.complete(transaction.getId()))
+                .onErrorResume(err -> {
+                    log.warn("Interrupted transaction {} left in the intent log: {}", transaction.getId(), err.getMessage());
+                    return Mono.empty();
+                });
     }
 
     private PaymentResponse buildPaymentResponse(Transaction tnx) {
@@ -88,4 +232,4 @@ public class TransactionServiceImpl implements TransactionService {
                 .message("Transaction for merchant " + tnx.getMerchantId() + " is " + tnx.getStatus())
                 .build();
     }
-}
\ No newline at end of file
+}
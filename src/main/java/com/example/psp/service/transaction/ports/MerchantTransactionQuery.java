@@ -0,0 +1,23 @@
+package com.example.psp.service.transaction.ports;
+
+import com.example.psp.repository.transaction.TransactionCursor;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Selects the transactions of a merchant created in a time range, in creation order.
+ */
+@Value
+@Builder
+public class MerchantTransactionQuery {
+    @NonNull String merchantId;
+    @NonNull Instant from;
+    @NonNull Instant to;
+    // The last transaction already read, null to start at the beginning of the range
+    TransactionCursor after;
+    // Maximum number of transactions in a page, null for the default page size
+    Integer limit;
+}
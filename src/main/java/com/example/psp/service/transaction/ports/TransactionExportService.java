@@ -0,0 +1,27 @@
+package com.example.psp.service.transaction.ports;
+
+import com.example.psp.domain.entities.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface representing a service listing and exporting the transactions of a merchant.
+ */
+public interface TransactionExportService {
+
+    /**
+     * Finds a page of the transactions selected by the query.
+     *
+     * @param query The merchant, time range, cursor and page size.
+     * @return A Mono emitting the page.
+     */
+    Mono<TransactionPage> findPage(MerchantTransactionQuery query);
+
+    /**
+     * Streams all transactions selected by the query, ignoring its page size.
+     *
+     * @param query The merchant, time range and cursor.
+     * @return A Flux emitting the transactions as they are requested.
+     */
+    Flux<Transaction> export(MerchantTransactionQuery query);
+}
@@ -0,0 +1,16 @@
+package com.example.psp.service.transaction.ports;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.repository.transaction.TransactionCursor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A page of transactions and the cursor to read the next one, which is null after the last page.
+ */
+@Value
+public class TransactionPage {
+    List<Transaction> transactions;
+    TransactionCursor next;
+}
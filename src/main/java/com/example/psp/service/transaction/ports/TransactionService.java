@@ -1,7 +1,10 @@
 package com.example.psp.service.transaction.ports;
 
+import com.example.psp.domain.entities.Transaction;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 /**
  * Interface representing a service for processing transactions.
  */
@@ -14,4 +17,12 @@ public interface TransactionService {
      * @return A Mono emitting the response of the payment processing.
      */
     Mono<PaymentResponse> processPayment(PaymentRequest paymentDetails);
+
+    /**
+     * Finds a transaction by its identifier.
+     *
+     * @param transactionId The identifier of the transaction.
+     * @return A Mono emitting the transaction, or an empty Mono if it does not exist.
+     */
+    Mono<Transaction> findTransaction(UUID transactionId);
 }
@@ -1,50 +1,148 @@
 package com.example.psp.shared;
 
-import java.util.stream.IntStream;
-
 /**
  * Utility class for validating card information.
+ * <p>
+ * All checks (presence, length, digits and Luhn checksum) are done in a single pass over the characters
+ * of the card number, which also extracts the BIN and the last digit. The outcome is returned as a packed
+ * {@code long}, so the common path allocates nothing and failures are reported as a {@link Rule}
+ * instead of an exception.
  */
 public final class CardValidation {
 
     // Limit to typical length for most card types for simplicity
     public final static int CARD_LENGTH = 16;
 
+    // Bank Identification Number: the first 6 digits of the card number
+    public final static int BIN_LENGTH = 6;
+
+    private static final int RULE_BITS = 4;
+    private static final int DIGIT_BITS = 4;
+    private static final Rule[] RULES = Rule.values();
+
     private CardValidation() {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Validation rules a card number is checked against, in the order they are evaluated.
+     */
+    public enum Rule {
+        VALID("Card number is valid"),
+        MISSING("Card number must not be blank"),
+        LENGTH("Card number must be " + CARD_LENGTH + " digits"),
+        DIGITS("Card number must contain only digits"),
+        LUHN("Card number checksum is invalid");
+
+        private final String message;
+
+        Rule(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Scans the card number once, checking its length, digits and Luhn checksum and extracting its BIN and last digit.
+     *
+     * @param pan the PAN to scan, may be null
+     * @return the packed scan result, to be read with {@link #rule(long)}, {@link #bin(long)} and {@link #lastDigit(long)}
+     */
+    public static long scan(CharSequence pan) {
+        if (pan == null || pan.isEmpty()) {
+            return pack(Rule.MISSING, 0, 0);
+        }
+
+        int length = pan.length();
+        if (length != CARD_LENGTH) {
+            return pack(Rule.LENGTH, 0, 0);
+        }
+
+        int sum = 0;
+        int bin = 0;
+        int digit = 0;
+        for (int i = 0; i < length; i++) {
+            digit = pan.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return pack(Rule.DIGITS, 0, 0);
+            }
+            if (i < BIN_LENGTH) {
+                bin = bin * 10 + digit;
+            }
+            // Every second digit counting from the check digit (rightmost) is doubled
+            if (((length - i) & 1) == 0) {
+                int doubled = digit << 1;
+                sum += doubled > 9 ? doubled - 9 : doubled;
+            } else {
+                sum += digit;
+            }
+        }
+
+        return pack(sum % 10 == 0 ? Rule.VALID : Rule.LUHN, bin, digit);
+    }
+
+    /**
+     * Validates the provided PAN and reports the first rule it fails.
+     *
+     * @param pan the PAN to validate
+     * @return {@link Rule#VALID} if the PAN is valid, otherwise the rule that failed
+     */
+    public static Rule validate(CharSequence pan) {
+        return rule(scan(pan));
+    }
+
+    /**
+     * @param scan the result of {@link #scan(CharSequence)}
+     * @return the rule the card number failed, or {@link Rule#VALID}
+     */
+    public static Rule rule(long scan) {
+        return RULES[(int) (scan & ((1 << RULE_BITS) - 1))];
+    }
+
+    /**
+     * @param scan the result of {@link #scan(CharSequence)}
+     * @return the BIN (first 6 digits) as a number, only meaningful when the length and digit checks passed
+     */
+    public static int bin(long scan) {
+        return (int) (scan >>> (RULE_BITS + DIGIT_BITS));
+    }
+
+    /**
+     * @param scan the result of {@link #scan(CharSequence)}
+     * @return the last digit of the card number, only meaningful when the length and digit checks passed
+     */
+    public static int lastDigit(long scan) {
+        return (int) ((scan >>> RULE_BITS) & ((1 << DIGIT_BITS) - 1));
+    }
+
     /**
      * Validates if the provided PAN (Primary Account Number) is valid.
-     * A valid PAN contains only digits and has a length of 16 characters.
+     * A valid PAN consists of exactly 16 digits.
      *
      * @param pan the PAN to validate
      * @return true if the PAN is valid, false otherwise
      */
     public static boolean isValidPan(String pan) {
-        if (pan == null) return false;
-        String normalizedPan = pan.replaceAll("[^0-9]", "");
-        return normalizedPan.length() == CARD_LENGTH;
+        Rule rule = validate(pan);
+        return rule == Rule.VALID || rule == Rule.LUHN;
     }
 
     /**
      * Validates the provided PAN (Primary Account Number) using the Luhn algorithm.
-     * The PAN must first be validated for correct format (16 digits).
+     * The PAN must also have the correct format (16 digits).
      *
      * @param pan the PAN to validate
      * @return true if the PAN is valid according to the Luhn algorithm, false otherwise
-     * @see #isValidPan(String) 
+     * @see #isValidPan(String)
      */
     public static boolean isValidLuhn(String pan) {
-        if (!isValidPan(pan)) {
-            return false;
-        }
-
-        int[] digits = pan.chars().map(c -> c - '0').toArray();
-
-        return IntStream.range(0,digits.length)
-                        .map (i -> (((i%2) ^ (digits.length%2)) == 0) ? ((2*digits[i])/10+(2*digits[i])%10) : digits[i])
-                        .sum() % 10 == 0;
+        return validate(pan) == Rule.VALID;
+    }
 
+    private static long pack(Rule rule, int bin, int lastDigit) {
+        return ((long) bin << (RULE_BITS + DIGIT_BITS)) | ((long) lastDigit << RULE_BITS) | rule.ordinal();
     }
 }
@@ -0,0 +1,50 @@
+package com.example.psp.shared;
+
+import lombok.NonNull;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7).
+ * <p>
+ * The first 48 bits hold the Unix epoch milliseconds of the creation time, so the creation time of a transaction
+ * can be derived from its id alone (e.g. to prune partitions on lookups by id) and new ids are appended at the
+ * end of the primary key index. The remaining bits come from {@link UUID#randomUUID()}, so ids stay unguessable.
+ */
+public final class UuidV7 {
+
+    private static final int VERSION = 7;
+
+    private UuidV7() {
+    }
+
+    /**
+     * @param timestamp the creation time encoded in the id, truncated to milliseconds
+     * @return a new version 7 UUID
+     */
+    public static UUID generate(@NonNull Instant timestamp) {
+        UUID random = UUID.randomUUID();
+        long msb = (timestamp.toEpochMilli() << 16)
+                | ((long) VERSION << 12)
+                | (random.getMostSignificantBits() & 0x0FFFL);
+        // The variant bits of the random UUID are already the RFC ones
+        return new UUID(msb, random.getLeastSignificantBits());
+    }
+
+    public static boolean isV7(@NonNull UUID uuid) {
+        return uuid.version() == VERSION;
+    }
+
+    /**
+     * @param uuid a version 7 UUID
+     * @return the creation time encoded in the id, with millisecond precision
+     * @throws IllegalArgumentException if the UUID is not a version 7 UUID
+     */
+    public static Instant timestamp(@NonNull UUID uuid) {
+        if (!isV7(uuid)) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16);
+    }
+}
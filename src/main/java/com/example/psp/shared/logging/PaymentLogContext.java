@@ -0,0 +1,103 @@
+package com.example.psp.shared.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+import reactor.core.publisher.Signal;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Logging state of one payment request, carried in the Reactor context instead of thread-locals.
+ * <p>
+ * The correlation ID is attached to log events as a key-value pair, so log messages do not need to repeat it
+ * (or the transaction details) through string formatting. Per-stage detail events are only emitted for
+ * requests sampled as {@code detailed}; the summary event of every payment is always emitted.
+ *
+ * @param correlationId identifier correlating all events of one request, may be null
+ * @param detailed      whether per-stage detail events are logged for this request
+ */
+public record PaymentLogContext(String correlationId, boolean detailed) {
+
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final int CORRELATION_ID_MAX_LENGTH = 64;
+
+    // Used outside of a request, e.g. by benchmarks or tests calling the service directly
+    private static final PaymentLogContext UNCORRELATED = new PaymentLogContext(null, true);
+
+    /**
+     * Creates the logging state of a new request.
+     *
+     * @param correlationId    the correlation ID sent by the client, or null to generate one. An ID that is not
+     *                         {@link #isValidCorrelationId valid} is replaced by a generated one, so client input
+     *                         cannot forge log lines or response headers
+     * @param detailSampleRate share of requests whose detail events are logged, between 0 and 1
+     * @return the logging state
+     */
+    public static PaymentLogContext start(String correlationId, double detailSampleRate) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new PaymentLogContext(
+                isValidCorrelationId(correlationId) ? correlationId : Long.toHexString(random.nextLong()),
+                detailSampleRate >= 1.0 || random.nextDouble() < detailSampleRate
+        );
+    }
+
+    /**
+     * @param correlationId the correlation ID sent by the client, may be null
+     * @return whether the ID has 1 to {@value #CORRELATION_ID_MAX_LENGTH} characters, all ASCII letters, digits,
+     * {@code .}, {@code _} or {@code -}
+     */
+    public static boolean isValidCorrelationId(CharSequence correlationId) {
+        if (correlationId == null || correlationId.isEmpty() || correlationId.length() > CORRELATION_ID_MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < correlationId.length(); i++) {
+            char c = correlationId.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '.' || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static PaymentLogContext from(ContextView context) {
+        return context.getOrDefault(PaymentLogContext.class, UNCORRELATED);
+    }
+
+    public Context toContext() {
+        return Context.of(PaymentLogContext.class, this);
+    }
+
+    /**
+     * Starts an event carrying the correlation ID.
+     */
+    public LoggingEventBuilder event(LoggingEventBuilder builder) {
+        return correlationId != null ? builder.addKeyValue(CORRELATION_ID, correlationId) : builder;
+    }
+
+    /**
+     * Creates a {@code doOnEach} callback logging a detail event for the emitted value if the request is sampled.
+     *
+     * @param log       the logger
+     * @param message   the constant event message
+     * @param keyValues adds the key-value pairs describing the emitted value
+     * @return the callback
+     */
+    public static <T> Consumer<Signal<T>> detail(Logger log, String message, BiConsumer<LoggingEventBuilder, T> keyValues) {
+        return signal -> {
+            if (!signal.isOnNext() || !log.isInfoEnabled()) {
+                return;
+            }
+            PaymentLogContext context = from(signal.getContextView());
+            if (context.detailed()) {
+                LoggingEventBuilder event = context.event(log.atInfo()).setMessage(message);
+                keyValues.accept(event, signal.get());
+                event.log();
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.psp;
+
+import com.example.psp.api.dto.transaction.BatchItemResponseDto;
+import com.example.psp.repository.transaction.impl.TransactionR2dbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BatchPaymentIntegrationTest extends AbstractIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransactionR2dbcRepository r2dbcRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        r2dbcRepository.deleteAll().block();
+    }
+
+    @Test
+    void shouldStreamOneResultPerLine_AndReportBadLinesAsErrorItems() {
+        String expiry = YearMonth.now(clock).plusMonths(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        String body = String.join("\n",
+                line("4242424242424242", expiry),
+                "{not json",
+                "",
+                line("4242424242424241", expiry),
+                line("4444414444444458", expiry)
+        );
+
+        List<BatchItemResponseDto> results = webTestClient.post()
+                .uri("/api/v1/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BatchItemResponseDto.class)
+                .getResponseBody()
+                .sort(Comparator.comparingLong(BatchItemResponseDto::getLine))
+                .collectList()
+                .block();
+
+        assertNotNull(results);
+        assertEquals(4, results.size());
+
+        assertEquals(1, results.get(0).getLine());
+        assertEquals("APPROVED", results.get(0).getTransactionStatus());
+        assertNull(results.get(0).getError());
+
+        assertEquals(2, results.get(1).getLine());
+        assertNotNull(results.get(1).getError());
+
+        assertEquals(4, results.get(2).getLine());
+        assertEquals("ValidationException", results.get(2).getError());
+
+        assertEquals(5, results.get(3).getLine());
+        assertEquals("APPROVED", results.get(3).getTransactionStatus());
+
+        r2dbcRepository.count()
+                .as(StepVerifier::create)
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    private static String line(String cardNumber, String expiry) {
+        return """
+                {"cardNumber": "%s", "expiry": "%s", "cvv": "123", "amount": 10.00, "currencyCode": "USD", "merchantId": "merchant-1"}\
+                """.formatted(cardNumber, expiry);
+    }
+}
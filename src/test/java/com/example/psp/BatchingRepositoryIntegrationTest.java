@@ -0,0 +1,112 @@
+package com.example.psp;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import com.example.psp.repository.transaction.TransactionRepository;
+import com.example.psp.repository.transaction.impl.TransactionR2dbcRepository;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A long flush latency puts the writes issued together into one batch
+@TestPropertySource(properties = {
+        "psp.repository.mode=batching",
+        "psp.repository.batching.max-latency=200ms"
+})
+class BatchingRepositoryIntegrationTest extends AbstractIT {
+
+    private static final String OK = "ok";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionR2dbcRepository r2dbcRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        r2dbcRepository.deleteAll().block();
+    }
+
+    @Test
+    void shouldCompleteEveryCaller_WithItsOwnWrite() {
+        List<Transaction> transactions = IntStream.range(0, 20).mapToObj(i -> transaction()).toList();
+
+        List<UUID> saved = Flux.fromIterable(transactions)
+                .flatMap(transaction -> transactionRepository.save(transaction)
+                        .map(Transaction::getId)
+                        .filter(transaction.getId()::equals))
+                .collectList()
+                .block();
+
+        assertNotNull(saved);
+        assertEquals(transactions.size(), saved.size());
+        transactions.forEach(transaction ->
+                assertNotNull(transactionRepository.findById(transaction.getId()).block()));
+    }
+
+    @Test
+    void shouldFailOnlyTheFailingWrites_WhenBatchFails() {
+        Transaction existing = transactionRepository.save(transaction()).block();
+        assertNotNull(existing);
+        Transaction first = transaction();
+        Transaction second = transaction();
+        Transaction unknown = transaction();
+
+        Map<UUID, String> outcomes = Flux.merge(
+                        outcome(first.getId(), transactionRepository.save(first)),
+                        // The duplicate key fails the multi-row insert of the whole batch
+                        outcome(existing.getId(), transactionRepository.save(existing)),
+                        outcome(second.getId(), transactionRepository.save(second)),
+                        outcome(unknown.getId(), transactionRepository.update(unknown)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+
+        assertNotNull(outcomes);
+        assertEquals(OK, outcomes.get(first.getId()));
+        assertEquals(OK, outcomes.get(second.getId()));
+        assertEquals("DataIntegrityViolation", outcomes.get(existing.getId()));
+        assertEquals("IllegalStateException", outcomes.get(unknown.getId()));
+        assertNotNull(transactionRepository.findById(first.getId()).block());
+        assertNotNull(transactionRepository.findById(second.getId()).block());
+        assertNull(transactionRepository.findById(unknown.getId()).block());
+    }
+
+    private static Mono<Map.Entry<UUID, String>> outcome(UUID id, Mono<Transaction> write) {
+        return write.map(written -> OK)
+                .onErrorResume(error -> Mono.just(error instanceof DataIntegrityViolationException
+                        || error instanceof R2dbcDataIntegrityViolationException
+                        ? "DataIntegrityViolation" : error.getClass().getSimpleName()))
+                .map(outcome -> Map.entry(id, outcome));
+    }
+
+    private Transaction transaction() {
+        Instant now = clock.instant().truncatedTo(ChronoUnit.MICROS);
+        return Transaction.reconstruct(UUID.randomUUID(), StoredCardInfo.ofLastFour("4242", YearMonth.of(2028, 7)),
+                Money.parse("10.00", CurrencyUnit.of("USD")), "merchant-1", TransactionStatus.PENDING, null, now, now);
+    }
+}
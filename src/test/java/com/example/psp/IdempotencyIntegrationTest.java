@@ -0,0 +1,119 @@
+package com.example.psp;
+
+import com.example.psp.api.dto.transaction.TransactionResponseDto;
+import com.example.psp.repository.transaction.impl.TransactionR2dbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class IdempotencyIntegrationTest extends AbstractIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransactionR2dbcRepository r2dbcRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        r2dbcRepository.deleteAll().block();
+    }
+
+    @Test
+    void shouldReturnStoredResponse_WhenRequestIsRepeated() {
+        String key = UUID.randomUUID().toString();
+
+        TransactionResponseDto first = post(key).block();
+        TransactionResponseDto second = post(key).block();
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(first.getTransactionId(), second.getTransactionId());
+        assertEquals(first.getTransactionStatus(), second.getTransactionStatus());
+
+        r2dbcRepository.count()
+                .as(StepVerifier::create)
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCoalesceConcurrentDuplicates() {
+        String key = UUID.randomUUID().toString();
+
+        List<TransactionResponseDto> responses = Flux.range(0, 8)
+                // WebTestClient exchanges block, so every request is sent from its own worker thread
+                .flatMap(i -> Mono.defer(() -> post(key)).subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block();
+
+        assertNotNull(responses);
+        assertEquals(8, responses.size());
+        assertEquals(1, responses.stream().map(TransactionResponseDto::getTransactionId).distinct().count());
+
+        r2dbcRepository.count()
+                .as(StepVerifier::create)
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectRequest_WhenKeyIsReusedForDifferentPayment() {
+        String key = UUID.randomUUID().toString();
+
+        TransactionResponseDto first = post(key).block();
+        assertNotNull(first);
+
+        exchange(key, "20.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("IdempotencyKeyMismatchException");
+
+        r2dbcRepository.count()
+                .as(StepVerifier::create)
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    private Mono<TransactionResponseDto> post(String idempotencyKey) {
+        return exchange(idempotencyKey, "10.00")
+                .expectStatus().isOk()
+                .returnResult(TransactionResponseDto.class)
+                .getResponseBody()
+                .next();
+    }
+
+    private WebTestClient.ResponseSpec exchange(String idempotencyKey, String amount) {
+        String expiry = YearMonth.now(clock).plusMonths(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        String body = """
+                {"cardNumber": "4242424242424242", "expiry": "%s", "cvv": "123", "amount": %s, "currencyCode": "USD", "merchantId": "merchant-1"}
+                """.formatted(expiry, amount);
+
+        return webTestClient.post()
+                .uri("/api/v1/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", idempotencyKey)
+                .bodyValue(body)
+                .exchange();
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.psp;
 
+import com.example.psp.domain.enums.AcquirerType;
 import com.example.psp.domain.enums.TransactionStatus;
 import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
 import com.example.psp.domain.valueobjects.Money;
 import com.example.psp.repository.transaction.impl.TransactionR2dbcRepository;
 import com.example.psp.service.transaction.ports.PaymentRequest;
@@ -11,10 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import reactor.test.StepVerifier;
 
-import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.YearMonth;
-import java.util.Currency;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -37,7 +37,7 @@ class PaymentIntegrationTest extends AbstractIT {
 
     @Test
     void shouldProcessSuccessfulPayment() {
-        // BIN: 424242 -> Sum: 18 (Even) -> Acquirer A
+        // BIN: 424242 -> rule 400000-439999 -> Acquirer A
         // Last digit: 2 (Even) -> APPROVED
         CardDetails card = CardDetails.builder()
                 .cardNumber("4242424242424242")
@@ -48,7 +48,7 @@ class PaymentIntegrationTest extends AbstractIT {
 
         PaymentRequest request = PaymentRequest.builder()
                 .card(card)
-                .money(Money.builder().amount(new BigDecimal("100.00")).currency(Currency.getInstance("USD")).build())
+                .money(Money.parse("100.00", CurrencyUnit.of("USD")))
                 .merchantId("merchant-1")
                 .build();
 
@@ -63,15 +63,15 @@ class PaymentIntegrationTest extends AbstractIT {
         r2dbcRepository.findAll()
                 .as(StepVerifier::create)
                 .assertNext(dbModel -> {
-                    assertEquals(TransactionStatus.APPROVED.name(), dbModel.getStatus());
-                    assertEquals("ACQUIRER_A", dbModel.getAcquirerType());
+                    assertEquals(TransactionStatus.APPROVED, dbModel.toDomain().getStatus());
+                    assertEquals(AcquirerType.ACQUIRER_A, dbModel.toDomain().getAcquirerType());
                 })
                 .verifyComplete();
     }
 
     @Test
     void shouldProcessDeniedPayment() {
-        // BIN: 424242 -> Sum: 18 (Even) -> Acquirer A
+        // BIN: 424242 -> rule 400000-439999 -> Acquirer A
         // Last digit: 9 (Odd) -> DENIED
         // Valid Luhn check digit for 424242424242425 is 9
         CardDetails card = CardDetails.builder()
@@ -83,7 +83,7 @@ class PaymentIntegrationTest extends AbstractIT {
 
         PaymentRequest request = PaymentRequest.builder()
                 .card(card)
-                .money(Money.builder().amount(new BigDecimal("50.00")).currency(Currency.getInstance("USD")).build())
+                .money(Money.parse("50.00", CurrencyUnit.of("USD")))
                 .merchantId("merchant-2")
                 .build();
 
@@ -97,14 +97,14 @@ class PaymentIntegrationTest extends AbstractIT {
         r2dbcRepository.findAll()
                 .as(StepVerifier::create)
                 .assertNext(dbModel -> {
-                    assertEquals(TransactionStatus.DENIED.name(), dbModel.getStatus());
+                    assertEquals(TransactionStatus.DENIED, dbModel.toDomain().getStatus());
                 })
                 .verifyComplete();
     }
 
     @Test
     void shouldRouteToAcquirerBAndApprove() {
-        // BIN: 444441 -> Sum: 21 (Odd) -> Acquirer B
+        // BIN: 444441 -> rule 440000-499999 -> Acquirer B
         // Last digit: 8 (Even) -> APPROVED
         // Valid Luhn check digit for 444441444444445 is 8
         CardDetails card = CardDetails.builder()
@@ -116,7 +116,7 @@ class PaymentIntegrationTest extends AbstractIT {
 
         PaymentRequest request = PaymentRequest.builder()
                 .card(card)
-                .money(Money.builder().amount(new BigDecimal("75.00")).currency(Currency.getInstance("EUR")).build())
+                .money(Money.parse("75.00", CurrencyUnit.of("EUR")))
                 .merchantId("merchant-3")
                 .build();
 
@@ -130,8 +130,8 @@ class PaymentIntegrationTest extends AbstractIT {
         r2dbcRepository.findAll()
                 .as(StepVerifier::create)
                 .assertNext(dbModel -> {
-                    assertEquals(TransactionStatus.APPROVED.name(), dbModel.getStatus());
-                    assertEquals("ACQUIRER_B", dbModel.getAcquirerType());
+                    assertEquals(TransactionStatus.APPROVED, dbModel.toDomain().getStatus());
+                    assertEquals(AcquirerType.ACQUIRER_B, dbModel.toDomain().getAcquirerType());
                 })
                 .verifyComplete();
     }
@@ -0,0 +1,258 @@
+package com.example.psp;
+
+import com.example.psp.api.dto.transaction.TransactionEventDto;
+import com.example.psp.config.properties.TransactionEventsProperties;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.repository.outbox.TransactionOutboxRepository;
+import com.example.psp.repository.outbox.TransactionStatusEvent;
+import com.example.psp.service.events.TransactionEventBus;
+import com.example.psp.service.events.TransactionOutboxRelay;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.example.psp.service.transaction.ports.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// The test application.properties replaces the main one, which enables the events
+@TestPropertySource(properties = "psp.events.enabled=true")
+class TransactionEventsIntegrationTest extends AbstractIT {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String LOCK_OUTBOX_SQL = "SELECT id FROM transaction_outbox WHERE transaction_id = $1 FOR UPDATE";
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO transaction_outbox (transaction_id, merchant_id, "
+            + "transaction_status, acquirer_type, amount_minor, currency, occurred_at) "
+            + "VALUES ($1, $2, 'APPROVED', 'ACQUIRER_A', 1000, 'USD', now())";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired
+    private TransactionOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionEventsProperties eventsProperties;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Test
+    void shouldStreamStatusOfProcessedTransaction() {
+        String merchantId = "merchant-" + UUID.randomUUID();
+        PaymentResponse payment = pay(merchantId, "100.00");
+
+        StepVerifier.create(events(merchantId, "0").take(1))
+                .assertNext(event -> {
+                    assertNotNull(event.id());
+                    assertEquals("transaction.status", event.event());
+                    assertEquals(payment.getTransactionId().toString(), event.data().getTransactionId());
+                    assertEquals(TransactionStatus.APPROVED.name(), event.data().getTransactionStatus());
+                    assertEquals("100.00", event.data().getAmount());
+                    assertEquals(merchantId, event.data().getMerchantId());
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId() {
+        String merchantId = "merchant-" + UUID.randomUUID();
+        pay(merchantId, "10.00");
+        PaymentResponse second = pay(merchantId, "20.00");
+
+        ServerSentEvent<TransactionEventDto> first = events(merchantId, "0").blockFirst(TIMEOUT);
+        assertNotNull(first);
+
+        StepVerifier.create(events(merchantId, first.id()).take(1))
+                .assertNext(event -> assertEquals(second.getTransactionId().toString(), event.data().getTransactionId()))
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void shouldDeliverEventsCommittedOutOfOrderOnEveryInstance() {
+        String merchantId = "merchant-" + UUID.randomUUID();
+        UUID earlier = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        // A second instance, whose relay claims concurrently with the relay of this one
+        TransactionEventBus otherBus = new TransactionEventBus(eventsProperties, new SimpleMeterRegistry());
+        TransactionOutboxRelay otherRelay = new TransactionOutboxRelay(outboxRepository, otherBus, clock,
+                eventsProperties, new SimpleMeterRegistry());
+        otherRelay.relay();
+        TransactionEventBus.Subscription otherSubscription = otherBus.subscribe(merchantId);
+
+        ServerSentEvent<TransactionEventDto> first;
+        Connection connection = Mono.from(connectionFactory.create()).block();
+        assertNotNull(connection);
+        try {
+            // The earlier row gets the lower id but commits after the later row is published
+            Mono.from(connection.beginTransaction()).block();
+            insertOutboxRow(connection, earlier, merchantId);
+            Connection autoCommit = Mono.from(connectionFactory.create()).block();
+            assertNotNull(autoCommit);
+            try {
+                insertOutboxRow(autoCommit, later, merchantId);
+            } finally {
+                Mono.from(autoCommit.close()).block();
+            }
+            relayUntilPublished(otherRelay, merchantId, 1);
+
+            first = events(merchantId, "0").blockFirst(TIMEOUT);
+            assertNotNull(first);
+            assertEquals(later.toString(), first.data().getTransactionId());
+            Mono.from(connection.commitTransaction()).block();
+        } finally {
+            Mono.from(connection.close()).block();
+        }
+        relayUntilPublished(otherRelay, merchantId, 2);
+
+        StepVerifier.create(events(merchantId, first.id()).take(1))
+                .assertNext(event -> assertEquals(earlier.toString(), event.data().getTransactionId()))
+                .expectComplete()
+                .verify(TIMEOUT);
+        StepVerifier.create(otherSubscription.events().map(TransactionStatusEvent::transactionId).take(2))
+                .expectNext(later, earlier)
+                .expectComplete()
+                .verify(TIMEOUT);
+        otherSubscription.close();
+    }
+
+    @Test
+    void shouldSkipRowsClaimedByAnotherInstance_AndPublishThemInIdOrder() {
+        String merchantId = "merchant-" + UUID.randomUUID();
+        UUID earlier = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        TransactionEventBus otherBus = new TransactionEventBus(eventsProperties, new SimpleMeterRegistry());
+        TransactionOutboxRelay otherRelay = new TransactionOutboxRelay(outboxRepository, otherBus, clock,
+                eventsProperties, new SimpleMeterRegistry());
+        otherRelay.relay();
+        TransactionEventBus.Subscription otherSubscription = otherBus.subscribe(merchantId);
+
+        Connection connection = Mono.from(connectionFactory.create()).block();
+        assertNotNull(connection);
+        try {
+            insertOutboxRow(connection, earlier, merchantId);
+            insertOutboxRow(connection, later, merchantId);
+            // Another instance is claiming the earlier row: the claim skips it instead of waiting
+            Mono.from(connection.beginTransaction()).block();
+            Flux.from(connection.createStatement(LOCK_OUTBOX_SQL).bind(0, earlier).execute())
+                    .flatMap(result -> result.map((row, metadata) -> row.get("id", Long.class)))
+                    .blockLast();
+            otherRelay.relay();
+
+            // The later row is claimed but gets no offset before the earlier one
+            assertEquals(0L, outboxRepository.findPublished(merchantId, 0, 10).count().block());
+            Mono.from(connection.rollbackTransaction()).block();
+        } finally {
+            Mono.from(connection.close()).block();
+        }
+
+        assertEquals(List.of(earlier, later), relayUntilPublished(otherRelay, merchantId, 2));
+        StepVerifier.create(otherSubscription.events().map(TransactionStatusEvent::transactionId).take(2))
+                .expectNext(earlier, later)
+                .expectComplete()
+                .verify(TIMEOUT);
+        otherSubscription.close();
+    }
+
+    @Test
+    void shouldRejectInvalidLastEventId() {
+        webTestClient.get()
+                .uri("/api/v1/merchants/{merchantId}/transaction-events", "merchant-1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "not-an-offset")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Flux<ServerSentEvent<TransactionEventDto>> events(String merchantId, String lastEventId) {
+        return webTestClient.mutate().responseTimeout(TIMEOUT).build()
+                .get()
+                .uri("/api/v1/merchants/{merchantId}/transaction-events", merchantId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", lastEventId)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<TransactionEventDto>>() {
+                })
+                .getResponseBody()
+                // Heartbeats carry no data
+                .filter(event -> event.data() != null);
+    }
+
+    private PaymentResponse pay(String merchantId, String amount) {
+        CardDetails card = CardDetails.builder()
+                .cardNumber("4242424242424242")
+                .cvv("123")
+                .expiryDate(YearMonth.now(clock).plusMonths(1))
+                .clock(clock)
+                .build();
+
+        PaymentResponse payment = transactionService.processPayment(PaymentRequest.builder()
+                        .card(card)
+                        .money(Money.parse(amount, CurrencyUnit.of("USD")))
+                        .merchantId(merchantId)
+                        .build())
+                .block();
+        assertNotNull(payment);
+        return payment;
+    }
+
+    /**
+     * Runs the relay until the merchant has the given number of published events. The relay of the application
+     * context runs concurrently and may be the one assigning the offsets, so this relay runs once more to read them.
+     */
+    private List<UUID> relayUntilPublished(TransactionOutboxRelay relay, String merchantId, int published) {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        List<UUID> transactionIds;
+        do {
+            relay.relay();
+            transactionIds = outboxRepository.findPublished(merchantId, 0, 10)
+                    .map(TransactionStatusEvent::transactionId)
+                    .collectList()
+                    .block();
+            assertNotNull(transactionIds);
+        } while (transactionIds.size() < published && Instant.now().isBefore(deadline));
+        relay.relay();
+        return transactionIds;
+    }
+
+    private static void insertOutboxRow(Connection connection, UUID transactionId, String merchantId) {
+        Flux.from(connection.createStatement(INSERT_OUTBOX_SQL)
+                        .bind(0, transactionId)
+                        .bind(1, merchantId)
+                        .execute())
+                .flatMap(Result::getRowsUpdated)
+                .blockLast();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.psp;
+
+import com.example.psp.api.dto.transaction.TransactionDetailsDto;
+import com.example.psp.api.dto.transaction.TransactionPageDto;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.example.psp.service.transaction.ports.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class TransactionExportIntegrationTest extends AbstractIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private Clock clock;
+
+    @Test
+    void shouldPageThroughMerchantTransactions_OldestFirst() {
+        String merchantId = "merchant-" + UUID.randomUUID();
+        List<String> paid = pay(merchantId, 5);
+        pay("merchant-" + UUID.randomUUID(), 1);
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDto page = page(merchantId, cursor);
+            assertNotNull(page);
+            page.getTransactions().forEach(transaction -> listed.add(transaction.getTransactionId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(paid, listed);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void shouldExportMerchantTransactionsAsNdjson() {
+        String merchantId = "merchant-" + UUID.randomUUID();
+        List<String> paid = pay(merchantId, 5);
+
+        List<TransactionDetailsDto> exported = webTestClient.get()
+                .uri("/api/v1/merchants/{merchantId}/transactions", merchantId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionDetailsDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(exported);
+        assertEquals(paid, exported.stream().map(TransactionDetailsDto::getTransactionId).toList());
+        assertEquals(merchantId, exported.get(0).getMerchantId());
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        webTestClient.get()
+                .uri("/api/v1/merchants/{merchantId}/transactions?after={after}", "merchant-1", "not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private TransactionPageDto page(String merchantId, String cursor) {
+        return webTestClient.get()
+                .uri(builder -> {
+                    builder.path("/api/v1/merchants/{merchantId}/transactions").queryParam("limit", 2);
+                    if (cursor != null) {
+                        builder.queryParam("after", cursor);
+                    }
+                    return builder.build(merchantId);
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransactionPageDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    /**
+     * Processes payments one after another, so they are created in the returned order.
+     */
+    private List<String> pay(String merchantId, int count) {
+        CardDetails card = CardDetails.builder()
+                .cardNumber("4242424242424242")
+                .cvv("123")
+                .expiryDate(YearMonth.now(clock).plusMonths(1))
+                .clock(clock)
+                .build();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PaymentResponse payment = transactionService.processPayment(PaymentRequest.builder()
+                            .card(card)
+                            .money(Money.parse("10.00", CurrencyUnit.of("USD")))
+                            .merchantId(merchantId)
+                            .build())
+                    .block();
+            assertNotNull(payment);
+            ids.add(payment.getTransactionId().toString());
+        }
+        return ids;
+    }
+}
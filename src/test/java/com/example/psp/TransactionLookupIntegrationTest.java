@@ -0,0 +1,80 @@
+package com.example.psp;
+
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.repository.transaction.impl.TransactionR2dbcRepository;
+import com.example.psp.service.transaction.ports.PaymentRequest;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.example.psp.service.transaction.ports.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class TransactionLookupIntegrationTest extends AbstractIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionR2dbcRepository r2dbcRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        r2dbcRepository.deleteAll().block();
+    }
+
+    @Test
+    void shouldReturnProcessedTransaction() {
+        CardDetails card = CardDetails.builder()
+                .cardNumber("4242424242424242")
+                .cvv("123")
+                .expiryDate(YearMonth.now(clock).plusMonths(1))
+                .clock(clock)
+                .build();
+
+        PaymentResponse payment = transactionService.processPayment(PaymentRequest.builder()
+                        .card(card)
+                        .money(Money.parse("100.00", CurrencyUnit.of("USD")))
+                        .merchantId("merchant-1")
+                        .build())
+                .block();
+        assertNotNull(payment);
+
+        webTestClient.get()
+                .uri("/api/v1/transactions/{id}", payment.getTransactionId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.transactionId").isEqualTo(payment.getTransactionId().toString())
+                .jsonPath("$.transactionStatus").isEqualTo(TransactionStatus.APPROVED.name())
+                .jsonPath("$.acquirerType").isEqualTo("ACQUIRER_A")
+                .jsonPath("$.cardNumberMasked").isEqualTo("****-****-****-4242")
+                .jsonPath("$.merchantId").isEqualTo("merchant-1");
+    }
+
+    @Test
+    void shouldReturnNotFound_WhenTransactionDoesNotExist() {
+        webTestClient.get()
+                .uri("/api/v1/transactions/{id}", UUID.randomUUID())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
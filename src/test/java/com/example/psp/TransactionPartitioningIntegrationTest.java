@@ -0,0 +1,73 @@
+package com.example.psp;
+
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.repository.transaction.TransactionRepository;
+import com.example.psp.repository.transaction.impl.TransactionPartitionMaintainer;
+import com.example.psp.shared.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionPartitioningIntegrationTest extends AbstractIT {
+
+    @Autowired
+    private TransactionPartitionMaintainer maintainer;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private Clock clock;
+
+    @Test
+    void shouldRouteTransactionsToPremadePartitions() {
+        // Running twice must not fail on existing partitions
+        maintainer.maintain();
+        maintainer.maintain();
+
+        LocalDate premadeMonth = LocalDate.now(clock.withZone(ZoneOffset.UTC)).withDayOfMonth(1).plusMonths(3);
+        Instant createdAt = premadeMonth.atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(60);
+
+        CardDetails card = CardDetails.builder()
+                .cardNumber("4242424242424242")
+                .cvv("123")
+                .expiryDate(YearMonth.now(clock).plusYears(1))
+                .clock(clock)
+                .build();
+        Transaction transaction = Transaction.initialize(card,
+                Money.parse("10.00", CurrencyUnit.of("USD")),
+                "merchant-1", createdAt);
+        assertTrue(UuidV7.isV7(transaction.getId()));
+        assertEquals(createdAt, UuidV7.timestamp(transaction.getId()));
+
+        repository.save(transaction).block();
+
+        String partition = databaseClient.sql("SELECT tableoid::regclass::text FROM transaction WHERE id = :id")
+                .bind("id", transaction.getId())
+                .map(row -> row.get(0, String.class))
+                .one()
+                .block();
+        assertEquals("transaction_p" + premadeMonth.toString().replace("-", ""), partition);
+
+        repository.findById(transaction.getId())
+                .as(StepVerifier::create)
+                .assertNext(found -> assertEquals(createdAt, found.getCreatedAt()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.psp.api.codec;
+
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("PaymentResponseEncoder Tests")
+class PaymentResponseEncoderTest {
+
+    private static final ResolvableType RESPONSE = ResolvableType.forClass(PaymentResponse.class);
+    private static final PaymentResponse APPROVED = PaymentResponse.builder()
+            .transactionId(UUID.fromString("0195af3c-98f3-7cc1-8f14-2f8eec51cc62"))
+            .transactionStatus(TransactionStatus.APPROVED)
+            .message("Transaction for merchant MERCHANT_001 is APPROVED")
+            .build();
+
+    @Test
+    void shouldEncodeJson_InTheShapeOfTheResponseDto() {
+        PaymentResponseEncoder encoder = new PaymentResponseEncoder(new JsonFactory(), MediaType.APPLICATION_JSON);
+
+        assertEquals("{\"transactionId\":\"0195af3c-98f3-7cc1-8f14-2f8eec51cc62\",\"transactionStatus\":\"APPROVED\","
+                        + "\"message\":\"Transaction for merchant MERCHANT_001 is APPROVED\"}",
+                new String(encode(encoder, MediaType.APPLICATION_JSON), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldEncodeSmile() throws IOException {
+        SmileFactory factory = new SmileFactory();
+        PaymentResponseEncoder encoder = new PaymentResponseEncoder(factory, TransactionMediaTypes.APPLICATION_SMILE);
+
+        Map<?, ?> decoded = new ObjectMapper(factory)
+                .readValue(encode(encoder, TransactionMediaTypes.APPLICATION_SMILE), Map.class);
+
+        assertEquals(Map.of("transactionId", APPROVED.getTransactionId().toString(),
+                "transactionStatus", "APPROVED", "message", APPROVED.getMessage()), decoded);
+    }
+
+    @Test
+    void shouldWriteIdsInCanonicalForm() {
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UUID.randomUUID();
+            assertEquals(id.toString(), new String(PaymentResponseEncoder.ascii(id), StandardCharsets.US_ASCII));
+        }
+        UUID extremes = new UUID(-1L, 0L);
+        assertEquals(extremes.toString(), new String(PaymentResponseEncoder.ascii(extremes), StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] encode(PaymentResponseEncoder encoder, MediaType mediaType) {
+        DataBuffer buffer = encoder.encodeValue(APPROVED, DefaultDataBufferFactory.sharedInstance, RESPONSE,
+                mediaType, Map.of());
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.psp.api.codec;
+
+import com.example.psp.api.dto.transaction.TransactionRequestDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TransactionRequestDecoder Tests")
+class TransactionRequestDecoderTest {
+
+    private static final ResolvableType REQUEST = ResolvableType.forClass(TransactionRequestDto.class);
+    private static final NettyDataBufferFactory NETTY = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    private static final String JSON = """
+            {"cardNumber":"4242424242424242","expiry":"12/30","cvv":"123","amount":99.990,
+             "currencyCode":"USD","merchantId":"MERCHANT_001"}""";
+
+    private final TransactionRequestDecoder json =
+            new TransactionRequestDecoder(new JsonFactory(), MediaType.APPLICATION_JSON);
+
+    @Test
+    void shouldDecodeJson_SplitAcrossBuffers() {
+        byte[] body = JSON.getBytes(StandardCharsets.UTF_8);
+        for (int split = 1; split < body.length; split++) {
+            DataBuffer buffer = composite(Arrays.copyOfRange(body, 0, split), Arrays.copyOfRange(body, split, body.length));
+            assertEquals(2, byteBufferCount(buffer));
+
+            TransactionRequestDto request = decode(json, MediaType.APPLICATION_JSON, buffer);
+
+            assertEquals("4242424242424242", request.getCardNumber());
+            assertEquals("12/30", request.getExpiry());
+            assertEquals("123", request.getCvv());
+            assertEquals("99.990", request.getAmount());
+            assertEquals("USD", request.getCurrencyCode());
+            assertEquals("MERCHANT_001", request.getMerchantId());
+        }
+    }
+
+    @Test
+    void shouldSkipUnknownFields_AndKeepScalarsAsText() {
+        TransactionRequestDto request = decode(json, MediaType.APPLICATION_JSON, """
+                {"extra":{"nested":[1,{"cvv":"999"}]},"cvv":123,"amount":"10.5","merchantId":null}"""
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("123", request.getCvv());
+        assertEquals("10.5", request.getAmount());
+        assertNull(request.getMerchantId());
+    }
+
+    @Test
+    void shouldRejectMalformedOrMistypedBodies() {
+        assertThrows(DecodingException.class, () -> decode(json, MediaType.APPLICATION_JSON,
+                "{\"cvv\":\"123\"".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(DecodingException.class, () -> decode(json, MediaType.APPLICATION_JSON,
+                "[]".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(DecodingException.class, () -> decode(json, MediaType.APPLICATION_JSON,
+                "{\"amount\":{\"value\":1}}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldDecodeCbor() throws IOException {
+        CBORFactory factory = new CBORFactory();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator generator = factory.createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeStringField("cardNumber", "4242424242424242");
+            generator.writeStringField("amount", "10.00");
+            generator.writeStringField("merchantId", "MERCHANT_001");
+            generator.writeEndObject();
+        }
+
+        TransactionRequestDto request = decode(new TransactionRequestDecoder(factory, MediaType.APPLICATION_CBOR),
+                MediaType.APPLICATION_CBOR, body.toByteArray());
+
+        assertEquals("4242424242424242", request.getCardNumber());
+        assertEquals("10.00", request.getAmount());
+        assertEquals("MERCHANT_001", request.getMerchantId());
+    }
+
+    @Test
+    void shouldOnlyDecodeTransactionRequests() {
+        assertFalse(json.canDecode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON));
+        assertFalse(json.canDecode(REQUEST, MediaType.APPLICATION_CBOR));
+    }
+
+    private static TransactionRequestDto decode(TransactionRequestDecoder decoder, MediaType mediaType,
+                                                byte[]... chunks) {
+        return decode(decoder, mediaType, composite(chunks));
+    }
+
+    private static TransactionRequestDto decode(TransactionRequestDecoder decoder, MediaType mediaType,
+                                                DataBuffer body) {
+        return decoder.decodeToMono(Flux.just(body), REQUEST, mediaType, Map.of()).block();
+    }
+
+    /**
+     * Wraps the chunks in one Netty composite buffer, like a body received in several packets, which exposes
+     * every chunk as a ByteBuffer of its own.
+     */
+    private static DataBuffer composite(byte[]... chunks) {
+        CompositeByteBuf composite = UnpooledByteBufAllocator.DEFAULT.compositeBuffer(chunks.length);
+        for (byte[] chunk : chunks) {
+            composite.addComponent(true, Unpooled.wrappedBuffer(chunk));
+        }
+        return NETTY.wrap(composite);
+    }
+
+    private static int byteBufferCount(DataBuffer buffer) {
+        int count = 0;
+        try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                buffers.next();
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.psp.api.filter;
+
+import com.example.psp.config.properties.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the limit with a simulated server: a fixed number of workers with a constant service time and a FIFO
+ * queue in front of them, so every request admitted above the worker count waits.
+ */
+@DisplayName("AdaptiveConcurrencyLimit Tests")
+class AdaptiveConcurrencyLimitTest {
+
+    private static final int WORKERS = 32;
+    private static final long SERVICE_TIME = Duration.ofMillis(10).toNanos();
+    private static final long CAPACITY_PER_SECOND = WORKERS * Duration.ofSeconds(1).toNanos() / SERVICE_TIME;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void shouldKeepP99Bounded_WhenOfferedLoadIsTwiceTheCapacity() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                new ConcurrencyLimitProperties(true, 20, 4, 1000, Duration.ofSeconds(5)), now::get);
+
+        Result result = simulate(limit, 2 * CAPACITY_PER_SECOND, Duration.ofSeconds(60));
+
+        // Without a limit the queue would grow by the capacity every second and latency with it
+        assertTrue(result.p99() <= 3 * SERVICE_TIME, "p99 " + Duration.ofNanos(result.p99()));
+        assertTrue(result.throughput() >= CAPACITY_PER_SECOND * 0.9, "throughput " + result.throughput());
+        assertTrue(result.rejected() > 0);
+    }
+
+    @Test
+    void shouldNotReject_WhenOfferedLoadIsBelowCapacity() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                new ConcurrencyLimitProperties(true, 20, 4, 1000, Duration.ofSeconds(5)), now::get);
+
+        Result result = simulate(limit, CAPACITY_PER_SECOND / 2, Duration.ofSeconds(30));
+
+        assertEquals(0, result.rejected());
+        assertEquals(SERVICE_TIME, result.p99());
+    }
+
+    @Test
+    void shouldAdmitAndRelease_WhenClockReadingsAreNegative() {
+        now.set(-Duration.ofSeconds(1).toNanos());
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                new ConcurrencyLimitProperties(true, 1, 1, 1, Duration.ofSeconds(5)), now::get);
+
+        assertTrue(limit.tryAcquire());
+        long start = limit.nanoTime();
+        assertFalse(limit.tryAcquire());
+        now.addAndGet(SERVICE_TIME);
+        limit.onComplete(start);
+
+        assertEquals(0, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    /**
+     * Offers requests at a constant rate and measures the latency of admitted requests after a warm-up second.
+     */
+    private Result simulate(AdaptiveConcurrencyLimit limit, long offeredPerSecond, Duration duration) {
+        long interArrival = Duration.ofSeconds(1).toNanos() / offeredPerSecond;
+        long warmUp = Duration.ofSeconds(1).toNanos();
+        long end = duration.toNanos();
+
+        PriorityQueue<Long> freeWorkers = new PriorityQueue<>();
+        for (int i = 0; i < WORKERS; i++) {
+            freeWorkers.add(0L);
+        }
+        // {completion time, start time read from the limit}
+        PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        List<Long> latencies = new ArrayList<>();
+        long rejected = 0;
+
+        for (long arrival = 0; arrival < end; arrival += interArrival) {
+            while (!completions.isEmpty() && completions.peek()[0] <= arrival) {
+                long[] completion = completions.poll();
+                now.set(completion[0]);
+                limit.onComplete(completion[1]);
+            }
+            now.set(arrival);
+            if (!limit.tryAcquire()) {
+                rejected += arrival >= warmUp ? 1 : 0;
+                continue;
+            }
+            long start = limit.nanoTime();
+            long completion = Math.max(arrival, freeWorkers.poll()) + SERVICE_TIME;
+            freeWorkers.add(completion);
+            completions.add(new long[]{completion, start});
+            if (arrival >= warmUp) {
+                latencies.add(completion - arrival);
+            }
+        }
+
+        Collections.sort(latencies);
+        long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+        long throughput = latencies.size() * Duration.ofSeconds(1).toNanos() / (end - warmUp);
+        return new Result(p99, throughput, rejected);
+    }
+
+    private record Result(long p99, long throughput, long rejected) {
+    }
+}
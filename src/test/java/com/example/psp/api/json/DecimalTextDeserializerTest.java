@@ -0,0 +1,85 @@
+package com.example.psp.api.json;
+
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("DecimalTextDeserializer Tests")
+class DecimalTextDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static class Amount {
+
+        @JsonDeserialize(using = DecimalTextDeserializer.class)
+        public String amount;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "100",
+            "99.99",
+            "99.990",
+            "0.10",
+            "0",
+            "-1",
+            "-0.01",
+            "92233720368547758.07",
+            "123456789012345678901234567890.123",
+            "1e3",
+            "1.5E-2"
+    })
+    void shouldKeepNumberText_AsWritten(String number) throws JsonProcessingException {
+        assertEquals(number, read(number));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"99.990", "1.50", "abc", ""})
+    void shouldKeepQuotedText(String text) throws JsonProcessingException {
+        assertEquals(text, read('"' + text + '"'));
+    }
+
+    @Test
+    void shouldReadNull() throws JsonProcessingException {
+        assertNull(read("null"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "[1]", "{\"value\":1}"})
+    void shouldRejectToken_WhenNotNumberOrText(String value) {
+        assertThrows(MismatchedInputException.class, () -> read(value));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "100, JPY, 100",
+            "0.10, USD, 10",
+            "99.990, USD, 9999",
+            "92233720368547758.07, USD, 9223372036854775807",
+            "1.234, KWD, 1234"
+    })
+    void shouldParseIntoMinorUnits_WithoutDoubleRounding(String number, String currency, long minorUnits)
+            throws JsonProcessingException {
+        CurrencyUnit unit = CurrencyUnit.of(currency);
+        Money money = Money.parse(read(number), unit);
+
+        assertEquals(minorUnits, money.getMinorUnits());
+        assertEquals(money, Money.parse(money.toPlainString(), unit));
+    }
+
+    private String read(String value) throws JsonProcessingException {
+        return objectMapper.readValue("{\"amount\":" + value + "}", Amount.class).amount;
+    }
+}
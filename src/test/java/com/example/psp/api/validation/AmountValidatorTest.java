@@ -0,0 +1,80 @@
+package com.example.psp.api.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("AmountValidator Tests")
+class AmountValidatorTest {
+
+    @SuppressWarnings("unused")
+    private static final class Constraints {
+
+        @ValidAmount(integer = 6, fraction = 0)
+        String scale0;
+
+        @ValidAmount(integer = 6, fraction = 2)
+        String scale2;
+
+        @ValidAmount(integer = 6, fraction = 3)
+        String scale3;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "100, 0, true",
+            "100.0, 0, true",
+            "100., 0, true",
+            "100.5, 0, false",
+            "999999, 0, true",
+            "1000000, 0, false",
+            "99.99, 2, true",
+            "99.990, 2, true",
+            ".5, 2, true",
+            "0.01, 2, true",
+            "0.001, 2, false",
+            "999999.99, 2, true",
+            "1000000.00, 2, false",
+            "000123.4, 2, true",
+            "1.234, 3, true",
+            "1.2340, 3, true",
+            "1.2345, 3, false",
+            "0.001, 3, true"
+    })
+    void shouldCheckIntegerAndFractionDigits(String amount, int scale, boolean valid) {
+        assertEquals(valid, validator(scale).isValid(amount, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "0.00", "000.000", ".0"})
+    void shouldRejectAmount_WhenZero(String amount) {
+        assertFalse(validator(2).isValid(amount, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "-0.01", "+1", "1e3", "1,00", "1.0.0", " 1", "", "."})
+    void shouldRejectAmount_WhenNotPlainPositiveDecimal(String amount) {
+        assertFalse(validator(2).isValid(amount, null));
+    }
+
+    @Test
+    void shouldAcceptNull_SoNotNullDecidesIfRequired() {
+        assertTrue(validator(2).isValid(null, null));
+    }
+
+    private static AmountValidator validator(int scale) {
+        AmountValidator validator = new AmountValidator();
+        try {
+            validator.initialize(Constraints.class.getDeclaredField("scale" + scale).getAnnotation(ValidAmount.class));
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("No constraint of scale " + scale, e);
+        }
+        return validator;
+    }
+}
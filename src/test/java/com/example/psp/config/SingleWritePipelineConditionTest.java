@@ -0,0 +1,51 @@
+package com.example.psp.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("SingleWritePipelineCondition Tests")
+class SingleWritePipelineConditionTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(SingleWriteConfig.class);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"single-write", "SINGLE_WRITE", "singleWrite"})
+    void shouldMatch_ForEverySpellingOfSingleWrite(String mode) {
+        runner.withPropertyValues("psp.payment.pipeline.mode=" + mode)
+                .run(context -> assertTrue(context.containsBean("singleWriteBean")));
+    }
+
+    @Test
+    void shouldNotMatch_WhenModeIsStandardOrMissing() {
+        runner.withPropertyValues("psp.payment.pipeline.mode=standard")
+                .run(context -> assertFalse(context.containsBean("singleWriteBean")));
+        runner.run(context -> assertFalse(context.containsBean("singleWriteBean")));
+    }
+
+    @Test
+    void shouldFailStartup_WhenModeIsUnknown() {
+        runner.withPropertyValues("psp.payment.pipeline.mode=single-wirte")
+                .run(context -> assertNotNull(context.getStartupFailure()));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class SingleWriteConfig {
+
+        @Bean
+        @Conditional(SingleWritePipelineCondition.class)
+        String singleWriteBean() {
+            return "single-write";
+        }
+    }
+}
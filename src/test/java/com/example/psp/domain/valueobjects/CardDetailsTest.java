@@ -0,0 +1,45 @@
+package com.example.psp.domain.valueobjects;
+
+import com.example.psp.shared.CardValidation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("CardDetails Tests")
+class CardDetailsTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-01T00:00:00Z"), ZoneOffset.UTC);
+    private static final YearMonth EXPIRY = YearMonth.of(2028, 12);
+
+    @Test
+    void shouldExtractBinAndCheckDigit() {
+        CardDetails card = CardDetails.builder()
+                .cardNumber("4444414444444458")
+                .cvv("123")
+                .expiryDate(EXPIRY)
+                .clock(CLOCK)
+                .build();
+
+        assertEquals(444441, card.getBinPrefix());
+        assertEquals(8, card.getCheckDigit());
+    }
+
+    @Test
+    void shouldRejectCard_WhenChecksumIsInvalid() {
+        var error = assertThrows(IllegalArgumentException.class, () -> CardDetails.builder()
+                .cardNumber("4242424242424241")
+                .cvv("123")
+                .expiryDate(EXPIRY)
+                .clock(CLOCK)
+                .build());
+
+        assertEquals("Invalid card number: " + CardValidation.Rule.LUHN.getMessage(), error.getMessage());
+    }
+}
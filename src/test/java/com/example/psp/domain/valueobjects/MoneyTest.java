@@ -0,0 +1,164 @@
+package com.example.psp.domain.valueobjects;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    private static final CurrencyUnit JPY = CurrencyUnit.of("JPY");
+    private static final CurrencyUnit USD = CurrencyUnit.of("USD");
+    private static final CurrencyUnit KWD = CurrencyUnit.of("KWD");
+
+    @ParameterizedTest
+    @CsvSource({
+            "100, JPY, 100",
+            "100., JPY, 100",
+            "100.000, JPY, 100",
+            "99.99, USD, 9999",
+            "99.9, USD, 9990",
+            "99, USD, 9900",
+            ".5, USD, 50",
+            "0.01, USD, 1",
+            "1.010, USD, 101",
+            "007.50, USD, 750",
+            "1.234, KWD, 1234",
+            "1.2, KWD, 1200",
+            "0.001, KWD, 1"
+    })
+    void parse_ShouldConvertToMinorUnits(String amount, String currency, long minorUnits) {
+        Money money = Money.parse(amount, CurrencyUnit.of(currency));
+
+        assertEquals(minorUnits, money.getMinorUnits());
+        assertEquals(currency, money.getCurrency().getCode());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1.5, JPY",
+            "100.01, JPY",
+            "1.001, USD",
+            "0.009, USD",
+            "1.2345, KWD",
+            "1.0001, KWD"
+    })
+    void parse_ShouldRejectAmount_WhenScaleExceedsCurrencyExponent(String amount, String currency) {
+        var error = assertThrows(IllegalArgumentException.class, () -> Money.parse(amount, CurrencyUnit.of(currency)));
+
+        assertEquals("Amount must have at most " + CurrencyUnit.of(currency).getExponent() + " decimal places for "
+                + currency, error.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "0.00", "000", ".0"})
+    void parse_ShouldRejectAmount_WhenZero(String amount) {
+        var error = assertThrows(IllegalArgumentException.class, () -> Money.parse(amount, USD));
+
+        assertEquals("Amount must be greater than zero", error.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "-0.01", "+1", "1e3", "1,00", "1.0.0", " 1", "", "."})
+    void parse_ShouldRejectAmount_WhenNotPlainDecimal(String amount) {
+        var error = assertThrows(IllegalArgumentException.class, () -> Money.parse(amount, USD));
+
+        assertEquals("Amount must be a plain decimal number: " + amount, error.getMessage());
+    }
+
+    @Test
+    void parse_ShouldAcceptAmount_WhenMinorUnitsAreLongMaxValue() {
+        assertEquals(Long.MAX_VALUE, Money.parse("9223372036854775807", JPY).getMinorUnits());
+        assertEquals(Long.MAX_VALUE, Money.parse("92233720368547758.07", USD).getMinorUnits());
+        assertEquals(Long.MAX_VALUE, Money.parse("9223372036854775.807", KWD).getMinorUnits());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "9223372036854775808, JPY",
+            "92233720368547758070, JPY",
+            "92233720368547758.08, USD",
+            "92233720368547759, USD",
+            "9223372036854775.808, KWD",
+            "9223372036854776, KWD",
+            "99999999999999999999999999, USD"
+    })
+    void parse_ShouldRejectAmount_WhenMinorUnitsOverflowLong(String amount, String currency) {
+        var error = assertThrows(IllegalArgumentException.class, () -> Money.parse(amount, CurrencyUnit.of(currency)));
+
+        assertEquals("Amount is too large: " + amount, error.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, -1, Long.MIN_VALUE})
+    void ofMinorUnits_ShouldRejectAmount_WhenNotPositive(long minorUnits) {
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinorUnits(minorUnits, USD));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "100, JPY, 0, 100",
+            "100, JPY, 2, 10000",
+            "99.99, USD, 2, 9999",
+            "99.99, USD, 4, 999900",
+            "1.234, KWD, 3, 1234",
+            "1.234, KWD, 6, 1234000"
+    })
+    void toScale_ShouldExpressAmountWithDecimalPlaces(String amount, String currency, int scale, long expected) {
+        assertEquals(expected, Money.parse(amount, CurrencyUnit.of(currency)).toScale(scale));
+    }
+
+    @Test
+    void toScale_ShouldRejectScale_WhenLowerThanCurrencyExponent() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("99.99", USD).toScale(1));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.234", KWD).toScale(2));
+    }
+
+    @Test
+    void toScale_ShouldThrow_WhenResultOverflowsLong() {
+        Money money = Money.ofMinorUnits(Long.MAX_VALUE / 100 + 1, USD);
+
+        assertEquals(Long.MAX_VALUE / 100 + 1, money.toScale(2));
+        assertThrows(ArithmeticException.class, () -> money.toScale(4));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, JPY",
+            "100, JPY",
+            "9223372036854775807, JPY",
+            "0.01, USD",
+            "0.10, USD",
+            "1.05, USD",
+            "99.99, USD",
+            "100.00, USD",
+            "92233720368547758.07, USD",
+            "0.001, KWD",
+            "0.010, KWD",
+            "12.340, KWD",
+            "9223372036854775.807, KWD"
+    })
+    void toPlainString_ShouldRoundTripThroughParse(String amount, String currency) {
+        CurrencyUnit unit = CurrencyUnit.of(currency);
+        Money money = Money.parse(amount, unit);
+
+        assertEquals(amount, money.toPlainString());
+        assertEquals(money, Money.parse(money.toPlainString(), unit));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "100.000, JPY, 100",
+            "7, USD, 7.00",
+            "1.5, USD, 1.50",
+            "1.2, KWD, 1.200"
+    })
+    void toPlainString_ShouldWriteCurrencyExponentDecimalPlaces(String amount, String currency, String expected) {
+        assertEquals(expected, Money.parse(amount, CurrencyUnit.of(currency)).toPlainString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.psp.repository.idempotency.impl;
+
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.repository.idempotency.IdempotencyRecord;
+import com.example.psp.service.transaction.ports.PaymentResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("InMemoryIdempotencyRepositoryImpl Tests")
+class InMemoryIdempotencyRepositoryImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    private final InMemoryIdempotencyRepositoryImpl repository = new InMemoryIdempotencyRepositoryImpl();
+
+    @Test
+    void shouldClaimKeyOnce_PerMerchant() {
+        assertTrue(repository.claim("merchant-1", "key-1", "fingerprint", NOW).block());
+        assertFalse(repository.claim("merchant-1", "key-1", "fingerprint", NOW).block());
+        assertTrue(repository.claim("merchant-2", "key-1", "fingerprint", NOW).block());
+    }
+
+    @Test
+    void shouldStoreResponse_WithFingerprintOfClaim() {
+        PaymentResponse response = PaymentResponse.builder()
+                .transactionId(UUID.randomUUID())
+                .transactionStatus(TransactionStatus.APPROVED)
+                .message("approved")
+                .build();
+        repository.claim("merchant-1", "key-1", "fingerprint", NOW).block();
+        repository.complete("merchant-1", "key-1", response).block();
+
+        IdempotencyRecord stored = repository.find("merchant-1", "key-1").block();
+
+        assertNotNull(stored);
+        assertTrue(stored.isCompleted());
+        assertEquals("fingerprint", stored.fingerprint());
+        assertEquals(response.getTransactionId(), stored.transactionId());
+        assertEquals(TransactionStatus.APPROVED, stored.transactionStatus());
+        assertEquals("approved", stored.message());
+        assertEquals(NOW, stored.createdAt());
+    }
+
+    @Test
+    void shouldReleaseClaim_OnlyWhileNotCompleted() {
+        repository.claim("merchant-1", "running", "fingerprint", NOW).block();
+        repository.claim("merchant-1", "completed", "fingerprint", NOW).block();
+        repository.complete("merchant-1", "completed", PaymentResponse.builder()
+                .transactionId(UUID.randomUUID())
+                .transactionStatus(TransactionStatus.APPROVED)
+                .message("approved")
+                .build()).block();
+
+        repository.release("merchant-1", "running").block();
+        repository.release("merchant-1", "completed").block();
+
+        assertNull(repository.find("merchant-1", "running").block());
+        assertNotNull(repository.find("merchant-1", "completed").block());
+        assertTrue(repository.claim("merchant-1", "running", "fingerprint", NOW).block());
+    }
+
+    @Test
+    void shouldDeleteKeysClaimedBeforeThreshold() {
+        repository.claim("merchant-1", "old", "fingerprint", NOW.minusSeconds(60)).block();
+        repository.claim("merchant-1", "new", "fingerprint", NOW).block();
+
+        assertEquals(1L, repository.deleteCreatedBefore(NOW.minusSeconds(30)).block());
+        assertNull(repository.find("merchant-1", "old").block());
+        assertNotNull(repository.find("merchant-1", "new").block());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.BatchingRepositoryProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import com.example.psp.exception.ServiceOverloadedException;
+import com.example.psp.exception.handler.GlobalErrorAttributes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Covers the queue bound against a database that never completes a flush. Batch isolation against a real database
+ * is covered by BatchingRepositoryIntegrationTest.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchingTransactionRepositoryImpl Tests")
+class BatchingTransactionRepositoryImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+    // One write in flight at a time and two waiting
+    private static final BatchingRepositoryProperties PROPERTIES =
+            new BatchingRepositoryProperties(1, Duration.ofMillis(1), 1, 2);
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private BatchingTransactionRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(Mono.never()).when(databaseClient).inConnection(any());
+        doReturn(Mono.never()).when(transactionalOperator).transactional(any(Mono.class));
+        repository = new BatchingTransactionRepositoryImpl(databaseClient, transactionalOperator, PROPERTIES,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.destroy();
+    }
+
+    @Test
+    void shouldRejectInserts_WhenQueueIsFull() {
+        repository.save(transaction()).subscribe();
+        repository.save(transaction()).subscribe();
+        repository.save(transaction()).subscribe();
+
+        StepVerifier.create(repository.save(transaction()))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(ServiceOverloadedException.class, error.getClass());
+                    assertEquals(503, status(error));
+                })
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldQueueUpdates_WhenQueueIsFull() {
+        repository.save(transaction()).subscribe();
+        repository.save(transaction()).subscribe();
+        repository.save(transaction()).subscribe();
+
+        StepVerifier.create(repository.update(transaction()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+    }
+
+    private static int status(Throwable error) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/payments"));
+        GlobalErrorAttributes errorAttributes = new GlobalErrorAttributes();
+        errorAttributes.storeErrorInformation(error, exchange);
+        ServerRequest request = ServerRequest.create(exchange, HandlerStrategies.withDefaults().messageReaders());
+        return (int) errorAttributes.getErrorAttributes(request, ErrorAttributeOptions.defaults()).get("status");
+    }
+
+    private static Transaction transaction() {
+        return Transaction.reconstruct(UUID.randomUUID(), StoredCardInfo.ofLastFour("4242", YearMonth.of(2028, 7)),
+                Money.parse("10.00", CurrencyUnit.of("USD")), "merchant-1", TransactionStatus.PENDING, null, NOW, NOW);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.InMemoryRepositoryProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerDecision;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.repository.transaction.TransactionCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("InMemoryTransactionRepositoryImpl Tests")
+class InMemoryTransactionRepositoryImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00.123456789Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReturnSavedAndUpdatedTransaction() {
+        InMemoryTransactionRepositoryImpl repository = repository(null);
+        Transaction transaction = transaction("merchant-1", NOW);
+        repository.save(transaction).block();
+        transaction.updateStatus(AcquirerDecision.APPROVED, AcquirerType.ACQUIRER_B, NOW.plusMillis(5));
+        repository.update(transaction).block();
+
+        Transaction found = repository.findById(transaction.getId()).block();
+
+        assertSameTransaction(transaction, found);
+    }
+
+    @Test
+    void shouldRejectDuplicateSave_AndUpdateOfUnknownTransaction() {
+        InMemoryTransactionRepositoryImpl repository = repository(null);
+        Transaction transaction = transaction("merchant-1", NOW);
+        repository.save(transaction).block();
+
+        assertThrows(DuplicateKeyException.class, () -> repository.save(transaction).block());
+        assertThrows(IllegalStateException.class, () -> repository.update(transaction("merchant-1", NOW)).block());
+    }
+
+    @Test
+    void shouldFindByMerchantAndTime_OldestFirst() {
+        InMemoryTransactionRepositoryImpl repository = repository(null);
+        Transaction first = transaction("merchant-1", NOW.minusSeconds(30));
+        Transaction second = transaction("merchant-1", NOW.minusSeconds(20));
+        Transaction other = transaction("merchant-2", NOW.minusSeconds(20));
+        Transaction outside = transaction("merchant-1", NOW);
+        for (Transaction transaction : List.of(outside, second, other, first)) {
+            repository.save(transaction).block();
+        }
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                repository.findByMerchant("merchant-1", NOW.minusSeconds(60), NOW, 10)
+                        .map(Transaction::getId).collectList().block());
+        assertEquals(List.of(first.getId()),
+                repository.findByMerchant("merchant-1", NOW.minusSeconds(60), NOW, 1)
+                        .map(Transaction::getId).collectList().block());
+        assertEquals(3, repository.findCreatedBetween(NOW.minusSeconds(60), NOW, 10).count().block());
+        assertEquals(0, repository.findByMerchant("unknown", NOW.minusSeconds(60), NOW, 10).count().block());
+    }
+
+    @Test
+    void shouldContinueAfterCursor_InCreationAndIdOrder() {
+        InMemoryTransactionRepositoryImpl repository = repository(null);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // Pairs of transactions share their creation time and are ordered by id
+            transactions.add(transaction("merchant-1", NOW.minusSeconds(30 - i / 2)));
+        }
+        transactions.forEach(transaction -> repository.save(transaction).block());
+        transactions.sort(Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId));
+
+        List<Transaction> paged = new ArrayList<>();
+        TransactionCursor cursor = null;
+        List<Transaction> page;
+        do {
+            page = repository.findByMerchant("merchant-1", NOW.minusSeconds(60), NOW, cursor, 2).collectList().block();
+            paged.addAll(page);
+            cursor = page.isEmpty() ? cursor : TransactionCursor.of(page.get(page.size() - 1));
+        } while (page.size() == 2);
+
+        assertEquals(ids(transactions), ids(paged));
+        assertEquals(ids(transactions.subList(3, 7)),
+                ids(repository.streamByMerchant("merchant-1", NOW.minusSeconds(60), NOW,
+                        TransactionCursor.of(transactions.get(2))).collectList().block()));
+        assertEquals(0, repository.streamByMerchant("merchant-1", NOW.minusSeconds(60), NOW,
+                new TransactionCursor(NOW, transactions.get(0).getId())).count().block());
+    }
+
+    @Test
+    void shouldEvictFinalizedTransactionsPastRetention_ButKeepPendingOnes() {
+        InMemoryTransactionRepositoryImpl repository = repository(null);
+        Transaction expired = transaction("merchant-1", NOW.minus(Duration.ofHours(2)));
+        expired.updateStatus(AcquirerDecision.DENIED, AcquirerType.ACQUIRER_A, NOW.minus(Duration.ofHours(2)));
+        Transaction pending = transaction("merchant-1", NOW.minus(Duration.ofHours(2)));
+        Transaction recent = transaction("merchant-1", NOW.minus(Duration.ofMinutes(10)));
+        recent.updateStatus(AcquirerDecision.APPROVED, AcquirerType.ACQUIRER_A, NOW);
+        for (Transaction transaction : List.of(expired, pending, recent)) {
+            repository.save(transaction).block();
+        }
+
+        repository.evictExpired();
+
+        assertNull(repository.findById(expired.getId()).block());
+        assertEquals(pending.getId(), repository.findById(pending.getId()).block().getId());
+        assertEquals(recent.getId(), repository.findById(recent.getId()).block().getId());
+        assertEquals(2, repository.findByMerchant("merchant-1", NOW.minus(Duration.ofDays(1)), NOW, 10).count().block());
+    }
+
+    @Test
+    void shouldRestoreSnapshot() {
+        Path snapshot = directory.resolve("transactions.snapshot");
+        InMemoryTransactionRepositoryImpl repository = repository(snapshot);
+        Transaction approved = transaction("merchant-1", NOW.minusSeconds(1));
+        approved.updateStatus(AcquirerDecision.APPROVED, AcquirerType.ACQUIRER_A, NOW);
+        Transaction pending = transaction("merchant-2", NOW);
+        repository.save(approved).block();
+        repository.save(pending).block();
+        repository.destroy();
+
+        InMemoryTransactionRepositoryImpl restored = repository(snapshot);
+
+        assertSameTransaction(approved, restored.findById(approved.getId()).block());
+        assertSameTransaction(pending, restored.findById(pending.getId()).block());
+        assertEquals(List.of(pending.getId()),
+                restored.findByMerchant("merchant-2", NOW.minusSeconds(60), NOW.plusSeconds(1), 10)
+                        .map(Transaction::getId).collectList().block());
+    }
+
+    private static List<UUID> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    private static void assertSameTransaction(Transaction expected, Transaction actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getMerchantId(), actual.getMerchantId());
+        assertEquals(expected.getMoney(), actual.getMoney());
+        assertEquals(expected.getCard().getLastFour(), actual.getCard().getLastFour());
+        assertEquals(expected.getCard().getExpiryDate(), actual.getCard().getExpiryDate());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getAcquirerType(), actual.getAcquirerType());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+
+    private static InMemoryTransactionRepositoryImpl repository(Path snapshotPath) {
+        return new InMemoryTransactionRepositoryImpl(new InMemoryRepositoryProperties(1_000, Duration.ofHours(1),
+                Duration.ofSeconds(10), snapshotPath, Duration.ofMinutes(1)), CLOCK);
+    }
+
+    private static Transaction transaction(String merchantId, Instant createdAt) {
+        CardDetails card = CardDetails.builder()
+                .cardNumber("4242424242424242")
+                .cvv("123")
+                .expiryDate(YearMonth.of(2028, 7))
+                .clock(CLOCK)
+                .build();
+        return Transaction.initialize(card, Money.parse("10.50", CurrencyUnit.of("EUR")), merchantId, createdAt);
+    }
+}
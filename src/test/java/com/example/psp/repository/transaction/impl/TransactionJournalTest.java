@@ -0,0 +1,226 @@
+package com.example.psp.repository.transaction.impl;
+
+import com.example.psp.config.properties.JournalRepositoryProperties;
+import com.example.psp.config.properties.JournalRepositoryProperties.FsyncPolicy;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TransactionJournal Tests")
+class TransactionJournalTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T12:00:00.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    private TransactionJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void shouldFindLatestWrite_AndRejectDuplicateSaveAndUnknownUpdate() throws IOException {
+        journal = open();
+        Transaction pending = pending("merchant-1");
+        Transaction approved = finalized(pending, CREATED_AT.plusMillis(5));
+
+        write(TransactionJournal.SAVE, pending);
+        assertSameTransaction(pending, journal.find(pending.getId()));
+        write(TransactionJournal.UPDATE, approved);
+        assertSameTransaction(approved, journal.find(pending.getId()));
+
+        assertThrows(DuplicateKeyException.class, () -> write(TransactionJournal.SAVE, pending));
+        assertThrows(IllegalStateException.class, () -> write(TransactionJournal.UPDATE, pending("merchant-2")));
+        assertNull(journal.find(UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldRebuildIndexAndRelayPosition_OnReopen() throws IOException {
+        journal = open();
+        List<Transaction> finalized = writeMany(10_000);
+        relayAll();
+        Transaction pending = pending("merchant-late");
+        write(TransactionJournal.SAVE, pending);
+        journal.close();
+
+        journal = open();
+
+        finalized.forEach(transaction -> assertSameTransaction(transaction, journal.find(transaction.getId())));
+        assertSameTransaction(pending, journal.find(pending.getId()));
+        assertEquals(List.of(pending.getId()), relayAll().stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void shouldRelayWritesInJournalOrder_AcrossSegments() throws IOException {
+        journal = open();
+        List<Transaction> finalized = writeMany(10_000);
+
+        List<Transaction> relayed = relayAll();
+
+        assertEquals(finalized.size() * 2, relayed.size());
+        for (int i = 0; i < finalized.size(); i++) {
+            assertEquals(TransactionStatus.PENDING, relayed.get(i * 2).getStatus());
+            assertSameTransaction(finalized.get(i), relayed.get(i * 2 + 1));
+        }
+        assertTrue(relayAll().isEmpty());
+    }
+
+    @Test
+    void shouldCompactRelayedSegments_AndDropExpiredTransactions() throws IOException {
+        journal = open();
+        List<Transaction> finalized = writeMany(10_000);
+        Transaction pending = pending("merchant-pending");
+        write(TransactionJournal.SAVE, pending);
+        relayAll();
+        // Seals the segment holding the last relayed writes
+        journal.close();
+        journal = open();
+        relayAll();
+
+        journal.compact(Long.MIN_VALUE);
+        finalized.forEach(transaction -> assertSameTransaction(transaction, journal.find(transaction.getId())));
+
+        journal.compact(Long.MAX_VALUE);
+        finalized.forEach(transaction -> assertNull(journal.find(transaction.getId())));
+        assertSameTransaction(pending, journal.find(pending.getId()));
+
+        journal.close();
+        journal = open();
+        assertNull(journal.find(finalized.get(0).getId()));
+        assertNotNull(journal.find(pending.getId()));
+    }
+
+    @Test
+    void shouldDropWritesOfFailedCommit_WhenSegmentRollOverFails() throws IOException {
+        journal = open();
+        // The file of the next segment exists already, so the first roll-over fails to create it
+        Path blocker = Files.createFile(directory.resolve(String.format("segment-%010d.seg", 2)));
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            transactions.add(pending("merchant-" + i % 10));
+        }
+
+        // Queued at once, so the failed roll-over happens within a group commit of many writes
+        Map<UUID, Boolean> committed = Flux.fromIterable(transactions)
+                .flatMap(transaction -> Mono.<Transaction>create(sink -> journal.append(TransactionJournal.SAVE, transaction, sink))
+                        .map(written -> true)
+                        .onErrorReturn(UncheckedIOException.class, false)
+                        .map(written -> Map.entry(transaction.getId(), written)), transactions.size())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        assertNotNull(committed);
+        assertTrue(committed.containsValue(false));
+        Files.delete(blocker);
+        journal.close();
+
+        journal = open();
+
+        List<UUID> expected = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (committed.get(transaction.getId())) {
+                assertSameTransaction(transaction, journal.find(transaction.getId()));
+                expected.add(transaction.getId());
+            } else {
+                assertNull(journal.find(transaction.getId()));
+            }
+        }
+        assertEquals(expected, relayAll().stream().map(Transaction::getId).toList());
+    }
+
+    private TransactionJournal open() throws IOException {
+        // Forcing every commit would only slow the tests down, the page cache survives closing the journal
+        return new TransactionJournal(new JournalRepositoryProperties(directory, DataSize.ofMegabytes(1),
+                FsyncPolicy.NEVER, Duration.ofMillis(10), 256, Duration.ofHours(1), Duration.ofMinutes(1),
+                Duration.ofMillis(50), 500), new SimpleMeterRegistry());
+    }
+
+    private void write(byte type, Transaction transaction) {
+        Mono.<Transaction>create(sink -> journal.append(type, transaction, sink)).block();
+    }
+
+    /**
+     * Saves and finalizes the given number of transactions, 10,000 of them fill more than one segment.
+     *
+     * @return the finalized transactions in journal order
+     */
+    private List<Transaction> writeMany(int count) {
+        List<Transaction> finalized = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            finalized.add(finalized(pending("merchant-" + i % 10), CREATED_AT.plusMillis(i)));
+        }
+        Flux.fromIterable(finalized)
+                .concatMap(transaction -> Mono.<Transaction>create(sink -> journal.append(TransactionJournal.SAVE,
+                        Transaction.reconstruct(transaction.getId(), transaction.getCard(), transaction.getMoney(),
+                                transaction.getMerchantId(), TransactionStatus.PENDING, null,
+                                transaction.getCreatedAt(), transaction.getCreatedAt()), sink))
+                        .then(Mono.<Transaction>create(sink -> journal.append(TransactionJournal.UPDATE, transaction, sink))))
+                .blockLast();
+        return finalized;
+    }
+
+    private List<Transaction> relayAll() throws IOException {
+        List<Transaction> relayed = new ArrayList<>();
+        TransactionJournal.RelayBatch batch;
+        do {
+            batch = journal.readUnrelayed(500);
+            relayed.addAll(batch.writes());
+            journal.relayed(batch);
+        } while (batch.writes().size() == 500);
+        return relayed;
+    }
+
+    private static Transaction pending(String merchantId) {
+        return Transaction.reconstruct(UUID.randomUUID(), StoredCardInfo.ofLastFour("4242", YearMonth.of(2028, 7)),
+                Money.parse("10.50", CurrencyUnit.of("EUR")), merchantId, TransactionStatus.PENDING, null,
+                CREATED_AT, CREATED_AT);
+    }
+
+    private static Transaction finalized(Transaction pending, Instant updatedAt) {
+        return Transaction.reconstruct(pending.getId(), pending.getCard(), pending.getMoney(), pending.getMerchantId(),
+                TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, pending.getCreatedAt(), updatedAt);
+    }
+
+    private static void assertSameTransaction(Transaction expected, Transaction actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getMerchantId(), actual.getMerchantId());
+        assertEquals(expected.getMoney(), actual.getMoney());
+        assertEquals(expected.getCard().getLastFour(), actual.getCard().getLastFour());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getAcquirerType(), actual.getAcquirerType());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+}
@@ -2,9 +2,14 @@ package com.example.psp.service;
 
 import com.example.psp.domain.enums.AcquirerType;
 import com.example.psp.domain.valueobjects.CardDetails;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.exception.AcquirerUnavailableException;
 import com.example.psp.service.acquirer.impl.AcquirerRouterImpl;
 import com.example.psp.service.acquirer.ports.Acquirer;
 import com.example.psp.service.acquirer.ports.AcquirerRouter;
+import com.example.psp.service.acquirer.routing.RoutingRule;
+import com.example.psp.service.acquirer.routing.RoutingTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,16 +19,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("AcquirerRouter Tests")
 class AcquirerRouterTest {
 
+    private static final RoutingTable ROUTING_TABLE = RoutingTable.compile(List.of(
+            new RoutingRule(100, 400000, 439999, null, null, null, null, AcquirerType.ACQUIRER_A),
+            new RoutingRule(100, 440000, 499999, null, null, null, null, AcquirerType.ACQUIRER_B),
+            new RoutingRule(10, 424200, 424299, null, null, null, null, AcquirerType.ACQUIRER_B),
+            new RoutingRule(50, 400000, 499999, "EUR", new BigDecimal("1000.00"), null, null, AcquirerType.ACQUIRER_B),
+            new RoutingRule(100, 0, 999999, null, null, null, "MERCHANT_B", AcquirerType.ACQUIRER_B)
+    ), AcquirerType.ACQUIRER_A);
+
     @Mock
     private Acquirer acquirerA;
 
@@ -40,17 +55,20 @@ class AcquirerRouterTest {
 
         when(acquirerA.getType()).thenReturn(AcquirerType.ACQUIRER_A);
         when(acquirerB.getType()).thenReturn(AcquirerType.ACQUIRER_B);
+        // Mocks return false for the default isAvailable(), so both acquirers are made available explicitly
+        lenient().when(acquirerA.isAvailable()).thenReturn(true);
+        lenient().when(acquirerB.isAvailable()).thenReturn(true);
 
-        router = new AcquirerRouterImpl(List.of(acquirerA, acquirerB));
+        router = new AcquirerRouterImpl(List.of(acquirerA, acquirerB), () -> ROUTING_TABLE);
 
     }
 
     @Test
-    void getAcquirer_ShouldReturnAcquirerA_WhenBinSumIsEven() {
+    void getAcquirer_ShouldReturnAcquirerA_WhenBinIsInRangeOfAcquirerA() {
 
-        when(cardDetails.getBIN()).thenReturn("222222"); // Sum is 12 (even)
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
 
-        Mono<Acquirer> result = router.getAcquirer(cardDetails);
+        Mono<Acquirer> result = router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A");
 
         StepVerifier.create(result)
                 .expectNext(acquirerA)
@@ -59,11 +77,60 @@ class AcquirerRouterTest {
     }
 
     @Test
-    void getAcquirer_ShouldReturnAcquirerB_WhenBinSumIsOdd() {
+    void getAcquirer_ShouldReturnAcquirerB_WhenBinIsInRangeOfAcquirerB() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(444441);
+
+        Mono<Acquirer> result = router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A");
+
+        StepVerifier.create(result)
+                .expectNext(acquirerB)
+                .verifyComplete();
+
+    }
+
+    @Test
+    void getAcquirer_ShouldPreferHigherPriorityRule_WhenRangesOverlap() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(424242);
+
+        StepVerifier.create(router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A"))
+                .expectNext(acquirerB)
+                .verifyComplete();
+
+        when(cardDetails.getBinPrefix()).thenReturn(424300);
+
+        StepVerifier.create(router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A"))
+                .expectNext(acquirerA)
+                .verifyComplete();
+
+    }
+
+    @Test
+    void getAcquirer_ShouldApplyCurrencyAndAmountBand() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
 
-        when(cardDetails.getBIN()).thenReturn("222223"); // Sum is 13 (odd)
+        StepVerifier.create(router.getAcquirer(cardDetails, money("1000.00", "EUR"), "MERCHANT_A"))
+                .expectNext(acquirerB)
+                .verifyComplete();
 
-        Mono<Acquirer> result = router.getAcquirer(cardDetails);
+        StepVerifier.create(router.getAcquirer(cardDetails, money("999.99", "EUR"), "MERCHANT_A"))
+                .expectNext(acquirerA)
+                .verifyComplete();
+
+        StepVerifier.create(router.getAcquirer(cardDetails, money("1000.00", "USD"), "MERCHANT_A"))
+                .expectNext(acquirerA)
+                .verifyComplete();
+
+    }
+
+    @Test
+    void getAcquirer_ShouldApplyMerchantOverride() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
+
+        Mono<Acquirer> result = router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_B");
 
         StepVerifier.create(result)
                 .expectNext(acquirerB)
@@ -71,11 +138,66 @@ class AcquirerRouterTest {
 
     }
 
+    @Test
+    void getAcquirer_ShouldReturnDefaultAcquirer_WhenNoRuleMatches() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(600000);
+
+        Mono<Acquirer> result = router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A");
+
+        StepVerifier.create(result)
+                .expectNext(acquirerA)
+                .verifyComplete();
+
+    }
+
+    @Test
+    void getAcquirer_ShouldFailOver_WhenRoutedAcquirerIsUnavailable() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
+        when(acquirerA.isAvailable()).thenReturn(false);
+
+        StepVerifier.create(router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A"))
+                .expectNext(acquirerB)
+                .verifyComplete();
+
+    }
+
+    @Test
+    void getAcquirer_ShouldThrowAcquirerUnavailableException_WhenNoAcquirerIsAvailable() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
+        when(acquirerA.isAvailable()).thenReturn(false);
+        when(acquirerB.isAvailable()).thenReturn(false);
+
+        StepVerifier.create(router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A"))
+                .expectError(AcquirerUnavailableException.class)
+                .verify();
+
+    }
+
+    @Test
+    void getFailoverAcquirer_ShouldSkipFailedAcquirer() {
+
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
+
+        StepVerifier.create(router.getFailoverAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A", AcquirerType.ACQUIRER_A))
+                .expectNext(acquirerB)
+                .verifyComplete();
+
+        when(acquirerB.isAvailable()).thenReturn(false);
+
+        StepVerifier.create(router.getFailoverAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A", AcquirerType.ACQUIRER_A))
+                .verifyComplete();
+
+    }
+
     @Test
     void getAcquirer_ShouldThrowNullPointerException_WhenCardDetailsIsNull() {
 
         // synchronous check because the exception is thrown before returning Mono in generated by Lombok code
-        NullPointerException ex = assertThrows(NullPointerException.class, () -> router.getAcquirer(null));
+        NullPointerException ex = assertThrows(NullPointerException.class,
+                () -> router.getAcquirer(null, money("10.00", "USD"), "MERCHANT_A"));
         assertEquals("cardDetails is marked non-null but is null", ex.getMessage());
 
     }
@@ -83,12 +205,12 @@ class AcquirerRouterTest {
     @Test
     void getAcquirer_ShouldThrowIllegalStateException_WhenNoAcquirerFound() {
 
-        when(cardDetails.getBIN()).thenReturn("222222"); // Sum is 12 (even)
+        when(cardDetails.getBinPrefix()).thenReturn(411111);
 
         // Simulate no acquirers in the router
-        router = new AcquirerRouterImpl(List.of());
+        router = new AcquirerRouterImpl(List.of(), () -> ROUTING_TABLE);
 
-        Mono<Acquirer> result = router.getAcquirer(cardDetails);
+        Mono<Acquirer> result = router.getAcquirer(cardDetails, money("10.00", "USD"), "MERCHANT_A");
 
         StepVerifier.create(result)
                 .expectErrorMatches(throwable ->
@@ -98,4 +220,8 @@ class AcquirerRouterTest {
                 .verify();
 
     }
+
+    private static Money money(String amount, String currency) {
+        return Money.parse(amount, CurrencyUnit.of(currency));
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.psp.service.acquirer.resilience;
+
+import com.example.psp.config.properties.AcquirerResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        var settings = new AcquirerResilienceProperties.Settings(
+                10, Duration.ofSeconds(2), 10, 4, 50, Duration.ofSeconds(1), 80, Duration.ofSeconds(30), 2);
+        breaker = new CircuitBreaker(settings, now::get);
+    }
+
+    @Test
+    void shouldStayClosed_BelowMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onError(FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldOpen_WhenFailureRateReachesThreshold() {
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+        breaker.onError(FAST);
+        breaker.onError(FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertFalse(breaker.isCallPermitted());
+    }
+
+    @Test
+    void shouldOpen_WhenSlowCallRateReachesThreshold() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldForgetOutcomes_ThatLeftTheWindow() {
+        for (int i = 0; i < 7; i++) {
+            breaker.onSuccess(FAST);
+        }
+        for (int i = 0; i < 3; i++) {
+            breaker.onError(FAST);
+        }
+        for (int i = 0; i < 10; i++) {
+            breaker.onSuccess(FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0f, breaker.snapshot().failureRate());
+    }
+
+    @Test
+    void shouldClose_WhenTrialCallsSucceedAfterOpenDuration() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldReopen_WhenTrialCallsFail() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess(FAST);
+        breaker.onError(FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onError(FAST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.psp.service.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+    private static final long START = 123_456_789L;
+
+    @Test
+    void shouldAdmitBurst_ThenRejectWithTimeToNextPermit() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(START));
+        }
+
+        assertEquals(SECOND / 10, bucket.tryAcquire(START));
+    }
+
+    @Test
+    void shouldRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+        assertEquals(0, bucket.tryAcquire(START));
+
+        assertEquals(SECOND / 20, bucket.tryAcquire(START + SECOND / 20));
+        assertEquals(0, bucket.tryAcquire(START + SECOND / 10));
+    }
+
+    @Test
+    void shouldNotAccumulateMoreThanBurst_WhenIdle() {
+        TokenBucket bucket = new TokenBucket(10, 2, START);
+        long later = START + 60 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(SECOND / 10, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void shouldCompareTimesAcrossNanoTimeOverflow() {
+        long nearOverflow = Long.MAX_VALUE - SECOND / 20;
+        TokenBucket bucket = new TokenBucket(10, 1, nearOverflow);
+        assertEquals(0, bucket.tryAcquire(nearOverflow));
+
+        assertEquals(0, bucket.tryAcquire(nearOverflow + SECOND / 10));
+    }
+}
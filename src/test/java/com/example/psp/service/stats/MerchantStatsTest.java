@@ -0,0 +1,278 @@
+package com.example.psp.service.stats;
+
+import com.example.psp.config.properties.MerchantStatsProperties;
+import com.example.psp.domain.entities.Transaction;
+import com.example.psp.domain.enums.AcquirerType;
+import com.example.psp.domain.enums.TransactionStatus;
+import com.example.psp.domain.valueobjects.CurrencyUnit;
+import com.example.psp.domain.valueobjects.Money;
+import com.example.psp.domain.valueobjects.StoredCardInfo;
+import com.example.psp.repository.stats.MerchantRollup;
+import com.example.psp.repository.stats.MerchantStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("MerchantStats Tests")
+class MerchantStatsTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:30:00Z");
+    private static final Instant BUCKET = Instant.parse("2026-03-01T12:00:00Z");
+    private static final CurrencyUnit USD = CurrencyUnit.of("USD");
+    private static final CurrencyUnit EUR = CurrencyUnit.of("EUR");
+    private static final MerchantStatsProperties PROPERTIES = new MerchantStatsProperties(true, Duration.ofHours(1),
+            Duration.ofSeconds(10), Duration.ofHours(1), Duration.ofHours(24), Duration.ofDays(90), Duration.ofHours(1));
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void shouldCountCompletedPayments_ByBucketCurrencyAndAcquirer() {
+        MerchantStats stats = new MerchantStats(Optional.empty(), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        stats.record(payment("m-1", "5.50", USD, TransactionStatus.DENIED, AcquirerType.ACQUIRER_A, NOW));
+        stats.record(payment("m-1", "7.00", EUR, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_B, NOW));
+        stats.record(payment("m-1", "1.00", USD, TransactionStatus.PENDING, AcquirerType.ACQUIRER_A, NOW));
+        stats.record(payment("m-2", "1.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+
+        List<MerchantRollup> rollups = find(stats, "m-1");
+
+        assertEquals(List.of(
+                new MerchantRollup("m-1", BUCKET, EUR, AcquirerType.ACQUIRER_B, 1, 1, 700, 700),
+                new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 2, 1, 1550, 1000)), rollups);
+    }
+
+    @Test
+    void shouldCheckpointTotals_OnlyWhenCountsChanged() {
+        FakeRepository repository = new FakeRepository();
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        stats.checkpoint();
+        stats.record(payment("m-1", "2.00", USD, TransactionStatus.DENIED, AcquirerType.ACQUIRER_A, NOW));
+        stats.checkpoint();
+        stats.checkpoint();
+
+        assertEquals(List.of(
+                new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 1, 1, 1000, 1000),
+                new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 2, 1, 1200, 1000)), repository.saved);
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 2, 1, 1200, 1000)),
+                find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldMergeStoredRollups_WithCountsNotCheckpointedYet() {
+        FakeRepository repository = new FakeRepository();
+        repository.save("other-instance",
+                List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 3, 3, 3000, 3000))).block();
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.DENIED, AcquirerType.ACQUIRER_A, NOW));
+        stats.checkpoint();
+        stats.record(payment("m-1", "5.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 5, 4, 4500, 3500)),
+                find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldCheckpointInBatches() {
+        FakeRepository repository = new FakeRepository();
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+        int merchants = MerchantStats.CHECKPOINT_BATCH_SIZE + 1;
+
+        IntStream.range(0, merchants).forEach(i -> stats.record(
+                payment("m-" + i, "1.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW)));
+        stats.checkpoint();
+
+        assertEquals(2, repository.calls);
+        assertEquals(merchants, repository.saved.size());
+    }
+
+    @Test
+    void shouldKeepCounts_WhenCheckpointFails() {
+        FakeRepository repository = new FakeRepository(Failure.BEFORE_COMMIT);
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        assertThrows(IllegalStateException.class, stats::checkpoint);
+        stats.record(payment("m-1", "2.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        stats.checkpoint();
+
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 2, 2, 1200, 1200)),
+                repository.saved);
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 2, 2, 1200, 1200)),
+                find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldNotCountTwice_WhenCommittedCheckpointIsReportedFailed() {
+        FakeRepository repository = new FakeRepository(Failure.AFTER_COMMIT);
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        assertThrows(IllegalStateException.class, stats::checkpoint);
+        stats.record(payment("m-1", "2.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        stats.checkpoint();
+
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 2, 2, 1200, 1200)),
+                find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldEvictRollupsPastRetention_WithoutRepository() {
+        MerchantStats stats = new MerchantStats(Optional.empty(), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A,
+                NOW.minus(Duration.ofHours(3))));
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A, NOW));
+        stats.checkpoint();
+
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 1, 1, 1000, 1000)),
+                find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldCountAgain_WhenMerchantRollupsWereEvicted() {
+        MerchantStats stats = new MerchantStats(Optional.empty(), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A,
+                NOW.minus(Duration.ofHours(3))));
+        stats.checkpoint();
+        stats.record(payment("m-1", "2.00", USD, TransactionStatus.DENIED, AcquirerType.ACQUIRER_A, NOW));
+
+        assertEquals(List.of(new MerchantRollup("m-1", BUCKET, USD, AcquirerType.ACQUIRER_A, 1, 0, 200, 0)),
+                find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldNotCheckpointCompactedBuckets_AndDropThemPastRetention() {
+        FakeRepository repository = new FakeRepository();
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+
+        stats.record(payment("m-1", "10.00", USD, TransactionStatus.APPROVED, AcquirerType.ACQUIRER_A,
+                NOW.minus(Duration.ofHours(30))));
+        stats.checkpoint();
+
+        assertEquals(List.of(), repository.saved);
+        assertEquals(List.of(), find(stats, "m-1"));
+    }
+
+    @Test
+    void shouldCompactBuckets_AndDeleteRollupsPastSummaryRetention() {
+        FakeRepository repository = new FakeRepository();
+        MerchantStats stats = new MerchantStats(Optional.of(repository), clock, PROPERTIES);
+
+        stats.compact();
+
+        assertEquals(Instant.parse("2026-02-28T12:00:00Z"), repository.compactedBefore);
+        assertEquals(NOW.minus(Duration.ofDays(90)), repository.deletedBefore);
+    }
+
+    @Test
+    void shouldReject_WhenCompactionAgeIsNotPastRetentionAndTwoBuckets() {
+        MerchantStatsProperties properties = new MerchantStatsProperties(true, Duration.ofHours(1),
+                Duration.ofSeconds(10), Duration.ofHours(1), Duration.ofHours(3), Duration.ofDays(90),
+                Duration.ofHours(1));
+
+        assertThrows(IllegalStateException.class,
+                () -> new MerchantStats(Optional.of(new FakeRepository()), clock, properties));
+    }
+
+    private static List<MerchantRollup> find(MerchantStats stats, String merchantId) {
+        return stats.find(merchantId, Instant.EPOCH, NOW).block();
+    }
+
+    private static Transaction payment(String merchantId, String amount, CurrencyUnit currency,
+                                       TransactionStatus status, AcquirerType acquirerType, Instant updatedAt) {
+        return Transaction.reconstruct(UUID.randomUUID(), StoredCardInfo.ofLastFour("4242", YearMonth.of(2028, 7)),
+                Money.parse(amount, currency), merchantId, status, acquirerType, updatedAt, updatedAt);
+    }
+
+    private enum Failure {
+        NONE, BEFORE_COMMIT, AFTER_COMMIT
+    }
+
+    /**
+     * Keeps the totals of every instance like the summary table, never lowering them, and sums them on reads.
+     * Optionally fails the first save, before or after storing its totals. Compactions and deletions only record
+     * their threshold.
+     */
+    private static class FakeRepository implements MerchantStatsRepository {
+
+        final List<MerchantRollup> saved = new ArrayList<>();
+        final Map<List<Object>, MerchantRollup> rows = new LinkedHashMap<>();
+        int calls;
+        Instant compactedBefore;
+        Instant deletedBefore;
+        private Failure failure;
+
+        FakeRepository() {
+            this(Failure.NONE);
+        }
+
+        FakeRepository(Failure failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public Mono<Void> save(String instanceId, Collection<MerchantRollup> totals) {
+            return Mono.fromRunnable(() -> {
+                Failure current = failure;
+                failure = Failure.NONE;
+                if (current == Failure.BEFORE_COMMIT) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                calls++;
+                saved.addAll(totals);
+                totals.forEach(total -> rows.merge(List.of(instanceId, total.merchantId(), total.bucketStart(),
+                                total.currency(), total.acquirerType()), total,
+                        (stored, written) -> written.count() >= stored.count() ? written : stored));
+                if (current == Failure.AFTER_COMMIT) {
+                    throw new IllegalStateException("connection lost before the commit was acknowledged");
+                }
+            });
+        }
+
+        @Override
+        public Flux<MerchantRollup> findByMerchant(String merchantId, Instant from, Instant to) {
+            Map<List<Object>, MerchantRollup> summed = new LinkedHashMap<>();
+            rows.values().stream()
+                    .filter(row -> row.merchantId().equals(merchantId) && !row.bucketStart().isBefore(from)
+                            && row.bucketStart().isBefore(to))
+                    .forEach(row -> summed.merge(List.of(row.bucketStart(), row.currency(), row.acquirerType()), row,
+                            MerchantRollup::plus));
+            return Flux.fromIterable(summed.values());
+        }
+
+        @Override
+        public Mono<Long> compactBefore(Instant threshold) {
+            compactedBefore = threshold;
+            return Mono.just(0L);
+        }
+
+        @Override
+        public Mono<Long> deleteBefore(Instant threshold) {
+            deletedBefore = threshold;
+            return Mono.just(0L);
+        }
+    }
+}
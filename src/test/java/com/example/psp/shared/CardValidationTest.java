@@ -0,0 +1,50 @@
+package com.example.psp.shared;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CardValidation Tests")
+class CardValidationTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "4242424242424242, VALID",
+            "4532015112830366, VALID",
+            "4242424242424241, LUHN",
+            "424242424242424, LENGTH",
+            "42424242424242420, LENGTH",
+            "4242-42424242424, DIGITS",
+            "'', MISSING"
+    })
+    void validate_ShouldReportFirstFailedRule(String pan, CardValidation.Rule expected) {
+        assertEquals(expected, CardValidation.validate(pan));
+    }
+
+    @Test
+    void validate_ShouldReportMissing_WhenPanIsNull() {
+        assertEquals(CardValidation.Rule.MISSING, CardValidation.validate(null));
+    }
+
+    @Test
+    void scan_ShouldExtractBinAndLastDigit() {
+        long scan = CardValidation.scan("4444414444444458");
+
+        assertEquals(CardValidation.Rule.VALID, CardValidation.rule(scan));
+        assertEquals(444441, CardValidation.bin(scan));
+        assertEquals(8, CardValidation.lastDigit(scan));
+    }
+
+    @Test
+    void isValidLuhn_ShouldMatchValidate() {
+        assertTrue(CardValidation.isValidLuhn("4242424242424259"));
+        assertFalse(CardValidation.isValidLuhn("4242424242424258"));
+        assertTrue(CardValidation.isValidPan("4242424242424258"));
+        assertFalse(CardValidation.isValidPan("4242 4242 4242 4242"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.psp.shared.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("PaymentLogContext Tests")
+class PaymentLogContextTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "req-42", "3f2a9c1e.b7_X-Z", "0123456789012345678901234567890123456789012345678901234567890123"})
+    void start_ShouldKeepCorrelationId_WhenValid(String correlationId) {
+        assertEquals(correlationId, PaymentLogContext.start(correlationId, 1.0).correlationId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "01234567890123456789012345678901234567890123456789012345678901234",
+            "id with spaces",
+            "id\r\nforged=1",
+            "id\u0000",
+            "id;x",
+            "id/1",
+            "idé",
+            "{\"json\":1}"
+    })
+    void start_ShouldGenerateCorrelationId_WhenInvalid(String correlationId) {
+        String generated = PaymentLogContext.start(correlationId, 1.0).correlationId();
+
+        assertNotEquals(correlationId, generated);
+        assertTrue(PaymentLogContext.isValidCorrelationId(generated));
+    }
+
+    @Test
+    void start_ShouldGenerateCorrelationId_WhenMissing() {
+        assertTrue(PaymentLogContext.isValidCorrelationId(PaymentLogContext.start(null, 1.0).correlationId()));
+    }
+}